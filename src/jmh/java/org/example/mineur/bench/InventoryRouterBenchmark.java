@@ -0,0 +1,110 @@
+package org.example.mineur.bench;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.example.mineur.InventoryRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des décisions de stockage du mineur selon le remplissage des coffres.
+ *
+ * <p>Le cas critique est l'attente de stockage : seize doubles coffres presque
+ * pleins, interrogés à chaque bloc. Les variantes « froides » oublient le
+ * modèle de capacité avant l'appel et mesurent donc la relecture complète des
+ * coffres, comme après une modification signalée par un événement.</p>
+ *
+ * <p>{@link #deposit(RestoredStorage)} restaure les coffres avant chaque
+ * appel ({@code Level.Invocation}) ; sa mesure inclut donc un léger bruit de
+ * synchronisation, acceptable pour une opération de cet ordre.</p>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryRouterBenchmark {
+
+    @Param({"EMPTY", "FRAGMENTED", "NEARLY_FULL", "FULL"})
+    public SimulatedStorage.Fill fill;
+
+    /**
+     * Seize doubles coffres correspondent à la limite par défaut
+     * {@code mineur.storage.max-containers: 32}.
+     */
+    @Param({"true", "false"})
+    public boolean doubleChests;
+
+    private SimulatedStorage storage;
+    private InventoryRouter router;
+    private List<ItemStack> singleDrop;
+    private List<ItemStack> flushBatch;
+
+    @Setup(Level.Trial)
+    public void createStorage() {
+        storage = new SimulatedStorage(doubleChests ? 16 : 32, doubleChests, fill, 0x436F6666L);
+        router = new InventoryRouter(storage.targets());
+        singleDrop = List.of(SimulatedStorage.stack(Material.COBBLESTONE, 1));
+        flushBatch = SimulatedStorage.mixedBatch(9, 0x4472L);
+    }
+
+    /**
+     * Coffres remis à leur état de départ, avec un modèle de capacité chaud,
+     * avant chaque dépôt. Séparé pour ne pas pénaliser les autres mesures.
+     */
+    @State(Scope.Thread)
+    public static class RestoredStorage {
+
+        @Setup(Level.Invocation)
+        public void restore(InventoryRouterBenchmark benchmark) {
+            benchmark.storage.reset();
+            benchmark.router.invalidate();
+            benchmark.router.hasTargets();
+        }
+    }
+
+    @Benchmark
+    public boolean hasTargets() {
+        return router.hasTargets();
+    }
+
+    @Benchmark
+    public boolean hasFreeSpace() {
+        return router.hasFreeSpace();
+    }
+
+    @Benchmark
+    public boolean canFitSingleDrop() {
+        return router.canFitAll(singleDrop);
+    }
+
+    @Benchmark
+    public boolean canFitFlushBatch() {
+        return router.canFitAll(flushBatch);
+    }
+
+    @Benchmark
+    public boolean canFitFlushBatchCold() {
+        router.invalidate();
+        return router.canFitAll(flushBatch);
+    }
+
+    @Benchmark
+    public List<ItemStack> deposit(RestoredStorage restored) {
+        return router.deposit(flushBatch);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.mineur.bench;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.example.mineur.BranchIterator;
+import org.example.mineur.MiningCursor;
+import org.example.mineur.MiningIterator;
+import org.example.mineur.QuarryIterator;
+import org.example.mineur.TunnelIterator;
+import org.example.mineur.VeinFirstIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'un appel à {@link MiningIterator#next()} pour chaque parcours.
+ *
+ * <p>Une opération correspond à un appel à {@code next()}, comme une étape
+ * IDLE de la boucle de minage. {@link #throughput()} donne donc des
+ * candidats par seconde et {@link #latency()} les percentiles de latence.
+ * Les allocations par opération s'obtiennent avec {@code -prof gc}
+ * (ligne {@code gc.alloc.rate.norm}).</p>
+ *
+ * <p>Le monde n'est jamais modifié : un parcours épuisé repart simplement de
+ * son curseur initial. C'est rare pour une boîte de 64×64×128, mais fréquent
+ * pour un tronçon de tunnel de 3×64×3, comme en jeu.</p>
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MiningIteratorBenchmark {
+
+    private static final int SIZE = 64;
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 64;
+
+    @Param({"QUARRY", "BRANCH", "TUNNEL", "VEIN_FIRST"})
+    public String pattern;
+
+    @Param({"SOLID_STONE", "HALF_AIR", "ORE_CAVES"})
+    public SyntheticWorld.Density density;
+
+    private World world;
+    private MiningIterator iterator;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = new SyntheticWorld(SIZE, SIZE, MIN_Y, MAX_Y, density, 0x4D696E65L).world();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetIterator() {
+        iterator = createIterator();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Block throughput() {
+        return step();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Block latency() {
+        return step();
+    }
+
+    private Block step() {
+        if (!iterator.hasNext()) {
+            iterator = createIterator();
+        }
+        return iterator.next();
+    }
+
+    /**
+     * Mêmes paramètres que les valeurs par défaut de {@code config.yml}.
+     */
+    private MiningIterator createIterator() {
+        int stopY = MIN_Y + 1;
+        return switch (pattern) {
+            case "QUARRY" -> new QuarryIterator(world, cursor(SIZE, SIZE, MAX_Y - 1), stopY);
+            case "BRANCH" -> new BranchIterator(world, cursor(SIZE, SIZE, MAX_Y - 1), stopY, 6, 3);
+            case "TUNNEL" -> new TunnelIterator(world, cursor(3, SIZE, 0), 3);
+            case "VEIN_FIRST" -> new VeinFirstIterator(
+                    world,
+                    new QuarryIterator(world, cursor(SIZE, SIZE, MAX_Y - 1), stopY),
+                    5,
+                    96,
+                    8,
+                    stopY,
+                    MAX_Y - 1,
+                    true
+            );
+            default -> throw new IllegalArgumentException("Parcours inconnu : " + pattern);
+        };
+    }
+
+    private MiningCursor cursor(int width, int length, int y) {
+        return new MiningCursor(new Location(world, 0, y, 0), width, length);
+    }
+}
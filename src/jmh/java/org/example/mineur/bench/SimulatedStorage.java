@@ -0,0 +1,396 @@
+package org.example.mineur.bench;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.Chest;
+import org.bukkit.block.DoubleChest;
+import org.bukkit.inventory.DoubleChestInventory;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Coffres en mémoire pour les benchmarks d'{@code InventoryRouter}.
+ *
+ * <p>Les inventaires reproduisent le contrat de CraftInventory utilisé par le
+ * routeur : {@code addItem} complète d'abord les piles similaires puis les
+ * cases vides, et {@code getStorageContents} renvoie une copie du tableau. Les
+ * deux moitiés d'un double coffre sont déclarées comme cibles, avec des
+ * wrappers distincts, afin de mesurer aussi la déduplication.</p>
+ */
+public final class SimulatedStorage {
+
+    /**
+     * Remplissage de départ de chaque coffre.
+     */
+    public enum Fill {
+        EMPTY,
+        /** Moitié des cases vides, le reste en piles partielles de matériaux variés. */
+        FRAGMENTED,
+        /** Toutes les cases occupées, quelques piles partielles en fin de stockage. */
+        NEARLY_FULL,
+        FULL
+    }
+
+    /**
+     * Drops typiques d'une carrière, avec des tailles de pile différentes.
+     */
+    static final Material[] DROP_TYPES = {
+            Material.COBBLESTONE,
+            Material.COBBLED_DEEPSLATE,
+            Material.RAW_IRON,
+            Material.COAL,
+            Material.REDSTONE,
+            Material.DIAMOND,
+            Material.FLINT,
+            Material.GRAVEL,
+            Material.SNOWBALL
+    };
+
+    private static final int CHEST_SIZE = 27;
+    private static final UUID WORLD_ID = UUID.randomUUID();
+
+    private final List<Block> targets = new ArrayList<>();
+    private final List<ItemStack[]> slots = new ArrayList<>();
+    private final List<ItemStack[]> initial = new ArrayList<>();
+    private final World world;
+
+    /**
+     * @param chests       nombre de coffres simples, ou de doubles coffres
+     * @param doubleChests {@code true} pour des doubles coffres de 54 cases
+     */
+    public SimulatedStorage(int chests, boolean doubleChests, Fill fill, long seed) {
+        this.world = (World) Proxy.newProxyInstance(
+                World.class.getClassLoader(),
+                new Class<?>[]{World.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUID" -> WORLD_ID;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> neutral(method);
+                }
+        );
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int chest = 0; chest < chests; chest++) {
+            int x = chest * 3;
+            if (doubleChests) {
+                ItemStack[] contents = filled(CHEST_SIZE * 2, fill, random);
+                registerDoubleChest(x, contents);
+            } else {
+                ItemStack[] contents = filled(CHEST_SIZE, fill, random);
+                registerSingleChest(x, contents);
+            }
+        }
+    }
+
+    public List<Block> targets() {
+        return targets;
+    }
+
+    /**
+     * Remet chaque coffre dans son état de départ.
+     */
+    public void reset() {
+        for (int index = 0; index < slots.size(); index++) {
+            ItemStack[] source = initial.get(index);
+            ItemStack[] target = slots.get(index);
+            for (int slot = 0; slot < source.length; slot++) {
+                target[slot] = source[slot] != null ? source[slot].clone() : null;
+            }
+        }
+    }
+
+    public static ItemStack stack(Material type, int amount) {
+        return new SimpleStack(type, amount);
+    }
+
+    /**
+     * Lot représentatif d'un vidage du tampon de drops.
+     */
+    public static List<ItemStack> mixedBatch(int stacks, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<ItemStack> batch = new ArrayList<>(stacks);
+        for (int index = 0; index < stacks; index++) {
+            Material type = DROP_TYPES[random.nextInt(DROP_TYPES.length)];
+            batch.add(stack(type, 1 + random.nextInt(maxStack(type))));
+        }
+        return batch;
+    }
+
+    private ItemStack[] filled(int size, Fill fill, SplittableRandom random) {
+        ItemStack[] contents = new ItemStack[size];
+        for (int slot = 0; slot < size; slot++) {
+            Material type = DROP_TYPES[random.nextInt(DROP_TYPES.length)];
+            int max = maxStack(type);
+            contents[slot] = switch (fill) {
+                case EMPTY -> null;
+                case FRAGMENTED -> random.nextBoolean() ? null : stack(type, 1 + random.nextInt(Math.max(1, max - 1)));
+                case NEARLY_FULL -> slot >= size - 2 ? stack(type, max / 2) : stack(type, max);
+                case FULL -> stack(type, max);
+            };
+        }
+        ItemStack[] copy = new ItemStack[size];
+        for (int slot = 0; slot < size; slot++) {
+            copy[slot] = contents[slot] != null ? contents[slot].clone() : null;
+        }
+        slots.add(contents);
+        initial.add(copy);
+        return contents;
+    }
+
+    private void registerSingleChest(int x, ItemStack[] contents) {
+        Chest[] holder = new Chest[1];
+        Inventory inventory = inventory(contents, () -> holder[0], null, null);
+        Block block = block(x, () -> holder[0]);
+        holder[0] = chest(block, () -> inventory);
+        targets.add(block);
+    }
+
+    private void registerDoubleChest(int x, ItemStack[] contents) {
+        Chest[] halves = new Chest[2];
+        Inventory leftPart = inventory(Arrays.copyOfRange(contents, 0, CHEST_SIZE), () -> halves[0], null, null);
+        Inventory rightPart = inventory(Arrays.copyOfRange(contents, CHEST_SIZE, contents.length), () -> halves[1], null, null);
+        Block left = block(x, () -> halves[0]);
+        Block right = block(x + 1, () -> halves[1]);
+
+        /*
+         * Comme Paper, chaque moitié expose son propre wrapper du même
+         * inventaire combiné : seules les coordonnées permettent de les
+         * reconnaître comme un seul stockage.
+         */
+        halves[0] = chest(left, () -> doubleInventory(contents, leftPart, rightPart));
+        halves[1] = chest(right, () -> doubleInventory(contents, leftPart, rightPart));
+        targets.add(left);
+        targets.add(right);
+    }
+
+    private Inventory doubleInventory(ItemStack[] contents, Inventory left, Inventory right) {
+        DoubleChestInventory[] self = new DoubleChestInventory[1];
+        DoubleChest holder = new DoubleChest(null) {
+            @Override
+            public InventoryHolder getLeftSide() {
+                return left.getHolder();
+            }
+
+            @Override
+            public InventoryHolder getRightSide() {
+                return right.getHolder();
+            }
+
+            @Override
+            public Inventory getInventory() {
+                return self[0];
+            }
+        };
+        self[0] = (DoubleChestInventory) inventory(contents, () -> holder, left, right);
+        return self[0];
+    }
+
+    private Inventory inventory(ItemStack[] contents,
+                                java.util.function.Supplier<InventoryHolder> holder,
+                                Inventory left,
+                                Inventory right) {
+        Class<?> type = left != null ? DoubleChestInventory.class : Inventory.class;
+        return (Inventory) Proxy.newProxyInstance(
+                Inventory.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getSize" -> contents.length;
+                    case "getMaxStackSize" -> 64;
+                    case "getStorageContents", "getContents" -> copyOf(contents);
+                    case "firstEmpty" -> firstEmpty(contents);
+                    case "addItem" -> addItem(contents, (ItemStack[]) args[0]);
+                    case "getHolder" -> holder.get();
+                    case "getLeftSide" -> left;
+                    case "getRightSide" -> right;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> neutral(method);
+                }
+        );
+    }
+
+    private Block block(int x, java.util.function.Supplier<Chest> state) {
+        return (Block) Proxy.newProxyInstance(
+                Block.class.getClassLoader(),
+                new Class<?>[]{Block.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getState" -> state.get();
+                    case "getType" -> Material.CHEST;
+                    case "getWorld" -> world;
+                    case "getX" -> x;
+                    case "getY" -> 64;
+                    case "getZ" -> 0;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> neutral(method);
+                }
+        );
+    }
+
+    private Chest chest(Block block, java.util.function.Supplier<Inventory> inventory) {
+        return (Chest) Proxy.newProxyInstance(
+                Chest.class.getClassLoader(),
+                new Class<?>[]{Chest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getInventory", "getBlockInventory", "getSnapshotInventory" -> inventory.get();
+                    case "getBlock" -> block;
+                    case "getType" -> Material.CHEST;
+                    case "getWorld" -> world;
+                    case "isPlaced" -> true;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> neutral(method);
+                }
+        );
+    }
+
+    private static ItemStack[] copyOf(ItemStack[] contents) {
+        ItemStack[] copy = new ItemStack[contents.length];
+        for (int slot = 0; slot < contents.length; slot++) {
+            copy[slot] = contents[slot] != null ? contents[slot].clone() : null;
+        }
+        return copy;
+    }
+
+    private static int firstEmpty(ItemStack[] contents) {
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (contents[slot] == null) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static HashMap<Integer, ItemStack> addItem(ItemStack[] contents, ItemStack[] items) {
+        HashMap<Integer, ItemStack> leftovers = new HashMap<>();
+        for (int index = 0; index < items.length; index++) {
+            ItemStack item = items[index];
+            int remaining = item.getAmount();
+            int max = Math.min(64, item.getMaxStackSize());
+            for (int slot = 0; slot < contents.length && remaining > 0; slot++) {
+                ItemStack existing = contents[slot];
+                if (existing != null && existing.isSimilar(item) && existing.getAmount() < max) {
+                    int accepted = Math.min(remaining, max - existing.getAmount());
+                    existing.setAmount(existing.getAmount() + accepted);
+                    remaining -= accepted;
+                }
+            }
+            for (int slot = 0; slot < contents.length && remaining > 0; slot++) {
+                if (contents[slot] == null) {
+                    int accepted = Math.min(remaining, max);
+                    contents[slot] = stack(item.getType(), accepted);
+                    remaining -= accepted;
+                }
+            }
+            if (remaining > 0) {
+                leftovers.put(index, stack(item.getType(), remaining));
+            }
+        }
+        return leftovers;
+    }
+
+    static int maxStack(Material type) {
+        return type == Material.SNOWBALL ? 16 : 64;
+    }
+
+    private static Object neutral(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == Map.class || type == HashMap.class) {
+            return new HashMap<>();
+        }
+        return null;
+    }
+
+    /**
+     * Pile sans métadonnées. Paper délègue normalement ItemStack à une
+     * implémentation serveur ; cette sous-classe surcharge tout ce que lit le
+     * routeur pour fonctionner sans serveur.
+     */
+    static final class SimpleStack extends ItemStack {
+
+        private final Material type;
+        private int amount;
+
+        SimpleStack(Material type, int amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+
+        @Override
+        public Material getType() {
+            return type;
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public int getMaxStackSize() {
+            return maxStack(type);
+        }
+
+        @Override
+        public boolean hasItemMeta() {
+            return false;
+        }
+
+        @Override
+        public boolean isSimilar(ItemStack stack) {
+            return stack != null && stack.getType() == type;
+        }
+
+        @Override
+        public SimpleStack clone() {
+            return new SimpleStack(type, amount);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SimpleStack stack && stack.type == type && stack.amount == amount;
+        }
+
+        @Override
+        public int hashCode() {
+            return type.hashCode() * 31 + amount;
+        }
+
+        @Override
+        public String toString() {
+            return "SimpleStack[" + type + " x" + amount + "]";
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.mineur.bench;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Monde en mémoire pour les benchmarks des itérateurs de minage.
+ *
+ * <p>Seules les méthodes lues par les itérateurs et par
+ * {@code MiningBlockPolicy} sont servies ; les autres renvoient une valeur
+ * neutre. Comme CraftBukkit, chaque {@code getBlockAt} crée un nouvel objet
+ * bloc : les allocations mesurées restent donc représentatives du serveur.
+ * Hors de la boîte générée, tout est de la pierre.</p>
+ */
+public final class SyntheticWorld {
+
+    /**
+     * Répartition des blocs de la boîte générée.
+     */
+    public enum Density {
+        /** Pierre pleine : chaque position est un candidat. */
+        SOLID_STONE,
+        /** Une position sur deux est de l'air, sans structure. */
+        HALF_AIR,
+        /** Pierre creusée de grottes sphériques et semée de veines de minerai. */
+        ORE_CAVES
+    }
+
+    private static final Material[] ORES = {
+            Material.COAL_ORE,
+            Material.IRON_ORE,
+            Material.COPPER_ORE,
+            Material.GOLD_ORE,
+            Material.REDSTONE_ORE,
+            Material.DIAMOND_ORE
+    };
+
+    private final int sizeX;
+    private final int sizeZ;
+    private final int minY;
+    private final int maxY;
+    private final Material[] blocks;
+    private final UUID uid = UUID.randomUUID();
+    private final BlockState plainState;
+    private final World world;
+    private final Constructor<?> blockConstructor;
+
+    public SyntheticWorld(int sizeX, int sizeZ, int minY, int maxY, Density density, long seed) {
+        if (sizeX <= 0 || sizeZ <= 0 || maxY <= minY) {
+            throw new IllegalArgumentException("Dimensions du monde synthétique invalides.");
+        }
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.blocks = new Material[sizeX * sizeZ * (maxY - minY)];
+        Arrays.fill(blocks, Material.STONE);
+        generate(density, new SplittableRandom(seed));
+
+        this.plainState = (BlockState) Proxy.newProxyInstance(
+                BlockState.class.getClassLoader(),
+                new Class<?>[]{BlockState.class},
+                (proxy, method, args) -> neutral(proxy, method, args)
+        );
+        this.world = (World) Proxy.newProxyInstance(
+                World.class.getClassLoader(),
+                new Class<?>[]{World.class},
+                this::invokeWorld
+        );
+        /*
+         * Proxy.newProxyInstance consulte un cache de classes à chaque appel ;
+         * le constructeur résolu une fois garde ce coût hors des mesures.
+         */
+        try {
+            this.blockConstructor = Proxy.newProxyInstance(
+                    Block.class.getClassLoader(),
+                    new Class<?>[]{Block.class},
+                    new BlockHandler(0, 0, 0)
+            ).getClass().getConstructor(InvocationHandler.class);
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalStateException("Proxy de bloc indisponible.", exception);
+        }
+    }
+
+    public World world() {
+        return world;
+    }
+
+    public int minY() {
+        return minY;
+    }
+
+    public int maxY() {
+        return maxY;
+    }
+
+    public Material typeAt(int x, int y, int z) {
+        int index = indexOf(x, y, z);
+        return index >= 0 ? blocks[index] : Material.STONE;
+    }
+
+    private void generate(Density density, SplittableRandom random) {
+        switch (density) {
+            case SOLID_STONE -> {
+                // Déjà rempli de pierre.
+            }
+            case HALF_AIR -> {
+                for (int index = 0; index < blocks.length; index++) {
+                    if (random.nextBoolean()) {
+                        blocks[index] = Material.AIR;
+                    }
+                }
+            }
+            case ORE_CAVES -> {
+                int volume = blocks.length;
+                for (int cave = 0; cave < volume / 4_000; cave++) {
+                    fillSphere(random.nextInt(sizeX), minY + random.nextInt(maxY - minY),
+                            random.nextInt(sizeZ), 2 + random.nextInt(4), Material.AIR);
+                }
+                for (int vein = 0; vein < volume / 250; vein++) {
+                    Material ore = ORES[random.nextInt(ORES.length)];
+                    int x = random.nextInt(sizeX);
+                    int y = minY + random.nextInt(maxY - minY);
+                    int z = random.nextInt(sizeZ);
+                    for (int step = 0; step < 3 + random.nextInt(6); step++) {
+                        set(x, y, z, ore);
+                        x += random.nextInt(3) - 1;
+                        y += random.nextInt(3) - 1;
+                        z += random.nextInt(3) - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    private void fillSphere(int centerX, int centerY, int centerZ, int radius, Material material) {
+        int squared = radius * radius;
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= squared) {
+                        set(centerX + x, centerY + y, centerZ + z, material);
+                    }
+                }
+            }
+        }
+    }
+
+    private void set(int x, int y, int z, Material material) {
+        int index = indexOf(x, y, z);
+        if (index >= 0) {
+            blocks[index] = material;
+        }
+    }
+
+    private int indexOf(int x, int y, int z) {
+        if (x < 0 || x >= sizeX || z < 0 || z >= sizeZ || y < minY || y >= maxY) {
+            return -1;
+        }
+        return ((y - minY) * sizeZ + z) * sizeX + x;
+    }
+
+    private Object invokeWorld(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "getBlockAt" -> args.length == 3
+                    ? block((Integer) args[0], (Integer) args[1], (Integer) args[2])
+                    : block(((Location) args[0]).getBlockX(),
+                    ((Location) args[0]).getBlockY(),
+                    ((Location) args[0]).getBlockZ());
+            case "getMinHeight" -> minY;
+            case "getMaxHeight" -> maxY;
+            case "isChunkLoaded" -> true;
+            case "getUID" -> uid;
+            case "getName" -> "synthetique";
+            default -> neutral(proxy, method, args);
+        };
+    }
+
+    private Block block(int x, int y, int z) {
+        try {
+            return (Block) blockConstructor.newInstance(new BlockHandler(x, y, z));
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Bloc synthétique impossible à créer.", exception);
+        }
+    }
+
+    private final class BlockHandler implements InvocationHandler {
+
+        private final int x;
+        private final int y;
+        private final int z;
+
+        private BlockHandler(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "getType" -> typeAt(x, y, z);
+                case "getX" -> x;
+                case "getY" -> y;
+                case "getZ" -> z;
+                case "getWorld" -> world;
+                case "getState" -> plainState;
+                case "isLiquid" -> false;
+                case "isEmpty" -> typeAt(x, y, z).isAir();
+                case "getLocation" -> new Location(world, x, y, z);
+                case "equals" -> args[0] instanceof Block other
+                        && other.getX() == x && other.getY() == y && other.getZ() == z;
+                case "hashCode" -> (y * 31 + z) * 31 + x;
+                case "toString" -> "SyntheticBlock[" + x + "," + y + "," + z + "]";
+                default -> neutral(proxy, method, args);
+            };
+        }
+    }
+
+    private static Object neutral(Object proxy, Method method, Object[] args) {
+        if (method.getName().equals("equals")) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        return null;
+    }
+}
@@ -64,6 +64,10 @@ public final class JobManager implements Listener, CommandExecutor {
     private final int firstExtraMinerLevel;
     private final int extraMinerEveryLevels;
     private final int maxMiners;
+    private final int baseWorkers;
+    private final int firstExtraWorkerLevel;
+    private final int extraWorkerEveryLevels;
+    private final int maxWorkers;
     private final boolean bossbarOnGain;
     private final boolean actionbarOnGain;
     private final boolean titleOnLevelup;
@@ -91,6 +95,10 @@ public final class JobManager implements Listener, CommandExecutor {
         this.firstExtraMinerLevel = Math.max(2, getInt(mineurSection, "bonus.mineurs.first-extra-level", 20));
         this.extraMinerEveryLevels = Math.max(1, getInt(mineurSection, "bonus.mineurs.every-levels", 10));
         this.maxMiners = Math.max(this.baseMiners, getInt(mineurSection, "bonus.mineurs.max", 10));
+        this.baseWorkers = Math.max(1, getInt(mineurSection, "bonus.ouvriers.base", 1));
+        this.firstExtraWorkerLevel = Math.max(2, getInt(mineurSection, "bonus.ouvriers.first-extra-level", 30));
+        this.extraWorkerEveryLevels = Math.max(1, getInt(mineurSection, "bonus.ouvriers.every-levels", 20));
+        this.maxWorkers = Math.max(this.baseWorkers, getInt(mineurSection, "bonus.ouvriers.max", 4));
         this.bossbarOnGain = getDisplayBoolean(mineurSection, "bossbar-on-gain", "persistent-bossbar", true);
         this.actionbarOnGain = getBoolean(mineurSection, "display.actionbar-on-gain", true);
         this.titleOnLevelup = getBoolean(mineurSection, "display.title-on-levelup", true);
@@ -352,6 +360,23 @@ public final class JobManager implements Listener, CommandExecutor {
         return Math.min(total, maxMiners);
     }
 
+    public int getWorkersPerMineForPlayer(UUID playerId) {
+        int level = hasMinerJob(playerId) ? getLevelForPlayer(playerId) : 1;
+        return getWorkersPerMineForLevel(level);
+    }
+
+    /**
+     * Nombre de PNJ qui se partagent une même carrière à ce niveau.
+     */
+    public int getWorkersPerMineForLevel(int level) {
+        int safeLevel = Math.max(1, Math.min(level, maxLevel));
+        int total = baseWorkers;
+        if (safeLevel >= firstExtraWorkerLevel) {
+            total += 1 + ((safeLevel - firstExtraWorkerLevel) / extraWorkerEveryLevels);
+        }
+        return Math.min(total, maxWorkers);
+    }
+
     public Integer getNextMineUnlockLevel(int level) {
         if (getMaxMinesForLevel(level) >= maxMiners) {
             return null;
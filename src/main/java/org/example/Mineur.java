@@ -1,5 +1,6 @@
 package org.example;
 
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Chunk;
@@ -28,15 +29,22 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFormEvent;
 import org.bukkit.event.block.BlockPistonExtendEvent;
 import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.EntityEquipment;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
@@ -48,18 +56,33 @@ import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 import org.example.mineur.AutomatedMiningContext;
 import org.example.mineur.BranchIterator;
+import org.example.mineur.ChunkTicketWindow;
+import org.example.mineur.DeferredPhysics;
+import org.example.mineur.DropBuffer;
 import org.example.mineur.InventoryRouter;
 import org.example.mineur.MiningBlockPolicy;
 import org.example.mineur.MiningCursor;
 import org.example.mineur.MiningIterator;
 import org.example.mineur.MiningLoop;
 import org.example.mineur.MiningPattern;
+import org.example.mineur.MiningScheduler;
 import org.example.mineur.MiningSessionState;
 import org.example.mineur.MiningSpeed;
+import org.example.mineur.MiningStripe;
+import org.example.mineur.MiningTelemetry;
+import org.example.mineur.OfflineCatchUp;
+import org.example.mineur.OreIndex;
+import org.example.mineur.ProtectedContainerIndex;
+import org.example.mineur.ProtectionVerdictCache;
 import org.example.mineur.QuarryIterator;
+import org.example.mineur.QuarryPrescan;
+import org.example.mineur.QuarryStripes;
+import org.example.mineur.StorageRouting;
+import org.example.mineur.TelemetryExporter;
 import org.example.mineur.TunnelIterator;
 import org.example.mineur.VeinFirstIterator;
 import org.example.mineur.builders.MineCabinBuilder;
@@ -67,19 +90,28 @@ import org.example.mineur.builders.MineShaftColumnBuilder;
 import org.example.mineur.builders.StairBuilder;
 import org.example.mineur.builders.SupportBuilder;
 import org.example.mineur.builders.TorchPlacer;
+import org.example.mineur.store.EntityChunkIndex;
 import org.example.mineur.store.SessionStore;
 import org.example.mineur.ui.Hologram;
 
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -95,12 +127,40 @@ public class Mineur implements CommandExecutor, Listener {
     private final NamespacedKey selectorKey;
     private final NamespacedKey entitySessionKey;
     private final MineCabinBuilder cabinBuilder;
+    private final MiningScheduler scheduler;
+    private BukkitTask checkpointTask;
+    private BukkitTask telemetryTask;
+    /*
+     * Toutes les exportations passent par le même fichier temporaire : une
+     * écriture lente ne doit pas en voir démarrer une seconde qui déplacerait
+     * son fichier à moitié écrit.
+     */
+    private final AtomicBoolean telemetryWriting = new AtomicBoolean();
+    private BukkitTask hologramTask;
+    private BukkitTask changedBlocksFlush;
+    private final List<Block> changedSinceLastTick = new ArrayList<>();
 
     private final List<MiningSessionState> sessions = new ArrayList<>();
+    private final ProtectedContainerIndex containerIndex = new ProtectedContainerIndex(() -> sessions);
     private final Map<UUID, Selection> selections = new HashMap<>();
     private final Map<UUID, RuntimeSession> runtimes = new HashMap<>();
+    /*
+     * Monde puis chunk vers les runtimes dont la pré-analyse ou l'index de
+     * minerais couvre ce chunk. Reconstruit à la demande après chaque
+     * changement d'emprise ou de runtime ; null tant qu'il est à refaire.
+     */
+    private Map<UUID, Map<Long, List<RuntimeSession>>> blockChangeListeners;
+    private final Map<UUID, PendingCabinBuild> pendingBuilds = new HashMap<>();
     private final Map<UUID, List<UUID>> ownerSessions = new HashMap<>();
     private final Map<UUID, UUID> selectedSessions = new HashMap<>();
+    private final ProtectionVerdictCache protectionVerdicts;
+    private final EntityChunkIndex entityChunks;
+
+    /**
+     * Vrai tant qu'aucun index d'entités exploitable n'a été lu : chaque
+     * chunk est alors inspecté, comme avant l'introduction de l'index.
+     */
+    private boolean entityChunksBootstrap;
 
     public Mineur(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -110,8 +170,20 @@ public class Mineur implements CommandExecutor, Listener {
         this.selectorKey = new NamespacedKey(plugin, "mineur-selector");
         this.entitySessionKey = new NamespacedKey(plugin, "mineur-entity-session");
         this.cabinBuilder = new MineCabinBuilder(plugin);
+        this.entityChunks = new EntityChunkIndex(plugin.getDataFolder(), plugin.getLogger());
 
         plugin.saveDefaultConfig();
+        this.scheduler = new MiningScheduler(plugin, getSchedulerTickBudgetNanos());
+        startCheckpointTask();
+        startTelemetryTask();
+        startHologramTask();
+        this.protectionVerdicts = new ProtectionVerdictCache(
+                Math.max(0L, plugin.getConfig().getLong("mineur.protection.cache.ttl-ticks", 0L)) * 50L
+        );
+        MiningBlockPolicy.clearDropCache();
+        MiningBlockPolicy.setDropCacheEnabled(
+                plugin.getConfig().getBoolean("mineur.drop-cache.enabled", true)
+        );
 
         if (plugin.getCommand("mineur") != null) {
             plugin.getCommand("mineur").setExecutor(this);
@@ -146,12 +218,15 @@ public class Mineur implements CommandExecutor, Listener {
             case "selectionner", "select" -> handleSelect(player, args);
             case "vitesse", "speed" -> handleSpeed(player, args);
             case "pattern", "mode", "patron" -> handlePattern(player, args);
+            case "rangement", "routing" -> handleRouting(player, args);
             case "pause" -> handlePause(player, true);
             case "reprendre", "resume", "play" -> handlePause(player, false);
             case "stop", "arreter", "off" -> handleStop(player);
             case "info", "status" -> handleInfo(player);
+            case "stats", "statistiques" -> handleStats(player, args);
             case "autoriser", "trust" -> handleTrust(player, args);
             case "retirer", "revoquer", "révoquer", "untrust" -> handleUntrust(player, args);
+            case "protection" -> handleProtection(player, args);
             default -> sendUsage(player);
         }
         return true;
@@ -189,7 +264,7 @@ public class Mineur implements CommandExecutor, Listener {
                 + " : choisit le mineur cible pour les commandes.");
 
         lines.add(ChatColor.GOLD + "/mineur vitesse <lent|normal|rapide>" + ChatColor.GRAY + " | "
-                + ChatColor.GOLD + "/mineur speed <slow|normal|fast>" + ChatColor.GRAY
+                + ChatColor.GOLD + "/mineur speed <slow|normal|fast|bulk>" + ChatColor.GRAY
                 + " : change la cadence de minage du mineur selectionne.");
 
         lines.add(ChatColor.GOLD + "/mineur pattern <carriere|branche|tunnel|veine>" + ChatColor.GRAY + " | "
@@ -202,6 +277,14 @@ public class Mineur implements CommandExecutor, Listener {
         lines.add(ChatColor.GRAY + "  veine/vein_first = priorise les minerais proches et vide chaque veine detectee.");
         lines.add(ChatColor.GRAY + "  Note: changer de pattern desactive le chainage auto carriere -> tunnel.");
 
+        lines.add(ChatColor.GOLD + "/mineur rangement <affinite|remplissage|tonneau|rotation>" + ChatColor.GRAY + " | "
+                + ChatColor.GOLD + "/mineur routing <...>" + ChatColor.GRAY
+                + " : choisit comment les drops sont repartis entre les coffres.");
+        lines.add(ChatColor.GRAY + "  affinite = chaque materiau rejoint les coffres qui le contiennent deja.");
+        lines.add(ChatColor.GRAY + "  remplissage = remplit les coffres l'un apres l'autre.");
+        lines.add(ChatColor.GRAY + "  tonneau = comme affinite, les tonneaux ne recoivent que le trop-plein.");
+        lines.add(ChatColor.GRAY + "  rotation = ancien comportement, disperse les materiaux.");
+
         lines.add(ChatColor.GOLD + "/mineur pause" + ChatColor.GRAY
                 + " : met la session en pause sans la supprimer.");
         lines.add(ChatColor.GOLD + "/mineur reprendre" + ChatColor.GRAY + " | " + ChatColor.GOLD + "/mineur resume"
@@ -215,6 +298,9 @@ public class Mineur implements CommandExecutor, Listener {
 
         lines.add(ChatColor.GOLD + "/mineur info" + ChatColor.GRAY + " | " + ChatColor.GOLD + "/mineur status"
                 + ChatColor.GRAY + " : affiche zone, monde, pattern, vitesse, bonus et etat du mineur selectionne.");
+        lines.add(ChatColor.GOLD + "/mineur stats [n]" + ChatColor.GRAY
+                + " : cadence, cout par tick, attentes et refus du mineur selectionne (ou du n-ieme)."
+                + " Admin : /mineur stats tout classe les sessions par cout.");
 
         lines.add(ChatColor.GOLD + "/mineur autoriser <joueur>" + ChatColor.GRAY + " | "
                 + ChatColor.GOLD + "/mineur trust <joueur>" + ChatColor.GRAY
@@ -222,6 +308,8 @@ public class Mineur implements CommandExecutor, Listener {
         lines.add(ChatColor.GOLD + "/mineur retirer <joueur>" + ChatColor.GRAY + " | "
                 + ChatColor.GOLD + "/mineur untrust <joueur>" + ChatColor.GRAY
                 + " : retire une autorisation existante.");
+        lines.add(ChatColor.GOLD + "/mineur protection vider" + ChatColor.GRAY
+                + " : (admin) oublie les verdicts de protection en cache, apres une modification de claim.");
 
         lines.add(ChatColor.DARK_GRAY + "--------------------------------------------------");
         lines.add(ChatColor.YELLOW + "Exemples rapides:");
@@ -306,6 +394,11 @@ public class Mineur implements CommandExecutor, Listener {
             return;
         }
 
+        if (hasPendingCabinBuild(ownerId)) {
+            player.sendMessage(CMD_PREFIX + ChatColor.YELLOW
+                    + "Un chevalement est déjà en construction : attends qu'il soit terminé.");
+            return;
+        }
         int activeMines = getSessionsForOwner(ownerId).size();
         int maxMines = getMaxMinesForOwner(ownerId);
         if (activeMines >= maxMines) {
@@ -337,6 +430,7 @@ public class Mineur implements CommandExecutor, Listener {
                 .getBoolean("mineur.default.use-barrel-master", false);
         state.pattern = getDefaultPattern();
         state.speed = getDefaultSpeed();
+        state.routing = getDefaultRouting();
         state.chainTunnelAfterQuarry = state.pattern == MiningPattern.QUARRY;
         state.infiniteTunnel = false;
         state.tunnelDirection = directionFromYaw(player.getLocation().getYaw());
@@ -404,22 +498,47 @@ public class Mineur implements CommandExecutor, Listener {
             return;
         }
 
+        if (preparedCabinPlan != null && getCabinBuildSliceNanos() > 0L) {
+            startCabinBuild(player, state, preparedCabinPlan);
+            return;
+        }
+        completeMineCreation(player, state, preparedCabinPlan, null);
+    }
+
+    /**
+     * Enregistre la session puis démarre son runtime.
+     *
+     * @param cabin chevalement déjà construit par un {@link PendingCabinBuild},
+     *              ou {@code null} pour le construire ici
+     */
+    private void completeMineCreation(Player player,
+                                      MiningSessionState state,
+                                      MineCabinBuilder.Plan preparedCabinPlan,
+                                      MineCabinBuilder.BuildResult cabin) {
+        UUID ownerId = state.owner;
         /*
          * La session n'est validée qu'après une initialisation complète. En cas
          * d'échec, aucune entrée fantôme ne reste dans sessions.yml.
          */
         sessions.add(state);
+        containerIndex.invalidate();
         registerOwnerSession(state, true);
         try {
-            startRuntime(state, true, preparedCabinPlan);
+            startRuntime(state, true, preparedCabinPlan, cabin);
         } catch (RuntimeException exception) {
             RuntimeSession failed = runtimes.remove(state.id);
+            blockChangeListeners = null;
             if (failed != null) {
                 failed.stop(false);
             }
+            if (cabin != null) {
+                // Sans effet si le runtime a déjà restauré la cabane.
+                cabin.rollback();
+            }
             rollbackFreshAutomaticStorage(state);
             cleanupContainerMetadata(state);
             sessions.remove(state);
+            containerIndex.invalidate();
             unregisterOwnerSession(state);
             selectedSessions.entrySet().removeIf(entry -> Objects.equals(entry.getValue(), state.id));
             plugin.getLogger().log(Level.SEVERE,
@@ -433,7 +552,7 @@ public class Mineur implements CommandExecutor, Listener {
         saveAllSessions();
 
         player.sendMessage(CMD_PREFIX + ChatColor.GREEN
-                + "Mineur lancé pour une zone de " + width + "x" + length + ".");
+                + "Mineur lancé pour une zone de " + state.width + "x" + state.length + ".");
         if (preparedCabinPlan != null) {
             player.sendMessage(CMD_PREFIX + ChatColor.GOLD
                     + "Chevalement construit : plateforme à Y " + preparedCabinPlan.deckY()
@@ -442,7 +561,94 @@ public class Mineur implements CommandExecutor, Listener {
         }
         player.sendMessage(CMD_PREFIX + ChatColor.GRAY + "Mineurs actifs : " + ChatColor.GREEN
                 + getSessionsForOwner(ownerId).size() + ChatColor.GRAY + "/"
-                + ChatColor.GREEN + maxMines + ChatColor.GRAY + ".");
+                + ChatColor.GREEN + getMaxMinesForOwner(ownerId) + ChatColor.GRAY + ".");
+    }
+
+    /**
+     * Construit le chevalement par tranches, sous le budget de
+     * {@code mineur.structure.build-slice-millis}. La session n'est créée
+     * qu'une fois la cabane entièrement posée ; ses chunks sont maintenus
+     * chargés pendant toute la construction.
+     */
+    private void startCabinBuild(Player player, MiningSessionState state, MineCabinBuilder.Plan plan) {
+        World world = state.base.getWorld();
+        PendingCabinBuild pending = new PendingCabinBuild(state);
+        try {
+            pending.tickets.apply(world, sessionChunkFootprint(state), Set.of());
+            pending.job = cabinBuilder.startBuild(
+                    world,
+                    plan,
+                    player,
+                    fireStructureProtectionEvents(),
+                    getCabinBuildSliceNanos(),
+                    job -> onCabinBuildFinished(pending)
+            );
+        } catch (RuntimeException exception) {
+            pending.tickets.release();
+            player.sendMessage(CMD_PREFIX + ChatColor.RED
+                    + "La création du mineur a échoué sans modifier la zone : " + exception.getMessage());
+            return;
+        }
+        pendingBuilds.put(state.id, pending);
+        scheduler.register(pending);
+        player.sendMessage(CMD_PREFIX + ChatColor.YELLOW + "Construction du chevalement ("
+                + plan.touchedBlockCount() + " blocs)... Le mineur démarrera à la fin.");
+    }
+
+    private void onCabinBuildFinished(PendingCabinBuild pending) {
+        MiningSessionState state = pending.state;
+        pendingBuilds.remove(state.id);
+        MineCabinBuilder.BuildJob job = pending.job;
+        Player player = state.owner != null ? Bukkit.getPlayer(state.owner) : null;
+        try {
+            if (job.result() == null) {
+                RuntimeException failure = job.failure();
+                if (job.stage() == MineCabinBuilder.BuildJob.Stage.FAILED) {
+                    plugin.getLogger().warning("[Mineur] Construction de la cabane de la session "
+                            + state.id + " interrompue : " + (failure != null ? failure.getMessage() : "?"));
+                }
+                if (player != null) {
+                    player.sendMessage(CMD_PREFIX + ChatColor.RED
+                            + "La création du mineur a échoué sans modifier la zone : "
+                            + (failure != null ? failure.getMessage() : "construction interrompue."));
+                }
+                return;
+            }
+            if (player == null) {
+                job.result().rollback();
+                return;
+            }
+            completeMineCreation(player, state, job.plan(), job.result());
+        } finally {
+            // Le runtime tient désormais ses propres tickets sur les mêmes chunks.
+            pending.tickets.release();
+        }
+    }
+
+    private boolean hasPendingCabinBuild(UUID ownerId) {
+        for (PendingCabinBuild pending : pendingBuilds.values()) {
+            if (Objects.equals(pending.state.owner, ownerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void cancelPendingCabinBuilds(UUID ownerId) {
+        for (PendingCabinBuild pending : new ArrayList<>(pendingBuilds.values())) {
+            if (ownerId == null || Objects.equals(pending.state.owner, ownerId)) {
+                pending.job.cancel();
+            }
+        }
+    }
+
+    /**
+     * 0 désactive l'étalement : la cabane est alors construite d'un bloc,
+     * comme avant.
+     */
+    private long getCabinBuildSliceNanos() {
+        long millis = plugin.getConfig().getLong("mineur.structure.build-slice-millis", 3L);
+        return millis <= 0L ? 0L : Math.min(50L, millis) * 1_000_000L;
     }
 
     private void handleList(Player player) {
@@ -508,7 +714,7 @@ public class Mineur implements CommandExecutor, Listener {
     private void handleSpeed(Player player, String[] args) {
         if (args.length < 2) {
             player.sendMessage(CMD_PREFIX + ChatColor.RED
-                    + "Spécifie une vitesse : slow, normal ou fast.");
+                    + "Spécifie une vitesse : slow, normal, fast ou bulk.");
             return;
         }
 
@@ -546,6 +752,35 @@ public class Mineur implements CommandExecutor, Listener {
                 + speed.name().toLowerCase(Locale.ROOT) + ".");
     }
 
+    private void handleRouting(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(CMD_PREFIX + ChatColor.RED
+                    + "Spécifie un rangement : affinite, remplissage, tonneau ou rotation.");
+            return;
+        }
+
+        MiningSessionState state = requireSelectedSession(player);
+        if (state == null || !requireManagementAccess(player, state)) {
+            return;
+        }
+
+        StorageRouting routing = parseRouting(args[1]);
+        if (routing == null) {
+            player.sendMessage(CMD_PREFIX + ChatColor.RED + "Rangement inconnu : " + args[1]);
+            return;
+        }
+
+        state.routing = routing;
+        RuntimeSession runtime = runtimeOf(state.id);
+        if (runtime != null && runtime.router != null) {
+            // Le modèle de capacité reste valable : seul l'ordre des coffres change.
+            runtime.router.setRouting(routing);
+        }
+        saveAllSessions();
+        player.sendMessage(CMD_PREFIX + ChatColor.GREEN
+                + "Rangement du mineur réglé sur " + routing.label + ".");
+    }
+
     private void handlePattern(Player player, String[] args) {
         if (args.length < 2) {
             player.sendMessage(CMD_PREFIX + ChatColor.RED
@@ -613,12 +848,16 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         RuntimeSession runtime = runtimeOf(state.id);
-        if (runtime != null && runtime.loop != null) {
-            runtime.loop.cancelAndRollback();
-            runtime.loop = null;
+        if (runtime != null) {
+            runtime.cancelCatchUp();
+        }
+        if (runtime != null) {
+            runtime.cancelLoops();
         } else {
             state.rollbackPendingCursor();
         }
+        // Le nouveau curseur part de la profondeur déjà lue sur l'enveloppe.
+        state.stripes.clear();
 
         state.pattern = pattern;
         state.chainTunnelAfterQuarry = false;
@@ -765,8 +1004,15 @@ public class Mineur implements CommandExecutor, Listener {
         int cursorY = state.cursor != null ? state.cursor.y : state.base.getBlockY();
         player.sendMessage(ChatColor.GRAY + " • Curseur Y : " + cursorY
                 + " / stop " + getEffectiveStopY(world) + ".");
+        RuntimeSession infoRuntime = runtimeOf(state.id);
+        if (infoRuntime != null) {
+            int loading = infoRuntime.tickets.loadingCount();
+            player.sendMessage(ChatColor.GRAY + " • Chunks maintenus : " + infoRuntime.tickets.heldCount()
+                    + (loading > 0 ? " (+" + loading + " en préchargement)" : ""));
+        }
         player.sendMessage(ChatColor.GRAY + " • Vitesse : " + state.speed.name().toLowerCase(Locale.ROOT));
         player.sendMessage(ChatColor.GRAY + " • Pattern : " + state.pattern.name().toLowerCase(Locale.ROOT));
+        player.sendMessage(ChatColor.GRAY + " • Rangement : " + state.routing.label);
         if (state.pattern == MiningPattern.TUNNEL || state.infiniteTunnel) {
             player.sendMessage(ChatColor.GRAY + " • Tunnel : direction " + ChatColor.AQUA + formatDirection(state.tunnelDirection)
                     + ChatColor.GRAY + ", hauteur " + ChatColor.AQUA + Math.max(1, state.tunnelHeight));
@@ -787,6 +1033,103 @@ public class Mineur implements CommandExecutor, Listener {
         player.sendMessage(ChatColor.GRAY + " • Statut : " + formatSessionStatus(state));
     }
 
+    private void handleStats(Player player, String[] args) {
+        if (args.length >= 2 && List.of("tout", "all").contains(args[1].toLowerCase(Locale.ROOT))) {
+            handleStatsOverview(player);
+            return;
+        }
+
+        MiningSessionState state;
+        int number = 0;
+        if (args.length >= 2) {
+            List<MiningSessionState> accessibleSessions = getAccessibleSessions(player);
+            try {
+                number = Integer.parseInt(args[1]);
+            } catch (NumberFormatException ex) {
+                player.sendMessage(CMD_PREFIX + ChatColor.RED + "Numero invalide: " + args[1]);
+                return;
+            }
+            if (number < 1 || number > accessibleSessions.size()) {
+                player.sendMessage(CMD_PREFIX + ChatColor.RED
+                        + "Numero invalide. Utilise /mineur list pour voir les mineurs accessibles.");
+                return;
+            }
+            state = accessibleSessions.get(number - 1);
+        } else {
+            state = requireSelectedSession(player);
+            if (state == null) {
+                return;
+            }
+        }
+
+        RuntimeSession runtime = runtimeOf(state.id);
+        if (runtime == null) {
+            player.sendMessage(CMD_PREFIX + ChatColor.YELLOW
+                    + "Ce mineur ne tourne pas (monde déchargé ou propriétaire absent) : aucune mesure en cours.");
+            return;
+        }
+
+        MiningTelemetry.Snapshot stats = runtime.telemetry.snapshot();
+        player.sendMessage(CMD_PREFIX + ChatColor.AQUA + "Mesures de la session "
+                + (number > 0 ? number + " " : "") + ChatColor.DARK_GRAY + "(" + state.id + ")"
+                + ChatColor.AQUA + " :");
+        player.sendMessage(ChatColor.GRAY + " • Cadence : " + ChatColor.GREEN
+                + formatDecimal(stats.blocksPerMinute()) + ChatColor.GRAY + " blocs/min ("
+                + stats.blocksBroken() + " depuis le démarrage, "
+                + (1 + runtime.workers.size()) + " PNJ)");
+        player.sendMessage(ChatColor.GRAY + " • Coût par tick : moyenne " + ChatColor.GREEN
+                + formatMillis(stats.averageTickNanos()) + ChatColor.GRAY + ", p99 " + ChatColor.GREEN
+                + formatMillis(stats.p99TickNanos()) + ChatColor.GRAY + " (" + stats.ticks() + " ticks, budget "
+                + formatMillis(scheduler.getTickBudgetNanos()) + " pour toutes les sessions)");
+        player.sendMessage(ChatColor.GRAY + " • Attente de stockage : " + ChatColor.GREEN
+                + formatDecimal(stats.storageWaitNanos() / 1_000_000_000.0D) + " s"
+                + (stats.waitingStorage() ? ChatColor.RED + " (en cours)" : ""));
+        player.sendMessage(ChatColor.GRAY + " • Refus de protection : " + ChatColor.GREEN + stats.protectionDenied()
+                + ChatColor.GRAY + " | Budgets de scan épuisés : " + ChatColor.GREEN + stats.scanBudgetExhausted()
+                + ChatColor.GRAY + " | Attentes de bande : " + ChatColor.GREEN + stats.stripeWaits());
+        player.sendMessage(ChatColor.GRAY + " • Tickets de chunk : " + ChatColor.GREEN + runtime.tickets.heldCount()
+                + ChatColor.GRAY + " (" + runtime.tickets.asyncLoads() + " chargements en arrière-plan, "
+                + runtime.tickets.blockingLoads() + " bloquants)");
+    }
+
+    private void handleStatsOverview(Player player) {
+        if (!player.hasPermission("mineplugin.mineur.admin")) {
+            player.sendMessage(CMD_PREFIX + ChatColor.RED
+                    + "Seul un administrateur peut comparer toutes les sessions.");
+            return;
+        }
+        if (runtimes.isEmpty()) {
+            player.sendMessage(CMD_PREFIX + ChatColor.YELLOW + "Aucune session en cours d'exécution.");
+            return;
+        }
+
+        List<Map.Entry<RuntimeSession, MiningTelemetry.Snapshot>> ranked = new ArrayList<>();
+        for (RuntimeSession runtime : runtimes.values()) {
+            ranked.add(Map.entry(runtime, runtime.telemetry.snapshot()));
+        }
+        ranked.sort((left, right) -> Long.compare(right.getValue().p99TickNanos(), left.getValue().p99TickNanos()));
+
+        player.sendMessage(CMD_PREFIX + ChatColor.AQUA + ranked.size() + " session(s), dernier tick "
+                + formatMillis(scheduler.getLastTickNanos()) + ", " + scheduler.getDeferredExecutions()
+                + " exécution(s) reportée(s) :");
+        for (Map.Entry<RuntimeSession, MiningTelemetry.Snapshot> entry : ranked) {
+            MiningSessionState state = entry.getKey().state;
+            MiningTelemetry.Snapshot stats = entry.getValue();
+            OfflinePlayer owner = state.owner != null ? Bukkit.getOfflinePlayer(state.owner) : null;
+            String ownerName = owner != null && owner.getName() != null ? owner.getName() : "?";
+            player.sendMessage(ChatColor.GRAY + " - " + ChatColor.GREEN + ownerName
+                    + ChatColor.DARK_GRAY + " | " + ChatColor.GRAY + state.pattern.name().toLowerCase(Locale.ROOT)
+                    + ChatColor.DARK_GRAY + " | " + ChatColor.GRAY + "p99 " + formatMillis(stats.p99TickNanos())
+                    + ", moy. " + formatMillis(stats.averageTickNanos())
+                    + ChatColor.DARK_GRAY + " | " + ChatColor.GRAY + formatDecimal(stats.blocksPerMinute()) + " blocs/min"
+                    + (state.paused ? ChatColor.YELLOW + " [pause]" : ""));
+        }
+    }
+
+    private String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f ms", nanos / 1_000_000.0D);
+    }
+
     private void handleTrust(Player player, String[] args) {
         if (args.length < 2) {
             player.sendMessage(CMD_PREFIX + ChatColor.RED + "Spécifie un joueur à autoriser.");
@@ -840,6 +1183,24 @@ public class Mineur implements CommandExecutor, Listener {
                 + " est autorisé à interagir avec ce mineur.");
     }
 
+    private void handleProtection(Player player, String[] args) {
+        if (!player.hasPermission("mineplugin.mineur.admin")) {
+            player.sendMessage(CMD_PREFIX + ChatColor.RED
+                    + "Seul un administrateur peut gérer le cache de protection.");
+            return;
+        }
+        if (args.length < 2 || !List.of("vider", "clear", "reset").contains(args[1].toLowerCase(Locale.ROOT))) {
+            player.sendMessage(CMD_PREFIX + ChatColor.GRAY + "Verdicts en cache : " + ChatColor.AQUA
+                    + protectionVerdicts.size() + ChatColor.GRAY + " (" + protectionVerdicts.hits()
+                    + " réutilisés, " + protectionVerdicts.misses() + " événements). "
+                    + ChatColor.GOLD + "/mineur protection vider" + ChatColor.GRAY + " pour les oublier.");
+            return;
+        }
+        int removed = protectionVerdicts.clear();
+        player.sendMessage(CMD_PREFIX + ChatColor.GREEN + removed
+                + " verdict(s) de protection oublié(s) ; les prochains blocs seront revérifiés.");
+    }
+
     private void handleUntrust(Player player, String[] args) {
         if (args.length < 2) {
             player.sendMessage(CMD_PREFIX + ChatColor.RED + "Spécifie un joueur à retirer.");
@@ -893,14 +1254,13 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         RuntimeSession runtime = runtimeOf(state.id);
+        if (runtime != null) {
+            runtime.telemetry.setWaitingStorage(true);
+        }
         if (runtime != null && runtime.miner != null && !runtime.miner.isDead()) {
-            if (runtime.storageHologram == null) {
-                runtime.storageHologram = new Hologram();
-            }
-            runtime.storageHologram.show(
-                    runtime.miner.getLocation(),
-                    ChatColor.RED + "Stockage indisponible"
-            );
+            Hologram hologram = hologramOf(runtime);
+            hologram.setStatus(ChatColor.RED + "Stockage indisponible");
+            hologram.update(runtime.miner.getLocation());
         }
     }
 
@@ -913,8 +1273,12 @@ public class Mineur implements CommandExecutor, Listener {
         notifyOwner(state.owner, ChatColor.GREEN + "Le mineur reprend, de la place a été libérée.");
 
         RuntimeSession runtime = runtimeOf(state.id);
-        if (runtime != null && runtime.storageHologram != null) {
-            runtime.storageHologram.hide();
+        if (runtime != null) {
+            runtime.telemetry.setWaitingStorage(false);
+        }
+        if (runtime != null && runtime.hologram != null) {
+            runtime.hologram.setStatus(null);
+            runtime.hologram.update(runtime.miner != null ? runtime.miner.getLocation() : null);
         }
     }
 
@@ -1032,6 +1396,25 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    /**
+     * Un bloc cassé pendant la construction serait rendu au joueur puis
+     * manquerait à la cabane, ou serait restauré par le rollback.
+     */
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onCabinUnderConstructionBreak(BlockBreakEvent event) {
+        if (pendingBuilds.isEmpty() || AutomatedMiningContext.isActive()) {
+            return;
+        }
+        for (PendingCabinBuild pending : pendingBuilds.values()) {
+            if (pending.contains(event.getBlock())) {
+                event.setCancelled(true);
+                event.getPlayer().sendMessage(CMD_PREFIX + ChatColor.YELLOW
+                        + "Ce chevalement est en cours de construction.");
+                return;
+            }
+        }
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onProtectedContainerBreak(BlockBreakEvent event) {
         MiningSessionState protectedSession = findProtectedContainerSession(event.getBlock());
@@ -1120,12 +1503,35 @@ public class Mineur implements CommandExecutor, Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onInventoryMove(InventoryMoveItemEvent event) {
-        if (findProtectedContainerSession(event.getSource().getHolder()) != null
-                || findProtectedContainerSession(event.getDestination().getHolder()) != null) {
+        if (findProtectedContainerSession(event.getSource()) != null
+                || findProtectedContainerSession(event.getDestination()) != null) {
             event.setCancelled(true);
         }
     }
 
+    /**
+     * Le routeur tient un modèle de la place libre mis à jour par ses propres
+     * dépôts. Une manipulation autorisée d'un coffre de session le rend faux :
+     * il est alors oublié et relu au prochain bloc.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onProtectedInventoryClick(InventoryClickEvent event) {
+        invalidateRouterOf(event.getInventory().getHolder());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onProtectedInventoryDrag(InventoryDragEvent event) {
+        invalidateRouterOf(event.getInventory().getHolder());
+    }
+
+    private void invalidateRouterOf(InventoryHolder holder) {
+        MiningSessionState state = findProtectedContainerSession(holder);
+        RuntimeSession runtime = state != null ? runtimeOf(state.id) : null;
+        if (runtime != null && runtime.router != null) {
+            runtime.router.invalidate();
+        }
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockExplode(BlockExplodeEvent event) {
         event.blockList().removeIf(block -> findProtectedContainerSession(block) != null);
@@ -1185,6 +1591,147 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlockPlaced(BlockPlaceEvent event) {
+        markPrescannedBlockChanged(event.getBlockPlaced());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlockBroken(BlockBreakEvent event) {
+        /*
+         * Les sondes d'autorisation du mineur passent par cet événement sans
+         * casser le bloc, et un plugin tiers peut en lancer de factices. Un
+         * événement non annulé ne prouve donc pas la casse : le type réel est
+         * relu au tick suivant, une fois la casse appliquée ou non.
+         */
+        if (AutomatedMiningContext.isActive()) {
+            return;
+        }
+        markChangedNextTick(event.getBlock());
+    }
+
+    /*
+     * Formation, changement par une entité et pistons sont annoncés avant que
+     * le monde ne change : lire le type maintenant inscrirait l'ancien dans
+     * l'index de minerais. Ces positions passent par la même relecture.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlockFormed(BlockFormEvent event) {
+        markChangedNextTick(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlockChangedByEntity(EntityChangeBlockEvent event) {
+        markChangedNextTick(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlocksPushed(BlockPistonExtendEvent event) {
+        markMovedNextTick(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onQuarryBlocksPulled(BlockPistonRetractEvent event) {
+        markMovedNextTick(event.getBlocks(), event.getDirection());
+    }
+
+    /**
+     * Les positions quittées comme les destinations changent de contenu.
+     */
+    private void markMovedNextTick(List<Block> movedBlocks, BlockFace direction) {
+        for (Block moved : movedBlocks) {
+            markChangedNextTick(moved);
+            markChangedNextTick(moved.getRelative(direction));
+        }
+    }
+
+    private void markChangedNextTick(Block block) {
+        if (block == null || runtimes.isEmpty()) {
+            return;
+        }
+        changedSinceLastTick.add(block);
+        if (changedBlocksFlush == null) {
+            changedBlocksFlush = plugin.getServer().getScheduler().runTask(plugin, this::flushChangedBlocks);
+        }
+    }
+
+    private void flushChangedBlocks() {
+        changedBlocksFlush = null;
+        List<Block> changed = new ArrayList<>(changedSinceLastTick);
+        changedSinceLastTick.clear();
+        for (Block block : changed) {
+            markPrescannedBlockChanged(block);
+        }
+    }
+
+    /*
+     * Les bitmaps de pré-analyse et l'index de minerais ne voient pas les blocs
+     * modifiés après la copie des chunks. Ces écouteurs forcent une nouvelle
+     * visite de la case et tiennent l'index de minerais à jour.
+     */
+    private void markPrescannedBlockChanged(Block block) {
+        if (block == null || runtimes.isEmpty()) {
+            return;
+        }
+        List<RuntimeSession> listeners = blockChangeListenersAt(block.getWorld(),
+                block.getX() >> 4, block.getZ() >> 4);
+        Material type = null;
+        for (RuntimeSession runtime : listeners) {
+            if (runtime.quarryPrescan != null) {
+                runtime.quarryPrescan.markChanged(block.getX(), block.getY(), block.getZ());
+            }
+            if (runtime.oreIndex != null) {
+                if (type == null) {
+                    type = block.getType();
+                }
+                runtime.oreIndex.markChanged(block.getX(), block.getY(), block.getZ(), type);
+            }
+        }
+    }
+
+    /**
+     * Runtimes dont la pré-analyse ou l'index de minerais couvre le chunk :
+     * les événements de blocs du serveur entier passent par ici.
+     */
+    private List<RuntimeSession> blockChangeListenersAt(World world, int chunkX, int chunkZ) {
+        if (world == null) {
+            return List.of();
+        }
+        if (blockChangeListeners == null) {
+            Map<UUID, Map<Long, List<RuntimeSession>>> rebuilt = new HashMap<>();
+            for (RuntimeSession runtime : runtimes.values()) {
+                if (runtime.state.base == null || runtime.state.base.getWorld() == null) {
+                    continue;
+                }
+                Map<Long, List<RuntimeSession>> chunks = rebuilt.computeIfAbsent(
+                        runtime.state.base.getWorld().getUID(), ignored -> new HashMap<>());
+                if (runtime.quarryPrescan != null) {
+                    registerBlockChangeListener(chunks, runtime.quarryPrescan.chunkKeys(), runtime);
+                }
+                if (runtime.oreIndex != null) {
+                    registerBlockChangeListener(chunks, runtime.oreIndex.chunkKeys(), runtime);
+                }
+            }
+            blockChangeListeners = rebuilt;
+        }
+        Map<Long, List<RuntimeSession>> chunks = blockChangeListeners.get(world.getUID());
+        if (chunks == null) {
+            return List.of();
+        }
+        return chunks.getOrDefault(ChunkTicketWindow.key(chunkX, chunkZ), List.of());
+    }
+
+    private static void registerBlockChangeListener(Map<Long, List<RuntimeSession>> chunks,
+                                                    long[] keys,
+                                                    RuntimeSession runtime) {
+        for (long key : keys) {
+            List<RuntimeSession> listeners = chunks.computeIfAbsent(key, ignored -> new ArrayList<>(1));
+            if (!listeners.contains(runtime)) {
+                listeners.add(runtime);
+            }
+        }
+    }
+
     private boolean movesProtectedContainer(List<Block> movedBlocks) {
         if (movedBlocks == null) {
             return false;
@@ -1202,6 +1749,7 @@ public class Mineur implements CommandExecutor, Listener {
         int paused = 0;
         int waitingStorage = 0;
         for (MiningSessionState state : getSessionsForOwner(event.getPlayer().getUniqueId())) {
+            protectionVerdicts.invalidateSession(state.id);
             if (state.paused) {
                 paused++;
             } else if (state.waitingStorage) {
@@ -1228,22 +1776,83 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        /*
+         * Les verdicts dépendent du joueur réel transmis aux plugins de
+         * protection : ses groupes ou ses droits de claim peuvent changer
+         * avant son retour.
+         */
+        for (MiningSessionState state : getSessionsForOwner(event.getPlayer().getUniqueId())) {
+            protectionVerdicts.invalidateSession(state.id);
+        }
+        // Les événements de protection de la cabane exigent un propriétaire connecté.
+        cancelPendingCabinBuilds(event.getPlayer().getUniqueId());
+    }
+
     @EventHandler
     public void onChunkLoad(ChunkLoadEvent event) {
+        if (runtimes.isEmpty()) {
+            return;
+        }
+        for (RuntimeSession runtime : blockChangeListenersAt(event.getWorld(),
+                event.getChunk().getX(), event.getChunk().getZ())) {
+            if (runtime.oreIndex != null) {
+                runtime.oreIndex.onChunkLoaded(event.getWorld(),
+                        event.getChunk().getX(), event.getChunk().getZ());
+            }
+        }
+    }
+
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
         /*
          * Après un arrêt brutal, un ancien PNJ peut être sauvegardé dans un
-         * tronçon qui n'est plus celui du curseur. Il est supprimé dès que son
-         * chunk revient en mémoire, sauf s'il correspond exactement à l'un des
-         * acteurs du runtime courant.
+         * tronçon qui n'est plus celui du curseur. Il est supprimé dès que les
+         * entités de son chunk reviennent en mémoire, sauf s'il correspond
+         * exactement à l'un des acteurs du runtime courant. Paper charge les
+         * entités séparément du terrain : ChunkLoadEvent arrive souvent avant
+         * elles. Seuls les chunks indexés sont inspectés.
          */
-        cleanupUnexpectedMineEntities(event.getChunk());
+        Chunk chunk = event.getChunk();
+        UUID worldUid = event.getWorld().getUID();
+        boolean indexed = entityChunks.contains(worldUid, chunk.getX(), chunk.getZ());
+        if (!indexed && !entityChunksBootstrap) {
+            return;
+        }
+        if (!cleanupUnexpectedMineEntities(event.getEntities()) && indexed) {
+            entityChunks.forget(worldUid, chunk.getX(), chunk.getZ());
+        }
     }
 
-    private void cleanupUnexpectedMineEntities(Chunk chunk) {
-        if (chunk == null) {
+    @EventHandler
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        World world = event.getWorld();
+        UUID worldUid = world.getUID();
+        /*
+         * Un golem peut s'éloigner des chunks déjà indexés : il est rattrapé
+         * ici, au moment où il va être écrit sur le disque. Le test porte sur
+         * les quelques acteurs du runtime, jamais sur la liste des entités.
+         */
+        if (hasRuntimeActorIn(world, chunk.getX(), chunk.getZ())) {
+            entityChunks.mark(worldUid, chunk.getX(), chunk.getZ());
             return;
         }
-        for (Entity entity : chunk.getEntities()) {
+        if (entityChunks.contains(worldUid, chunk.getX(), chunk.getZ())
+                && !containsSignedEntity(event.getEntities())) {
+            entityChunks.forget(worldUid, chunk.getX(), chunk.getZ());
+        }
+    }
+
+    /**
+     * Supprime les acteurs signés qui ne correspondent à aucun runtime.
+     *
+     * @return {@code true} si un acteur légitime reste parmi ces entités.
+     */
+    private boolean cleanupUnexpectedMineEntities(Collection<? extends Entity> entities) {
+        boolean expectedRemains = false;
+        for (Entity entity : entities) {
             String rawSession = entity.getPersistentDataContainer()
                     .get(entitySessionKey, PersistentDataType.STRING);
             if (rawSession == null || rawSession.isBlank()) {
@@ -1259,10 +1868,57 @@ public class Mineur implements CommandExecutor, Listener {
             }
 
             RuntimeSession runtime = runtimeOf(sessionId);
-            if (!isExpectedRuntimeEntity(runtime, entity)) {
+            if (isExpectedRuntimeEntity(runtime, entity)) {
+                expectedRemains = true;
+            } else {
                 entity.remove();
             }
         }
+        return expectedRemains;
+    }
+
+    private boolean containsSignedEntity(Collection<? extends Entity> entities) {
+        for (Entity entity : entities) {
+            if (entity.getPersistentDataContainer().has(entitySessionKey, PersistentDataType.STRING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasRuntimeActorIn(World world, int chunkX, int chunkZ) {
+        for (RuntimeSession runtime : runtimes.values()) {
+            if (isActorIn(runtime.miner, world, chunkX, chunkZ)) {
+                return true;
+            }
+            for (StripeWorker worker : runtime.workers) {
+                if (isActorIn(worker.villager, world, chunkX, chunkZ)) {
+                    return true;
+                }
+            }
+            for (Golem golem : runtime.golems) {
+                if (golem != null && isActorIn(golem.getGolem(), world, chunkX, chunkZ)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isActorIn(Entity actor, World world, int chunkX, int chunkZ) {
+        if (actor == null || actor.isDead() || !world.equals(actor.getWorld())) {
+            return false;
+        }
+        Location location = actor.getLocation();
+        return location.getBlockX() >> 4 == chunkX && location.getBlockZ() >> 4 == chunkZ;
+    }
+
+    private void markActorChunk(Entity actor) {
+        if (actor == null || actor.getWorld() == null) {
+            return;
+        }
+        Location location = actor.getLocation();
+        entityChunks.mark(actor.getWorld().getUID(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
 
     private boolean isExpectedRuntimeEntity(RuntimeSession runtime, Entity entity) {
@@ -1273,6 +1929,12 @@ public class Mineur implements CommandExecutor, Listener {
                 && runtime.miner.getUniqueId().equals(entity.getUniqueId())) {
             return true;
         }
+        for (StripeWorker worker : runtime.workers) {
+            if (worker.villager != null
+                    && worker.villager.getUniqueId().equals(entity.getUniqueId())) {
+                return true;
+            }
+        }
         for (Golem golem : runtime.golems) {
             if (golem != null
                     && golem.getGolem() != null
@@ -1285,18 +1947,187 @@ public class Mineur implements CommandExecutor, Listener {
 
     /**
      * Nettoie les acteurs persistants déjà chargés avant l'enregistrement du
-     * listener de chunks. Cette passe ne charge aucun chunk supplémentaire.
+     * listener d'entités. Cette passe ne charge aucun chunk supplémentaire et
+     * se limite aux chunks indexés, sauf au tout premier démarrage.
      */
     private void cleanupLoadedMineEntities() {
-        for (World world : Bukkit.getWorlds()) {
-            for (Chunk chunk : world.getLoadedChunks()) {
-                cleanupUnexpectedMineEntities(chunk);
+        if (entityChunksBootstrap) {
+            for (World world : Bukkit.getWorlds()) {
+                for (Chunk chunk : world.getLoadedChunks()) {
+                    cleanupUnexpectedMineEntities(Arrays.asList(chunk.getEntities()));
+                }
+            }
+            return;
+        }
+
+        for (EntityChunkIndex.Entry entry : entityChunks.entries()) {
+            World world = Bukkit.getWorld(entry.worldUid());
+            if (world == null || !world.isChunkLoaded(entry.chunkX(), entry.chunkZ())) {
+                continue;
+            }
+            Chunk chunk = world.getChunkAt(entry.chunkX(), entry.chunkZ());
+            /*
+             * Entités pas encore lues : EntitiesLoadEvent s'en chargera. Les
+             * oublier ici retirerait le chunk de l'index avant son inspection.
+             */
+            if (!chunk.isEntitiesLoaded()) {
+                continue;
+            }
+            if (!cleanupUnexpectedMineEntities(Arrays.asList(chunk.getEntities()))) {
+                entityChunks.forget(entry.worldUid(), entry.chunkX(), entry.chunkZ());
             }
         }
     }
 
     public void saveAllSessions() {
         sessionStore.saveAll(sessions);
+        entityChunks.saveIfDirty();
+    }
+
+    /**
+     * Checkpoint périodique des curseurs via le journal de sessions. Un crash
+     * ne perd plus que la dernière fenêtre, sans réécrire sessions.yml.
+     */
+    private void startCheckpointTask() {
+        if (!plugin.getConfig().getBoolean("mineur.journal.enabled", true)) {
+            return;
+        }
+        long interval = Math.max(20L, Math.min(6_000L,
+                plugin.getConfig().getLong("mineur.journal.checkpoint-interval-ticks", 100L)));
+        checkpointTask = plugin.getServer().getScheduler().runTaskTimer(
+                plugin, this::checkpointSessions, interval, interval);
+    }
+
+    /**
+     * Réécrit périodiquement le fichier de métriques au format Prometheus.
+     * Les compteurs sont relevés sur le thread principal ; seule l'écriture
+     * du fichier part en tâche de fond.
+     */
+    private void startTelemetryTask() {
+        if (!plugin.getConfig().getBoolean("mineur.telemetry.enabled", false)) {
+            return;
+        }
+        long interval = 20L * Math.max(5L, Math.min(3_600L,
+                plugin.getConfig().getLong("mineur.telemetry.interval-seconds", 15L)));
+        telemetryTask = plugin.getServer().getScheduler().runTaskTimer(
+                plugin, this::exportTelemetry, interval, interval);
+    }
+
+    private void exportTelemetry() {
+        if (telemetryWriting.get()) {
+            // L'export précédent écrit encore : l'intervalle suivant prendra le relais.
+            return;
+        }
+        List<TelemetryExporter.SessionMetrics> metrics = new ArrayList<>(runtimes.size());
+        for (RuntimeSession runtime : runtimes.values()) {
+            metrics.add(new TelemetryExporter.SessionMetrics(
+                    runtime.state.id,
+                    runtime.state.owner,
+                    runtime.state.pattern,
+                    1 + runtime.workers.size(),
+                    runtime.telemetry.snapshot(),
+                    runtime.tickets.heldCount(),
+                    runtime.tickets.asyncLoads(),
+                    runtime.tickets.blockingLoads()
+            ));
+        }
+        String content = TelemetryExporter.format(
+                metrics, scheduler.getLastTickNanos(), scheduler.getDeferredExecutions());
+        File file = new File(plugin.getDataFolder(),
+                plugin.getConfig().getString("mineur.telemetry.file", "metrics/mineur.prom"));
+        telemetryWriting.set(true);
+        try {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    TelemetryExporter.write(file, content, plugin.getLogger());
+                } finally {
+                    telemetryWriting.set(false);
+                }
+            });
+        } catch (RuntimeException exception) {
+            telemetryWriting.set(false);
+            throw exception;
+        }
+    }
+
+    /**
+     * Rafraîchit une fois par seconde la ligne de progression des hologrammes.
+     * Sans cette option, l'hologramme n'affiche que l'état du stockage.
+     */
+    private void startHologramTask() {
+        if (!plugin.getConfig().getBoolean("mineur.hologram.progress", true)) {
+            return;
+        }
+        hologramTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::refreshHolograms, 20L, 20L);
+    }
+
+    private void refreshHolograms() {
+        for (RuntimeSession runtime : runtimes.values()) {
+            if (runtime.miner == null || runtime.miner.isDead()) {
+                continue;
+            }
+            Hologram hologram = hologramOf(runtime);
+            hologram.showProgress(formatProgress(runtime));
+            hologram.update(runtime.miner.getLocation());
+        }
+    }
+
+    private Hologram hologramOf(RuntimeSession runtime) {
+        if (runtime.hologram == null) {
+            double viewDistance = Math.max(8.0D, Math.min(128.0D,
+                    plugin.getConfig().getDouble("mineur.hologram.view-distance", 32.0D)));
+            runtime.hologram = new Hologram(viewDistance);
+        }
+        return runtime.hologram;
+    }
+
+    /**
+     * Couche courante, avancement vers stop-at-y pour une carrière, puis
+     * cadence de la dernière minute.
+     */
+    private String formatProgress(RuntimeSession runtime) {
+        MiningSessionState state = runtime.state;
+        int baseY = state.base.getBlockY();
+        int layer = state.cursor != null ? state.cursor.y : baseY;
+        StringBuilder line = new StringBuilder(64);
+        line.append(ChatColor.GRAY).append("Y ").append(ChatColor.WHITE).append(layer);
+        if (state.pattern == MiningPattern.QUARRY) {
+            int stopY = getEffectiveStopY(state.base.getWorld());
+            int depth = Math.max(1, baseY - stopY);
+            int percent = (int) Math.max(0L, Math.min(100L, 100L * ((long) baseY - layer) / depth));
+            line.append(ChatColor.GRAY).append(" • ").append(ChatColor.WHITE).append(percent).append(" %");
+        }
+        line.append(ChatColor.GRAY).append(" • ").append(ChatColor.WHITE)
+                .append(formatDecimal(runtime.telemetry.blocksPerMinute()))
+                .append(ChatColor.GRAY).append(" blocs/min");
+        return line.toString();
+    }
+
+    private void checkpointSessions() {
+        long thresholdKib = Math.max(16L, Math.min(65_536L,
+                plugin.getConfig().getLong("mineur.journal.compact-threshold-kib", 256L)));
+        try {
+            sessionStore.checkpoint(sessions, thresholdKib * 1_024L);
+        } catch (RuntimeException exception) {
+            plugin.getLogger().log(Level.WARNING, "[Mineur] Checkpoint du journal impossible.", exception);
+        }
+
+        /*
+         * Un crash peut survenir après une sauvegarde automatique du monde :
+         * le chunk où se tient chaque acteur doit déjà figurer dans l'index.
+         */
+        for (RuntimeSession runtime : runtimes.values()) {
+            markActorChunk(runtime.miner);
+            for (StripeWorker worker : runtime.workers) {
+                markActorChunk(worker.villager);
+            }
+            for (Golem golem : runtime.golems) {
+                if (golem != null) {
+                    markActorChunk(golem.getGolem());
+                }
+            }
+        }
+        entityChunks.saveIfDirty();
     }
 
     public void loadSavedSessions() {
@@ -1304,10 +2135,19 @@ public class Mineur implements CommandExecutor, Listener {
             runtime.stop(false);
         }
         runtimes.clear();
+        blockChangeListeners = null;
         sessions.clear();
+        containerIndex.invalidate();
         ownerSessions.clear();
         selectedSessions.clear();
 
+        entityChunks.saveIfDirty();
+        entityChunksBootstrap = !entityChunks.load();
+        if (entityChunksBootstrap) {
+            plugin.getLogger().info("[Mineur] Aucun index entity-chunks.yml : "
+                    + "toutes les entités chargées seront inspectées jusqu'au prochain démarrage.");
+        }
+
         /*
          * À ce stade aucun acteur n'est légitime : tous les PNJ signés encore
          * présents proviennent d'un arrêt brutal ou d'une ancienne duplication.
@@ -1359,16 +2199,19 @@ public class Mineur implements CommandExecutor, Listener {
                 }
 
                 sessions.add(state);
+                containerIndex.invalidate();
                 registerOwnerSession(state, false);
                 startRuntime(state, false);
             } catch (RuntimeException exception) {
                 state.paused = true;
                 RuntimeSession failed = runtimes.remove(state.id);
+                blockChangeListeners = null;
                 if (failed != null) {
                     failed.stop(false);
                 }
                 if (!sessions.contains(state)) {
                     sessions.add(state);
+                    containerIndex.invalidate();
                     registerOwnerSession(state, false);
                 }
                 plugin.getLogger().log(Level.WARNING,
@@ -1377,11 +2220,46 @@ public class Mineur implements CommandExecutor, Listener {
             }
         }
 
+        if (entityChunksBootstrap) {
+            /*
+             * Premier démarrage avec l'index : les acteurs laissés par une
+             * ancienne version ne peuvent se trouver que dans l'emprise d'une
+             * session, y compris celles restées en pause.
+             */
+            for (MiningSessionState state : sessions) {
+                World world = state.base != null ? state.base.getWorld() : null;
+                if (world == null) {
+                    continue;
+                }
+                try {
+                    entityChunks.markAll(world.getUID(), sessionChunkFootprint(state));
+                } catch (IllegalStateException exception) {
+                    plugin.getLogger().warning("[Mineur] Emprise de la session " + state.id
+                            + " non indexée : " + exception.getMessage());
+                }
+            }
+        }
+
         saveAllSessions();
         plugin.getLogger().info("Mineur : " + sessions.size() + " session(s) rechargée(s).");
     }
 
     public void stopAllSessions() {
+        // Une cabane inachevée est retirée avant l'arrêt, bloc par bloc.
+        cancelPendingCabinBuilds(null);
+        if (plugin.getConfig().getBoolean("mineur.catch-up.enabled", false) && !runtimes.isEmpty()) {
+            /*
+             * L'arrêt du serveur est un arrêt subi pour les sessions actives :
+             * sa date est écrite avant que les runtimes ne disparaissent.
+             */
+            long now = System.currentTimeMillis();
+            for (RuntimeSession runtime : runtimes.values()) {
+                if (!runtime.state.paused && runtime.state.idleSinceMillis <= 0L) {
+                    runtime.state.idleSinceMillis = now;
+                }
+            }
+            sessionStore.saveAll(sessions);
+        }
         for (RuntimeSession runtime : new ArrayList<>(runtimes.values())) {
             /*
              * À l'arrêt du serveur, les coffres restent associés aux sessions
@@ -1389,8 +2267,38 @@ public class Mineur implements CommandExecutor, Listener {
              */
             runtime.stop(false);
         }
+        scheduler.shutdown();
+        entityChunks.saveIfDirty();
+        if (checkpointTask != null) {
+            checkpointTask.cancel();
+            checkpointTask = null;
+        }
+        if (telemetryTask != null) {
+            telemetryTask.cancel();
+            telemetryTask = null;
+        }
+        if (hologramTask != null) {
+            hologramTask.cancel();
+            hologramTask = null;
+        }
+        if (changedBlocksFlush != null) {
+            changedBlocksFlush.cancel();
+            changedBlocksFlush = null;
+        }
+        changedSinceLastTick.clear();
+        sessionStore.close();
+        long dropCacheHits = MiningBlockPolicy.dropCacheHits();
+        long dropCacheMisses = MiningBlockPolicy.dropCacheMisses();
+        if (dropCacheHits + dropCacheMisses > 0L) {
+            plugin.getLogger().info("[Mineur] Cache des drops : " + dropCacheHits
+                    + " blocs servis depuis la table, " + dropCacheMisses + " calculs.");
+        }
+        MiningBlockPolicy.clearDropCache();
+        protectionVerdicts.clear();
         runtimes.clear();
+        blockChangeListeners = null;
         sessions.clear();
+        containerIndex.invalidate();
         ownerSessions.clear();
         selectedSessions.clear();
         selections.clear();
@@ -1403,6 +2311,13 @@ public class Mineur implements CommandExecutor, Listener {
     private void startRuntime(MiningSessionState state,
                               boolean freshlyCreated,
                               MineCabinBuilder.Plan preparedCabinPlan) {
+        startRuntime(state, freshlyCreated, preparedCabinPlan, null);
+    }
+
+    private void startRuntime(MiningSessionState state,
+                              boolean freshlyCreated,
+                              MineCabinBuilder.Plan preparedCabinPlan,
+                              MineCabinBuilder.BuildResult prebuiltCabin) {
         normalizeLoadedState(state);
 
         RuntimeSession previous = runtimes.remove(state.id);
@@ -1412,6 +2327,7 @@ public class Mineur implements CommandExecutor, Listener {
 
         RuntimeSession runtime = new RuntimeSession(state);
         runtimes.put(state.id, runtime);
+        blockChangeListeners = null;
 
         try {
             /*
@@ -1424,7 +2340,7 @@ public class Mineur implements CommandExecutor, Listener {
 
             boolean allowBlockPlacement = allowMinerBlockPlacement();
 
-            ensureContainers(state, runtime, freshlyCreated, preparedCabinPlan);
+            ensureContainers(state, runtime, freshlyCreated, preparedCabinPlan, prebuiltCabin);
             runtime.router = createInventoryRouter(runtime);
             runtime.decoration = shouldUseQuarryDecoration(state)
                     ? new DecorationDelegate(state)
@@ -1749,6 +2665,10 @@ public class Mineur implements CommandExecutor, Listener {
                     && vector.getBlockY() == location.getBlockY()
                     && vector.getBlockZ() == location.getBlockZ()) {
                 iterator.remove();
+                if (location.getWorld() != null) {
+                    containerIndex.remove(state, location.getWorld().getUID(),
+                            vector.getBlockX(), vector.getBlockY(), vector.getBlockZ());
+                }
                 return;
             }
         }
@@ -1795,10 +2715,12 @@ public class Mineur implements CommandExecutor, Listener {
         if (runtime == null || runtime.state == null) {
             return new InventoryRouter(List.of(), ignored -> false);
         }
-        return new InventoryRouter(
+        InventoryRouter router = new InventoryRouter(
                 resolveContainerBlocks(runtime),
                 container -> isUsableStorageContainer(container, runtime.state)
         );
+        router.setRouting(runtime.state.routing);
+        return router;
     }
 
     /**
@@ -1845,12 +2767,42 @@ public class Mineur implements CommandExecutor, Listener {
                 || player.hasPermission("mineplugin.mineur.admin"));
     }
 
+    /**
+     * Variante pour les inventaires d'entonnoirs : la position de l'inventaire
+     * est lue sans créer de {@link BlockState}. Hors des chunks protégés, le
+     * holder n'est jamais demandé au serveur.
+     */
+    private MiningSessionState findProtectedContainerSession(Inventory inventory) {
+        if (inventory == null) {
+            return null;
+        }
+        Location location = inventory.getLocation();
+        if (location != null && location.getWorld() != null) {
+            /*
+             * Un double coffre est localisé au milieu de ses deux moitiés :
+             * la coordonnée fractionnaire couvre alors les deux blocs.
+             */
+            UUID worldId = location.getWorld().getUID();
+            int minChunkX = (int) Math.floor(location.getX()) >> 4;
+            int maxChunkX = (int) Math.ceil(location.getX()) >> 4;
+            int minChunkZ = (int) Math.floor(location.getZ()) >> 4;
+            int maxChunkZ = (int) Math.ceil(location.getZ()) >> 4;
+            if (!containerIndex.mayContain(worldId, minChunkX, minChunkZ)
+                    && !containerIndex.mayContain(worldId, maxChunkX, maxChunkZ)
+                    && !containerIndex.mayContain(worldId, minChunkX, maxChunkZ)
+                    && !containerIndex.mayContain(worldId, maxChunkX, minChunkZ)) {
+                return null;
+            }
+        }
+        return findProtectedContainerSession(inventory.getHolder());
+    }
+
     private MiningSessionState findProtectedContainerSession(InventoryHolder holder) {
         if (holder == null) {
             return null;
         }
         if (holder instanceof BlockState blockState) {
-            return findProtectedContainerSession(blockState.getBlock());
+            return findProtectedContainerSession(blockState.getBlock(), blockState);
         }
         if (holder instanceof DoubleChest doubleChest) {
             MiningSessionState left = findProtectedContainerSession(doubleChest.getLeftSide());
@@ -1863,27 +2815,42 @@ public class Mineur implements CommandExecutor, Listener {
     }
 
     private MiningSessionState findProtectedContainerSession(Block block) {
-        if (block == null || !(block.getState() instanceof Container container)) {
+        return findProtectedContainerSession(block, null);
+    }
+
+    /**
+     * @param knownState état déjà obtenu par l'appelant, pour ne pas demander
+     *                   un second snapshot de tile entity au serveur.
+     */
+    private MiningSessionState findProtectedContainerSession(Block block, BlockState knownState) {
+        if (block == null || block.getWorld() == null) {
             return null;
         }
 
         /*
          * Les coordonnées persistées sont la source principale. Elles assurent
          * aussi la compatibilité avec les anciennes sauvegardes sans PDC.
+         * L'index répond sans aucun accès au monde pour l'immense majorité des
+         * blocs, qui ne sont dans aucun chunk de stockage.
          */
-        for (MiningSessionState state : sessions) {
-            if (state == null || state.worldUid == null
-                    || !block.getWorld().getUID().equals(state.worldUid)) {
-                continue;
-            }
-            for (Vector vector : state.containers) {
-                if (vector != null
-                        && vector.getBlockX() == block.getX()
-                        && vector.getBlockY() == block.getY()
-                        && vector.getBlockZ() == block.getZ()) {
-                    return state;
-                }
-            }
+        UUID worldId = block.getWorld().getUID();
+        int x = block.getX();
+        int y = block.getY();
+        int z = block.getZ();
+        if (!containerIndex.mayContain(worldId, x >> 4, z >> 4)) {
+            return null;
+        }
+        MiningSessionState indexed = containerIndex.sessionAt(worldId, x, y, z);
+        if (indexed == null && !ProtectedContainerIndex.isStorageMaterial(block.getType())) {
+            return null;
+        }
+
+        BlockState blockState = knownState != null ? knownState : block.getState();
+        if (!(blockState instanceof Container container)) {
+            return null;
+        }
+        if (indexed != null) {
+            return indexed;
         }
 
         String sessionId = container.getPersistentDataContainer()
@@ -1906,7 +2873,7 @@ public class Mineur implements CommandExecutor, Listener {
 
         String expectedSession = state.id.toString();
         Set<UUID> processed = new HashSet<>();
-        for (Chunk chunk : runtime.ticketChunks) {
+        for (Chunk chunk : runtime.tickets.chunks()) {
             for (Entity entity : chunk.getEntities()) {
                 if (!processed.add(entity.getUniqueId())) {
                     continue;
@@ -1926,6 +2893,25 @@ public class Mineur implements CommandExecutor, Listener {
             throw new IllegalStateException("Monde de la session non chargé.");
         }
 
+        Set<Long> desired = sessionChunkFootprint(state);
+        int maximum = getMaximumLoadedChunks();
+        if (desired.size() > maximum) {
+            throw new IllegalStateException("La session demanderait " + desired.size()
+                    + " chunks chargés (limite : " + maximum + ").");
+        }
+
+        /*
+         * Le mineur se tient toujours dans la zone du curseur et les golems
+         * près de la structure : ces chunks couvrent donc les acteurs.
+         */
+        entityChunks.markAll(world.getUID(), desired);
+        runtime.tickets.apply(world, desired, computeTunnelPrefetch(state, desired, maximum));
+    }
+
+    /**
+     * Chunks du curseur actif, de la structure et des coffres de la session.
+     */
+    private Set<Long> sessionChunkFootprint(MiningSessionState state) {
         Set<Long> desired = new HashSet<>();
         MiningCursor active = state.cursor;
         int minX = active != null ? active.minX : state.base.getBlockX();
@@ -1958,37 +2944,72 @@ public class Mineur implements CommandExecutor, Listener {
                 desired.add(chunkKey(vector.getBlockX() >> 4, vector.getBlockZ() >> 4));
             }
         }
+        return desired;
+    }
 
-        int maximum = getMaximumLoadedChunks();
-        if (desired.size() > maximum) {
-            throw new IllegalStateException("La session demanderait " + desired.size()
-                    + " chunks chargés (limite : " + maximum + ").");
+    /**
+     * Chunks situés devant le front d'un tunnel infini, du plus proche au plus
+     * lointain, dans la limite laissée libre par les chunks indispensables.
+     * Les tronçons déjà creusés, derrière le mineur, n'y figurent jamais.
+     */
+    private Set<Long> computeTunnelPrefetch(MiningSessionState state, Set<Long> required, int maximum) {
+        MiningCursor cursor = state.cursor;
+        int chunksAhead = getTunnelPrefetchChunks();
+        if (chunksAhead <= 0
+                || cursor == null
+                || state.pattern != MiningPattern.TUNNEL
+                || !state.infiniteTunnel
+                || !isCardinalDirection(state.tunnelDirection)) {
+            return Set.of();
         }
 
-        Iterator<Chunk> current = runtime.ticketChunks.iterator();
-        while (current.hasNext()) {
-            Chunk chunk = current.next();
-            if (!chunk.getWorld().getUID().equals(world.getUID())
-                    || !desired.contains(chunkKey(chunk.getX(), chunk.getZ()))) {
-                chunk.removePluginChunkTicket(plugin);
-                current.remove();
+        /*
+         * La fenêtre couvre au moins le tronçon suivant en entier : son
+         * prolongement attend sinon des chunks demandés trop tard.
+         */
+        int sectionRows = ((getTunnelSectionSize(state) + 15) >> 4) + 1;
+        chunksAhead = Math.min(8, Math.max(chunksAhead, sectionRows));
+        int budget = maximum - required.size();
+        int minChunkX = cursor.minX >> 4;
+        int maxChunkX = (cursor.minX + Math.max(1, cursor.width) - 1) >> 4;
+        int minChunkZ = cursor.minZ >> 4;
+        int maxChunkZ = (cursor.minZ + Math.max(1, cursor.length) - 1) >> 4;
+        Set<Long> ahead = new LinkedHashSet<>();
+        for (int step = 1; step <= chunksAhead; step++) {
+            switch (state.tunnelDirection) {
+                case NORTH -> addPrefetchRow(ahead, required, budget, minChunkX, maxChunkX,
+                        minChunkZ - step, minChunkZ - step);
+                case SOUTH -> addPrefetchRow(ahead, required, budget, minChunkX, maxChunkX,
+                        maxChunkZ + step, maxChunkZ + step);
+                case WEST -> addPrefetchRow(ahead, required, budget, minChunkX - step, minChunkX - step,
+                        minChunkZ, maxChunkZ);
+                case EAST -> addPrefetchRow(ahead, required, budget, maxChunkX + step, maxChunkX + step,
+                        minChunkZ, maxChunkZ);
+                default -> {
+                    return ahead;
+                }
             }
         }
+        return ahead;
+    }
 
-        Set<Long> alreadyLoaded = new HashSet<>();
-        for (Chunk chunk : runtime.ticketChunks) {
-            alreadyLoaded.add(chunkKey(chunk.getX(), chunk.getZ()));
-        }
-
-        for (long key : desired) {
-            if (alreadyLoaded.contains(key)) {
-                continue;
+    private void addPrefetchRow(Set<Long> ahead,
+                                Set<Long> required,
+                                int budget,
+                                int minChunkX,
+                                int maxChunkX,
+                                int minChunkZ,
+                                int maxChunkZ) {
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (ahead.size() >= budget) {
+                    return;
+                }
+                long key = chunkKey(chunkX, chunkZ);
+                if (!required.contains(key)) {
+                    ahead.add(key);
+                }
             }
-            int chunkX = (int) (key >> 32);
-            int chunkZ = (int) key;
-            Chunk chunk = world.getChunkAt(chunkX, chunkZ);
-            chunk.addPluginChunkTicket(plugin);
-            runtime.ticketChunks.add(chunk);
         }
     }
 
@@ -2015,7 +3036,7 @@ public class Mineur implements CommandExecutor, Listener {
     }
 
     private long chunkKey(int chunkX, int chunkZ) {
-        return ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+        return ChunkTicketWindow.key(chunkX, chunkZ);
     }
 
     private void ensureFrame(MiningSessionState state) {
@@ -2075,7 +3096,8 @@ public class Mineur implements CommandExecutor, Listener {
     private void ensureContainers(MiningSessionState state,
                                   RuntimeSession runtime,
                                   boolean freshlyCreated,
-                                  MineCabinBuilder.Plan preparedCabinPlan) {
+                                  MineCabinBuilder.Plan preparedCabinPlan,
+                                  MineCabinBuilder.BuildResult prebuiltCabin) {
         runtime.containerLocations.clear();
         World world = state.base != null ? state.base.getWorld() : null;
         if (world == null) {
@@ -2088,6 +3110,7 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         state.containers.clear();
+        containerIndex.invalidate();
         if (!state.useBarrelMaster && isAutomaticMineStructureEnabled()) {
             MineCabinBuilder.Plan plan = preparedCabinPlan != null
                     ? preparedCabinPlan
@@ -2105,12 +3128,14 @@ public class Mineur implements CommandExecutor, Listener {
             Player constructionActor = state.owner != null
                     ? Bukkit.getPlayer(state.owner)
                     : null;
-            MineCabinBuilder.BuildResult construction = cabinBuilder.build(
-                    world,
-                    plan,
-                    constructionActor,
-                    fireStructureProtectionEvents()
-            );
+            MineCabinBuilder.BuildResult construction = prebuiltCabin != null
+                    ? prebuiltCabin
+                    : cabinBuilder.build(
+                            world,
+                            plan,
+                            constructionActor,
+                            fireStructureProtectionEvents()
+                    );
             runtime.freshConstruction = construction;
 
             try {
@@ -2177,6 +3202,7 @@ public class Mineur implements CommandExecutor, Listener {
                     }
                 }
                 state.containers.clear();
+                containerIndex.invalidate();
                 runtime.containerLocations.clear();
                 throw exception;
             }
@@ -2256,6 +3282,7 @@ public class Mineur implements CommandExecutor, Listener {
                                             World world) {
         List<Vector> persisted = new ArrayList<>(state.containers);
         state.containers.clear();
+        containerIndex.invalidate();
         Set<String> seen = new HashSet<>();
 
         /*
@@ -2345,6 +3372,8 @@ public class Mineur implements CommandExecutor, Listener {
         markContainerOwner(block, state);
         runtime.containerLocations.add(location);
         state.containers.add(location.toVector());
+        containerIndex.add(state, block.getWorld().getUID(),
+                block.getX(), block.getY(), block.getZ());
     }
 
     private List<Location> computeStorageLocations(MiningSessionState state) {
@@ -2612,6 +3641,7 @@ public class Mineur implements CommandExecutor, Listener {
             }
         }
         state.containers.clear();
+        containerIndex.invalidate();
     }
 
     private Villager spawnMiner(MiningSessionState state) {
@@ -2640,6 +3670,7 @@ public class Mineur implements CommandExecutor, Listener {
                 PersistentDataType.STRING,
                 state.id.toString()
         );
+        markActorChunk(villager);
 
         ItemStack pickaxe = createMiningTool();
         ItemStack helmet = new ItemStack(Material.LEATHER_HELMET);
@@ -2833,6 +3864,7 @@ public class Mineur implements CommandExecutor, Listener {
                         PersistentDataType.STRING,
                         runtime.state.id.toString()
                 );
+                markActorChunk(golem.getGolem());
                 runtime.golems.add(golem);
             } catch (RuntimeException exception) {
                 /*
@@ -2975,27 +4007,19 @@ public class Mineur implements CommandExecutor, Listener {
     }
 
     private boolean hasRuntimeChunkTicket(RuntimeSession runtime, int chunkX, int chunkZ) {
-        long expected = chunkKey(chunkX, chunkZ);
-        for (Chunk chunk : runtime.ticketChunks) {
-            if (chunk != null
-                    && chunk.getWorld().equals(runtime.state.base.getWorld())
-                    && chunkKey(chunk.getX(), chunk.getZ()) == expected) {
-                return true;
-            }
-        }
-        return false;
+        return runtime.tickets.holds(chunkX, chunkZ);
     }
 
     private void restartLoop(RuntimeSession runtime) {
+        restartLoop(runtime, true);
+    }
+
+    private void restartLoop(RuntimeSession runtime, boolean allowCatchUp) {
         if (runtime == null || runtime.state.paused) {
             return;
         }
-        if (runtime.loop != null) {
-            runtime.loop.cancelAndRollback();
-            runtime.loop = null;
-        } else {
-            runtime.state.rollbackPendingCursor();
-        }
+        runtime.cancelCatchUp();
+        runtime.cancelLoops();
 
         if (runtime.miner == null || runtime.miner.isDead() || !runtime.miner.isValid()) {
             runtime.miner = spawnMiner(runtime.state);
@@ -3014,46 +4038,427 @@ public class Mineur implements CommandExecutor, Listener {
         if (world == null) {
             throw new IllegalStateException("Monde du mineur non chargé.");
         }
+        /*
+         * Le rattrapage comme un nouveau découpage repartent de l'enveloppe :
+         * elle doit refléter la dernière avancée des bandes.
+         */
+        publishStripeEnvelope(runtime.state, world);
+
+        double progressPerTick = runtime.state.speed.progressPerTick(
+                getOwnerSpeedMultiplier(runtime.state.owner)
+        );
+        if (allowCatchUp && startCatchUpIfDue(runtime, world, progressPerTick)) {
+            return;
+        }
+
+        long loopGeneration = ++runtime.loopGeneration;
+        int workerCount = getWorkerCount(runtime.state);
+        if (workerCount > 1) {
+            startStripeWorkers(runtime, world, workerCount, progressPerTick, loopGeneration);
+            return;
+        }
+        runtime.dismissWorkers();
+        runtime.state.stripes.clear();
+
+        MiningIterator iterator = createIteratorFor(
+                world,
+                runtime.state,
+                runtime.state.cursor,
+                obtainQuarryPrescan(runtime, world),
+                obtainOreIndex(runtime, world)
+        );
+        RuntimeSession currentRuntime = runtime;
+        runtime.loop = createMiningLoop(
+                runtime,
+                runtime.miner,
+                iterator,
+                null,
+                block -> {
+                    if (currentRuntime.decoration != null) {
+                        currentRuntime.decoration.afterBlock(block);
+                    }
+                },
+                () -> onLoopCompletion(currentRuntime.state.id, loopGeneration),
+                loopGeneration,
+                progressPerTick
+        );
+        scheduler.register(runtime.loop);
+    }
+
+    private MiningLoop createMiningLoop(RuntimeSession runtime,
+                                        Villager worker,
+                                        MiningIterator iterator,
+                                        MiningStripe stripe,
+                                        Consumer<Block> afterBlock,
+                                        Runnable completion,
+                                        long loopGeneration,
+                                        double progressPerTick) {
+        MiningSessionState state = runtime.state;
+        ProtectionSettings protection = readProtectionSettings();
+        return new MiningLoop(
+                plugin,
+                state,
+                iterator,
+                runtime.router,
+                worker,
+                createMiningTool(),
+                block -> runtime.decoration == null
+                        || !runtime.decoration.isManagedBlock(block),
+                block -> canAutomatedMinerBreak(state, block, protection),
+                afterBlock,
+                completion,
+                () -> onStorageBlocked(state),
+                () -> onStorageFreed(state),
+                block -> onMiningProtectionBlocked(
+                        state,
+                        block,
+                        loopGeneration
+                ),
+                exception -> onMiningFailure(
+                        state,
+                        exception,
+                        loopGeneration
+                ),
+                plugin.getConfig().getBoolean("mineur.apply-physics", true),
+                state.waitingStorage,
+                progressPerTick,
+                new MiningLoop.Options(
+                        state.speed.isBulk() ? createBulkSettings() : null,
+                        createDropFlushPolicy(),
+                        createDeferredPhysics(state, stripe != null ? stripe.cursor : state.cursor),
+                        stripe,
+                        runtime.telemetry
+                )
+        );
+    }
+
+    /**
+     * PNJ affectés à une carrière : plafond du serveur, niveau de métier du
+     * propriétaire et largeur minimale d'une bande.
+     */
+    private int getWorkerCount(MiningSessionState state) {
+        if (state.pattern != MiningPattern.QUARRY || state.cursor == null) {
+            return 1;
+        }
+        int configured = Math.max(1, Math.min(8,
+                plugin.getConfig().getInt("mineur.workers.max", 1)));
+        if (configured <= 1) {
+            return 1;
+        }
+        JobManager jobManager = getJobManager();
+        int unlocked = jobManager != null
+                ? jobManager.getWorkersPerMineForPlayer(state.owner)
+                : configured;
+        int minStripeWidth = Math.max(1, Math.min(64,
+                plugin.getConfig().getInt("mineur.workers.min-stripe-width", 4)));
+        return Math.max(1, Math.min(
+                Math.min(configured, unlocked),
+                QuarryStripes.maxStripes(state.cursor, minStripeWidth)
+        ));
+    }
+
+    /**
+     * Répartit la carrière entre plusieurs PNJ, chacun sur sa bande, avec un
+     * routeur et un tampon de drops communs.
+     */
+    private void startStripeWorkers(RuntimeSession runtime,
+                                    World world,
+                                    int count,
+                                    double progressPerTick,
+                                    long loopGeneration) {
+        MiningSessionState state = runtime.state;
+        if (!QuarryStripes.matches(state.stripes, state.cursor, count)) {
+            state.stripes.clear();
+            state.stripes.addAll(QuarryStripes.split(state.cursor, count));
+        }
+        /*
+         * La pré-analyse ne sert qu'un itérateur couvrant exactement son
+         * rectangle : les bandes s'en passent plutôt que d'en tenir une par PNJ.
+         */
+        if (runtime.quarryPrescan != null) {
+            runtime.quarryPrescan.close();
+            runtime.quarryPrescan = null;
+        }
+        ensureStripeWorkers(runtime, state.stripes.size() - 1);
+
+        QuarryStripes stripes = new QuarryStripes(state.stripes, getEffectiveStopY(world));
+        runtime.stripes = stripes;
+        for (int index = 0; index < state.stripes.size(); index++) {
+            MiningStripe stripe = state.stripes.get(index);
+            stripe.rollbackPendingCursor();
+            StripeWorker helper = index == 0 ? null : runtime.workers.get(index - 1);
+            MiningLoop loop = createMiningLoop(
+                    runtime,
+                    helper != null ? helper.villager : runtime.miner,
+                    stripes.gate(createIteratorFor(world, state, stripe.cursor, null, null), stripe),
+                    stripe,
+                    block -> {
+                        /*
+                         * Seule la bande la plus lente prouve qu'une couche est
+                         * terminée pour toute la carrière.
+                         */
+                        stripes.publishEnvelope(state.cursor);
+                        if (runtime.decoration != null) {
+                            runtime.decoration.afterBlock(block, state.cursor.y);
+                        }
+                    },
+                    () -> onStripeCompletion(state.id, loopGeneration),
+                    loopGeneration,
+                    progressPerTick
+            );
+            if (helper != null) {
+                helper.loop = loop;
+            } else {
+                runtime.loop = loop;
+            }
+            scheduler.register(loop);
+        }
+    }
+
+    private void ensureStripeWorkers(RuntimeSession runtime, int helpers) {
+        while (runtime.workers.size() > helpers) {
+            StripeWorker surplus = runtime.workers.remove(runtime.workers.size() - 1);
+            surplus.remove();
+        }
+        for (StripeWorker worker : runtime.workers) {
+            if (worker.villager == null || worker.villager.isDead() || !worker.villager.isValid()) {
+                worker.villager = spawnMiner(runtime.state);
+            }
+        }
+        while (runtime.workers.size() < helpers) {
+            runtime.workers.add(new StripeWorker(spawnMiner(runtime.state)));
+        }
+    }
+
+    private void onStripeCompletion(UUID sessionId, long expectedGeneration) {
+        RuntimeSession runtime = runtimeOf(sessionId);
+        if (runtime == null
+                || runtime.stripes == null
+                || runtime.loopGeneration != expectedGeneration) {
+            return;
+        }
+        runtime.stripes.publishEnvelope(runtime.state.cursor);
+        if (runtime.stripes.isFinished()) {
+            onLoopCompletion(sessionId, expectedGeneration);
+        }
+    }
+
+    private void publishStripeEnvelope(MiningSessionState state, World world) {
+        if (state.stripes.isEmpty() || state.cursor == null || world == null) {
+            return;
+        }
+        new QuarryStripes(state.stripes, getEffectiveStopY(world)).publishEnvelope(state.cursor);
+    }
+
+    /**
+     * Convertit un arrêt subi en blocs rattrapés avant de relancer la boucle.
+     *
+     * @return {@code true} si la boucle sera relancée à la fin du rattrapage
+     */
+    private boolean startCatchUpIfDue(RuntimeSession runtime, World world, double progressPerTick) {
+        MiningSessionState state = runtime.state;
+        long idleSince = state.idleSinceMillis;
+        if (idleSince <= 0L) {
+            return false;
+        }
+        state.idleSinceMillis = 0L;
+
+        long idleMillis = System.currentTimeMillis() - idleSince;
+        long minimumIdleMillis = Math.max(0L, Math.min(86_400L,
+                plugin.getConfig().getLong("mineur.catch-up.min-idle-seconds", 60L))) * 1_000L;
+        if (!plugin.getConfig().getBoolean("mineur.catch-up.enabled", false)
+                || state.pattern != MiningPattern.QUARRY
+                || state.cursor == null
+                || state.cursor.exhausted
+                || !QuarryPrescan.supports(state.cursor)
+                || idleMillis < minimumIdleMillis) {
+            return false;
+        }
+
+        long maxBlocks = Math.max(0L, Math.min(1_000_000L,
+                plugin.getConfig().getLong("mineur.catch-up.max-blocks", 20_000L)));
+        long budget = OfflineCatchUp.budgetFor(
+                idleMillis,
+                MiningLoop.nominalBlocksPerTick(progressPerTick,
+                        state.speed.isBulk() ? createBulkSettings() : null),
+                maxBlocks
+        );
+        if (budget <= 0L) {
+            return false;
+        }
+        long sliceNanos = Math.max(1L, Math.min(40L,
+                plugin.getConfig().getLong("mineur.catch-up.slice-millis", 2L))) * 1_000_000L;
+
+        RuntimeSession currentRuntime = runtime;
+        ProtectionSettings protection = readProtectionSettings();
+        long generation = ++runtime.loopGeneration;
+        OfflineCatchUp catchUp = new OfflineCatchUp(
+                plugin,
+                state,
+                world,
+                runtime.router,
+                createMiningTool(),
+                block -> currentRuntime.decoration == null
+                        || !currentRuntime.decoration.isManagedBlock(block),
+                block -> canAutomatedMinerBreak(state, block, protection),
+                block -> {
+                    if (currentRuntime.decoration != null) {
+                        currentRuntime.decoration.afterBlock(block);
+                    }
+                },
+                budget,
+                getEffectiveStopY(world),
+                new OfflineCatchUp.Settings(
+                        sliceNanos,
+                        plugin.getConfig().getBoolean("mineur.apply-physics", true),
+                        plugin.getConfig().getBoolean("mineur.deferred-physics", false)
+                ),
+                finished -> onCatchUpFinished(state.id, generation, idleSince, finished)
+        );
+        runtime.catchUp = catchUp;
+        scheduler.register(catchUp);
+        plugin.getLogger().info("[Mineur] Session " + state.id + " : rattrapage de "
+                + budget + " bloc(s) au plus après " + (idleMillis / 60_000L) + " min d'arrêt.");
+        return true;
+    }
+
+    private void onCatchUpFinished(UUID sessionId,
+                                   long expectedGeneration,
+                                   long idleSince,
+                                   OfflineCatchUp catchUp) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            RuntimeSession runtime = runtimeOf(sessionId);
+            if (runtime == null
+                    || runtime.catchUp != catchUp
+                    || runtime.loopGeneration != expectedGeneration) {
+                return;
+            }
+            runtime.catchUp = null;
+            MiningSessionState state = runtime.state;
+
+            /*
+             * Rien n'a pu être rattrapé faute de chunks ou d'autorisation
+             * (propriétaire encore absent) : la dette est conservée pour la
+             * prochaine reprise au lieu d'être perdue.
+             */
+            OfflineCatchUp.Outcome outcome = catchUp.outcome();
+            if (catchUp.applied() == 0L
+                    && (outcome == OfflineCatchUp.Outcome.DENIED
+                    || outcome == OfflineCatchUp.Outcome.UNAVAILABLE)) {
+                state.idleSinceMillis = idleSince;
+            }
+            if (catchUp.applied() > 0L) {
+                // Le rattrapage a fait descendre l'enveloppe : les bandes seront redécoupées.
+                state.stripes.clear();
+                notifyOwner(state.owner, ChatColor.GREEN + "Le mineur a rattrapé "
+                        + catchUp.applied() + " bloc(s) pendant ton absence.");
+            }
+            plugin.getLogger().info("[Mineur] Session " + state.id + " : rattrapage terminé ("
+                    + outcome + ", " + catchUp.applied() + "/" + catchUp.planned() + " bloc(s)).");
+
+            try {
+                restartLoop(runtime, false);
+            } catch (RuntimeException exception) {
+                state.paused = true;
+                runtime.suspend();
+                notifyOwner(state.owner, ChatColor.RED
+                        + "La reprise après le rattrapage a échoué ; la session a été mise en pause.");
+                plugin.getLogger().log(Level.WARNING,
+                        "[Mineur] Reprise après rattrapage impossible pour la session " + state.id + ".",
+                        exception);
+            }
+            saveAllSessions();
+        });
+    }
+
+    private DeferredPhysics createDeferredPhysics(MiningSessionState state, MiningCursor bounds) {
+        if (!plugin.getConfig().getBoolean("mineur.deferred-physics", false)
+                || !DeferredPhysics.supports(state.pattern)
+                || bounds == null) {
+            return null;
+        }
+        return new DeferredPhysics(bounds);
+    }
+
+    /**
+     * Réutilise la pré-analyse tant que le rectangle parcouru reste identique.
+     */
+    private QuarryPrescan obtainQuarryPrescan(RuntimeSession runtime, World world) {
+        MiningSessionState state = runtime.state;
+        boolean eligible = (state.pattern == MiningPattern.QUARRY
+                || state.pattern == MiningPattern.VEIN_FIRST)
+                && plugin.getConfig().getBoolean("mineur.prescan.enabled", true)
+                && QuarryPrescan.supports(state.cursor);
+        if (runtime.quarryPrescan != null
+                && (!eligible || !runtime.quarryPrescan.matches(state.cursor))) {
+            runtime.quarryPrescan.close();
+            runtime.quarryPrescan = null;
+        }
+        if (eligible && runtime.quarryPrescan == null) {
+            int lookahead = Math.max(1, Math.min(32,
+                    plugin.getConfig().getInt("mineur.prescan.lookahead-layers", 4)));
+            runtime.quarryPrescan = new QuarryPrescan(plugin, world, state.cursor, lookahead);
+            blockChangeListeners = null;
+        }
+        return runtime.quarryPrescan;
+    }
+
+    /**
+     * Index de minerais couvrant l'emprise du curseur élargie du rayon de
+     * recherche, conservé tant que cette emprise ne change pas.
+     */
+    private OreIndex obtainOreIndex(RuntimeSession runtime, World world) {
+        MiningSessionState state = runtime.state;
+        boolean eligible = state.pattern == MiningPattern.VEIN_FIRST
+                && state.cursor != null
+                && isOreIndexEnabled()
+                && QuarryPrescan.supports(state.cursor);
+        int radius = getVeinScanRadius();
+        int minX = state.cursor != null ? state.cursor.minX - radius : 0;
+        int minZ = state.cursor != null ? state.cursor.minZ - radius : 0;
+        int maxX = state.cursor != null
+                ? state.cursor.minX + Math.max(1, state.cursor.width) - 1 + radius : 0;
+        int maxZ = state.cursor != null
+                ? state.cursor.minZ + Math.max(1, state.cursor.length) - 1 + radius : 0;
+        int minY = getEffectiveStopY(world) - radius;
+        int maxY = state.base.getBlockY() + radius;
+
+        if (runtime.oreIndex != null
+                && (!eligible || !runtime.oreIndex.matches(world, minX, minY, minZ, maxX, maxY, maxZ))) {
+            runtime.oreIndex.close();
+            runtime.oreIndex = null;
+        }
+        if (eligible && runtime.oreIndex == null) {
+            runtime.oreIndex = new OreIndex(plugin, world, minX, minY, minZ, maxX, maxY, maxZ);
+            runtime.oreIndex.start();
+            blockChangeListeners = null;
+        }
+        return runtime.oreIndex;
+    }
+
+    private boolean isOreIndexEnabled() {
+        return plugin.getConfig().getBoolean("mineur.vein.ore-index", true);
+    }
 
-        MiningIterator iterator = createIteratorFor(world, runtime.state, runtime.state.cursor);
-        double progressPerTick = runtime.state.speed.progressPerTick(
-                getOwnerSpeedMultiplier(runtime.state.owner)
-        );
-        RuntimeSession currentRuntime = runtime;
-        long loopGeneration = ++runtime.loopGeneration;
-        runtime.loop = new MiningLoop(
-                plugin,
-                runtime.state,
-                iterator,
-                runtime.router,
-                runtime.miner,
-                createMiningTool(),
-                block -> currentRuntime.decoration == null
-                        || !currentRuntime.decoration.isManagedBlock(block),
-                block -> canAutomatedMinerBreak(runtime.state, block),
-                block -> {
-                    if (currentRuntime.decoration != null) {
-                        currentRuntime.decoration.afterBlock(block);
-                    }
-                },
-                () -> onLoopCompletion(currentRuntime.state.id, loopGeneration),
-                () -> onStorageBlocked(currentRuntime.state),
-                () -> onStorageFreed(currentRuntime.state),
-                block -> onMiningProtectionBlocked(
-                        currentRuntime.state,
-                        block,
-                        loopGeneration
-                ),
-                exception -> onMiningFailure(
-                        currentRuntime.state,
-                        exception,
-                        loopGeneration
-                ),
-                plugin.getConfig().getBoolean("mineur.apply-physics", true),
-                runtime.state.waitingStorage,
-                progressPerTick
+    /**
+     * Sans index, chaque recherche coûte un cube de getBlockAt : le rayon reste
+     * alors plafonné plus bas que lorsque les bitmaps font le travail.
+     */
+    private int getVeinScanRadius() {
+        int maximum = isOreIndexEnabled() ? 32 : 16;
+        return Math.max(0, Math.min(maximum,
+                plugin.getConfig().getInt("mineur.vein.scan-radius", 5)));
+    }
+
+    /**
+     * Budget partagé par toutes les sessions à chaque tick serveur, borné par
+     * {@link MiningScheduler#setTickBudgetNanos}.
+     */
+    private long getSchedulerTickBudgetNanos() {
+        return plugin.getConfig().getLong(
+                "mineur.scheduler.tick-budget-nanos",
+                MiningScheduler.DEFAULT_TICK_BUDGET_NANOS
         );
-        runtime.loop.runTaskTimer(plugin, 1L, 1L);
     }
 
     private void onLoopCompletion(UUID sessionId, long expectedGeneration) {
@@ -3074,6 +4479,14 @@ public class Mineur implements CommandExecutor, Listener {
             MiningSessionState state = runtime.state;
 
             try {
+                /*
+                 * Toutes les bandes sont terminées : l'enveloppe redevient le
+                 * seul curseur avant un éventuel passage au tunnel.
+                 */
+                publishStripeEnvelope(state, state.base.getWorld());
+                state.stripes.clear();
+                runtime.stripes = null;
+
                 /*
                  * L'itérateur peut terminer sur des couches entièrement vides,
                  * donc sans callback de casse. Une dernière synchronisation
@@ -3095,6 +4508,9 @@ public class Mineur implements CommandExecutor, Listener {
                 if (state.pattern == MiningPattern.QUARRY && state.chainTunnelAfterQuarry) {
                     continued = initializeTunnelPhase(state);
                 } else if (state.pattern == MiningPattern.TUNNEL && state.infiniteTunnel) {
+                    if (deferTunnelExtension(runtime, expectedGeneration)) {
+                        return;
+                    }
                     continued = extendTunnelSection(state);
                 }
 
@@ -3207,13 +4623,41 @@ public class Mineur implements CommandExecutor, Listener {
             return false;
         }
 
-        int section = state.tunnelSectionSize > 0
-                ? Math.min(state.tunnelSectionSize, getMaximumMineWidth())
-                : getConfiguredTunnelSectionSize();
+        int section = getTunnelSectionSize(state);
         int height = state.tunnelHeight > 0
                 ? state.tunnelHeight
                 : getConfiguredTunnelHeight();
 
+        Location newBase = nextTunnelSectionBase(state, world);
+        if (newBase == null) {
+            return false;
+        }
+        if (!isTunnelSectionAllowed(state, newBase, section, height)) {
+            state.infiniteTunnel = false;
+            saveAllSessions();
+            notifyOwner(state.owner, ChatColor.YELLOW
+                    + "Tunnel arrêté avant la bordure, une autre mine ou la distance maximale.");
+            return false;
+        }
+
+        state.tunnelSectionsMined = completedSections;
+        prepareTunnelCursor(state, newBase, section, section, height);
+        saveAllSessions();
+        return true;
+    }
+
+    private int getTunnelSectionSize(MiningSessionState state) {
+        return state.tunnelSectionSize > 0
+                ? Math.min(state.tunnelSectionSize, getMaximumMineWidth())
+                : getConfiguredTunnelSectionSize();
+    }
+
+    /**
+     * Origine du tronçon qui suit le curseur courant, ou {@code null} hors
+     * des coordonnées représentables.
+     */
+    private Location nextTunnelSectionBase(MiningSessionState state, World world) {
+        int section = getTunnelSectionSize(state);
         long nextX = state.cursor.minX;
         long nextZ = state.cursor.minZ;
         switch (state.tunnelDirection) {
@@ -3222,48 +4666,111 @@ public class Mineur implements CommandExecutor, Listener {
             case WEST -> nextX -= section;
             case EAST -> nextX += section;
             default -> {
-                return false;
+                return null;
             }
         }
         if (nextX < Integer.MIN_VALUE || nextX > Integer.MAX_VALUE
                 || nextZ < Integer.MIN_VALUE || nextZ > Integer.MAX_VALUE) {
-            return false;
+            return null;
         }
-
-        Location newBase = new Location(
+        return new Location(
                 world,
                 (int) nextX,
                 clampY(world, state.cursor.minY),
                 (int) nextZ
         );
-        if (!isTunnelSectionAllowed(state, newBase, section, height)) {
-            state.infiniteTunnel = false;
-            saveAllSessions();
-            notifyOwner(state.owner, ChatColor.YELLOW
-                    + "Tunnel arrêté avant la bordure, une autre mine ou la distance maximale.");
+    }
+
+    /**
+     * Diffère le prolongement du tunnel jusqu'au chargement en arrière-plan
+     * des chunks du tronçon suivant. Le premier getBlockAt dans un chunk
+     * absent forcerait sinon sa génération sur le thread serveur.
+     *
+     * <p>Au-delà de {@code mineur.tunnel.prefetch-timeout-seconds}, le
+     * tronçon est prolongé quand même : mieux vaut un chargement bloquant
+     * qu'un tunnel arrêté par un chunk qui n'arrive pas.</p>
+     *
+     * @return {@code true} si le prolongement sera retenté à leur arrivée
+     */
+    private boolean deferTunnelExtension(RuntimeSession runtime, long expectedGeneration) {
+        MiningSessionState state = runtime.state;
+        World world = state.base != null ? state.base.getWorld() : null;
+        Location next = world != null && state.cursor != null && isCardinalDirection(state.tunnelDirection)
+                ? nextTunnelSectionBase(state, world)
+                : null;
+        if (next == null) {
+            runtime.tunnelWaitStartedNanos = 0L;
             return false;
         }
 
-        state.tunnelSectionsMined = completedSections;
-        prepareTunnelCursor(state, newBase, section, section, height);
-        saveAllSessions();
+        int section = getTunnelSectionSize(state);
+        Set<Long> keys = new HashSet<>();
+        addChunkRectangle(
+                keys,
+                next.getBlockX(),
+                (int) Math.min(Integer.MAX_VALUE, (long) next.getBlockX() + section - 1L),
+                next.getBlockZ(),
+                (int) Math.min(Integer.MAX_VALUE, (long) next.getBlockZ() + section - 1L)
+        );
+        CompletableFuture<Void> ready = runtime.tickets.whenLoaded(world, keys);
+        long now = System.nanoTime();
+        if (ready.isDone()) {
+            if (runtime.tunnelWaitStartedNanos != 0L) {
+                plugin.getLogger().fine("[Mineur] Session " + state.id + " : tronçon suivant prêt après "
+                        + ((now - runtime.tunnelWaitStartedNanos) / 1_000_000L) + " ms de chargement en arrière-plan.");
+            }
+            runtime.tunnelWaitStartedNanos = 0L;
+            return false;
+        }
+
+        long timeoutSeconds = Math.max(1L, Math.min(120L,
+                plugin.getConfig().getLong("mineur.tunnel.prefetch-timeout-seconds", 10L)));
+        if (runtime.tunnelWaitStartedNanos == 0L) {
+            runtime.tunnelWaitStartedNanos = now;
+        } else if (now - runtime.tunnelWaitStartedNanos >= timeoutSeconds * 1_000_000_000L) {
+            plugin.getLogger().warning("[Mineur] Session " + state.id
+                    + " : chunks du tronçon suivant toujours absents, chargement bloquant.");
+            runtime.tunnelWaitStartedNanos = 0L;
+            return false;
+        }
+
+        /*
+         * Une seule relance par attente : la première arrivée, chargement ou
+         * délai, annule l'autre au lieu de compter sur la génération de la
+         * boucle pour écarter le doublon.
+         */
+        AtomicBoolean retried = new AtomicBoolean();
+        Runnable retry = () -> {
+            if (retried.compareAndSet(false, true)) {
+                onLoopCompletion(state.id, expectedGeneration);
+            }
+        };
+        // Un chargement qui ne se termine jamais ne doit pas figer le tunnel.
+        BukkitTask timeout = Bukkit.getScheduler().runTaskLater(plugin, retry, timeoutSeconds * 20L);
+        ready.whenComplete((ignored, failure) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            timeout.cancel();
+            retry.run();
+        }));
         return true;
     }
 
     private void stopSession(UUID sessionId, boolean removeState, Player issuer) {
         MiningSessionState state = findSessionById(sessionId);
         RuntimeSession runtime = runtimes.remove(sessionId);
+        blockChangeListeners = null;
 
-        if (removeState && state != null) {
-            cleanupContainerMetadata(state);
-        }
         if (runtime != null) {
             runtime.stop(false);
         }
+        if (removeState && state != null) {
+            releaseDropBuffer(state, runtime);
+            cleanupContainerMetadata(state);
+        }
 
         if (state != null) {
             if (removeState) {
                 sessions.remove(state);
+                containerIndex.invalidate();
             }
             unregisterOwnerSession(state);
             selectedSessions.entrySet().removeIf(
@@ -3278,6 +4785,58 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    /**
+     * Une session supprimée ne doit pas emporter les drops qu'elle n'a pas
+     * encore rangés : ils vont dans ses coffres, sinon au sol près de la base.
+     */
+    private void releaseDropBuffer(MiningSessionState state, RuntimeSession runtime) {
+        if (state.dropBuffer.isEmpty()) {
+            return;
+        }
+        List<ItemStack> pending = state.dropBuffer.drain();
+        World world = state.base != null ? state.base.getWorld() : null;
+        if (world == null) {
+            plugin.getLogger().warning("[Mineur] Monde absent : " + pending.size()
+                    + " pile(s) en attente de la session " + state.id + " perdue(s).");
+            return;
+        }
+        Location fallback = state.base.clone().add(0.5D, 1.0D, 0.5D);
+        /*
+         * Chaque pile ne quitte ces files qu'une fois rangée ou posée au sol :
+         * après une exception, seules les piles restantes sont jetées, sans
+         * dupliquer ce qui a déjà été déposé.
+         */
+        Deque<ItemStack> unsettled = new ArrayDeque<>(pending);
+        Deque<ItemStack> toDrop = new ArrayDeque<>();
+        try {
+            InventoryRouter router = null;
+            if (runtime != null) {
+                router = runtime.router != null
+                        ? runtime.router
+                        : createInventoryRouter(runtime);
+            }
+            while (!unsettled.isEmpty()) {
+                List<ItemStack> single = List.of(unsettled.peekFirst());
+                List<ItemStack> leftovers = router != null ? router.deposit(single) : single;
+                unsettled.pollFirst();
+                toDrop.addAll(leftovers);
+                while (!toDrop.isEmpty()) {
+                    world.dropItemNaturally(fallback, toDrop.peekFirst());
+                    toDrop.pollFirst();
+                }
+            }
+        } catch (RuntimeException exception) {
+            plugin.getLogger().log(Level.WARNING,
+                    "[Mineur] Dépôt final impossible pour la session " + state.id + ".", exception);
+            for (ItemStack item : toDrop) {
+                world.dropItemNaturally(fallback, item);
+            }
+            for (ItemStack item : unsettled) {
+                world.dropItemNaturally(fallback, item);
+            }
+        }
+    }
+
     private boolean isWorldAllowed(World world) {
         if (world == null) {
             return false;
@@ -3610,6 +5169,7 @@ public class Mineur implements CommandExecutor, Listener {
 
         state.containers.clear();
         state.containers.addAll(valid);
+        containerIndex.invalidate();
     }
 
     private boolean isRectangleInsideWorldBorder(World world,
@@ -3672,6 +5232,11 @@ public class Mineur implements CommandExecutor, Listener {
                 plugin.getConfig().getInt("mineur.limits.max-area", 4096)));
     }
 
+    private int getTunnelPrefetchChunks() {
+        return Math.max(0, Math.min(8,
+                plugin.getConfig().getInt("mineur.tunnel.prefetch-chunks", 2)));
+    }
+
     private int getMaximumLoadedChunks() {
         return Math.max(1, Math.min(1024,
                 plugin.getConfig().getInt("mineur.limits.max-loaded-chunks", 64)));
@@ -3786,7 +5351,18 @@ public class Mineur implements CommandExecutor, Listener {
             return null;
         }
 
-        for (MiningSessionState existing : sessions) {
+        /*
+         * Une cabane en construction n'a pas encore de session enregistrée,
+         * mais son emprise est déjà réservée.
+         */
+        List<MiningSessionState> candidates = sessions;
+        if (!pendingBuilds.isEmpty()) {
+            candidates = new ArrayList<>(sessions);
+            for (PendingCabinBuild pending : pendingBuilds.values()) {
+                candidates.add(pending.state);
+            }
+        }
+        for (MiningSessionState existing : candidates) {
             if (existing == null
                     || Objects.equals(existing.id, excludedSession)
                     || existing.worldUid == null
@@ -4030,7 +5606,27 @@ public class Mineur implements CommandExecutor, Listener {
         return new ItemStack(material);
     }
 
-    private boolean canAutomatedMinerBreak(MiningSessionState state, Block block) {
+    /**
+     * Options de protection lues une fois par boucle plutôt qu'à chaque bloc ;
+     * une reprise de session relit la configuration.
+     */
+    private record ProtectionSettings(boolean ownerRequired,
+                                      boolean fireBreakEvent,
+                                      int preauthorize) {
+    }
+
+    private ProtectionSettings readProtectionSettings() {
+        return new ProtectionSettings(
+                plugin.getConfig().getBoolean("mineur.protection.require-owner-online", true),
+                plugin.getConfig().getBoolean("mineur.protection.fire-block-break-event", true),
+                Math.max(0, Math.min(256,
+                        plugin.getConfig().getInt("mineur.protection.cache.preauthorize", 0)))
+        );
+    }
+
+    private boolean canAutomatedMinerBreak(MiningSessionState state,
+                                           Block block,
+                                           ProtectionSettings protection) {
         if (state == null
                 || block == null
                 || state.paused
@@ -4043,35 +5639,76 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         Player owner = state.owner != null ? Bukkit.getPlayer(state.owner) : null;
-        boolean ownerRequired = plugin.getConfig().getBoolean(
-                "mineur.protection.require-owner-online",
-                true
-        );
         if (owner == null) {
-            return !ownerRequired
-                    && !plugin.getConfig().getBoolean(
-                    "mineur.protection.fire-block-break-event",
-                    true
-            );
+            return !protection.ownerRequired() && !protection.fireBreakEvent();
         }
 
-        if (!plugin.getConfig().getBoolean(
-                "mineur.protection.fire-block-break-event",
-                true
-        )) {
+        if (!protection.fireBreakEvent()) {
             return true;
         }
 
+        Material material = block.getType();
+        Boolean cached = protectionVerdicts.lookup(state.id,
+                block.getX(), block.getY(), block.getZ(), material);
+        if (cached != null) {
+            return cached;
+        }
+
         return AutomatedMiningContext.call(() -> {
-            BlockBreakEvent syntheticEvent = new BlockBreakEvent(block, owner);
-            syntheticEvent.setDropItems(false);
-            syntheticEvent.setExpToDrop(0);
-            Bukkit.getPluginManager().callEvent(syntheticEvent);
-            /*
-             * Si un listener autorisé modifie lui-même le bloc, la boucle le
-             * revalidera juste après l'événement et le sautera proprement.
-             */
-            return !syntheticEvent.isCancelled();
+            boolean allowed = fireSyntheticBreak(block, owner);
+            protectionVerdicts.store(state.id,
+                    block.getX(), block.getY(), block.getZ(), material, allowed);
+            if (allowed && protection.preauthorize() > 0 && protectionVerdicts.isEnabled()) {
+                preauthorizeUpcoming(state, block, owner, protection.preauthorize());
+            }
+            return allowed;
+        });
+    }
+
+    private boolean fireSyntheticBreak(Block block, Player owner) {
+        BlockBreakEvent syntheticEvent = new BlockBreakEvent(block, owner);
+        syntheticEvent.setDropItems(false);
+        syntheticEvent.setExpToDrop(0);
+        Bukkit.getPluginManager().callEvent(syntheticEvent);
+        /*
+         * Si un listener autorisé modifie lui-même le bloc, la boucle le
+         * revalidera juste après l'événement et le sautera proprement.
+         */
+        return !syntheticEvent.isCancelled();
+    }
+
+    /**
+     * Interroge en une passe les plugins de protection pour les prochaines
+     * positions du curseur, un seul événement par couple section/matériau
+     * encore inconnu. Les blocs suivants de la couche trouvent alors leur
+     * verdict en cache au lieu de déclencher chacun un événement.
+     *
+     * <p>Ces événements visent des blocs qui ne sont pas encore cassés : ils
+     * restent marqués comme automatisés pour que les écouteurs internes,
+     * notamment ceux des index de minerais, les ignorent.</p>
+     */
+    private void preauthorizeUpcoming(MiningSessionState state,
+                                      Block origin,
+                                      Player owner,
+                                      int limit) {
+        World world = origin.getWorld();
+        AutomatedMiningContext.call(() -> {
+            ProtectionVerdictCache.forEachUpcoming(state.cursor,
+                    origin.getX(), origin.getY(), origin.getZ(), limit, (x, y, z) -> {
+                        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                            return;
+                        }
+                        Block upcoming = world.getBlockAt(x, y, z);
+                        Material material = upcoming.getType();
+                        if (!MiningBlockPolicy.isCandidate(material)
+                                || protectionVerdicts.contains(state.id, x, y, z, material)
+                                || !isInsideWorldBorder(upcoming.getLocation())) {
+                            return;
+                        }
+                        protectionVerdicts.store(state.id, x, y, z, material,
+                                fireSyntheticBreak(upcoming, owner));
+                    });
+            return null;
         });
     }
 
@@ -4106,6 +5743,10 @@ public class Mineur implements CommandExecutor, Listener {
                 return;
             }
             state.paused = true;
+            if (state.idleSinceMillis <= 0L
+                    && (state.owner == null || Bukkit.getPlayer(state.owner) == null)) {
+                state.idleSinceMillis = System.currentTimeMillis();
+            }
             runtime.suspend();
             saveAllSessions();
             notifyOwner(state.owner, ChatColor.RED
@@ -4135,7 +5776,9 @@ public class Mineur implements CommandExecutor, Listener {
 
     private MiningIterator createIteratorFor(World world,
                                              MiningSessionState state,
-                                             MiningCursor cursor) {
+                                             MiningCursor cursor,
+                                             QuarryPrescan prescan,
+                                             OreIndex oreIndex) {
         if (world == null) {
             throw new IllegalStateException("Monde absent dans createIteratorFor.");
         }
@@ -4149,7 +5792,7 @@ public class Mineur implements CommandExecutor, Listener {
 
         int stopY = getEffectiveStopY(world);
         return switch (state.pattern) {
-            case QUARRY -> new QuarryIterator(world, cursor, stopY);
+            case QUARRY -> new QuarryIterator(world, cursor, stopY, prescan);
             case BRANCH -> {
                 int spacing = Math.max(2, Math.min(64,
                         plugin.getConfig().getInt("mineur.branch.spacing", 6)));
@@ -4172,13 +5815,12 @@ public class Mineur implements CommandExecutor, Listener {
                 yield new TunnelIterator(world, cursor, height);
             }
             case VEIN_FIRST -> {
-                int scanRadius = Math.max(0, Math.min(16,
-                        plugin.getConfig().getInt("mineur.vein.scan-radius", 5)));
+                int scanRadius = getVeinScanRadius();
                 int maxBlocks = Math.max(1, Math.min(512,
                         plugin.getConfig().getInt("mineur.vein.max-blocks", 96)));
                 int scanEvery = Math.max(1, Math.min(128,
                         plugin.getConfig().getInt("mineur.vein.scan-every-blocks", 8)));
-                MiningIterator delegate = new QuarryIterator(world, cursor, stopY);
+                MiningIterator delegate = new QuarryIterator(world, cursor, stopY, prescan);
                 yield new VeinFirstIterator(
                         world,
                         delegate,
@@ -4187,7 +5829,8 @@ public class Mineur implements CommandExecutor, Listener {
                         scanEvery,
                         stopY,
                         state.base.getBlockY(),
-                        true
+                        true,
+                        oreIndex
                 );
             }
         };
@@ -4483,6 +6126,27 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    private MiningLoop.BulkSettings createBulkSettings() {
+        int maxBlocks = Math.max(1, Math.min(256,
+                plugin.getConfig().getInt("mineur.bulk.max-blocks-per-tick", 32)));
+        long budgetMicros = Math.max(50L, Math.min(10_000L,
+                plugin.getConfig().getLong("mineur.bulk.budget-micros", 500L)));
+        int effectEvery = Math.max(1,
+                plugin.getConfig().getInt("mineur.bulk.effects-every", 8));
+        return new MiningLoop.BulkSettings(maxBlocks, budgetMicros * 1_000L, effectEvery);
+    }
+
+    private DropBuffer.FlushPolicy createDropFlushPolicy() {
+        return new DropBuffer.FlushPolicy(
+                Math.max(1, Math.min(1_024,
+                        plugin.getConfig().getInt("mineur.drop-buffer.flush-every-blocks", 16))),
+                Math.max(1, Math.min(1_200,
+                        plugin.getConfig().getInt("mineur.drop-buffer.flush-every-ticks", 100))),
+                Math.max(1, Math.min(27,
+                        plugin.getConfig().getInt("mineur.drop-buffer.max-stacks", 9)))
+        );
+    }
+
     private MiningSpeed getDefaultSpeed() {
         String value = plugin.getConfig().getString("mineur.default.speed", "NORMAL");
         MiningSpeed speed = parseSpeed(value);
@@ -4498,6 +6162,7 @@ public class Mineur implements CommandExecutor, Listener {
             case "slow", "lent" -> MiningSpeed.SLOW;
             case "normal" -> MiningSpeed.NORMAL;
             case "fast", "rapide" -> MiningSpeed.FAST;
+            case "bulk", "masse" -> MiningSpeed.BULK;
             default -> {
                 try {
                     yield MiningSpeed.valueOf(value.trim().toUpperCase(Locale.ROOT));
@@ -4508,6 +6173,32 @@ public class Mineur implements CommandExecutor, Listener {
         };
     }
 
+    private StorageRouting getDefaultRouting() {
+        String value = plugin.getConfig().getString("mineur.default.routing", "AFFINITY");
+        StorageRouting routing = parseRouting(value);
+        return routing != null ? routing : StorageRouting.AFFINITY;
+    }
+
+    private StorageRouting parseRouting(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "affinity", "affinite", "affinité" -> StorageRouting.AFFINITY;
+            case "fill_first", "fill", "remplissage" -> StorageRouting.FILL_FIRST;
+            case "barrel_overflow", "barrel", "tonneau", "tonneaux" -> StorageRouting.BARREL_OVERFLOW;
+            case "round_robin", "rotation" -> StorageRouting.ROUND_ROBIN;
+            default -> {
+                try {
+                    yield StorageRouting.valueOf(value.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException ex) {
+                    yield null;
+                }
+            }
+        };
+    }
+
     private MiningPattern parsePattern(String value) {
         if (value == null || value.isBlank()) {
             return null;
@@ -4553,20 +6244,124 @@ public class Mineur implements CommandExecutor, Listener {
         }
     }
 
+    /**
+     * Chevalement en cours de construction pour une session pas encore
+     * enregistrée. Les chunks sont maintenus par ses propres tickets jusqu'au
+     * démarrage du runtime.
+     */
+    private final class PendingCabinBuild implements MiningScheduler.Task {
+
+        private static final int PROGRESS_INTERVAL_TICKS = 10;
+
+        private final MiningSessionState state;
+        private final ChunkTicketWindow tickets = new ChunkTicketWindow(plugin);
+        private MineCabinBuilder.BuildJob job;
+        private int runs;
+
+        PendingCabinBuild(MiningSessionState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void run() {
+            job.run();
+            if (job.isDone() || ++runs % PROGRESS_INTERVAL_TICKS != 0) {
+                return;
+            }
+            Player player = state.owner != null ? Bukkit.getPlayer(state.owner) : null;
+            if (player != null) {
+                player.sendActionBar(Component.text("Chevalement : "
+                        + Math.round(job.progress() * 100.0D) + " % (" + describe(job.stage()) + ")"));
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return job.isDone();
+        }
+
+        boolean contains(Block block) {
+            MiningSessionState.StructureBounds bounds = state.structureBounds;
+            return bounds != null
+                    && Objects.equals(block.getWorld().getUID(), state.worldUid)
+                    && block.getX() >= bounds.minX() && block.getX() <= bounds.maxX()
+                    && block.getY() >= bounds.minY() && block.getY() <= bounds.maxY()
+                    && block.getZ() >= bounds.minZ() && block.getZ() <= bounds.maxZ();
+        }
+
+        private String describe(MineCabinBuilder.BuildJob.Stage stage) {
+            return switch (stage) {
+                case FOUNDATIONS -> "fondations";
+                case VALIDATION, CHEST_NEIGHBOURS -> "vérification du terrain";
+                case CLEARING -> "dégagement";
+                case PLACEMENT -> "pose des blocs";
+                default -> "finitions";
+            };
+        }
+    }
+
+    /**
+     * PNJ supplémentaire d'une carrière partagée et la boucle de sa bande.
+     */
+    private static final class StripeWorker {
+        private Villager villager;
+        private MiningLoop loop;
+
+        StripeWorker(Villager villager) {
+            this.villager = villager;
+        }
+
+        void cancel() {
+            if (loop != null) {
+                loop.cancelAndRollback();
+                loop = null;
+            }
+        }
+
+        void remove() {
+            cancel();
+            if (villager != null && !villager.isDead()) {
+                villager.remove();
+            }
+            villager = null;
+        }
+    }
+
     private final class RuntimeSession {
         private final MiningSessionState state;
-        private final Set<Chunk> ticketChunks = new HashSet<>();
+        private final ChunkTicketWindow tickets = new ChunkTicketWindow(plugin);
+        /**
+         * Compteurs de la session, conservés d'une boucle à l'autre tant que
+         * la session tourne.
+         */
+        private final MiningTelemetry telemetry = new MiningTelemetry(scheduler::getTickCount);
         private final List<Location> containerLocations = new ArrayList<>();
         private final List<Golem> golems = new ArrayList<>();
         private Villager miner;
         private MiningLoop loop;
+        /**
+         * PNJ supplémentaires d'une carrière partagée. Le premier ouvrier
+         * reste {@link #miner}, avec {@link #loop}.
+         */
+        private final List<StripeWorker> workers = new ArrayList<>();
+        private QuarryStripes stripes;
+        private OfflineCatchUp catchUp;
+        /**
+         * Début de l'attente des chunks du tronçon de tunnel suivant, ou 0.
+         */
+        private long tunnelWaitStartedNanos;
         /**
          * Invalide les callbacks différés appartenant à une ancienne boucle.
          */
         private long loopGeneration;
         private InventoryRouter router;
         private DecorationDelegate decoration;
-        private Hologram storageHologram;
+        /**
+         * Hologramme réutilisé au-dessus du mineur, créé au premier affichage.
+         */
+        private Hologram hologram;
+        private QuarryPrescan quarryPrescan;
+        private OreIndex oreIndex;
         private MineCabinBuilder.BuildResult freshConstruction;
 
         RuntimeSession(MiningSessionState state) {
@@ -4575,21 +6370,58 @@ public class Mineur implements CommandExecutor, Listener {
 
         void suspend() {
             loopGeneration++;
+            cancelCatchUp();
+            cancelLoops();
+            removeActors();
+            if (hologram != null) {
+                hologram.hide();
+                hologram = null;
+            }
+            /*
+             * Le monde peut changer librement pendant une pause : les bitmaps
+             * seront recalculées à la reprise.
+             */
+            if (quarryPrescan != null) {
+                quarryPrescan.close();
+                quarryPrescan = null;
+            }
+            if (oreIndex != null) {
+                oreIndex.close();
+                oreIndex = null;
+            }
+            protectionVerdicts.invalidateSession(state.id);
+            releaseChunkTickets();
+        }
+
+        /**
+         * Annule les boucles de la session et remet chaque curseur avant son
+         * bloc non cassé.
+         */
+        void cancelLoops() {
             if (loop != null) {
                 loop.cancelAndRollback();
                 loop = null;
             } else {
                 state.rollbackPendingCursor();
             }
-            removeActors();
-            if (storageHologram != null) {
-                storageHologram.hide();
-                storageHologram = null;
+            for (StripeWorker worker : workers) {
+                worker.cancel();
             }
-            releaseChunkTickets();
+            for (MiningStripe stripe : state.stripes) {
+                stripe.rollbackPendingCursor();
+            }
+            stripes = null;
+        }
+
+        void dismissWorkers() {
+            for (StripeWorker worker : workers) {
+                worker.remove();
+            }
+            workers.clear();
         }
 
         void removeActors() {
+            dismissWorkers();
             if (miner != null) {
                 if (!miner.isDead()) {
                     miner.remove();
@@ -4603,10 +6435,15 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         void releaseChunkTickets() {
-            for (Chunk chunk : new HashSet<>(ticketChunks)) {
-                chunk.removePluginChunkTicket(plugin);
+            tickets.release();
+        }
+
+        void cancelCatchUp() {
+            if (catchUp != null) {
+                catchUp.cancel();
+                scheduler.unregister(catchUp);
+                catchUp = null;
             }
-            ticketChunks.clear();
         }
 
         void commitFreshConstruction() {
@@ -4631,6 +6468,7 @@ public class Mineur implements CommandExecutor, Listener {
             freshConstruction.rollback();
             freshConstruction = null;
             state.containers.clear();
+            containerIndex.invalidate();
             containerLocations.clear();
             state.structureVersion = 0;
             state.structureBounds = null;
@@ -4653,6 +6491,7 @@ public class Mineur implements CommandExecutor, Listener {
         private final boolean optionalDecorationsEnabled;
         private final boolean integratedShaftEnabled;
         private final MineShaftColumnBuilder.Layout shaftLayout;
+        private final MineShaftColumnBuilder.CompiledLayout shaftColumns;
         private final int shaftLightInterval;
 
         /*
@@ -4693,6 +6532,13 @@ public class Mineur implements CommandExecutor, Listener {
             )
                     : null;
             this.shaftLightInterval = getShaftLightInterval();
+            /*
+             * afterBlock et isManagedBlock sont appelés pour chaque bloc miné :
+             * la géométrie est compilée une fois pour toute la session.
+             */
+            this.shaftColumns = shaftLayout != null
+                    ? MineShaftColumnBuilder.compile(shaftLayout, state.base.getBlockY(), shaftLightInterval)
+                    : null;
 
             this.supportSpacing = Math.max(
                     0,
@@ -4744,6 +6590,16 @@ public class Mineur implements CommandExecutor, Listener {
         }
 
         void afterBlock(Block block) {
+            afterBlock(block, block != null ? block.getY() : 0);
+        }
+
+        /**
+         * @param minedLayerY couche la plus basse atteinte par toute la
+         *                    carrière ; avec plusieurs bandes, un bloc cassé
+         *                    plus bas ne termine pas encore les couches
+         *                    au-dessus de lui.
+         */
+        void afterBlock(Block block, int minedLayerY) {
             initialize();
             if (block == null) {
                 return;
@@ -4756,10 +6612,10 @@ public class Mineur implements CommandExecutor, Listener {
              * ou des blocs protégés. La transition du parcours vers un Y plus
              * bas est la seule preuve fiable qu'une couche est terminée.
              */
-            advanceCompletedLayers(block.getWorld(), block.getY());
+            advanceCompletedLayers(block.getWorld(), Math.max(block.getY(), minedLayerY));
 
             if (integratedShaftEnabled
-                    && shaftLayout.isRelevantHorizontal(block.getX(), block.getZ())) {
+                    && shaftColumns.isRelevantHorizontal(block.getX(), block.getZ())) {
                 maintainIntegratedLayer(block.getWorld(), block.getY());
             } else if (!integratedShaftEnabled
                     && optionalDecorationsEnabled
@@ -4795,11 +6651,7 @@ public class Mineur implements CommandExecutor, Listener {
                 return false;
             }
             if (integratedShaftEnabled) {
-                return MineShaftColumnBuilder.isManagedBlock(
-                        shaftLayout,
-                        state.base.getBlockY(),
-                        block
-                );
+                return shaftColumns.isManagedBlock(block);
             }
             return optionalDecorationsEnabled
                     && block.getX() == ladderX
@@ -4832,12 +6684,10 @@ public class Mineur implements CommandExecutor, Listener {
             );
 
             try {
-                MineShaftColumnBuilder.maintainRange(
+                MineShaftColumnBuilder.repairRange(
                         world,
-                        shaftLayout,
-                        state.base.getBlockY(),
+                        shaftColumns,
                         targetY,
-                        shaftLightInterval,
                         this::placeIntegratedShaftBlock
                 );
                 currentLayerY = targetY;
@@ -4889,12 +6739,10 @@ public class Mineur implements CommandExecutor, Listener {
                 return;
             }
             if (integratedShaftEnabled) {
-                MineShaftColumnBuilder.maintainRange(
+                MineShaftColumnBuilder.repairRange(
                         world,
-                        shaftLayout,
-                        state.base.getBlockY(),
+                        shaftColumns,
                         currentLayerY,
-                        shaftLightInterval,
                         this::placeIntegratedShaftBlock
                 );
             } else if (optionalDecorationsEnabled) {
@@ -0,0 +1,235 @@
+package org.example.mineur;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tickets de chunks d'une session, appliqués par différence.
+ *
+ * <p>L'ensemble voulu se compose de chunks indispensables (zone en cours,
+ * structure, coffres), chargés immédiatement, et de chunks d'avance sur le
+ * trajet du curseur. Ces derniers sont chargés de façon asynchrone puis
+ * retenus par un ticket à leur arrivée : quand le tunnel atteint un nouveau
+ * tronçon, ses chunks sont déjà prêts et le thread serveur ne bloque plus sur
+ * leur génération. Tout chunk qui sort de la fenêtre, derrière le mineur,
+ * perd son ticket.</p>
+ *
+ * <p>Toutes les méthodes s'exécutent sur le thread principal ; Paper y
+ * complète aussi les chargements asynchrones.</p>
+ *
+ * <p>La fenêtre compte ses chargements : ceux faits en arrière-plan, avec
+ * leur durée, que le thread serveur n'a pas eu à attendre, et ceux qu'un
+ * chunk indispensable encore absent a imposés au thread serveur.</p>
+ */
+public final class ChunkTicketWindow {
+
+    private final Plugin plugin;
+    private final Map<Long, Chunk> held = new HashMap<>();
+    private final Map<Long, CompletableFuture<Chunk>> loading = new HashMap<>();
+    private Set<Long> desired = Set.of();
+    private World world;
+    private long asyncLoads;
+    private long asyncLoadNanos;
+    private long blockingLoads;
+    private long blockingLoadNanos;
+
+    public ChunkTicketWindow(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Fait correspondre les tickets posés à la nouvelle fenêtre.
+     *
+     * @param required chunks nécessaires tout de suite, chargés si besoin
+     * @param ahead    chunks préchargés en arrière-plan, sans attente
+     */
+    public void apply(World target, Set<Long> required, Set<Long> ahead) {
+        if (target == null) {
+            throw new IllegalStateException("Monde de la session non chargé.");
+        }
+        if (world != null && !world.getUID().equals(target.getUID())) {
+            release();
+        }
+        world = target;
+
+        Set<Long> wanted = new HashSet<>(required);
+        if (ahead != null) {
+            wanted.addAll(ahead);
+        }
+        desired = wanted;
+
+        Iterator<Map.Entry<Long, Chunk>> current = held.entrySet().iterator();
+        while (current.hasNext()) {
+            Map.Entry<Long, Chunk> entry = current.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().removePluginChunkTicket(plugin);
+                current.remove();
+            }
+        }
+
+        for (long key : required) {
+            if (!held.containsKey(key)) {
+                hold(key, loadNow(target, key));
+            }
+        }
+
+        if (ahead == null) {
+            return;
+        }
+        for (long key : ahead) {
+            if (held.containsKey(key) || loading.containsKey(key)) {
+                continue;
+            }
+            int chunkX = chunkX(key);
+            int chunkZ = chunkZ(key);
+            if (target.isChunkLoaded(chunkX, chunkZ)) {
+                hold(key, target.getChunkAt(chunkX, chunkZ));
+                continue;
+            }
+            loadAsync(target, key);
+        }
+    }
+
+    /**
+     * Futur complété quand tous ces chunks sont chargés. Les chunks absents
+     * sont demandés en arrière-plan, en réutilisant un chargement déjà en
+     * cours ; ils ne sont retenus que s'ils appartiennent à la fenêtre.
+     */
+    public CompletableFuture<Void> whenLoaded(World target, Set<Long> keys) {
+        if (target == null) {
+            throw new IllegalStateException("Monde de la session non chargé.");
+        }
+        List<CompletableFuture<Chunk>> pending = new ArrayList<>();
+        for (long key : keys) {
+            if (target.isChunkLoaded(chunkX(key), chunkZ(key))) {
+                continue;
+            }
+            CompletableFuture<Chunk> inFlight = world == target ? loading.get(key) : null;
+            pending.add(inFlight != null ? inFlight : loadAsync(target, key));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private Chunk loadNow(World target, long key) {
+        int chunkX = chunkX(key);
+        int chunkZ = chunkZ(key);
+        if (target.isChunkLoaded(chunkX, chunkZ)) {
+            return target.getChunkAt(chunkX, chunkZ);
+        }
+        long start = System.nanoTime();
+        Chunk chunk = target.getChunkAt(chunkX, chunkZ);
+        blockingLoads++;
+        blockingLoadNanos += System.nanoTime() - start;
+        return chunk;
+    }
+
+    private CompletableFuture<Chunk> loadAsync(World target, long key) {
+        long start = System.nanoTime();
+        CompletableFuture<Chunk> tracked = target.getChunkAtAsync(chunkX(key), chunkZ(key))
+                .whenComplete((chunk, failure) -> {
+                    loading.remove(key);
+                    if (failure != null || chunk == null) {
+                        return;
+                    }
+                    asyncLoads++;
+                    asyncLoadNanos += System.nanoTime() - start;
+                    /*
+                     * La fenêtre a pu avancer, changer de monde ou être libérée
+                     * pendant le chargement : seul un chunk encore voulu est retenu.
+                     */
+                    if (world == target
+                            && desired.contains(key)
+                            && !held.containsKey(key)) {
+                        hold(key, chunk);
+                    }
+                });
+        // Un chunk déjà en mémoire complète le futur avant ce point.
+        if (!tracked.isDone()) {
+            loading.put(key, tracked);
+        }
+        return tracked;
+    }
+
+    /**
+     * Retire tous les tickets ; les chargements en cours seront ignorés.
+     */
+    public void release() {
+        for (Chunk chunk : held.values()) {
+            chunk.removePluginChunkTicket(plugin);
+        }
+        held.clear();
+        desired = Set.of();
+        world = null;
+    }
+
+    public boolean holds(int chunkX, int chunkZ) {
+        return held.containsKey(key(chunkX, chunkZ));
+    }
+
+    public int heldCount() {
+        return held.size();
+    }
+
+    public int loadingCount() {
+        return loading.size();
+    }
+
+    /**
+     * Chunks chargés en arrière-plan, sans attente du thread serveur.
+     */
+    public long asyncLoads() {
+        return asyncLoads;
+    }
+
+    /**
+     * Durée cumulée de ces chargements : l'ordre de grandeur des blocages
+     * évités au thread serveur.
+     */
+    public long asyncLoadNanos() {
+        return asyncLoadNanos;
+    }
+
+    /**
+     * Chunks indispensables encore absents, chargés sur le thread serveur.
+     */
+    public long blockingLoads() {
+        return blockingLoads;
+    }
+
+    public long blockingLoadNanos() {
+        return blockingLoadNanos;
+    }
+
+    public Collection<Chunk> chunks() {
+        return Collections.unmodifiableCollection(new ArrayList<>(held.values()));
+    }
+
+    private void hold(long key, Chunk chunk) {
+        chunk.addPluginChunkTicket(plugin);
+        held.put(key, chunk);
+    }
+
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) ^ (chunkZ & 0xFFFFFFFFL);
+    }
+
+    static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int chunkZ(long key) {
+        return (int) key;
+    }
+}
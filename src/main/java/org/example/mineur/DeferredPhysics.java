@@ -0,0 +1,145 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Physique différée des carrières avec {@code mineur.apply-physics: true}.
+ *
+ * <p>Les blocs de l'intérieur du rectangle sont cassés sans mise à jour des
+ * voisins : leurs voisins latéraux sont eux-mêmes minés et la couche du
+ * dessus est déjà vide. Seul l'anneau extérieur, au contact des parois,
+ * garde la physique immédiate ; le sable et le gravier des bords tombent
+ * donc comme avant.</p>
+ *
+ * <p>Une couche devient « à régler » dès qu'un bloc intérieur y est cassé.
+ * Lorsque le parcours descend sous elle, ou à la fin et à l'annulation de
+ * la boucle, une seule passe réveille les blocs restés dans la couche et
+ * juste au-dessus : liquides via {@link Block#fluidTick()}, blocs soumis à la
+ * gravité via {@link Block#tick()}. La lumière n'a pas besoin de passe :
+ * le moteur d'éclairage de Paper la recalcule même sans physique.</p>
+ *
+ * <p>Un détour de filon plus bas peut régler une couche avant la fin : elle
+ * sera simplement réglée une seconde fois, jamais oubliée.</p>
+ */
+public final class DeferredPhysics {
+
+    private final int minX;
+    private final int maxX;
+    private final int minZ;
+    private final int maxZ;
+    private final NavigableSet<Integer> pendingLayers = new TreeSet<>();
+
+    private World world;
+    private int lastPendingY = Integer.MIN_VALUE;
+    private long settledLayers;
+    private long wokenBlocks;
+
+    public DeferredPhysics(MiningCursor bounds) {
+        if (bounds == null || bounds.width <= 0 || bounds.length <= 0) {
+            throw new IllegalArgumentException("Rectangle de physique différée invalide.");
+        }
+        this.minX = bounds.minX;
+        this.minZ = bounds.minZ;
+        this.maxX = (int) Math.min(Integer.MAX_VALUE, (long) bounds.minX + bounds.width - 1L);
+        this.maxZ = (int) Math.min(Integer.MAX_VALUE, (long) bounds.minZ + bounds.length - 1L);
+    }
+
+    /**
+     * Les tunnels avancent à l'horizontale : leur « couche » n'est jamais
+     * terminée par une descente et garderait sa physique en suspens.
+     */
+    public static boolean supports(MiningPattern pattern) {
+        return pattern == MiningPattern.QUARRY
+                || pattern == MiningPattern.BRANCH
+                || pattern == MiningPattern.VEIN_FIRST;
+    }
+
+    /**
+     * Vrai si la casse de cette colonne peut attendre la passe de couche.
+     * Un rectangle de moins de trois blocs de côté n'a pas d'intérieur.
+     */
+    public boolean isInterior(int x, int z) {
+        return x > minX && x < maxX && z > minZ && z < maxZ;
+    }
+
+    /**
+     * À appeler après chaque casse, différée ou non.
+     *
+     * @param deferred vrai si le bloc a été cassé sans physique.
+     */
+    public void onBlockBroken(Block block, boolean deferred) {
+        int y = block.getY();
+        world = block.getWorld();
+        if (!pendingLayers.isEmpty() && pendingLayers.last() > y) {
+            settleAbove(y);
+        }
+        if (deferred && y != lastPendingY) {
+            pendingLayers.add(y);
+            lastPendingY = y;
+        }
+    }
+
+    /**
+     * Règle toutes les couches encore en attente.
+     */
+    public void settleAll() {
+        settleAbove(Integer.MIN_VALUE);
+    }
+
+    public boolean hasPendingLayers() {
+        return !pendingLayers.isEmpty();
+    }
+
+    public long settledLayers() {
+        return settledLayers;
+    }
+
+    public long wokenBlocks() {
+        return wokenBlocks;
+    }
+
+    private void settleAbove(int y) {
+        NavigableSet<Integer> layers = pendingLayers.tailSet(y, false);
+        while (!layers.isEmpty()) {
+            int layerY = layers.pollLast();
+            if (world != null) {
+                settleLayer(world, layerY);
+            }
+        }
+        if (lastPendingY > y) {
+            lastPendingY = Integer.MIN_VALUE;
+        }
+    }
+
+    private void settleLayer(World target, int y) {
+        boolean checkAbove = y + 1 < target.getMaxHeight();
+        for (int x = minX + 1; x < maxX; x++) {
+            for (int z = minZ + 1; z < maxZ; z++) {
+                wake(target.getBlockAt(x, y, z));
+                if (checkAbove) {
+                    wake(target.getBlockAt(x, y + 1, z));
+                }
+            }
+        }
+        settledLayers++;
+    }
+
+    private void wake(Block block) {
+        Material type = block.getType();
+        if (type.isAir()) {
+            return;
+        }
+        if (block.isLiquid()) {
+            block.fluidTick();
+            wokenBlocks++;
+        } else if (type.hasGravity()) {
+            block.tick();
+            wokenBlocks++;
+        }
+    }
+}
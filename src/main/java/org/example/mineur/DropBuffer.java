@@ -0,0 +1,211 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drops déjà extraits par une session mais pas encore rangés dans ses coffres.
+ *
+ * <p>Chaque bloc cassé déclenchait son propre dépôt, donc une mutation des
+ * inventaires et une mise à jour réseau pour chaque joueur qui regarde le
+ * coffre. Les piles identiques sont désormais fusionnées en mémoire et
+ * déposées par paquets, selon la {@link FlushPolicy} de la session.</p>
+ *
+ * <p>Le tampon fait partie de l'état persistant : les blocs correspondants
+ * n'existent plus dans le monde, ses objets ne doivent donc jamais être
+ * perdus par un redémarrage.</p>
+ */
+public final class DropBuffer {
+
+    /**
+     * Seuils de vidage : le premier atteint déclenche le dépôt.
+     *
+     * @param everyBlocks nombre de blocs cassés depuis le dernier dépôt
+     * @param everyTicks  ancienneté maximale des objets en attente
+     * @param maxStacks   nombre de piles distinctes en attente
+     */
+    public record FlushPolicy(int everyBlocks, int everyTicks, int maxStacks) {
+
+        /**
+         * Ancien comportement : un dépôt par bloc cassé.
+         */
+        public static final FlushPolicy IMMEDIATE = new FlushPolicy(1, 1, 1);
+
+        public FlushPolicy {
+            everyBlocks = Math.max(1, everyBlocks);
+            everyTicks = Math.max(1, everyTicks);
+            maxStacks = Math.max(1, maxStacks);
+        }
+    }
+
+    private final List<ItemStack> stacks = new ArrayList<>();
+    private final List<ItemStack> view = Collections.unmodifiableList(stacks);
+    private int blocksSinceFlush;
+    private int ticksSinceFlush;
+    private long revision;
+
+    public boolean isEmpty() {
+        return stacks.isEmpty();
+    }
+
+    public int stackCount() {
+        return stacks.size();
+    }
+
+    /**
+     * Vue en lecture seule, utilisée pour les contrôles de capacité.
+     */
+    public List<ItemStack> contents() {
+        return view;
+    }
+
+    /**
+     * Numéro qui change à chaque modification, pour le journal des sessions.
+     */
+    public long revision() {
+        return revision;
+    }
+
+    /**
+     * Fusionne des drops dans les piles similaires déjà en attente.
+     */
+    public void add(List<ItemStack> drops) {
+        if (drops == null || drops.isEmpty()) {
+            return;
+        }
+        for (ItemStack drop : drops) {
+            if (drop != null && drop.getType() != Material.AIR && drop.getAmount() > 0) {
+                merge(drop);
+            }
+        }
+        revision++;
+    }
+
+    private void merge(ItemStack drop) {
+        int remaining = drop.getAmount();
+        for (ItemStack existing : stacks) {
+            if (remaining <= 0) {
+                break;
+            }
+            int room = existing.getMaxStackSize() - existing.getAmount();
+            if (room > 0 && existing.isSimilar(drop)) {
+                int accepted = Math.min(room, remaining);
+                existing.setAmount(existing.getAmount() + accepted);
+                remaining -= accepted;
+            }
+        }
+        while (remaining > 0) {
+            int amount = Math.min(remaining, Math.max(1, drop.getMaxStackSize()));
+            ItemStack copy = drop.clone();
+            copy.setAmount(amount);
+            stacks.add(copy);
+            remaining -= amount;
+        }
+    }
+
+    public void countBlocks(int blocks) {
+        blocksSinceFlush += Math.max(0, blocks);
+    }
+
+    /**
+     * Appelé à chaque exécution de la boucle ; seul un tampon non vide vieillit.
+     */
+    public void tick() {
+        if (!stacks.isEmpty()) {
+            ticksSinceFlush++;
+        }
+    }
+
+    public boolean isDue(FlushPolicy policy) {
+        if (stacks.isEmpty()) {
+            return false;
+        }
+        FlushPolicy effective = policy != null ? policy : FlushPolicy.IMMEDIATE;
+        return blocksSinceFlush >= effective.everyBlocks()
+                || ticksSinceFlush >= effective.everyTicks()
+                || stacks.size() >= effective.maxStacks();
+    }
+
+    /**
+     * Retire toutes les piles en attente. Les restes refusés par le stockage
+     * doivent être rendus via {@link #add(List)}.
+     */
+    public List<ItemStack> drain() {
+        List<ItemStack> drained = new ArrayList<>(stacks);
+        stacks.clear();
+        blocksSinceFlush = 0;
+        ticksSinceFlush = 0;
+        revision++;
+        return drained;
+    }
+
+    /**
+     * Encodage binaire Paper des piles, identique pour le YAML et le journal.
+     */
+    public List<byte[]> serialize() {
+        List<byte[]> serialized = new ArrayList<>(stacks.size());
+        for (ItemStack stack : stacks) {
+            serialized.add(stack.serializeAsBytes());
+        }
+        return serialized;
+    }
+
+    /**
+     * Remplace le contenu par des piles encodées. Les piles similaires sont
+     * fusionnées comme par {@link #add(List)} ; aucune pile lisible n'est
+     * écartée, quel que soit leur nombre.
+     *
+     * @return le nombre d'entrées illisibles ignorées.
+     */
+    public int restore(List<byte[]> serialized) {
+        stacks.clear();
+        blocksSinceFlush = 0;
+        ticksSinceFlush = 0;
+        revision++;
+        if (serialized == null) {
+            return 0;
+        }
+        int skipped = 0;
+        for (byte[] bytes : serialized) {
+            try {
+                ItemStack stack = bytes != null ? ItemStack.deserializeBytes(bytes) : null;
+                if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                    merge(stack);
+                } else {
+                    skipped++;
+                }
+            } catch (RuntimeException exception) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    public List<String> toBase64() {
+        List<String> encoded = new ArrayList<>(stacks.size());
+        for (byte[] bytes : serialize()) {
+            encoded.add(Base64.getEncoder().encodeToString(bytes));
+        }
+        return encoded;
+    }
+
+    public int restoreBase64(List<?> encoded) {
+        List<byte[]> decoded = new ArrayList<>();
+        int invalid = 0;
+        if (encoded != null) {
+            for (Object entry : encoded) {
+                try {
+                    decoded.add(Base64.getDecoder().decode(String.valueOf(entry)));
+                } catch (IllegalArgumentException exception) {
+                    invalid++;
+                }
+            }
+        }
+        return invalid + restore(decoded);
+    }
+}
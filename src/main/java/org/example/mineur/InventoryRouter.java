@@ -22,16 +22,31 @@ import java.util.function.Predicate;
 /**
  * Distribue les drops dans les conteneurs encore présents de la session.
  *
- * <p>Les blocs sont résolus à chaque opération : un coffre remplacé par un
- * autre plugin ne reste donc pas considéré comme un stockage valide. Les
- * doubles coffres sont dédupliqués par leurs coordonnées physiques plutôt que
- * par l'identité fragile de l'objet {@link Inventory} renvoyé par le serveur.</p>
+ * <p>Les blocs sont résolus lors de la construction du modèle de capacité,
+ * puis à nouveau dès que ce modèle est invalidé ou trop ancien : un coffre
+ * remplacé par un autre plugin ne reste donc pas considéré comme un stockage
+ * valide. Entre deux résolutions, le routeur tient lui-même le compte de ses
+ * dépôts au lieu de copier chaque coffre à chaque bloc miné. Les doubles
+ * coffres sont dédupliqués par leurs coordonnées physiques plutôt que par
+ * l'identité fragile de l'objet {@link Inventory} renvoyé par le serveur.</p>
+ *
+ * <p>L'ordre des conteneurs proposé à chaque pile dépend du
+ * {@link StorageRouting} de la session. Il est calculé sur les résumés du
+ * modèle : un coffre que le modèle sait plein n'est pas ouvert.</p>
  */
 public final class InventoryRouter {
 
+    /**
+     * Filet de sécurité pour les modifications qu'aucun événement ne signale
+     * (plugins tiers, commandes) : le modèle est alors reconstruit.
+     */
+    static final long MODEL_MAX_AGE_NANOS = 5_000_000_000L;
+
     private final List<Block> targets = new ArrayList<>();
     private final Predicate<Container> containerValidator;
     private int roundRobin = 0;
+    private StorageRouting routing = StorageRouting.AFFINITY;
+    private StorageCapacityModel model;
 
     public InventoryRouter(List<Block> blocks) {
         this(blocks, ignored -> true);
@@ -59,7 +74,23 @@ public final class InventoryRouter {
      * @return {@code true} si au moins un conteneur exploitable existe encore.
      */
     public boolean hasTargets() {
-        return !resolveInventories().isEmpty();
+        return !currentModel().isEmpty();
+    }
+
+    public StorageRouting routing() {
+        return routing;
+    }
+
+    public void setRouting(StorageRouting routing) {
+        this.routing = routing != null ? routing : StorageRouting.AFFINITY;
+    }
+
+    /**
+     * Oublie le modèle de capacité. À appeler dès qu'un inventaire de la
+     * session change sans passer par {@link #deposit(List)}.
+     */
+    public void invalidate() {
+        model = null;
     }
 
     /**
@@ -67,7 +98,7 @@ public final class InventoryRouter {
      * drops précis, utiliser {@link #canFitAll(List)}.
      */
     public boolean hasFreeSpace() {
-        for (Inventory inventory : resolveInventories()) {
+        for (Inventory inventory : resolveInventories(new ArrayList<>())) {
             try {
                 if (inventory.firstEmpty() >= 0) {
                     return true;
@@ -99,90 +130,37 @@ public final class InventoryRouter {
      * @return {@code true} lorsque tous les objets peuvent être stockés.
      */
     public boolean canFitAll(List<ItemStack> items) {
-        List<ItemStack> pending = sanitize(items);
-        if (pending.isEmpty()) {
+        return canFitAll(List.of(), items);
+    }
+
+    /**
+     * Simule l'insertion de {@code pending} puis de {@code items}, sans copier
+     * les deux listes dans une troisième : ce contrôle est fait à chaque bloc.
+     *
+     * @return {@code true} lorsque tous les objets peuvent être stockés.
+     */
+    public boolean canFitAll(List<ItemStack> pending, List<ItemStack> items) {
+        if (!hasStorable(pending) && !hasStorable(items)) {
             return true;
         }
+        return currentModel().canFit(pending, items);
+    }
 
-        List<InventorySnapshot> snapshots = new ArrayList<>();
-        for (Inventory inventory : resolveInventories()) {
-            try {
-                ItemStack[] contents = inventory.getStorageContents();
-                if (contents == null) {
-                    continue;
-                }
-                ItemStack[] copy = new ItemStack[contents.length];
-                for (int index = 0; index < contents.length; index++) {
-                    copy[index] = contents[index] == null ? null : contents[index].clone();
-                }
-                snapshots.add(new InventorySnapshot(
-                        copy,
-                        Math.max(1, inventory.getMaxStackSize())
-                ));
-            } catch (RuntimeException ignored) {
-                /*
-                 * Le coffre peut avoir été cassé ou remplacé après sa résolution.
-                 * Ne pas compter sa capacité évite un faux positif destructeur.
-                 */
-            }
-        }
-        if (snapshots.isEmpty()) {
+    private static boolean hasStorable(List<ItemStack> items) {
+        if (items == null) {
             return false;
         }
-
-        for (ItemStack item : pending) {
-            int remaining = item.getAmount();
-
-            // On remplit d'abord les piles compatibles déjà présentes.
-            for (InventorySnapshot snapshot : snapshots) {
-                for (ItemStack existing : snapshot.contents()) {
-                    if (remaining <= 0) {
-                        break;
-                    }
-                    if (existing == null || existing.getType() == Material.AIR
-                            || !existing.isSimilar(item)) {
-                        continue;
-                    }
-                    int maximum = Math.min(
-                            existing.getMaxStackSize(),
-                            snapshot.maxStackSize()
-                    );
-                    int accepted = Math.min(
-                            remaining,
-                            Math.max(0, maximum - existing.getAmount())
-                    );
-                    existing.setAmount(existing.getAmount() + accepted);
-                    remaining -= accepted;
-                }
-            }
-
-            // Puis on consomme les emplacements vides.
-            for (InventorySnapshot snapshot : snapshots) {
-                for (int slot = 0; slot < snapshot.contents().length && remaining > 0; slot++) {
-                    ItemStack existing = snapshot.contents()[slot];
-                    if (existing != null && existing.getType() != Material.AIR) {
-                        continue;
-                    }
-                    int accepted = Math.min(
-                            remaining,
-                            Math.min(item.getMaxStackSize(), snapshot.maxStackSize())
-                    );
-                    ItemStack inserted = item.clone();
-                    inserted.setAmount(accepted);
-                    snapshot.contents()[slot] = inserted;
-                    remaining -= accepted;
-                }
-            }
-
-            if (remaining > 0) {
-                return false;
+        for (int index = 0; index < items.size(); index++) {
+            if (StorageCapacityModel.isStorable(items.get(index))) {
+                return true;
             }
         }
-        return true;
+        return false;
     }
 
     /**
-     * Tente de déposer tous les objets dans les conteneurs, en rotation.
+     * Tente de déposer tous les objets dans les conteneurs, dans l'ordre fixé
+     * par le {@link StorageRouting} courant.
      *
      * <p>Une implémentation d'inventaire tierce peut devenir invalide entre la
      * simulation et le dépôt. Son exception est confinée à ce conteneur et les
@@ -191,47 +169,138 @@ public final class InventoryRouter {
      * @return les objets qui n'ont pas pu être stockés.
      */
     public List<ItemStack> deposit(List<ItemStack> items) {
-        List<ItemStack> pending = sanitize(items);
-        List<Inventory> inventories = resolveInventories();
-        if (pending.isEmpty() || inventories.isEmpty()) {
+        boolean reusedModel = model != null;
+        List<ItemStack> leftovers = route(sanitize(items));
+        /*
+         * Les conteneurs sont écartés d'après le modèle seul. Un modèle qui
+         * croit le stockage plein alors qu'un joueur vient de le vider ne doit
+         * pas renvoyer des objets au sol : il est relu une fois avant de
+         * conclure.
+         */
+        if (!leftovers.isEmpty() && reusedModel) {
+            invalidate();
+            leftovers = route(leftovers);
+        }
+        return leftovers;
+    }
+
+    private List<ItemStack> route(List<ItemStack> pending) {
+        StorageCapacityModel current = currentModel();
+        List<StorageCapacityModel.ContainerSummary> summaries = current.summaries();
+        if (pending.isEmpty() || summaries.isEmpty()) {
             return pending;
         }
 
-        int start = Math.floorMod(roundRobin, inventories.size());
-        for (int offset = 0; offset < inventories.size() && !pending.isEmpty(); offset++) {
-            Inventory inventory = inventories.get((start + offset) % inventories.size());
-            List<ItemStack> leftovers = new ArrayList<>();
-            for (ItemStack stack : pending) {
+        boolean diverged = false;
+        int start = Math.floorMod(roundRobin, summaries.size());
+        int[] order = new int[summaries.size()];
+        List<ItemStack> leftovers = new ArrayList<>();
+        for (ItemStack stack : pending) {
+            ItemStack remaining = stack;
+            int candidates = routeOrder(summaries, remaining, start, order);
+            for (int rank = 0; rank < candidates && remaining != null; rank++) {
+                StorageCapacityModel.ContainerSummary summary = summaries.get(order[rank]);
+                if (!summary.isStillPlaced()) {
+                    diverged = true;
+                    continue;
+                }
+                int expected = summary.roomFor(remaining, remaining.getAmount());
+                if (expected <= 0) {
+                    // Rempli par une pile précédente du même dépôt.
+                    continue;
+                }
                 try {
-                    Map<Integer, ItemStack> result = inventory.addItem(stack.clone());
+                    Map<Integer, ItemStack> result = summary.inventory.addItem(remaining.clone());
                     if (result == null) {
                         /*
                          * Le contrat Bukkit impose une map non nulle. Une
                          * implémentation tierce qui le viole ne doit pas faire
                          * disparaître silencieusement la pile.
                          */
-                        leftovers.add(stack.clone());
-                        continue;
-                    }
-                    if (result.isEmpty()) {
+                        diverged = true;
                         continue;
                     }
+                    ItemStack rest = null;
+                    int rejected = 0;
                     for (ItemStack leftover : result.values()) {
                         if (leftover != null
                                 && leftover.getType() != Material.AIR
                                 && leftover.getAmount() > 0) {
-                            leftovers.add(leftover.clone());
+                            if (rest == null) {
+                                rest = leftover.clone();
+                            } else {
+                                leftovers.add(leftover.clone());
+                            }
+                            rejected += leftover.getAmount();
                         }
                     }
+                    int accepted = remaining.getAmount() - rejected;
+                    summary.recordInsertion(remaining, accepted);
+                    if (accepted < expected) {
+                        diverged = true;
+                    }
+                    remaining = rest;
                 } catch (RuntimeException ignored) {
-                    leftovers.add(stack.clone());
+                    diverged = true;
                 }
             }
-            pending = leftovers;
+            if (remaining != null) {
+                leftovers.add(remaining.clone());
+            }
         }
 
-        roundRobin = (start + 1) % inventories.size();
-        return pending;
+        /*
+         * Un refus que le modèle n'avait pas prévu signifie que l'inventaire
+         * réel a changé sans qu'on le sache : la prochaine décision relira les
+         * coffres plutôt que de se fier à un compte devenu faux.
+         */
+        if (diverged) {
+            invalidate();
+        }
+        roundRobin = (start + 1) % summaries.size();
+        return leftovers;
+    }
+
+    /**
+     * Remplit {@code order} avec les index des conteneurs à essayer pour
+     * {@code item}, en ne retenant que ceux où le modèle voit de la place.
+     *
+     * @return le nombre d'index retenus
+     */
+    private int routeOrder(List<StorageCapacityModel.ContainerSummary> summaries,
+                           ItemStack item,
+                           int start,
+                           int[] order) {
+        int size = summaries.size();
+        int first = routing == StorageRouting.ROUND_ROBIN ? start : 0;
+        int tiers = switch (routing) {
+            case AFFINITY -> 2;
+            case BARREL_OVERFLOW -> 4;
+            case ROUND_ROBIN, FILL_FIRST -> 1;
+        };
+        int count = 0;
+        /*
+         * Quelques dizaines de conteneurs au plus : un passage par palier
+         * garde l'ordre du stockage à l'intérieur de chaque palier sans tri.
+         */
+        for (int tier = 0; tier < tiers; tier++) {
+            for (int offset = 0; offset < size; offset++) {
+                int index = (first + offset) % size;
+                StorageCapacityModel.ContainerSummary summary = summaries.get(index);
+                if (tierOf(summary, item.getType()) == tier && summary.roomFor(item, 1) > 0) {
+                    order[count++] = index;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int tierOf(StorageCapacityModel.ContainerSummary summary, Material material) {
+        return switch (routing) {
+            case AFFINITY -> summary.holds(material) ? 0 : 1;
+            case BARREL_OVERFLOW -> (summary.isBarrel() ? 2 : 0) + (summary.holds(material) ? 0 : 1);
+            case ROUND_ROBIN, FILL_FIRST -> 0;
+        };
     }
 
     public void dropOnGround(World world, Location fallback, List<ItemStack> items) {
@@ -270,14 +339,29 @@ public final class InventoryRouter {
             return sanitized;
         }
         for (ItemStack item : items) {
-            if (item != null && item.getType() != Material.AIR && item.getAmount() > 0) {
+            if (StorageCapacityModel.isStorable(item)) {
                 sanitized.add(item.clone());
             }
         }
         return sanitized;
     }
 
-    private List<Inventory> resolveInventories() {
+    private StorageCapacityModel currentModel() {
+        long now = System.nanoTime();
+        if (model == null
+                || model.ageNanos(now) >= MODEL_MAX_AGE_NANOS
+                || !model.allStillPlaced()) {
+            List<Block> origins = new ArrayList<>();
+            List<Inventory> inventories = resolveInventories(origins);
+            model = StorageCapacityModel.build(inventories, origins, now);
+        }
+        return model;
+    }
+
+    /**
+     * @param origins reçoit, au même index, le bloc ayant fourni chaque inventaire.
+     */
+    private List<Inventory> resolveInventories(List<Block> origins) {
         List<Inventory> inventories = new ArrayList<>();
         Set<String> seenCoordinates = new HashSet<>();
         Set<Inventory> seenIdentities = Collections.newSetFromMap(new IdentityHashMap<>());
@@ -301,6 +385,7 @@ public final class InventoryRouter {
                         : seenIdentities.add(inventory);
                 if (isNew) {
                     inventories.add(inventory);
+                    origins.add(block);
                 }
             } catch (RuntimeException ignored) {
                 // Une cible obsolète ne doit invalider ni la session ni les autres coffres.
@@ -381,7 +466,4 @@ public final class InventoryRouter {
         }
         return null;
     }
-
-    private record InventorySnapshot(ItemStack[] contents, int maxStackSize) {
-    }
 }
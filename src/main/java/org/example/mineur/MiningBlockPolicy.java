@@ -8,9 +8,12 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Politique unique de sélection des blocs pouvant être cassés par un mineur.
@@ -47,6 +50,52 @@ public final class MiningBlockPolicy {
             Material.POWDER_SNOW
     );
 
+    /**
+     * Blocs dont les drops ne dépendent ni du hasard, ni de Fortune, ni de
+     * leur BlockData. Aucun n'est un TileState. Le gravier (silex aléatoire),
+     * les minerais, les feuilles ou les cultures restent calculés en direct.
+     */
+    private static final Set<Material> DETERMINISTIC_DROPS = EnumSet.of(
+            Material.STONE,
+            Material.COBBLESTONE,
+            Material.MOSSY_COBBLESTONE,
+            Material.DEEPSLATE,
+            Material.COBBLED_DEEPSLATE,
+            Material.TUFF,
+            Material.CALCITE,
+            Material.ANDESITE,
+            Material.DIORITE,
+            Material.GRANITE,
+            Material.DIRT,
+            Material.COARSE_DIRT,
+            Material.ROOTED_DIRT,
+            Material.SAND,
+            Material.RED_SAND,
+            Material.SANDSTONE,
+            Material.RED_SANDSTONE,
+            Material.CLAY,
+            Material.DRIPSTONE_BLOCK,
+            Material.SMOOTH_BASALT,
+            Material.BASALT,
+            Material.BLACKSTONE,
+            Material.NETHERRACK,
+            Material.SOUL_SAND,
+            Material.SOUL_SOIL,
+            Material.END_STONE,
+            Material.TERRACOTTA,
+            Material.OBSIDIAN
+    );
+
+    /**
+     * Outil virtuel → bloc → drops. Uniquement lu et écrit depuis le thread
+     * principal, comme tous les appels à {@link #computeDrops}.
+     */
+    private static final Map<Material, Map<Material, List<ItemStack>>> DROP_TABLES =
+            new EnumMap<>(Material.class);
+    private static final AtomicLong DROP_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong DROP_CACHE_MISSES = new AtomicLong();
+    private static volatile boolean dropCacheEnabled = true;
+
     private MiningBlockPolicy() {
         // Classe utilitaire.
     }
@@ -65,9 +114,17 @@ public final class MiningBlockPolicy {
      * Vérification finale juste avant la casse.
      */
     public static boolean isMineable(Block block) {
-        if (block == null || !isCandidate(block.getType()) || block.isLiquid()) {
+        if (block == null) {
             return false;
         }
+        Material type = block.getType();
+        if (!isCandidate(type) || block.isLiquid()) {
+            return false;
+        }
+        if (DETERMINISTIC_DROPS.contains(type)) {
+            // Aucun de ces blocs ne porte d'état persistant : pas de BlockState.
+            return true;
+        }
 
         BlockState state = block.getState();
         return !(state instanceof TileState);
@@ -75,13 +132,69 @@ public final class MiningBlockPolicy {
 
     /**
      * Calcule les drops comme si le bloc avait été miné avec l'outil virtuel.
+     *
+     * <p>Pour les blocs déterministes et un outil sans métadonnées
+     * (enchantements, nom, composants), la table est mémorisée par couple
+     * outil/bloc. La liste et ses piles sont alors partagées : l'appelant
+     * doit les copier avant toute modification.</p>
      */
     public static List<ItemStack> computeDrops(Block block, ItemStack tool) {
-        List<ItemStack> drops = new ArrayList<>();
         if (block == null || !isMineable(block)) {
-            return drops;
+            return new ArrayList<>();
+        }
+        Material type = block.getType();
+        if (!dropCacheEnabled
+                || tool == null
+                || !DETERMINISTIC_DROPS.contains(type)
+                || tool.hasItemMeta()) {
+            return computeLiveDrops(block, tool);
         }
 
+        Map<Material, List<ItemStack>> byBlock = DROP_TABLES.computeIfAbsent(
+                tool.getType(),
+                ignored -> new EnumMap<>(Material.class)
+        );
+        List<ItemStack> cached = byBlock.get(type);
+        if (cached != null) {
+            DROP_CACHE_HITS.incrementAndGet();
+            return cached;
+        }
+        DROP_CACHE_MISSES.incrementAndGet();
+        List<ItemStack> computed = List.copyOf(computeLiveDrops(block, tool));
+        byBlock.put(type, computed);
+        return computed;
+    }
+
+    /**
+     * Active ou coupe la mémorisation ; la couper vide aussi les tables.
+     */
+    public static void setDropCacheEnabled(boolean enabled) {
+        dropCacheEnabled = enabled;
+        if (!enabled) {
+            clearDropCache();
+        }
+    }
+
+    /**
+     * À appeler quand les tables de butin peuvent avoir changé (datapacks
+     * rechargés, rechargement du plugin).
+     */
+    public static void clearDropCache() {
+        DROP_TABLES.clear();
+        DROP_CACHE_HITS.set(0L);
+        DROP_CACHE_MISSES.set(0L);
+    }
+
+    public static long dropCacheHits() {
+        return DROP_CACHE_HITS.get();
+    }
+
+    public static long dropCacheMisses() {
+        return DROP_CACHE_MISSES.get();
+    }
+
+    private static List<ItemStack> computeLiveDrops(Block block, ItemStack tool) {
+        List<ItemStack> drops = new ArrayList<>();
         Collection<ItemStack> computed = tool == null
                 ? block.getDrops()
                 : block.getDrops(tool);
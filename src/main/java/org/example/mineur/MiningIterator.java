@@ -20,4 +20,12 @@ public interface MiningIterator {
     boolean hasNext();
 
     MiningCursor cursor();
+
+    /**
+     * Vrai si le dernier {@link #next()} a rendu {@code null} pour attendre
+     * d'autres boucles, et non faute de candidat dans son budget de scan.
+     */
+    default boolean isWaiting() {
+        return false;
+    }
 }
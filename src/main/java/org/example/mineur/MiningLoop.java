@@ -10,23 +10,81 @@ import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Villager;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.example.TeleportUtils;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * Boucle unique d'une session, pilotée par une petite machine à états.
+ *
+ * <p>La boucle n'est plus une tâche Bukkit autonome : le
+ * {@link MiningScheduler} l'exécute au plus une fois par tick, sous le budget
+ * commun à toutes les sessions.</p>
  */
-public final class MiningLoop extends BukkitRunnable {
+public final class MiningLoop implements MiningScheduler.Task {
 
     private static final double ANIMATION_STAGES = 2.0D;
     private static final double BREAK_STAGE = 1.0D;
     private static final double DEPOSIT_STAGE = 1.0D;
     private static final int STORAGE_RECHECK_TICKS = 20;
+    private static final double TWO_PI = 2.0D * Math.PI;
+    private static final int[][] SAFE_DESTINATION_OFFSETS = {
+            {0, 0},
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1},
+            {-1, -1}, {-1, 1}, {1, -1}, {1, 1},
+            {-2, 0}, {2, 0}, {0, -2}, {0, 2},
+            {-2, -1}, {-2, 1}, {2, -1}, {2, 1},
+            {-1, -2}, {1, -2}, {-1, 2}, {1, 2},
+            {-3, 0}, {3, 0}, {0, -3}, {0, 3}
+    };
+
+    /**
+     * Réglages du mode {@link MiningSpeed#BULK}.
+     *
+     * @param maxBlocksPerTick plafond de blocs cassés par exécution
+     * @param budgetNanos      temps alloué à un lot, au-delà duquel il s'arrête
+     * @param effectEvery      un bloc sur N joue son animation et son son
+     */
+    public record BulkSettings(int maxBlocksPerTick, long budgetNanos, int effectEvery) {
+
+        public BulkSettings {
+            maxBlocksPerTick = Math.max(1, maxBlocksPerTick);
+            budgetNanos = Math.max(MiningScheduler.MINIMUM_TICK_BUDGET_NANOS, budgetNanos);
+            effectEvery = Math.max(1, effectEvery);
+        }
+    }
+
+    /**
+     * Réglages facultatifs d'une boucle, regroupés pour que chaque nouvelle
+     * option n'ajoute pas un constructeur. Les composants sont de types tous
+     * différents : deux valeurs interverties ne compilent pas.
+     *
+     * @param bulk            mode {@link MiningSpeed#BULK}, ou {@code null}
+     * @param flushPolicy     regroupement des dépôts ; {@code null} dépose
+     *                        immédiatement
+     * @param deferredPhysics rectangle dont l'intérieur est cassé sans
+     *                        physique, réglée par couche ; {@code null} ou
+     *                        {@code applyPhysics == false} la désactivent
+     * @param stripe          bande parcourue par cette boucle dans une carrière
+     *                        partagée ; ses checkpoints remplacent alors ceux du
+     *                        curseur de la session. {@code null} pour une boucle seule
+     * @param telemetry       compteurs de la session, partagés entre ses
+     *                        boucles ; {@code null} pour ne rien mesurer
+     */
+    public record Options(BulkSettings bulk,
+                          DropBuffer.FlushPolicy flushPolicy,
+                          DeferredPhysics deferredPhysics,
+                          MiningStripe stripe,
+                          MiningTelemetry telemetry) {
+
+        public static final Options NONE = new Options(null, null, null, null, null);
+
+        public Options {
+            flushPolicy = flushPolicy != null ? flushPolicy : DropBuffer.FlushPolicy.IMMEDIATE;
+        }
+    }
 
     public enum Phase {
         IDLE,
@@ -51,9 +109,24 @@ public final class MiningLoop extends BukkitRunnable {
     private final Consumer<Exception> failureCallback;
     private final boolean applyPhysics;
     private final double progressPerTick;
+    private final BulkSettings bulk;
+    private final DropBuffer.FlushPolicy flushPolicy;
+    private final DeferredPhysics deferredPhysics;
+    private final MiningStripe stripe;
+    private final MiningTelemetry telemetry;
+
+    /*
+     * Emplacements réutilisés à chaque bloc. Bukkit recopie les coordonnées
+     * lors des téléportations et des effets ; aucune référence n'est gardée.
+     */
+    private final Location blockProbe = new Location(null, 0.0D, 0.0D, 0.0D);
+    private final Location minerProbe = new Location(null, 0.0D, 0.0D, 0.0D);
+    private final Location destinationProbe = new Location(null, 0.0D, 0.0D, 0.0D);
+    private long bulkBrokenBlocks;
 
     private boolean storageBlockedNotified;
     private int storageRecheckCooldown;
+    private boolean cancelled;
 
     private Block current;
     private Material currentType;
@@ -78,6 +151,36 @@ public final class MiningLoop extends BukkitRunnable {
                       boolean applyPhysics,
                       boolean initiallyBlocked,
                       double progressPerTick) {
+        this(plugin, state, iterator, router, miner, miningTool, candidateFilter,
+                breakPermission, decorationCallback, completionCallback,
+                storageBlockedCallback, storageFreedCallback, protectionBlockedCallback,
+                failureCallback, applyPhysics, initiallyBlocked, progressPerTick,
+                Options.NONE);
+    }
+
+    /**
+     * @param options réglages optionnels de la boucle ; {@code null} équivaut
+     *                à {@link Options#NONE}
+     */
+    public MiningLoop(JavaPlugin plugin,
+                      MiningSessionState state,
+                      MiningIterator iterator,
+                      InventoryRouter router,
+                      Villager miner,
+                      ItemStack miningTool,
+                      Predicate<Block> candidateFilter,
+                      Predicate<Block> breakPermission,
+                      Consumer<Block> decorationCallback,
+                      Runnable completionCallback,
+                      Runnable storageBlockedCallback,
+                      Runnable storageFreedCallback,
+                      Consumer<Block> protectionBlockedCallback,
+                      Consumer<Exception> failureCallback,
+                      boolean applyPhysics,
+                      boolean initiallyBlocked,
+                      double progressPerTick,
+                      Options options) {
+        Options effective = options != null ? options : Options.NONE;
         this.plugin = plugin;
         this.state = state;
         this.iterator = iterator;
@@ -97,10 +200,36 @@ public final class MiningLoop extends BukkitRunnable {
         this.progressPerTick = Double.isFinite(progressPerTick)
                 ? Math.max(0.01D, progressPerTick)
                 : 0.01D;
+        this.bulk = effective.bulk();
+        this.flushPolicy = effective.flushPolicy();
+        this.deferredPhysics = applyPhysics ? effective.deferredPhysics() : null;
+        this.stripe = effective.stripe();
+        this.telemetry = effective.telemetry();
+    }
+
+    /**
+     * Cadence nominale en blocs par tick, sans attente de stockage : une
+     * exécution IDLE puis les phases d'animation, de casse et de dépôt.
+     */
+    public static double nominalBlocksPerTick(double progressPerTick, BulkSettings bulk) {
+        if (bulk != null) {
+            return Math.max(1, bulk.maxBlocksPerTick());
+        }
+        double progress = Double.isFinite(progressPerTick) ? Math.max(0.01D, progressPerTick) : 0.01D;
+        return 1.0D / (1.0D + (ANIMATION_STAGES + BREAK_STAGE + DEPOSIT_STAGE) / progress);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
     }
 
     @Override
     public void run() {
+        if (cancelled) {
+            return;
+        }
+        long startedAt = telemetry != null ? System.nanoTime() : 0L;
         try {
             runSafely();
         } catch (Exception exception) {
@@ -111,6 +240,10 @@ public final class MiningLoop extends BukkitRunnable {
             if (failureCallback != null) {
                 failureCallback.accept(exception);
             }
+        } finally {
+            if (telemetry != null) {
+                telemetry.recordRun(System.nanoTime() - startedAt);
+            }
         }
     }
 
@@ -127,6 +260,16 @@ public final class MiningLoop extends BukkitRunnable {
             throw new IllegalStateException("Le PNJ mineur n'est plus disponible.");
         }
 
+        state.dropBuffer.tick();
+        if (state.dropBuffer.isDue(flushPolicy)) {
+            flushDropBuffer();
+        }
+
+        if (bulk != null) {
+            runBulkBatch();
+            return;
+        }
+
         /*
          * Une fois le bloc cassé, la phase DEPOSITING doit toujours pouvoir se
          * terminer, même si le dernier dépôt vient de remplir exactement le
@@ -147,10 +290,155 @@ public final class MiningLoop extends BukkitRunnable {
         }
     }
 
+    /**
+     * Mode {@link MiningSpeed#BULK} : casse plusieurs blocs dans la même
+     * exécution, sans passer par les phases d'animation.
+     *
+     * <p>Un seul checkpoint couvre tout le lot. En cas d'erreur, le curseur
+     * revient avant le premier bloc du lot : les blocs déjà cassés sont alors
+     * de l'air, que l'itérateur ou la validation écartent sans rien casser.
+     * Les drops rejoignent le tampon persistant de la session, vidé selon sa
+     * politique plutôt qu'à chaque bloc.</p>
+     */
+    private void runBulkBatch() {
+        // Le candidat éventuellement retenu au tick précédent doit tenir seul.
+        if (!checkStorageAvailability()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + bulk.budgetNanos();
+        int maxBlocks = bulk.maxBlocksPerTick();
+        int attempts = 0;
+        int broken = 0;
+        boolean exhausted = false;
+        boolean minerMoved = false;
+
+        try {
+            /*
+             * Les candidats écartés (air, blocs techniques) comptent aussi :
+             * une couche déjà vide ne doit pas monopoliser le tick.
+             */
+            while (broken < maxBlocks
+                    && attempts < maxBlocks * 4
+                    && (attempts == 0 || System.nanoTime() < deadline)) {
+                attempts++;
+                if (current == null) {
+                    if (!iterator.hasNext()) {
+                        exhausted = true;
+                        break;
+                    }
+                    if (!hasCheckpoint()) {
+                        checkpoint(iterator.cursor());
+                    }
+                    Block candidate = iterator.next();
+                    if (candidate == null) {
+                        recordEmptyScan();
+                        continue;
+                    }
+                    if (!MiningBlockPolicy.isMineable(candidate)
+                            || (candidateFilter != null && !candidateFilter.test(candidate))) {
+                        continue;
+                    }
+                    current = candidate;
+                    currentType = candidate.getType();
+                    currentDrops = MiningBlockPolicy.computeDrops(candidate, miningTool);
+                } else if (!refreshCurrentBlock()) {
+                    clearCurrent();
+                    continue;
+                }
+
+                if (!fitsWithBuffer(currentDrops)) {
+                    /*
+                     * Le candidat est conservé pour le prochain lot : il a déjà
+                     * été consommé par l'itérateur et ne doit pas être perdu.
+                     */
+                    break;
+                }
+
+                if (breakPermission != null && !breakPermission.test(current)) {
+                    recordProtectionDenied();
+                    Block blocked = current;
+                    cancelAndRollback();
+                    state.paused = true;
+                    if (protectionBlockedCallback != null) {
+                        protectionBlockedCallback.accept(blocked);
+                    }
+                    return;
+                }
+                if (!refreshCurrentBlock()) {
+                    clearCurrent();
+                    continue;
+                }
+                if (!fitsWithBuffer(currentDrops)) {
+                    break;
+                }
+
+                if (!minerMoved) {
+                    moveMinerTowards(current);
+                    minerMoved = true;
+                }
+
+                World world = current.getWorld();
+                Location location = current.getLocation(blockProbe);
+                BlockData brokenData = current.getBlockData();
+                Material brokenType = current.getType();
+
+                breakCurrentBlock();
+
+                state.dropBuffer.add(currentDrops);
+                broken++;
+                if (bulkBrokenBlocks++ % bulk.effectEvery() == 0) {
+                    miner.swingMainHand();
+                    playBreakEffects(world, location, brokenData, brokenType);
+                }
+                runDecorationSafely(current);
+                clearCurrent();
+            }
+        } finally {
+            state.dropBuffer.countBlocks(broken);
+            if (telemetry != null) {
+                telemetry.recordBlocks(broken);
+            }
+        }
+
+        if (current == null) {
+            clearCheckpoint();
+        } else if (broken == 0) {
+            notifyStorageBlocked();
+        }
+        if (broken > 0) {
+            state.minerY = miner.getLocation(minerProbe).getY();
+        }
+        if (state.dropBuffer.isDue(flushPolicy) || exhausted) {
+            flushDropBuffer();
+        }
+        if (exhausted) {
+            settleDeferredPhysics();
+            cancelTaskSafely();
+            clearCheckpoint();
+            if (completionCallback != null) {
+                completionCallback.run();
+            }
+        }
+    }
+
+    /**
+     * Les drops en attente dans le tampon occuperont eux aussi le stockage :
+     * ils sont comptés avec ceux du candidat.
+     */
+    private boolean fitsWithBuffer(List<ItemStack> drops) {
+        if (router == null || !router.hasTargets()) {
+            return false;
+        }
+        return router.canFitAll(state.dropBuffer.contents(), drops);
+    }
+
     private void handleIdle() {
         if (!iterator.hasNext()) {
+            flushDropBuffer();
+            settleDeferredPhysics();
             cancelTaskSafely();
-            state.pendingCursor = null;
+            clearCheckpoint();
             if (completionCallback != null) {
                 completionCallback.run();
             }
@@ -174,10 +462,12 @@ public final class MiningLoop extends BukkitRunnable {
          * toute exception pendant next(), la validation du bloc ou le calcul
          * des drops remettra réellement le curseur avant la coordonnée visée.
          */
-        MiningCursor checkpoint = iterator.cursor().copy();
-        state.pendingCursor = checkpoint;
+        checkpoint(iterator.cursor());
 
         Block candidate = iterator.next();
+        if (candidate == null) {
+            recordEmptyScan();
+        }
         if (candidate == null
                 || !MiningBlockPolicy.isMineable(candidate)
                 || (candidateFilter != null && !candidateFilter.test(candidate))) {
@@ -187,7 +477,7 @@ public final class MiningLoop extends BukkitRunnable {
              * les blocs techniques que la session a posés dans une couche déjà
              * parcourue, notamment l'échelle et les poutres du puits.
              */
-            state.pendingCursor = null;
+            clearCheckpoint();
             return;
         }
 
@@ -210,7 +500,7 @@ public final class MiningLoop extends BukkitRunnable {
         }
 
         World world = current.getWorld();
-        Location blockCenter = current.getLocation().add(0.5, 0.5, 0.5);
+        Location blockCenter = current.getLocation(blockProbe).add(0.5, 0.5, 0.5);
         orientMinerTowards(blockCenter);
         miner.swingMainHand();
 
@@ -257,6 +547,7 @@ public final class MiningLoop extends BukkitRunnable {
         }
 
         if (breakPermission != null && !breakPermission.test(current)) {
+            recordProtectionDenied();
             Block blocked = current;
             cancelAndRollback();
             state.paused = true;
@@ -280,22 +571,33 @@ public final class MiningLoop extends BukkitRunnable {
         }
 
         World world = current.getWorld();
-        Location location = current.getLocation();
+        Location location = current.getLocation(blockProbe);
         BlockData brokenData = current.getBlockData();
         Material brokenType = current.getType();
-        List<ItemStack> drops = new ArrayList<>(currentDrops);
+        /*
+         * La liste peut être la table partagée de MiningBlockPolicy : le tampon
+         * clone les piles qu'il retient, aucune copie n'est donc nécessaire.
+         */
+        List<ItemStack> drops = currentDrops;
 
-        current.setType(Material.AIR, applyPhysics);
+        breakCurrentBlock();
 
         /*
          * À partir de cette ligne, le bloc n'existe plus : la transaction est
          * validée immédiatement. Une erreur cosmétique ou de décoration ne doit
          * surtout pas restaurer le curseur vers une case désormais vide.
          */
-        state.pendingCursor = null;
-        state.minerY = miner.getLocation().getY();
+        clearCheckpoint();
+        state.minerY = miner.getLocation(minerProbe).getY();
 
-        depositDrops(world, location, drops);
+        state.dropBuffer.add(drops);
+        state.dropBuffer.countBlocks(1);
+        if (telemetry != null) {
+            telemetry.recordBlocks(1);
+        }
+        if (state.dropBuffer.isDue(flushPolicy)) {
+            flushDropBuffer();
+        }
         playBreakEffects(world, location, brokenData, brokenType);
         runDecorationSafely(current);
 
@@ -303,47 +605,71 @@ public final class MiningLoop extends BukkitRunnable {
         phaseProgress = 0.0D;
     }
 
-    private void depositDrops(World world, Location fallback, List<ItemStack> drops) {
-        if (drops == null || drops.isEmpty()) {
+    /**
+     * Dépose le tampon de la session en une seule passe sur les coffres.
+     *
+     * <p>Les piles refusées (coffre modifié entre le contrôle et le dépôt)
+     * restent dans le tampon persistant au lieu d'être jetées au sol ; le
+     * contrôle de capacité suivant mettra la session en attente de stockage.</p>
+     */
+    private void flushDropBuffer() {
+        DropBuffer buffer = state.dropBuffer;
+        if (buffer.isEmpty() || router == null || !router.hasTargets()) {
             return;
         }
 
+        List<ItemStack> drops = buffer.drain();
         List<ItemStack> leftovers;
         try {
-            leftovers = router != null ? router.deposit(drops) : new ArrayList<>(drops);
+            leftovers = router.deposit(drops);
         } catch (RuntimeException exception) {
             /*
              * InventoryRouter contient déjà les erreurs par inventaire. Cette
              * garde ultime conserve néanmoins les ressources si une
              * implémentation d'inventaire tierce viole le contrat Bukkit.
              */
-            leftovers = new ArrayList<>(drops);
+            leftovers = drops;
             plugin.getLogger().warning("[Mineur] Dépôt impossible pour la session "
                     + state.id + " : " + exception.getMessage());
         }
 
-        if (leftovers.isEmpty()) {
+        if (leftovers == null || leftovers.isEmpty()) {
+            return;
+        }
+        buffer.add(leftovers);
+        plugin.getLogger().warning("[Mineur] Stockage modifié pendant le dépôt de la session "
+                + state.id + " ; " + leftovers.size() + " pile(s) conservée(s) en attente.");
+    }
+
+    private void breakCurrentBlock() {
+        if (deferredPhysics == null) {
+            current.setType(Material.AIR, applyPhysics);
             return;
         }
+        boolean deferred = deferredPhysics.isInterior(current.getX(), current.getZ());
+        current.setType(Material.AIR, !deferred);
+        try {
+            deferredPhysics.onBlockBroken(current, deferred);
+        } catch (RuntimeException exception) {
+            // Le bloc est déjà cassé : une passe ratée ne doit pas annuler la casse.
+            plugin.getLogger().warning("[Mineur] Physique différée ignorée pour la session "
+                    + state.id + " : " + exception.getMessage());
+        }
+    }
 
+    /**
+     * Une session mise en pause ou terminée ne doit pas laisser de sable
+     * suspendu au-dessus d'une couche inachevée.
+     */
+    private void settleDeferredPhysics() {
+        if (deferredPhysics == null || !deferredPhysics.hasPendingLayers()) {
+            return;
+        }
         try {
-            if (router != null) {
-                router.dropOnGround(world, fallback, leftovers);
-            } else {
-                for (ItemStack item : leftovers) {
-                    world.dropItem(fallback.clone().add(0.5D, 0.5D, 0.5D), item);
-                }
-            }
-            plugin.getLogger().warning("[Mineur] Stockage modifié pendant le dépôt de la session "
-                    + state.id + " ; " + leftovers.size() + " pile(s) déposée(s) au sol.");
+            deferredPhysics.settleAll();
         } catch (RuntimeException exception) {
-            /*
-             * Le bloc est déjà cassé : on journalise sans faire remonter
-             * l'exception, afin de ne jamais rejouer la même coordonnée.
-             */
-            plugin.getLogger().severe("[Mineur] Impossible de matérialiser "
-                    + leftovers.size() + " pile(s) de la session " + state.id
-                    + " : " + exception.getMessage());
+            plugin.getLogger().warning("[Mineur] Physique différée ignorée pour la session "
+                    + state.id + " : " + exception.getMessage());
         }
     }
 
@@ -352,14 +678,6 @@ public final class MiningLoop extends BukkitRunnable {
                                   BlockData brokenData,
                                   Material brokenType) {
         try {
-            world.spawnParticle(
-                    Particle.BLOCK,
-                    location.clone().add(0.5, 0.5, 0.5),
-                    20,
-                    0.3, 0.3, 0.3,
-                    0.1,
-                    brokenData
-            );
             world.playSound(
                     location,
                     MiningBlockPolicy.isOre(brokenType)
@@ -368,6 +686,15 @@ public final class MiningLoop extends BukkitRunnable {
                     0.7F,
                     1.0F
             );
+            // L'emplacement est un tampon réutilisé : il peut être décalé sur place.
+            world.spawnParticle(
+                    Particle.BLOCK,
+                    location.add(0.5, 0.5, 0.5),
+                    20,
+                    0.3, 0.3, 0.3,
+                    0.1,
+                    brokenData
+            );
         } catch (RuntimeException exception) {
             plugin.getLogger().fine("[Mineur] Effet visuel ignoré pour la session "
                     + state.id + " : " + exception.getMessage());
@@ -418,9 +745,7 @@ public final class MiningLoop extends BukkitRunnable {
             return false;
         }
 
-        boolean available = router != null
-                && router.hasTargets()
-                && router.canFitAll(currentDrops);
+        boolean available = fitsWithBuffer(currentDrops);
         if (!available) {
             notifyStorageBlocked();
             return false;
@@ -448,12 +773,36 @@ public final class MiningLoop extends BukkitRunnable {
     }
 
     private void finishCurrentWithoutBreaking() {
-        state.pendingCursor = null;
+        clearCheckpoint();
         clearCurrent();
         phase = Phase.IDLE;
         phaseProgress = 0.0D;
     }
 
+    /*
+     * Transaction du curseur parcouru : celui de la session, ou celui de la
+     * bande confiée à cette boucle dans une carrière partagée.
+     */
+    private void checkpoint(MiningCursor source) {
+        if (stripe != null) {
+            stripe.checkpoint(source);
+        } else {
+            state.checkpoint(source);
+        }
+    }
+
+    private boolean hasCheckpoint() {
+        return (stripe != null ? stripe.pendingCursor : state.pendingCursor) != null;
+    }
+
+    private void clearCheckpoint() {
+        if (stripe != null) {
+            stripe.pendingCursor = null;
+        } else {
+            state.pendingCursor = null;
+        }
+    }
+
     private void clearCurrent() {
         current = null;
         currentType = null;
@@ -484,7 +833,7 @@ public final class MiningLoop extends BukkitRunnable {
          * position réellement atteinte évite de faire réapparaître le PNJ à une
          * coordonnée fictive après un redémarrage.
          */
-        state.minerY = miner.getLocation().getY();
+        state.minerY = miner.getLocation(minerProbe).getY();
     }
 
     /**
@@ -496,15 +845,6 @@ public final class MiningLoop extends BukkitRunnable {
      */
     private Location findSafeDestination(Block target) {
         World world = target.getWorld();
-        int[][] horizontalOffsets = {
-                {0, 0},
-                {-1, 0}, {1, 0}, {0, -1}, {0, 1},
-                {-1, -1}, {-1, 1}, {1, -1}, {1, 1},
-                {-2, 0}, {2, 0}, {0, -2}, {0, 2},
-                {-2, -1}, {-2, 1}, {2, -1}, {2, 1},
-                {-1, -2}, {1, -2}, {-1, 2}, {1, 2},
-                {-3, 0}, {3, 0}, {0, -3}, {0, 3}
-        };
 
         int minimumY = world.getMinHeight();
         int maximumFeetY = world.getMaxHeight() - 2;
@@ -513,7 +853,7 @@ public final class MiningLoop extends BukkitRunnable {
             if (feetY < minimumY || feetY > maximumFeetY) {
                 continue;
             }
-            for (int[] offset : horizontalOffsets) {
+            for (int[] offset : SAFE_DESTINATION_OFFSETS) {
                 if (verticalOffset == 0 && offset[0] == 0 && offset[1] == 0) {
                     continue;
                 }
@@ -589,7 +929,11 @@ public final class MiningLoop extends BukkitRunnable {
             return null;
         }
 
-        Location location = new Location(world, x + 0.5D, feetY, z + 0.5D);
+        Location location = destinationProbe;
+        location.setWorld(world);
+        location.setX(x + 0.5D);
+        location.setY(feetY);
+        location.setZ(z + 0.5D);
         if (world.getWorldBorder() != null && !world.getWorldBorder().isInside(location)) {
             return null;
         }
@@ -618,30 +962,67 @@ public final class MiningLoop extends BukkitRunnable {
         if (miner.isDead()) {
             return;
         }
-        Location look = miner.getLocation();
+        Location look = miner.getLocation(minerProbe);
         if (look.getWorld() == null || !look.getWorld().equals(target.getWorld())) {
             return;
         }
-        look.setDirection(target.toVector().subtract(look.toVector()));
-        miner.setRotation(look.getYaw(), look.getPitch());
+        /*
+         * Même calcul que Location#setDirection, sans les deux vecteurs
+         * intermédiaires alloués à chaque tick d'animation.
+         */
+        double dx = target.getX() - look.getX();
+        double dy = target.getY() - look.getY();
+        double dz = target.getZ() - look.getZ();
+        if (dx == 0.0D && dz == 0.0D) {
+            miner.setRotation(look.getYaw(), dy > 0.0D ? -90.0F : 90.0F);
+            return;
+        }
+        float yaw = (float) Math.toDegrees((Math.atan2(-dx, dz) + TWO_PI) % TWO_PI);
+        float pitch = (float) Math.toDegrees(Math.atan(-dy / Math.sqrt(dx * dx + dz * dz)));
+        miner.setRotation(yaw, pitch);
     }
 
-    private void cancelTaskSafely() {
-        try {
-            cancel();
-        } catch (IllegalStateException ignored) {
-            /*
-             * La boucle peut être exécutée directement par un test ou échouer
-             * avant son enregistrement auprès du scheduler.
-             */
+    private void recordProtectionDenied() {
+        if (telemetry != null) {
+            telemetry.recordProtectionDenied();
+        }
+    }
+
+    /**
+     * Un itérateur qui rend {@code null} alors que son parcours continue a
+     * épuisé son budget d'inspection, sauf pour une bande qui attend les
+     * autres : cette synchronisation est comptée à part.
+     */
+    private void recordEmptyScan() {
+        if (telemetry == null) {
+            return;
+        }
+        if (iterator.isWaiting()) {
+            telemetry.recordStripeWait();
+        } else if (iterator.hasNext()) {
+            telemetry.recordScanBudgetExhausted();
         }
     }
 
+    private void cancelTaskSafely() {
+        /*
+         * Le planificateur retire les boucles annulées à son prochain passage ;
+         * un simple drapeau suffit donc, même pour une boucle exécutée
+         * directement par un test.
+         */
+        cancelled = true;
+    }
+
     /**
      * Annule la tâche et remet le curseur avant le bloc non cassé.
      */
     public void cancelAndRollback() {
-        state.rollbackPendingCursor();
+        settleDeferredPhysics();
+        if (stripe != null) {
+            stripe.rollbackPendingCursor();
+        } else {
+            state.rollbackPendingCursor();
+        }
         clearCurrent();
         phase = Phase.IDLE;
         phaseProgress = 0.0D;
@@ -0,0 +1,198 @@
+package org.example.mineur;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Tâche unique qui fait avancer toutes les sessions de minage actives.
+ *
+ * <p>Chaque session exécutait auparavant son propre {@code runTaskTimer}.
+ * Avec beaucoup de mines, le coût cumulé d'un tick n'était borné par rien.
+ * Le planificateur sert désormais les sessions à tour de rôle sous un budget
+ * de nanosecondes par tick : les sessions qui n'ont pas été servies passent
+ * en tête au tick suivant, ce qui garantit l'équité sans jamais dépasser
+ * durablement le budget.</p>
+ */
+public final class MiningScheduler {
+
+    /**
+     * Unité de travail exécutée au plus une fois par tick.
+     */
+    public interface Task extends Runnable {
+
+        /**
+         * Indique que la tâche ne doit plus jamais être exécutée.
+         */
+        boolean isCancelled();
+    }
+
+    public static final long DEFAULT_TICK_BUDGET_NANOS = 2_000_000L;
+    /*
+     * Seules bornes du budget : la configuration est transmise telle quelle.
+     */
+    static final long MINIMUM_TICK_BUDGET_NANOS = 100_000L;
+    static final long MAXIMUM_TICK_BUDGET_NANOS = 40_000_000L;
+
+    private final JavaPlugin plugin;
+    private final LongSupplier clock;
+    private final List<Task> tasks = new ArrayList<>();
+    private long tickBudgetNanos;
+    private int nextIndex;
+    private BukkitTask bukkitTask;
+
+    private long deferredExecutions;
+    private long lastTickNanos;
+    private long tickCount;
+
+    public MiningScheduler(JavaPlugin plugin, long tickBudgetNanos) {
+        this(plugin, tickBudgetNanos, System::nanoTime);
+    }
+
+    MiningScheduler(JavaPlugin plugin, long tickBudgetNanos, LongSupplier clock) {
+        this.plugin = plugin;
+        this.clock = clock;
+        setTickBudgetNanos(tickBudgetNanos);
+    }
+
+    public void setTickBudgetNanos(long tickBudgetNanos) {
+        this.tickBudgetNanos = Math.max(MINIMUM_TICK_BUDGET_NANOS,
+                Math.min(MAXIMUM_TICK_BUDGET_NANOS, tickBudgetNanos));
+    }
+
+    public long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    /**
+     * Ajoute une tâche ; elle sera servie à partir du prochain tick serveur.
+     */
+    public void register(Task task) {
+        if (task == null || task.isCancelled() || tasks.contains(task)) {
+            return;
+        }
+        tasks.add(task);
+        ensureStarted();
+    }
+
+    public void unregister(Task task) {
+        int index = tasks.indexOf(task);
+        if (index < 0) {
+            return;
+        }
+        tasks.remove(index);
+        if (index < nextIndex) {
+            nextIndex--;
+        }
+        if (nextIndex >= tasks.size()) {
+            nextIndex = 0;
+        }
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Nombre cumulé d'exécutions reportées au tick suivant faute de budget.
+     */
+    public long getDeferredExecutions() {
+        return deferredExecutions;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Numéro du tick en cours ; permet de regrouper les exécutions des
+     * différentes boucles d'une même session.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Exécute un tick complet. Appelée par Bukkit, ou directement par un test.
+     */
+    void tick() {
+        tickCount++;
+        purgeCancelled();
+        if (tasks.isEmpty()) {
+            stopTimer();
+            return;
+        }
+
+        /*
+         * Une copie protège l'itération : un callback de fin ou d'erreur peut
+         * annuler, retirer ou enregistrer une boucle pendant ce tick.
+         */
+        Task[] snapshot = tasks.toArray(new Task[0]);
+        int count = snapshot.length;
+        int start = Math.floorMod(nextIndex, count);
+        long startedAt = clock.getAsLong();
+        int served = 0;
+
+        while (served < count) {
+            Task task = snapshot[(start + served) % count];
+            served++;
+            if (!task.isCancelled()) {
+                task.run();
+            }
+
+            /*
+             * Au moins une tâche est toujours servie afin qu'une seule session
+             * coûteuse ne puisse pas bloquer indéfiniment toute la file.
+             */
+            if (served < count && clock.getAsLong() - startedAt >= tickBudgetNanos) {
+                deferredExecutions += count - served;
+                break;
+            }
+        }
+
+        lastTickNanos = clock.getAsLong() - startedAt;
+        nextIndex = served < count ? (start + served) % count : start;
+        purgeCancelled();
+    }
+
+    /**
+     * Arrête la tâche Bukkit et oublie toutes les sessions enregistrées.
+     */
+    public void shutdown() {
+        tasks.clear();
+        nextIndex = 0;
+        stopTimer();
+    }
+
+    private void purgeCancelled() {
+        for (int index = tasks.size() - 1; index >= 0; index--) {
+            if (tasks.get(index).isCancelled()) {
+                tasks.remove(index);
+                if (index < nextIndex) {
+                    nextIndex--;
+                }
+            }
+        }
+        if (nextIndex >= tasks.size()) {
+            nextIndex = 0;
+        }
+    }
+
+    private void ensureStarted() {
+        if (bukkitTask != null && !bukkitTask.isCancelled()) {
+            return;
+        }
+        bukkitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    private void stopTimer() {
+        if (bukkitTask == null) {
+            return;
+        }
+        bukkitTask.cancel();
+        bukkitTask = null;
+    }
+}
@@ -23,6 +23,7 @@ public final class MiningSessionState {
     private static final int MAX_TRUSTED_PLAYERS = 256;
     private static final int MAX_STORED_CONTAINERS = 256;
     private static final int MAX_INSPECTED_LIST_ENTRIES = 1_024;
+    private static final int MAX_STRIPES = 16;
 
     public UUID id = UUID.randomUUID();
     public UUID worldUid;
@@ -31,6 +32,7 @@ public final class MiningSessionState {
     public int length;
     public MiningPattern pattern = MiningPattern.QUARRY;
     public MiningSpeed speed = MiningSpeed.NORMAL;
+    public StorageRouting routing = StorageRouting.AFFINITY;
     public MiningCursor cursor;
 
     /**
@@ -39,6 +41,19 @@ public final class MiningSessionState {
      */
     public MiningCursor pendingCursor;
 
+    private MiningCursor checkpointBuffer;
+
+    /**
+     * Bandes d'une carrière partagée entre plusieurs PNJ, vide pour une
+     * session à un seul mineur. {@link #cursor} en est alors l'enveloppe.
+     */
+    public final List<MiningStripe> stripes = new ArrayList<>();
+
+    /**
+     * Drops de blocs déjà cassés, pas encore rangés dans les coffres.
+     */
+    public final DropBuffer dropBuffer = new DropBuffer();
+
     public double minerY;
     public UUID owner;
     public final List<Vector> containers = new ArrayList<>();
@@ -53,6 +68,12 @@ public final class MiningSessionState {
     public boolean useBarrelMaster = false;
     public boolean paused = false;
     public boolean waitingStorage = false;
+
+    /**
+     * Début d'un arrêt subi (serveur éteint, propriétaire parti), en
+     * millisecondes epoch, ou 0. Consommé par le rattrapage à la reprise.
+     */
+    public long idleSinceMillis = 0L;
     public boolean selected = false;
     public final Set<UUID> trusted = new HashSet<>();
 
@@ -93,8 +114,17 @@ public final class MiningSessionState {
         map.put("length", Math.max(1, length));
         map.put("pattern", (pattern != null ? pattern : MiningPattern.QUARRY).name());
         map.put("speed", (speed != null ? speed : MiningSpeed.NORMAL).name());
+        map.put("routing", (routing != null ? routing : StorageRouting.AFFINITY).name());
         map.put("cursor", cursor != null ? cursor.toMap() : null);
         map.put("pendingCursor", pendingCursor != null ? pendingCursor.toMap() : null);
+        if (!stripes.isEmpty()) {
+            List<Map<String, Object>> serializedStripes = new ArrayList<>(stripes.size());
+            for (MiningStripe stripe : stripes) {
+                serializedStripes.add(stripe.toMap());
+            }
+            map.put("stripes", serializedStripes);
+        }
+        map.put("dropBuffer", dropBuffer.toBase64());
         map.put(
                 "minerY",
                 Double.isFinite(minerY) ? minerY : base.getBlockY() + 1.0D
@@ -151,6 +181,9 @@ public final class MiningSessionState {
         map.put("useBarrelMaster", useBarrelMaster);
         map.put("paused", paused);
         map.put("waitingStorage", waitingStorage);
+        if (idleSinceMillis > 0L) {
+            map.put("idleSince", idleSinceMillis);
+        }
         map.put("selected", selected);
         map.put("chainTunnelAfterQuarry", chainTunnelAfterQuarry);
         map.put("infiniteTunnel", infiniteTunnel);
@@ -223,6 +256,7 @@ public final class MiningSessionState {
         state.length = Math.max(1, intValue(map.get("length"), 1));
         state.pattern = enumValue(MiningPattern.class, map.get("pattern"), MiningPattern.QUARRY);
         state.speed = enumValue(MiningSpeed.class, map.get("speed"), MiningSpeed.NORMAL);
+        state.routing = enumValue(StorageRouting.class, map.get("routing"), StorageRouting.AFFINITY);
 
         Object cursorObj = map.get("cursor");
         if (cursorObj instanceof Map<?, ?> cursorMap) {
@@ -232,6 +266,26 @@ public final class MiningSessionState {
         if (pendingObj instanceof Map<?, ?> pendingMap) {
             state.pendingCursor = MiningCursor.fromMap((Map<String, Object>) pendingMap);
         }
+        if (map.get("stripes") instanceof List<?> stripeList && stripeList.size() <= MAX_STRIPES) {
+            for (Object entry : stripeList) {
+                MiningStripe stripe = entry instanceof Map<?, ?> stripeMap ? MiningStripe.fromMap(stripeMap) : null;
+                if (stripe == null) {
+                    // Un découpage incomplet sera refait à partir de l'enveloppe.
+                    state.stripes.clear();
+                    break;
+                }
+                state.stripes.add(stripe);
+            }
+        }
+
+        if (map.get("dropBuffer") instanceof List<?> buffered) {
+            /*
+             * Une pile illisible (objet d'un plugin retiré, données corrompues)
+             * est ignorée : refuser toute la session bloquerait aussi les
+             * piles valides.
+             */
+            state.dropBuffer.restoreBase64(buffered);
+        }
 
         state.minerY = doubleValue(map.get("minerY"), baseY);
         state.owner = uuidValue(map.get("owner"), null);
@@ -274,6 +328,9 @@ public final class MiningSessionState {
         state.useBarrelMaster = booleanValue(map.get("useBarrelMaster"), false);
         state.paused = booleanValue(map.get("paused"), false);
         state.waitingStorage = booleanValue(map.get("waitingStorage"), false);
+        state.idleSinceMillis = map.get("idleSince") instanceof Number idleSince
+                ? Math.max(0L, idleSince.longValue())
+                : 0L;
         state.selected = booleanValue(map.get("selected"), false);
         state.chainTunnelAfterQuarry = booleanValue(map.get("chainTunnelAfterQuarry"), false);
         state.infiniteTunnel = booleanValue(map.get("infiniteTunnel"), false);
@@ -308,6 +365,28 @@ public final class MiningSessionState {
         return state;
     }
 
+    /**
+     * Publie {@code source} comme checkpoint dans une instance réutilisée.
+     *
+     * <p>La boucle en publie un par bloc pendant toute la vie de la mine ; une
+     * copie neuve à chaque fois ne produisait que des déchets. Le checkpoint
+     * étant remis à {@code null} à chaque validation, une seule instance
+     * suffit. Les lecteurs qui doivent conserver sa valeur (journal,
+     * sauvegarde) en font déjà une copie ou la sérialisent aussitôt.</p>
+     */
+    public void checkpoint(MiningCursor source) {
+        if (source == null) {
+            pendingCursor = null;
+            return;
+        }
+        if (checkpointBuffer == null) {
+            checkpointBuffer = source.copy();
+        } else {
+            checkpointBuffer.copyFrom(source);
+        }
+        pendingCursor = checkpointBuffer;
+    }
+
     /**
      * Restaure le dernier checkpoint non validé puis le consomme.
      */
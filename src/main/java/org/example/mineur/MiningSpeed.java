@@ -6,7 +6,12 @@ package org.example.mineur;
 public enum MiningSpeed {
     SLOW(10),
     NORMAL(5),
-    FAST(2);
+    FAST(2),
+    /**
+     * Déblayage de grandes zones : la boucle casse un lot de blocs par tick
+     * sous budget et ne joue les effets que sur un échantillon.
+     */
+    BULK(1);
 
     public final int ticksPerStage;
 
@@ -14,6 +19,10 @@ public enum MiningSpeed {
         this.ticksPerStage = ticksPerStage;
     }
 
+    public boolean isBulk() {
+        return this == BULK;
+    }
+
     public double progressPerTick(double miningSpeedMultiplier) {
         double safeMultiplier = Double.isFinite(miningSpeedMultiplier)
                 ? Math.max(0.01D, miningSpeedMultiplier)
@@ -0,0 +1,85 @@
+package org.example.mineur;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bande d'une carrière partagée entre plusieurs PNJ.
+ *
+ * <p>Chaque bande possède son propre curseur et son propre checkpoint, avec
+ * la même transaction que le curseur principal de
+ * {@link MiningSessionState} : le checkpoint est publié avant d'avancer et
+ * restauré si le bloc sélectionné n'a pas été cassé.</p>
+ */
+public final class MiningStripe {
+
+    public MiningCursor cursor;
+    public MiningCursor pendingCursor;
+
+    private MiningCursor checkpointBuffer;
+
+    public MiningStripe(MiningCursor cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Curseur de bande absent.");
+        }
+        this.cursor = cursor;
+    }
+
+    /**
+     * Voir {@link MiningSessionState#checkpoint(MiningCursor)}.
+     */
+    public void checkpoint(MiningCursor source) {
+        if (source == null) {
+            pendingCursor = null;
+            return;
+        }
+        if (checkpointBuffer == null) {
+            checkpointBuffer = source.copy();
+        } else {
+            checkpointBuffer.copyFrom(source);
+        }
+        pendingCursor = checkpointBuffer;
+    }
+
+    /**
+     * Restaure le dernier checkpoint non validé puis le consomme.
+     */
+    public void rollbackPendingCursor() {
+        if (pendingCursor == null) {
+            return;
+        }
+        cursor.copyFrom(pendingCursor);
+        pendingCursor = null;
+    }
+
+    /**
+     * Couche réellement en cours : un bloc sélectionné mais pas encore cassé
+     * appartient à la couche de son checkpoint, même si le curseur est déjà
+     * passé à la suivante.
+     */
+    public int layer() {
+        return pendingCursor != null ? pendingCursor.y : cursor.y;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("cursor", cursor.toMap());
+        map.put("pendingCursor", pendingCursor != null ? pendingCursor.toMap() : null);
+        return map;
+    }
+
+    /**
+     * @return la bande décrite, ou {@code null} si son curseur est absent.
+     */
+    @SuppressWarnings("unchecked")
+    public static MiningStripe fromMap(Map<?, ?> map) {
+        if (map == null || !(map.get("cursor") instanceof Map<?, ?> cursorMap)) {
+            return null;
+        }
+        MiningStripe stripe = new MiningStripe(MiningCursor.fromMap((Map<String, Object>) cursorMap));
+        if (map.get("pendingCursor") instanceof Map<?, ?> pendingMap) {
+            stripe.pendingCursor = MiningCursor.fromMap((Map<String, Object>) pendingMap);
+        }
+        return stripe;
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.mineur;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Compteurs de coût et d'avancement d'une session de minage.
+ *
+ * <p>Les boucles d'une session, y compris celles des bandes d'une carrière
+ * partagée, alimentent la même instance. Leurs exécutions d'un même tick du
+ * {@link MiningScheduler} sont cumulées avant d'être enregistrées : le coût
+ * par tick reste celui de la session entière, quel que soit son nombre de
+ * PNJ.</p>
+ *
+ * <p>Moyenne et p99 portent sur les {@link #TICK_WINDOW} derniers ticks où la
+ * session a tourné ; la cadence, sur la dernière minute. Les autres compteurs
+ * sont cumulés depuis le démarrage de la session.</p>
+ */
+public final class MiningTelemetry {
+
+    static final int TICK_WINDOW = 1_200;
+    private static final int RATE_BUCKETS = 60;
+    private static final long RATE_BUCKET_NANOS = 1_000_000_000L;
+    private static final long RATE_WINDOW_NANOS = RATE_BUCKETS * RATE_BUCKET_NANOS;
+
+    /**
+     * État de la session à un instant donné.
+     *
+     * @param ticks               ticks où la session a tourné depuis son démarrage
+     * @param tickNanos           temps cumulé de ces ticks
+     * @param averageTickNanos    moyenne sur la fenêtre glissante
+     * @param p99TickNanos        99e centile sur la fenêtre glissante
+     * @param storageWaitNanos    temps passé à attendre un stockage, attente en cours comprise
+     * @param scanBudgetExhausted appels à l'itérateur rendus sans candidat avant la fin du parcours
+     * @param stripeWaits         appels où une bande d'une carrière partagée attendait les autres
+     */
+    public record Snapshot(long blocksBroken,
+                           double blocksPerMinute,
+                           long ticks,
+                           long tickNanos,
+                           long averageTickNanos,
+                           long p99TickNanos,
+                           long storageWaitNanos,
+                           boolean waitingStorage,
+                           long protectionDenied,
+                           long scanBudgetExhausted,
+                           long stripeWaits) {
+    }
+
+    private final LongSupplier tickClock;
+    private final LongSupplier clock;
+    private final long startedNanos;
+
+    private final long[] tickSamples = new long[TICK_WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private long openTick = Long.MIN_VALUE;
+    private long openTickNanos;
+    private long ticks;
+    private long tickNanos;
+
+    private final long[] rateBuckets = new long[RATE_BUCKETS];
+    private long rateBucket;
+    private long blocksBroken;
+
+    private long storageWaitNanos;
+    private long storageWaitSince;
+    private boolean waitingStorage;
+    private long protectionDenied;
+    private long scanBudgetExhausted;
+    private long stripeWaits;
+
+    /**
+     * @param tickClock numéro du tick du planificateur, qui regroupe les
+     *                  exécutions des différents PNJ d'une session
+     */
+    public MiningTelemetry(LongSupplier tickClock) {
+        this(tickClock, System::nanoTime);
+    }
+
+    MiningTelemetry(LongSupplier tickClock, LongSupplier clock) {
+        if (tickClock == null || clock == null) {
+            throw new IllegalArgumentException("Horloges de télémétrie absentes.");
+        }
+        this.tickClock = tickClock;
+        this.clock = clock;
+        this.startedNanos = clock.getAsLong();
+        this.rateBucket = Math.floorDiv(startedNanos, RATE_BUCKET_NANOS);
+    }
+
+    /**
+     * Durée d'une exécution d'une boucle de la session.
+     */
+    public void recordRun(long nanos) {
+        long tick = tickClock.getAsLong();
+        if (tick != openTick) {
+            closeTick();
+            openTick = tick;
+        }
+        openTickNanos += Math.max(0L, nanos);
+    }
+
+    public void recordBlocks(int count) {
+        if (count <= 0) {
+            return;
+        }
+        advanceRate(clock.getAsLong());
+        rateBuckets[(int) Math.floorMod(rateBucket, RATE_BUCKETS)] += count;
+        blocksBroken += count;
+    }
+
+    public void recordProtectionDenied() {
+        protectionDenied++;
+    }
+
+    public void recordScanBudgetExhausted() {
+        scanBudgetExhausted++;
+    }
+
+    public void recordStripeWait() {
+        stripeWaits++;
+    }
+
+    /**
+     * Suit les transitions du stockage de la session ; les appels répétés
+     * dans le même état sont sans effet.
+     */
+    public void setWaitingStorage(boolean waiting) {
+        if (waiting == waitingStorage) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (waiting) {
+            storageWaitSince = now;
+        } else {
+            storageWaitNanos += Math.max(0L, now - storageWaitSince);
+        }
+        waitingStorage = waiting;
+    }
+
+    public Snapshot snapshot() {
+        long now = clock.getAsLong();
+        if (openTick != Long.MIN_VALUE && tickClock.getAsLong() != openTick) {
+            closeTick();
+        }
+
+        long average = 0L;
+        long p99 = 0L;
+        if (sampleCount > 0) {
+            long[] sorted = Arrays.copyOf(tickSamples, sampleCount);
+            Arrays.sort(sorted);
+            long sum = 0L;
+            for (long sample : sorted) {
+                sum += sample;
+            }
+            average = sum / sampleCount;
+            p99 = sorted[(int) Math.ceil(sampleCount * 0.99D) - 1];
+        }
+
+        double perMinute = blocksPerMinute(now);
+        long waited = storageWaitNanos + (waitingStorage ? Math.max(0L, now - storageWaitSince) : 0L);
+        return new Snapshot(blocksBroken, perMinute, ticks, tickNanos, average, p99,
+                waited, waitingStorage, protectionDenied, scanBudgetExhausted, stripeWaits);
+    }
+
+    /**
+     * Cadence de la dernière minute, sans le tri des échantillons de
+     * {@link #snapshot()}.
+     */
+    public double blocksPerMinute() {
+        return blocksPerMinute(clock.getAsLong());
+    }
+
+    private double blocksPerMinute(long now) {
+        advanceRate(now);
+        long recent = 0L;
+        for (long bucket : rateBuckets) {
+            recent += bucket;
+        }
+        /*
+         * Une session démarrée depuis moins d'une minute serait sinon
+         * sous-estimée : la cadence est rapportée au temps réellement écoulé.
+         */
+        long window = Math.max(RATE_BUCKET_NANOS, Math.min(RATE_WINDOW_NANOS, now - startedNanos));
+        return recent * 60_000_000_000.0D / window;
+    }
+
+    private void closeTick() {
+        if (openTick == Long.MIN_VALUE) {
+            return;
+        }
+        tickSamples[nextSample] = openTickNanos;
+        nextSample = (nextSample + 1) % TICK_WINDOW;
+        sampleCount = Math.min(TICK_WINDOW, sampleCount + 1);
+        ticks++;
+        tickNanos += openTickNanos;
+        openTick = Long.MIN_VALUE;
+        openTickNanos = 0L;
+    }
+
+    private void advanceRate(long now) {
+        long bucket = Math.floorDiv(now, RATE_BUCKET_NANOS);
+        if (bucket <= rateBucket) {
+            return;
+        }
+        long elapsed = Math.min(RATE_BUCKETS, bucket - rateBucket);
+        for (long step = 1; step <= elapsed; step++) {
+            rateBuckets[(int) Math.floorMod(rateBucket + step, RATE_BUCKETS)] = 0L;
+        }
+        rateBucket = bucket;
+    }
+}
@@ -0,0 +1,390 @@
+package org.example.mineur;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Rattrapage d'une carrière restée à l'arrêt, avant la reprise de sa boucle.
+ *
+ * <p>Le temps d'arrêt est converti en nombre de blocs à la cadence nominale
+ * de la session. Le parcours de la carrière est rejoué hors du thread
+ * principal sur des {@link ChunkSnapshot}, dans l'ordre exact de
+ * {@link QuarryIterator} ; le thread principal ne fait ensuite que casser les
+ * blocs retenus, par tranches bornées en temps et sans animation.</p>
+ *
+ * <p>Chaque bloc est revalidé sur le monde réel comme dans la boucle :
+ * bloc toujours minable, non géré par le puits, autorisé par la protection,
+ * et drops qui tiennent dans le stockage. Le rattrapage s'arrête au premier
+ * refus de stockage ou de protection ; le curseur désigne alors ce bloc et
+ * la boucle normale reprend exactement là.</p>
+ */
+public final class OfflineCatchUp implements MiningScheduler.Task {
+
+    public enum Outcome {
+        /** Tout le plan a été appliqué. */
+        COMPLETED,
+        /** Le stockage ne peut plus accueillir les drops du bloc suivant. */
+        STORAGE_FULL,
+        /** Une protection ou l'absence du propriétaire refuse le bloc suivant. */
+        DENIED,
+        /** Les chunks du chantier ne sont pas chargés. */
+        UNAVAILABLE,
+        /** La session a été suspendue ou arrêtée entre-temps. */
+        CANCELLED
+    }
+
+    /**
+     * @param sliceNanos      temps de casse maximal par exécution
+     * @param applyPhysics    {@code mineur.apply-physics}
+     * @param deferredPhysics {@code mineur.deferred-physics} ; avec la
+     *                        physique, l'intérieur de la carrière est alors
+     *                        réglé par couche comme dans la boucle normale
+     */
+    public record Settings(long sliceNanos, boolean applyPhysics, boolean deferredPhysics) {
+    }
+
+    /**
+     * Limite de sécurité d'un plan : trois entiers par bloc retenu.
+     */
+    static final int MAX_PLANNED_BLOCKS = 1_000_000;
+    private static final int MAX_CAPTURE_ATTEMPTS = 100;
+
+    /**
+     * Plan calculé hors du thread principal.
+     *
+     * @param positions triplets x, y, z des blocs à casser, dans l'ordre
+     * @param end       curseur juste après le dernier bloc retenu
+     */
+    record Plan(int[] positions, int size, MiningCursor end) {
+    }
+
+    private final JavaPlugin plugin;
+    private final MiningSessionState state;
+    private final World world;
+    private final InventoryRouter router;
+    private final ItemStack miningTool;
+    private final Predicate<Block> candidateFilter;
+    private final Predicate<Block> breakPermission;
+    private final Consumer<Block> decorationCallback;
+    private final long budget;
+    private final int stopY;
+    private final Settings settings;
+    private final Consumer<OfflineCatchUp> completion;
+    private final DeferredPhysics physics;
+
+    private Plan plan;
+    private boolean planRequested;
+    private int captureAttempts;
+    private int next;
+    private long applied;
+    private Outcome outcome;
+    private boolean cancelled;
+
+    public OfflineCatchUp(JavaPlugin plugin,
+                          MiningSessionState state,
+                          World world,
+                          InventoryRouter router,
+                          ItemStack miningTool,
+                          Predicate<Block> candidateFilter,
+                          Predicate<Block> breakPermission,
+                          Consumer<Block> decorationCallback,
+                          long budget,
+                          int stopY,
+                          Settings settings,
+                          Consumer<OfflineCatchUp> completion) {
+        if (state.cursor == null) {
+            throw new IllegalArgumentException("Curseur absent pour le rattrapage.");
+        }
+        this.plugin = plugin;
+        this.state = state;
+        this.world = world;
+        this.router = router;
+        this.miningTool = miningTool != null ? miningTool.clone() : null;
+        this.candidateFilter = candidateFilter;
+        this.breakPermission = breakPermission;
+        this.decorationCallback = decorationCallback;
+        this.budget = Math.max(0L, Math.min(MAX_PLANNED_BLOCKS, budget));
+        this.stopY = stopY;
+        this.settings = settings;
+        this.completion = completion;
+        this.physics = settings.applyPhysics() && settings.deferredPhysics()
+                && DeferredPhysics.supports(state.pattern)
+                ? new DeferredPhysics(state.cursor)
+                : null;
+    }
+
+    /**
+     * Nombre de blocs qu'une session aurait cassés pendant {@code idleMillis}.
+     */
+    public static long budgetFor(long idleMillis, double blocksPerTick, long maxBlocks) {
+        if (idleMillis <= 0L || maxBlocks <= 0L || !Double.isFinite(blocksPerTick) || blocksPerTick <= 0.0D) {
+            return 0L;
+        }
+        double blocks = Math.floor((idleMillis / 50L) * blocksPerTick);
+        return (long) Math.min((double) maxBlocks, blocks);
+    }
+
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    public long applied() {
+        return applied;
+    }
+
+    public long planned() {
+        return plan != null ? plan.size() : 0L;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled || outcome != null;
+    }
+
+    /**
+     * Abandonne le rattrapage. Le curseur publié à la dernière tranche reste
+     * valide : les blocs déjà cassés sont de l'air que la boucle sautera.
+     */
+    public void cancel() {
+        if (isCancelled()) {
+            return;
+        }
+        cancelled = true;
+        settlePhysics();
+    }
+
+    @Override
+    public void run() {
+        if (isCancelled()) {
+            return;
+        }
+        if (!planRequested) {
+            requestPlan();
+            return;
+        }
+        if (plan == null) {
+            return;
+        }
+
+        Outcome stop = null;
+        long deadline = System.nanoTime() + settings.sliceNanos();
+        try {
+            while (next < plan.size() && (stop == null) && System.nanoTime() < deadline) {
+                stop = applyNext();
+            }
+        } finally {
+            flushDropBuffer();
+            publishCursor();
+        }
+
+        if (stop != null) {
+            finish(stop);
+        } else if (next >= plan.size()) {
+            finish(Outcome.COMPLETED);
+        }
+    }
+
+    private void requestPlan() {
+        MiningCursor origin = state.cursor.copy();
+        ChunkSnapshot[] snapshots = QuarryPrescan.captureSnapshots(
+                world, origin.minX, origin.minZ, Math.max(1, origin.width), Math.max(1, origin.length));
+        if (snapshots == null) {
+            /*
+             * Les tickets de la session chargent les chunks de façon
+             * asynchrone : on réessaie aux exécutions suivantes plutôt que de
+             * charger quoi que ce soit ici.
+             */
+            if (++captureAttempts >= MAX_CAPTURE_ATTEMPTS) {
+                finish(Outcome.UNAVAILABLE);
+            }
+            return;
+        }
+
+        planRequested = true;
+        QuarryPrescan.BlockTypeLookup lookup = QuarryPrescan.snapshotLookup(
+                snapshots, origin.minX, origin.minZ, Math.max(1, origin.length));
+        int worldMinY = world.getMinHeight();
+        int worldMaxY = world.getMaxHeight();
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            Plan computed = plan(origin, lookup, budget, stopY, worldMinY, worldMaxY);
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                if (!isCancelled()) {
+                    plan = computed;
+                }
+            });
+        });
+    }
+
+    /**
+     * Rejoue le parcours de la carrière sur les copies de chunks. Méthode
+     * pure, sûre hors du thread principal.
+     */
+    static Plan plan(MiningCursor origin,
+                     QuarryPrescan.BlockTypeLookup lookup,
+                     long budget,
+                     int stopY,
+                     int worldMinY,
+                     int worldMaxY) {
+        MiningCursor cursor = origin.copy();
+        int effectiveStopY = Math.max(worldMinY, Math.min(stopY, worldMaxY - 1));
+        long maxXExclusive = QuarryIterator.safeExclusiveEnd(cursor.minX, cursor.width);
+        long maxZExclusive = QuarryIterator.safeExclusiveEnd(cursor.minZ, cursor.length);
+        int limit = (int) Math.max(0L, Math.min(MAX_PLANNED_BLOCKS, budget));
+
+        int[] positions = new int[Math.min(limit, 4_096) * 3];
+        int size = 0;
+        while (size < limit
+                && !cursor.exhausted
+                && cursor.y >= effectiveStopY
+                && cursor.y < worldMaxY) {
+            int x = cursor.x;
+            int y = cursor.y;
+            int z = cursor.z;
+            Material type = lookup.typeAt(x, y, z);
+            QuarryIterator.advance(cursor, maxXExclusive, maxZExclusive, effectiveStopY);
+            if (!MiningBlockPolicy.isCandidate(type)) {
+                continue;
+            }
+            if (size * 3 == positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(3, positions.length * 2));
+            }
+            positions[size * 3] = x;
+            positions[size * 3 + 1] = y;
+            positions[size * 3 + 2] = z;
+            size++;
+        }
+        return new Plan(positions, size, cursor);
+    }
+
+    /**
+     * @return la raison d'arrêt, ou {@code null} pour continuer.
+     */
+    private Outcome applyNext() {
+        int[] positions = plan.positions();
+        int x = positions[next * 3];
+        int y = positions[next * 3 + 1];
+        int z = positions[next * 3 + 2];
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return Outcome.UNAVAILABLE;
+        }
+
+        Block block = world.getBlockAt(x, y, z);
+        if (!MiningBlockPolicy.isMineable(block)
+                || (candidateFilter != null && !candidateFilter.test(block))) {
+            // Modifié depuis la copie : la boucle l'aurait écarté de même.
+            next++;
+            return null;
+        }
+        List<ItemStack> drops = MiningBlockPolicy.computeDrops(block, miningTool);
+        if (!fitsWithBuffer(drops)) {
+            return Outcome.STORAGE_FULL;
+        }
+        if (breakPermission != null && !breakPermission.test(block)) {
+            return Outcome.DENIED;
+        }
+        // Un listener de protection peut avoir modifié le bloc.
+        if (!MiningBlockPolicy.isMineable(block)) {
+            next++;
+            return null;
+        }
+
+        breakBlock(block);
+        state.dropBuffer.add(drops);
+        state.dropBuffer.countBlocks(1);
+        next++;
+        applied++;
+        if (decorationCallback != null) {
+            try {
+                decorationCallback.accept(block);
+            } catch (RuntimeException exception) {
+                plugin.getLogger().warning("[Mineur] Décoration ignorée pendant le rattrapage de la session "
+                        + state.id + " : " + exception.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void breakBlock(Block block) {
+        if (physics == null) {
+            block.setType(Material.AIR, settings.applyPhysics());
+            return;
+        }
+        boolean deferred = physics.isInterior(block.getX(), block.getZ());
+        block.setType(Material.AIR, !deferred);
+        physics.onBlockBroken(block, deferred);
+    }
+
+    private boolean fitsWithBuffer(List<ItemStack> drops) {
+        if (router == null || !router.hasTargets()) {
+            return false;
+        }
+        return router.canFitAll(state.dropBuffer.contents(), drops);
+    }
+
+    private void flushDropBuffer() {
+        DropBuffer buffer = state.dropBuffer;
+        if (buffer.isEmpty() || router == null || !router.hasTargets()) {
+            return;
+        }
+        List<ItemStack> drops = buffer.drain();
+        List<ItemStack> leftovers;
+        try {
+            leftovers = router.deposit(drops);
+        } catch (RuntimeException exception) {
+            leftovers = drops;
+            plugin.getLogger().warning("[Mineur] Dépôt impossible pendant le rattrapage de la session "
+                    + state.id + " : " + exception.getMessage());
+        }
+        if (leftovers != null && !leftovers.isEmpty()) {
+            buffer.add(leftovers);
+        }
+    }
+
+    /**
+     * Le curseur de la session désigne le prochain bloc non appliqué : un
+     * arrêt brutal au milieu du rattrapage ne perd ni ne rejoue rien.
+     */
+    private void publishCursor() {
+        if (plan == null) {
+            return;
+        }
+        if (next >= plan.size()) {
+            state.cursor.copyFrom(plan.end());
+            return;
+        }
+        int[] positions = plan.positions();
+        state.cursor.x = positions[next * 3];
+        state.cursor.y = positions[next * 3 + 1];
+        state.cursor.z = positions[next * 3 + 2];
+        state.cursor.exhausted = false;
+    }
+
+    private void finish(Outcome result) {
+        outcome = result;
+        settlePhysics();
+        if (completion != null) {
+            completion.accept(this);
+        }
+    }
+
+    private void settlePhysics() {
+        if (physics == null || !physics.hasPendingLayers()) {
+            return;
+        }
+        try {
+            physics.settleAll();
+        } catch (RuntimeException exception) {
+            plugin.getLogger().warning("[Mineur] Physique différée ignorée pendant le rattrapage de la session "
+                    + state.id + " : " + exception.getMessage());
+        }
+    }
+}
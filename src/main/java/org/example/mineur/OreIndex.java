@@ -0,0 +1,377 @@
+package org.example.mineur;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index des minerais présents autour d'une session « veines d'abord ».
+ *
+ * <p>Chaque chunk de l'emprise est copié en {@link ChunkSnapshot} puis
+ * analysé hors du thread principal. Le résultat est stocké par section de
+ * 16×16×16 : une bitmap de 4 096 bits des positions de minerai et le total de
+ * la section, qui permet d'ignorer d'un coup les sections stériles. La
+ * recherche de veine devient une lecture de bits au lieu d'un cube de
+ * {@code getBlockAt}.</p>
+ *
+ * <p>L'index reste un indice : tout minerai trouvé est revalidé sur le vrai
+ * bloc, et une entrée périmée est corrigée au moment où elle est démentie.</p>
+ */
+public final class OreIndex {
+
+    /**
+     * Parcours des minerais indexés d'une boîte.
+     */
+    @FunctionalInterface
+    public interface OreVisitor {
+        void visit(int x, int y, int z);
+    }
+
+    public static final int UNKNOWN = -1;
+    public static final int ABSENT = 0;
+    public static final int PRESENT = 1;
+
+    private static final int SECTION_WORDS = 4_096 / Long.SIZE;
+
+    private final JavaPlugin plugin;
+    private final World world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    private final Map<Long, Section> sections = new HashMap<>();
+    private final Set<Long> indexedChunks = new HashSet<>();
+    private final Map<Long, Set<Long>> changesWhilePending = new HashMap<>();
+    private boolean closed;
+
+    public OreIndex(JavaPlugin plugin,
+                    World world,
+                    int minX,
+                    int minY,
+                    int minZ,
+                    int maxX,
+                    int maxY,
+                    int maxZ) {
+        this.plugin = plugin;
+        this.world = world;
+        this.minX = Math.min(minX, maxX);
+        this.maxX = Math.max(minX, maxX);
+        this.minY = Math.max(world.getMinHeight(), Math.min(minY, maxY));
+        this.maxY = Math.min(world.getMaxHeight() - 1, Math.max(minY, maxY));
+        this.minZ = Math.min(minZ, maxZ);
+        this.maxZ = Math.max(minZ, maxZ);
+    }
+
+    /**
+     * Un index n'est réutilisable que pour exactement la même emprise.
+     */
+    public boolean matches(World otherWorld, int otherMinX, int otherMinY, int otherMinZ,
+                           int otherMaxX, int otherMaxY, int otherMaxZ) {
+        return world.equals(otherWorld)
+                && minX == Math.min(otherMinX, otherMaxX)
+                && maxX == Math.max(otherMinX, otherMaxX)
+                && minY == Math.max(world.getMinHeight(), Math.min(otherMinY, otherMaxY))
+                && maxY == Math.min(world.getMaxHeight() - 1, Math.max(otherMinY, otherMaxY))
+                && minZ == Math.min(otherMinZ, otherMaxZ)
+                && maxZ == Math.max(otherMinZ, otherMaxZ);
+    }
+
+    /**
+     * Lance l'analyse des chunks déjà chargés de l'emprise.
+     */
+    public void start() {
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    requestScan(chunkX, chunkZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Chunks de l'emprise, au format de {@link ChunkTicketWindow#key}.
+     */
+    public long[] chunkKeys() {
+        int countX = (maxX >> 4) - (minX >> 4) + 1;
+        int countZ = (maxZ >> 4) - (minZ >> 4) + 1;
+        long[] keys = new long[countX * countZ];
+        int next = 0;
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                keys[next++] = ChunkTicketWindow.key(chunkX, chunkZ);
+            }
+        }
+        return keys;
+    }
+
+    public void onChunkLoaded(World loadedWorld, int chunkX, int chunkZ) {
+        if (closed
+                || !world.equals(loadedWorld)
+                || chunkX < minX >> 4 || chunkX > maxX >> 4
+                || chunkZ < minZ >> 4 || chunkZ > maxZ >> 4) {
+            return;
+        }
+        requestScan(chunkX, chunkZ);
+    }
+
+    /**
+     * @return {@code true} si toutes les colonnes de la boîte sont indexées.
+     */
+    public boolean covers(int fromX, int fromZ, int toX, int toZ) {
+        if (closed) {
+            return false;
+        }
+        int clampedMinX = Math.max(minX, fromX);
+        int clampedMaxX = Math.min(maxX, toX);
+        int clampedMinZ = Math.max(minZ, fromZ);
+        int clampedMaxZ = Math.min(maxZ, toZ);
+        for (int chunkX = clampedMinX >> 4; chunkX <= clampedMaxX >> 4; chunkX++) {
+            for (int chunkZ = clampedMinZ >> 4; chunkZ <= clampedMaxZ >> 4; chunkZ++) {
+                if (!indexedChunks.contains(chunkKey(chunkX, chunkZ))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@link #PRESENT}, {@link #ABSENT} ou {@link #UNKNOWN} hors
+     * emprise ou tant que le chunk n'a pas été analysé.
+     */
+    public int oreAt(int x, int y, int z) {
+        if (closed || !contains(x, y, z) || !indexedChunks.contains(chunkKey(x >> 4, z >> 4))) {
+            return UNKNOWN;
+        }
+        Section section = sections.get(sectionKey(x >> 4, y >> 4, z >> 4));
+        return section != null && section.get(x, y, z) ? PRESENT : ABSENT;
+    }
+
+    /**
+     * Visite les minerais indexés de la boîte, section par section. Les
+     * sections sans aucun minerai ne sont même pas allouées.
+     */
+    public void forEachOre(int fromX, int fromY, int fromZ,
+                           int toX, int toY, int toZ,
+                           OreVisitor visitor) {
+        if (closed) {
+            return;
+        }
+        int boxMinX = Math.max(minX, fromX);
+        int boxMaxX = Math.min(maxX, toX);
+        int boxMinY = Math.max(minY, fromY);
+        int boxMaxY = Math.min(maxY, toY);
+        int boxMinZ = Math.max(minZ, fromZ);
+        int boxMaxZ = Math.min(maxZ, toZ);
+        for (int sectionX = boxMinX >> 4; sectionX <= boxMaxX >> 4; sectionX++) {
+            for (int sectionZ = boxMinZ >> 4; sectionZ <= boxMaxZ >> 4; sectionZ++) {
+                for (int sectionY = boxMinY >> 4; sectionY <= boxMaxY >> 4; sectionY++) {
+                    Section section = sections.get(sectionKey(sectionX, sectionY, sectionZ));
+                    if (section == null || section.total == 0) {
+                        continue;
+                    }
+                    for (int word = 0; word < SECTION_WORDS; word++) {
+                        long bits = section.bits[word];
+                        while (bits != 0L) {
+                            int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1L;
+                            int x = (sectionX << 4) + (index & 15);
+                            int z = (sectionZ << 4) + ((index >> 4) & 15);
+                            int y = (sectionY << 4) + (index >> 8);
+                            if (x >= boxMinX && x <= boxMaxX
+                                    && y >= boxMinY && y <= boxMaxY
+                                    && z >= boxMinZ && z <= boxMaxZ) {
+                                visitor.visit(x, y, z);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Met à jour l'index après la casse ou la pose d'un bloc.
+     */
+    public void markChanged(int x, int y, int z, Material type) {
+        if (closed || !contains(x, y, z)) {
+            return;
+        }
+        long chunk = chunkKey(x >> 4, z >> 4);
+        Set<Long> pending = changesWhilePending.get(chunk);
+        if (pending != null) {
+            pending.add(blockKey(x, y, z));
+        }
+        if (indexedChunks.contains(chunk)) {
+            update(x, y, z, MiningBlockPolicy.isOre(type));
+        }
+    }
+
+    public void close() {
+        closed = true;
+        sections.clear();
+        indexedChunks.clear();
+        changesWhilePending.clear();
+    }
+
+    private void requestScan(int chunkX, int chunkZ) {
+        long chunk = chunkKey(chunkX, chunkZ);
+        if (changesWhilePending.containsKey(chunk)) {
+            return;
+        }
+        ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+        changesWhilePending.put(chunk, new HashSet<>());
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<Long, Section> scanned = scanChunk(chunkX, chunkZ, snapshot::getBlockType);
+            plugin.getServer().getScheduler().runTask(plugin, () -> publish(chunkX, chunkZ, scanned));
+        });
+    }
+
+    /**
+     * Analyse pure d'un chunk, sûre hors du thread principal.
+     */
+    Map<Long, Section> scanChunk(int chunkX, int chunkZ, QuarryPrescan.BlockTypeLookup lookup) {
+        Map<Long, Section> scanned = new HashMap<>();
+        for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+            int fromY = Math.max(minY, sectionY << 4);
+            int toY = Math.min(maxY, (sectionY << 4) + 15);
+            Section section = null;
+            for (int y = fromY; y <= toY; y++) {
+                for (int localZ = 0; localZ < 16; localZ++) {
+                    for (int localX = 0; localX < 16; localX++) {
+                        if (!MiningBlockPolicy.isOre(lookup.typeAt(localX, y, localZ))) {
+                            continue;
+                        }
+                        if (section == null) {
+                            section = new Section();
+                        }
+                        section.set((chunkX << 4) + localX, y, (chunkZ << 4) + localZ, true);
+                    }
+                }
+            }
+            if (section != null) {
+                scanned.put(sectionKey(chunkX, sectionY, chunkZ), section);
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * Publie l'analyse d'un chunk. Toujours exécuté sur le thread principal.
+     */
+    void publish(int chunkX, int chunkZ, Map<Long, Section> scanned) {
+        long chunk = chunkKey(chunkX, chunkZ);
+        Set<Long> changes = changesWhilePending.remove(chunk);
+        if (closed) {
+            return;
+        }
+        for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+            sections.remove(sectionKey(chunkX, sectionY, chunkZ));
+        }
+        sections.putAll(scanned);
+        indexedChunks.add(chunk);
+
+        /*
+         * Les blocs modifiés pendant l'analyse sont relus directement : leur
+         * nombre est minime comparé au chunk entier.
+         */
+        if (changes != null) {
+            for (long key : changes) {
+                int x = unpackX(key);
+                int y = unpackY(key);
+                int z = unpackZ(key);
+                update(x, y, z, MiningBlockPolicy.isOre(world.getBlockAt(x, y, z).getType()));
+            }
+        }
+    }
+
+    private void update(int x, int y, int z, boolean ore) {
+        long key = sectionKey(x >> 4, y >> 4, z >> 4);
+        Section section = sections.get(key);
+        if (section == null) {
+            if (!ore) {
+                return;
+            }
+            section = new Section();
+            sections.put(key, section);
+        }
+        section.set(x, y, z, ore);
+        if (section.total == 0) {
+            sections.remove(key);
+        }
+    }
+
+    private boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX
+                && y >= minY && y <= maxY
+                && z >= minZ && z <= maxZ;
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42)
+                | ((long) (sectionZ & 0x3FFFFF) << 20)
+                | (sectionY & 0xFFFFFL);
+    }
+
+    private static long blockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38)
+                | ((long) (z & 0x3FFFFFF) << 12)
+                | (y & 0xFFFL);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+
+    private static int unpackZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    private static int unpackY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    /**
+     * Bitmap d'une section de 16×16×16 blocs, index {@code y<<8 | z<<4 | x}.
+     */
+    static final class Section {
+        final long[] bits = new long[SECTION_WORDS];
+        int total;
+
+        boolean get(int x, int y, int z) {
+            int index = index(x, y, z);
+            return (bits[index >>> 6] & (1L << index)) != 0L;
+        }
+
+        void set(int x, int y, int z, boolean ore) {
+            int index = index(x, y, z);
+            long mask = 1L << index;
+            boolean present = (bits[index >>> 6] & mask) != 0L;
+            if (ore && !present) {
+                bits[index >>> 6] |= mask;
+                total++;
+            } else if (!ore && present) {
+                bits[index >>> 6] &= ~mask;
+                total--;
+            }
+        }
+
+        private static int index(int x, int y, int z) {
+            return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.util.Vector;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Index spatial des conteneurs protégés par les sessions de minage.
+ *
+ * <p>Les entonnoirs déclenchent un {@code InventoryMoveItemEvent} presque à
+ * chaque tick et une explosion soumet des centaines de blocs aux listeners.
+ * Chaque appel parcourait toutes les sessions et tous leurs coffres après un
+ * {@code getState()} complet. L'index répond désormais par une simple lecture
+ * de table : coordonnées compactées vers session, plus l'ensemble des chunks
+ * qui contiennent au moins un conteneur protégé.</p>
+ *
+ * <p>Les enregistrements et retraits unitaires sont appliqués directement.
+ * Les modifications groupées (chargement, nettoyage, restauration) se
+ * contentent d'{@link #invalidate() invalider} l'index, reconstruit
+ * paresseusement à la lecture suivante depuis la liste des sessions.</p>
+ */
+public final class ProtectedContainerIndex {
+
+    /**
+     * Matériaux que le plugin signe lui-même. Un bloc d'un autre type absent
+     * de l'index ne peut pas porter de PDC de session utile.
+     */
+    private static final Set<Material> STORAGE_MATERIALS = EnumSet.of(
+            Material.CHEST,
+            Material.TRAPPED_CHEST,
+            Material.BARREL
+    );
+
+    private final Supplier<? extends Collection<MiningSessionState>> sessions;
+    private final Map<UUID, Map<Long, MiningSessionState>> containers = new HashMap<>();
+    private final Map<UUID, Map<Long, Integer>> chunks = new HashMap<>();
+    private boolean dirty = true;
+
+    public ProtectedContainerIndex(Supplier<? extends Collection<MiningSessionState>> sessions) {
+        this.sessions = sessions;
+    }
+
+    public static boolean isStorageMaterial(Material material) {
+        return material != null && STORAGE_MATERIALS.contains(material);
+    }
+
+    /**
+     * Force une reconstruction complète à la prochaine lecture.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public void add(MiningSessionState state, UUID worldId, int x, int y, int z) {
+        if (dirty || state == null || worldId == null) {
+            return;
+        }
+        index(state, worldId, x, y, z);
+    }
+
+    public void remove(MiningSessionState state, UUID worldId, int x, int y, int z) {
+        if (dirty || state == null || worldId == null) {
+            return;
+        }
+        Map<Long, MiningSessionState> byPosition = containers.get(worldId);
+        if (byPosition == null || byPosition.get(pack(x, y, z)) != state) {
+            return;
+        }
+        byPosition.remove(pack(x, y, z));
+        Map<Long, Integer> byChunk = chunks.get(worldId);
+        if (byChunk != null) {
+            byChunk.computeIfPresent(chunkKey(x >> 4, z >> 4),
+                    (ignored, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Un {@code false} garantit qu'aucun conteneur protégé n'est dans ce chunk.
+     */
+    public boolean mayContain(UUID worldId, int chunkX, int chunkZ) {
+        ensureFresh();
+        Map<Long, Integer> byChunk = chunks.get(worldId);
+        return byChunk != null && byChunk.containsKey(chunkKey(chunkX, chunkZ));
+    }
+
+    public MiningSessionState sessionAt(UUID worldId, int x, int y, int z) {
+        ensureFresh();
+        Map<Long, MiningSessionState> byPosition = containers.get(worldId);
+        return byPosition != null ? byPosition.get(pack(x, y, z)) : null;
+    }
+
+    public int size() {
+        ensureFresh();
+        int total = 0;
+        for (Map<Long, MiningSessionState> byPosition : containers.values()) {
+            total += byPosition.size();
+        }
+        return total;
+    }
+
+    private void ensureFresh() {
+        if (!dirty) {
+            return;
+        }
+        containers.clear();
+        chunks.clear();
+        Collection<MiningSessionState> current = sessions.get();
+        if (current != null) {
+            for (MiningSessionState state : current) {
+                if (state == null || state.worldUid == null) {
+                    continue;
+                }
+                for (Vector vector : state.containers) {
+                    if (vector != null) {
+                        index(state, state.worldUid,
+                                vector.getBlockX(), vector.getBlockY(), vector.getBlockZ());
+                    }
+                }
+            }
+        }
+        dirty = false;
+    }
+
+    private void index(MiningSessionState state, UUID worldId, int x, int y, int z) {
+        /*
+         * La première session gagne, comme l'ancien parcours linéaire qui
+         * retournait le premier état correspondant.
+         */
+        MiningSessionState previous = containers
+                .computeIfAbsent(worldId, ignored -> new HashMap<>())
+                .putIfAbsent(pack(x, y, z), state);
+        if (previous == null) {
+            chunks.computeIfAbsent(worldId, ignored -> new HashMap<>())
+                    .merge(chunkKey(x >> 4, z >> 4), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * 26 bits pour X et Z, 12 bits pour Y : couvre toute la bordure vanilla
+     * et les hauteurs de monde actuelles.
+     */
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38)
+                | ((long) (z & 0x3FFFFFF) << 12)
+                | (y & 0xFFFL);
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Verdicts récents des plugins de protection pour le mineur automatisé.
+ *
+ * <p>Chaque candidat déclenchait un {@code BlockBreakEvent} synthétique qui
+ * traverse tous les listeners du serveur (claims, journaux, anti-grief). Sur
+ * une couche de pierre, la réponse est presque toujours identique d'un bloc à
+ * l'autre : elle est donc retenue par session, section de chunk (16×16×16) et
+ * matériau, pendant une durée bornée.</p>
+ *
+ * <p>Une section qui chevauche la frontière d'un claim partage le verdict du
+ * premier bloc évalué pendant la durée de vie de l'entrée ; c'est le compromis
+ * accepté en activant le cache. Toutes les méthodes s'exécutent sur le thread
+ * principal.</p>
+ */
+public final class ProtectionVerdictCache {
+
+    private static final int MAX_ENTRIES = 16_384;
+
+    private record Key(UUID session, long section, Material material) {
+    }
+
+    private final Map<Key, Long> allowedUntil = new HashMap<>();
+    private final Map<Key, Long> deniedUntil = new HashMap<>();
+    private final LongSupplier clock;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+
+    public ProtectionVerdictCache(long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis);
+    }
+
+    ProtectionVerdictCache(long ttlMillis, LongSupplier clock) {
+        this.clock = clock;
+        setTtlMillis(ttlMillis);
+    }
+
+    /**
+     * Une durée nulle désactive le cache sans changer les appels.
+     */
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = Math.max(0L, ttlMillis);
+        if (this.ttlMillis == 0L) {
+            clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0L;
+    }
+
+    /**
+     * @return le verdict encore valide, ou {@code null} s'il faut interroger
+     *         les plugins de protection
+     */
+    public Boolean lookup(UUID session, int x, int y, int z, Material material) {
+        if (!isEnabled() || session == null) {
+            return null;
+        }
+        Key key = new Key(session, sectionKey(x, y, z), material);
+        long now = clock.getAsLong();
+        Long expiry = allowedUntil.get(key);
+        if (expiry != null && expiry > now) {
+            hits++;
+            return Boolean.TRUE;
+        }
+        expiry = deniedUntil.get(key);
+        if (expiry != null && expiry > now) {
+            hits++;
+            return Boolean.FALSE;
+        }
+        misses++;
+        return null;
+    }
+
+    public void store(UUID session, int x, int y, int z, Material material, boolean allowed) {
+        if (!isEnabled() || session == null) {
+            return;
+        }
+        if (allowedUntil.size() + deniedUntil.size() >= MAX_ENTRIES) {
+            purgeExpired();
+            if (allowedUntil.size() + deniedUntil.size() >= MAX_ENTRIES) {
+                clear();
+            }
+        }
+        Key key = new Key(session, sectionKey(x, y, z), material);
+        long expiry = clock.getAsLong() + ttlMillis;
+        if (allowed) {
+            deniedUntil.remove(key);
+            allowedUntil.put(key, expiry);
+        } else {
+            allowedUntil.remove(key);
+            deniedUntil.put(key, expiry);
+        }
+    }
+
+    public boolean contains(UUID session, int x, int y, int z, Material material) {
+        if (!isEnabled() || session == null) {
+            return false;
+        }
+        Key key = new Key(session, sectionKey(x, y, z), material);
+        long now = clock.getAsLong();
+        Long allowed = allowedUntil.get(key);
+        Long denied = deniedUntil.get(key);
+        return (allowed != null && allowed > now) || (denied != null && denied > now);
+    }
+
+    /**
+     * Oublie les verdicts d'une session, par exemple quand son propriétaire
+     * se connecte ou se déconnecte : ses droits ont pu changer entre-temps.
+     *
+     * @return le nombre d'entrées retirées
+     */
+    public int invalidateSession(UUID session) {
+        int removed = removeSession(allowedUntil, session);
+        return removed + removeSession(deniedUntil, session);
+    }
+
+    /**
+     * @return le nombre d'entrées retirées
+     */
+    public int clear() {
+        int removed = size();
+        allowedUntil.clear();
+        deniedUntil.clear();
+        return removed;
+    }
+
+    public int size() {
+        return allowedUntil.size() + deniedUntil.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    private void purgeExpired() {
+        long now = clock.getAsLong();
+        allowedUntil.values().removeIf(expiry -> expiry <= now);
+        deniedUntil.values().removeIf(expiry -> expiry <= now);
+    }
+
+    private static int removeSession(Map<Key, Long> verdicts, UUID session) {
+        int removed = 0;
+        Iterator<Key> keys = verdicts.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().session().equals(session)) {
+                keys.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Coordonnées de section empaquetées : 26 bits pour X et Z, 12 pour Y.
+     */
+    static long sectionKey(int x, int y, int z) {
+        long sectionX = (x >> 4) & 0x3FFFFFFL;
+        long sectionZ = (z >> 4) & 0x3FFFFFFL;
+        long sectionY = (y >> 4) & 0xFFFL;
+        return (sectionX << 38) | (sectionZ << 12) | sectionY;
+    }
+
+    /**
+     * Positions qui suivent {@code (x, y, z)} sur la couche courante du curseur,
+     * dans l'ordre de balayage de la carrière. Sert à pré-autoriser en une
+     * passe les prochains blocs au lieu d'un événement par bloc.
+     */
+    public static void forEachUpcoming(MiningCursor cursor,
+                                       int x,
+                                       int y,
+                                       int z,
+                                       int limit,
+                                       PositionConsumer consumer) {
+        if (cursor == null || limit <= 0) {
+            return;
+        }
+        long maxX = (long) cursor.minX + Math.max(1, cursor.width) - 1L;
+        long maxZ = (long) cursor.minZ + Math.max(1, cursor.length) - 1L;
+        if (x < cursor.minX || x > maxX || z < cursor.minZ || z > maxZ) {
+            return;
+        }
+        long currentX = x;
+        long currentZ = z;
+        for (int visited = 0; visited < limit; visited++) {
+            if (cursor.scanXFirst) {
+                if (currentX < maxX) {
+                    currentX++;
+                } else if (currentZ < maxZ) {
+                    currentX = cursor.minX;
+                    currentZ++;
+                } else {
+                    return;
+                }
+            } else if (currentZ < maxZ) {
+                currentZ++;
+            } else if (currentX < maxX) {
+                currentZ = cursor.minZ;
+                currentX++;
+            } else {
+                return;
+            }
+            consumer.accept((int) currentX, y, (int) currentZ);
+        }
+    }
+
+    @FunctionalInterface
+    public interface PositionConsumer {
+        void accept(int x, int y, int z);
+    }
+}
@@ -5,6 +5,9 @@ import org.bukkit.block.Block;
 
 /**
  * Parcours d'une carrière rectangulaire, couche par couche vers le bas.
+ *
+ * <p>Avec une {@link QuarryPrescan}, les coordonnées connues comme non
+ * candidates sont sautées sans lecture de bloc sur le thread principal.</p>
  */
 public final class QuarryIterator implements MiningIterator {
 
@@ -15,8 +18,13 @@ public final class QuarryIterator implements MiningIterator {
     private final int stopY;
     private final long maxXExclusive;
     private final long maxZExclusive;
+    private final QuarryPrescan prescan;
 
     public QuarryIterator(World world, MiningCursor cursor, int stopY) {
+        this(world, cursor, stopY, null);
+    }
+
+    public QuarryIterator(World world, MiningCursor cursor, int stopY, QuarryPrescan prescan) {
         this.world = world;
         this.cursor = cursor;
         this.worldMinY = effectiveMinimumHeight(world);
@@ -28,6 +36,7 @@ public final class QuarryIterator implements MiningIterator {
         this.maxXExclusive = safeExclusiveEnd(cursor.minX, cursor.width);
         this.maxZExclusive = safeExclusiveEnd(cursor.minZ, cursor.length);
         normalizeCursor();
+        this.prescan = prescan != null && prescan.matches(cursor) ? prescan : null;
     }
 
     @Override
@@ -47,6 +56,14 @@ public final class QuarryIterator implements MiningIterator {
     public Block next() {
         int inspected = 0;
         while (hasNext() && inspected < DEFAULT_SCAN_BUDGET) {
+            if (prescan != null && !skipToPrescannedCandidate()) {
+                /*
+                 * La fin de couche sautée compte comme une inspection : une
+                 * carrière entièrement vide reste ainsi bornée par le budget.
+                 */
+                inspected++;
+                continue;
+            }
             Block block = world.getBlockAt(cursor.x, cursor.y, cursor.z);
             advance();
             inspected++;
@@ -57,6 +74,29 @@ public final class QuarryIterator implements MiningIterator {
         return null;
     }
 
+    /**
+     * Place le curseur sur le prochain candidat connu de la couche.
+     *
+     * @return {@code false} si la couche ne contient plus aucun candidat ; le
+     *         curseur est alors déjà passé à la couche suivante
+     */
+    private boolean skipToPrescannedCandidate() {
+        long[] bits = prescan.layer(cursor.y);
+        if (bits == null) {
+            return true;
+        }
+        int next = QuarryPrescan.nextSetBit(bits, prescan.indexOf(cursor.x, cursor.z));
+        if (next < 0 || next >= cursor.width * cursor.length) {
+            cursor.x = cursor.minX;
+            cursor.z = cursor.minZ;
+            finishLayer();
+            return false;
+        }
+        cursor.x = prescan.xAt(next);
+        cursor.z = prescan.zAt(next);
+        return true;
+    }
+
     private void normalizeCursor() {
         if (cursor.exhausted) {
             return;
@@ -73,6 +113,18 @@ public final class QuarryIterator implements MiningIterator {
     }
 
     private void advance() {
+        advance(cursor, maxXExclusive, maxZExclusive, stopY);
+    }
+
+    private void finishLayer() {
+        finishLayer(cursor, stopY);
+    }
+
+    /**
+     * Avance d'une coordonnée dans l'ordre de la carrière. Partagé avec le
+     * rattrapage hors ligne, qui rejoue ce parcours sur des copies de chunks.
+     */
+    static void advance(MiningCursor cursor, long maxXExclusive, long maxZExclusive, int stopY) {
         if (cursor.scanXFirst) {
             if ((long) cursor.x + 1L < maxXExclusive) {
                 cursor.x++;
@@ -84,7 +136,7 @@ public final class QuarryIterator implements MiningIterator {
                 return;
             }
             cursor.z = cursor.minZ;
-            finishLayer();
+            finishLayer(cursor, stopY);
             return;
         }
 
@@ -98,10 +150,10 @@ public final class QuarryIterator implements MiningIterator {
             return;
         }
         cursor.x = cursor.minX;
-        finishLayer();
+        finishLayer(cursor, stopY);
     }
 
-    private void finishLayer() {
+    private static void finishLayer(MiningCursor cursor, int stopY) {
         if (cursor.y <= stopY) {
             cursor.exhausted = true;
             return;
@@ -109,7 +161,7 @@ public final class QuarryIterator implements MiningIterator {
         cursor.y--;
     }
 
-    private static long safeExclusiveEnd(int start, int size) {
+    static long safeExclusiveEnd(int start, int size) {
         return Math.min((long) Integer.MAX_VALUE + 1L, (long) start + Math.max(1, size));
     }
 
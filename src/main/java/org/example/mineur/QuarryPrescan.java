@@ -0,0 +1,357 @@
+package org.example.mineur;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pré-analyse asynchrone des couches à venir d'une carrière.
+ *
+ * <p>Les chunks de l'emprise sont copiés en {@link ChunkSnapshot} sur le
+ * thread principal, puis {@link MiningBlockPolicy#isCandidate(Material)} est
+ * évalué hors du thread principal. Chaque couche devient une bitmap compacte
+ * dont les bits suivent exactement l'ordre de parcours du curseur : le
+ * {@link QuarryIterator} saute alors directement au prochain candidat au lieu
+ * de lire des centaines de blocs d'air avec {@code getBlockAt}.</p>
+ *
+ * <p>Une bitmap reste prudente : un bit positionné est toujours revalidé sur
+ * le vrai bloc, et toute modification signalée par {@link #markChanged} force
+ * une nouvelle visite de la coordonnée concernée.</p>
+ *
+ * <p>Les copies de chunks sont conservées d'une couche à l'autre : seuls les
+ * chunks signalés par {@link #markChanged} sont recopiés, et l'ensemble est
+ * renouvelé après {@link #SNAPSHOT_MAX_AGE_NANOS} pour borner l'effet des
+ * changements qu'aucun événement ne signale.</p>
+ */
+public final class QuarryPrescan {
+
+    /**
+     * Lecture du type d'un bloc, éventuellement depuis un thread asynchrone.
+     */
+    @FunctionalInterface
+    interface BlockTypeLookup {
+        Material typeAt(int x, int y, int z);
+    }
+
+    static final int DEFAULT_LOOKAHEAD_LAYERS = 4;
+    static final int MAX_AREA = 1 << 16;
+    private static final long RETRY_DELAY_NANOS = 1_000_000_000L;
+    static final long SNAPSHOT_MAX_AGE_NANOS = 30_000_000_000L;
+
+    private final JavaPlugin plugin;
+    private final World world;
+    private final int minX;
+    private final int minZ;
+    private final int width;
+    private final int length;
+    private final boolean scanXFirst;
+    private final int lookaheadLayers;
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int chunkCountX;
+    private final int chunkCountZ;
+
+    private final Map<Integer, long[]> layers = new HashMap<>();
+    private final Set<Integer> pendingLayers = new HashSet<>();
+    private final Map<Integer, BitSet> changesWhilePending = new HashMap<>();
+    private long retryNotBefore;
+    private boolean closed;
+
+    /*
+     * Copies partagées avec les analyses en cours : un chunk recopié remplace
+     * sa case dans un nouveau tableau, jamais dans celui déjà confié.
+     */
+    private ChunkSnapshot[] snapshots;
+    private long snapshotsTakenAt;
+    private final BitSet dirtyChunks = new BitSet();
+
+    public QuarryPrescan(JavaPlugin plugin, World world, MiningCursor cursor, int lookaheadLayers) {
+        this.plugin = plugin;
+        this.world = world;
+        this.minX = cursor.minX;
+        this.minZ = cursor.minZ;
+        this.width = Math.max(1, cursor.width);
+        this.length = Math.max(1, cursor.length);
+        this.scanXFirst = cursor.scanXFirst;
+        this.lookaheadLayers = Math.max(1, Math.min(32, lookaheadLayers));
+        this.minChunkX = minX >> 4;
+        this.minChunkZ = minZ >> 4;
+        this.chunkCountX = ((minX + width - 1) >> 4) - minChunkX + 1;
+        this.chunkCountZ = ((minZ + length - 1) >> 4) - minChunkZ + 1;
+    }
+
+    /**
+     * Une pré-analyse n'est réutilisable que pour le même rectangle et le même
+     * ordre de parcours ; sinon les index de bits ne correspondent plus.
+     */
+    public boolean matches(MiningCursor cursor) {
+        return cursor != null
+                && cursor.minX == minX
+                && cursor.minZ == minZ
+                && Math.max(1, cursor.width) == width
+                && Math.max(1, cursor.length) == length
+                && cursor.scanXFirst == scanXFirst;
+    }
+
+    public static boolean supports(MiningCursor cursor) {
+        return cursor != null
+                && (long) Math.max(1, cursor.width) * Math.max(1, cursor.length) <= MAX_AREA;
+    }
+
+    /**
+     * Retourne la bitmap publiée pour la couche, ou {@code null} si elle n'est
+     * pas encore prête. L'appel prépare aussi les couches suivantes.
+     */
+    long[] layer(int y) {
+        if (closed) {
+            return null;
+        }
+        discardLayersAbove(y);
+        requestFrom(y);
+        return layers.get(y);
+    }
+
+    /**
+     * Chunks du rectangle, au format de {@link ChunkTicketWindow#key}.
+     */
+    public long[] chunkKeys() {
+        long[] keys = new long[chunkCountX * chunkCountZ];
+        int next = 0;
+        for (int offsetX = 0; offsetX < chunkCountX; offsetX++) {
+            for (int offsetZ = 0; offsetZ < chunkCountZ; offsetZ++) {
+                keys[next++] = ChunkTicketWindow.key(minChunkX + offsetX, minChunkZ + offsetZ);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Index du bit correspondant à une colonne, dans l'ordre du curseur.
+     */
+    int indexOf(int x, int z) {
+        int offsetX = x - minX;
+        int offsetZ = z - minZ;
+        return scanXFirst ? offsetZ * width + offsetX : offsetX * length + offsetZ;
+    }
+
+    int xAt(int index) {
+        return scanXFirst ? minX + index % width : minX + index / length;
+    }
+
+    int zAt(int index) {
+        return scanXFirst ? minZ + index / width : minZ + index % length;
+    }
+
+    /**
+     * Signale qu'un bloc de l'emprise a changé depuis la copie des chunks.
+     */
+    public void markChanged(int x, int y, int z) {
+        if (closed
+                || (long) x - minX < 0 || (long) x - minX >= width
+                || (long) z - minZ < 0 || (long) z - minZ >= length) {
+            return;
+        }
+        dirtyChunks.set(((x >> 4) - minChunkX) * chunkCountZ + ((z >> 4) - minChunkZ));
+        int index = indexOf(x, z);
+        long[] bits = layers.get(y);
+        if (bits != null) {
+            set(bits, index);
+        }
+        if (pendingLayers.contains(y)) {
+            changesWhilePending.computeIfAbsent(y, ignored -> new BitSet()).set(index);
+        }
+    }
+
+    public void close() {
+        closed = true;
+        layers.clear();
+        pendingLayers.clear();
+        changesWhilePending.clear();
+        snapshots = null;
+        dirtyChunks.clear();
+    }
+
+    /**
+     * Publie une couche calculée. Toujours exécuté sur le thread principal.
+     */
+    void publishLayer(int y, long[] bits) {
+        pendingLayers.remove(y);
+        BitSet changes = changesWhilePending.remove(y);
+        if (closed || bits == null) {
+            return;
+        }
+        if (changes != null) {
+            for (int index = changes.nextSetBit(0); index >= 0; index = changes.nextSetBit(index + 1)) {
+                set(bits, index);
+            }
+        }
+        layers.put(y, bits);
+    }
+
+    private void requestFrom(int y) {
+        List<Integer> wanted = new ArrayList<>();
+        int lowest = world.getMinHeight();
+        for (int layerY = y; layerY > y - lookaheadLayers && layerY >= lowest; layerY--) {
+            if (!layers.containsKey(layerY) && !pendingLayers.contains(layerY)) {
+                wanted.add(layerY);
+            }
+        }
+        if (wanted.isEmpty() || System.nanoTime() < retryNotBefore) {
+            return;
+        }
+
+        ChunkSnapshot[] snapshots = currentSnapshots();
+        if (snapshots == null) {
+            /*
+             * Charger un chunk ici serait précisément le coût synchrone que
+             * cette analyse doit éviter. Le parcours classique prend le relais
+             * jusqu'à ce que les tickets de la session aient fait leur travail.
+             */
+            retryNotBefore = System.nanoTime() + RETRY_DELAY_NANOS;
+            return;
+        }
+
+        pendingLayers.addAll(wanted);
+        BlockTypeLookup lookup = snapshotLookup(snapshots, minX, minZ, length);
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<Integer, long[]> computed = new HashMap<>();
+            for (int layerY : wanted) {
+                computed.put(layerY, scanLayer(layerY, lookup));
+            }
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                for (Map.Entry<Integer, long[]> entry : computed.entrySet()) {
+                    publishLayer(entry.getKey(), entry.getValue());
+                }
+            });
+        });
+    }
+
+    /**
+     * Copies à jour du rectangle : les précédentes, dont seuls les chunks
+     * signalés sont recopiés, ou une copie complète si elles sont trop
+     * anciennes. {@code null} si un chunk à copier n'est pas chargé.
+     */
+    ChunkSnapshot[] currentSnapshots() {
+        long now = System.nanoTime();
+        if (snapshots == null || now - snapshotsTakenAt >= SNAPSHOT_MAX_AGE_NANOS) {
+            ChunkSnapshot[] fresh = captureSnapshots(world, minX, minZ, width, length);
+            if (fresh != null) {
+                snapshots = fresh;
+                snapshotsTakenAt = now;
+                dirtyChunks.clear();
+            }
+            return fresh;
+        }
+        if (dirtyChunks.isEmpty()) {
+            return snapshots;
+        }
+        ChunkSnapshot[] refreshed = snapshots.clone();
+        for (int index = dirtyChunks.nextSetBit(0); index >= 0; index = dirtyChunks.nextSetBit(index + 1)) {
+            int chunkX = minChunkX + index / chunkCountZ;
+            int chunkZ = minChunkZ + index % chunkCountZ;
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                return null;
+            }
+            refreshed[index] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+        }
+        snapshots = refreshed;
+        dirtyChunks.clear();
+        return refreshed;
+    }
+
+    /**
+     * Copie les chunks couvrant le rectangle, ou {@code null} si l'un d'eux
+     * n'est pas chargé. Toujours appelé sur le thread principal.
+     */
+    static ChunkSnapshot[] captureSnapshots(World world, int minX, int minZ, int width, int length) {
+        int minChunkX = minX >> 4;
+        int maxChunkX = (minX + width - 1) >> 4;
+        int minChunkZ = minZ >> 4;
+        int maxChunkZ = (minZ + length - 1) >> 4;
+        int chunkCountZ = maxChunkZ - minChunkZ + 1;
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[(maxChunkX - minChunkX + 1) * chunkCountZ];
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    return null;
+                }
+                snapshots[(chunkX - minChunkX) * chunkCountZ + (chunkZ - minChunkZ)] =
+                        world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Lecture des types depuis les copies de {@link #captureSnapshots}, sûre
+     * hors du thread principal pour toute coordonnée du rectangle.
+     */
+    static BlockTypeLookup snapshotLookup(ChunkSnapshot[] snapshots, int minX, int minZ, int length) {
+        int minChunkX = minX >> 4;
+        int minChunkZ = minZ >> 4;
+        int chunkCountZ = ((minZ + length - 1) >> 4) - minChunkZ + 1;
+        return (x, blockY, z) -> snapshots[((x >> 4) - minChunkX) * chunkCountZ
+                + ((z >> 4) - minChunkZ)].getBlockType(x & 15, blockY, z & 15);
+    }
+
+    /**
+     * Calcule la bitmap d'une couche. Méthode pure, sûre hors thread principal.
+     */
+    long[] scanLayer(int y, BlockTypeLookup lookup) {
+        int area = width * length;
+        long[] bits = new long[(area + 63) >>> 6];
+        for (int index = 0; index < area; index++) {
+            if (MiningBlockPolicy.isCandidate(lookup.typeAt(xAt(index), y, zAt(index)))) {
+                set(bits, index);
+            }
+        }
+        return bits;
+    }
+
+    private void discardLayersAbove(int y) {
+        Iterator<Integer> iterator = layers.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() > y) {
+                iterator.remove();
+            }
+        }
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Premier bit positionné à partir de {@code from}, ou -1.
+     */
+    static int nextSetBit(long[] bits, int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0L) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word >= bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.mineur;
+
+import org.bukkit.block.Block;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Découpage d'une carrière en bandes disjointes, une par PNJ.
+ *
+ * <p>Le rectangle est coupé le long de son plus grand côté ; chaque bande
+ * garde toute la profondeur et l'ordre de parcours de la carrière. Le curseur
+ * de la session devient l'enveloppe des bandes : il garde le rectangle
+ * complet (tickets, protection, puits) et sa couche est celle de la bande la
+ * plus lente, seule preuve qu'une couche est entièrement terminée.</p>
+ *
+ * <p>Une bande qui a pris plus d'une couche d'avance sur la plus lente
+ * attend : son itérateur rend {@code null} sans avancer tant que les autres
+ * n'ont pas rattrapé, ce que la boucle traite comme un candidat écarté. Le
+ * fond reste ainsi à peu près plat sous les PNJ, qui se déplacent de bloc en
+ * bloc.</p>
+ */
+public final class QuarryStripes {
+
+    static final int MAX_LEAD_LAYERS = 1;
+
+    private final List<MiningStripe> stripes;
+    private final int stopY;
+
+    public QuarryStripes(List<MiningStripe> stripes, int stopY) {
+        if (stripes == null || stripes.isEmpty()) {
+            throw new IllegalArgumentException("Aucune bande à coordonner.");
+        }
+        this.stripes = stripes;
+        this.stopY = stopY;
+    }
+
+    /**
+     * Nombre de bandes possibles sans descendre sous la largeur minimale.
+     */
+    public static int maxStripes(MiningCursor whole, int minStripeWidth) {
+        if (whole == null) {
+            return 1;
+        }
+        int span = Math.max(Math.max(1, whole.width), Math.max(1, whole.length));
+        return Math.max(1, span / Math.max(1, minStripeWidth));
+    }
+
+    /**
+     * Coupe le rectangle de {@code whole} en {@code count} bandes, toutes
+     * placées au début de la couche courante de l'enveloppe.
+     */
+    public static List<MiningStripe> split(MiningCursor whole, int count) {
+        if (whole == null) {
+            throw new IllegalArgumentException("Curseur de carrière absent.");
+        }
+        boolean alongX = whole.width >= whole.length;
+        int span = Math.max(1, alongX ? whole.width : whole.length);
+        int parts = Math.max(1, Math.min(count, span));
+        int base = span / parts;
+        int remainder = span % parts;
+
+        List<MiningStripe> result = new ArrayList<>(parts);
+        int offset = 0;
+        for (int index = 0; index < parts; index++) {
+            int size = base + (index < remainder ? 1 : 0);
+            MiningCursor cursor = whole.copy();
+            if (alongX) {
+                cursor.minX = whole.minX + offset;
+                cursor.width = size;
+            } else {
+                cursor.minZ = whole.minZ + offset;
+                cursor.length = size;
+            }
+            cursor.x = cursor.minX;
+            cursor.z = cursor.minZ;
+            result.add(new MiningStripe(cursor));
+            offset += size;
+        }
+        return result;
+    }
+
+    /**
+     * Vrai si les bandes persistées correspondent encore au découpage attendu
+     * et ne sont pas en retard sur l'enveloppe, que le rattrapage hors ligne
+     * a pu faire descendre.
+     */
+    public static boolean matches(List<MiningStripe> stripes, MiningCursor whole, int count) {
+        if (stripes == null || whole == null) {
+            return false;
+        }
+        List<MiningStripe> expected = split(whole, count);
+        if (stripes.size() != expected.size()) {
+            return false;
+        }
+        for (int index = 0; index < expected.size(); index++) {
+            MiningStripe stripe = stripes.get(index);
+            MiningCursor reference = expected.get(index).cursor;
+            if (stripe == null
+                    || stripe.cursor.minX != reference.minX
+                    || stripe.cursor.minZ != reference.minZ
+                    || stripe.cursor.width != reference.width
+                    || stripe.cursor.length != reference.length
+                    || stripe.cursor.scanXFirst != reference.scanXFirst) {
+                return false;
+            }
+            if (!stripe.cursor.exhausted && stripe.layer() > whole.y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<MiningStripe> stripes() {
+        return stripes;
+    }
+
+    /**
+     * Une bande est terminée quand son parcours est fini et qu'aucun bloc
+     * sélectionné n'attend encore sa casse.
+     */
+    public boolean isFinished(MiningStripe stripe) {
+        return stripe.pendingCursor == null
+                && (stripe.cursor.exhausted || stripe.cursor.y < stopY);
+    }
+
+    public boolean isFinished() {
+        for (MiningStripe stripe : stripes) {
+            if (!isFinished(stripe)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Couche de la bande la plus lente, ou {@link Integer#MIN_VALUE} si toutes
+     * sont terminées.
+     */
+    public int slowestLayer() {
+        int slowest = Integer.MIN_VALUE;
+        for (MiningStripe stripe : stripes) {
+            if (!isFinished(stripe)) {
+                slowest = Math.max(slowest, stripe.layer());
+            }
+        }
+        return slowest;
+    }
+
+    /**
+     * Recopie l'avancement des bandes dans le curseur de la session.
+     */
+    public void publishEnvelope(MiningCursor envelope) {
+        if (envelope == null) {
+            return;
+        }
+        envelope.x = envelope.minX;
+        envelope.z = envelope.minZ;
+        int slowest = slowestLayer();
+        if (slowest != Integer.MIN_VALUE) {
+            envelope.y = slowest;
+            envelope.exhausted = false;
+            return;
+        }
+        int lowest = envelope.y;
+        for (MiningStripe stripe : stripes) {
+            lowest = Math.min(lowest, stripe.cursor.y);
+        }
+        envelope.y = lowest;
+        envelope.exhausted = true;
+    }
+
+    /**
+     * Enveloppe l'itérateur d'une bande dans la contrainte d'avance maximale.
+     */
+    public MiningIterator gate(MiningIterator delegate, MiningStripe stripe) {
+        return new Gate(delegate, stripe);
+    }
+
+    private final class Gate implements MiningIterator {
+
+        private final MiningIterator delegate;
+        private final MiningStripe stripe;
+        private boolean waiting;
+
+        private Gate(MiningIterator delegate, MiningStripe stripe) {
+            this.delegate = delegate;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public Block next() {
+            int slowest = slowestLayer();
+            waiting = slowest != Integer.MIN_VALUE && stripe.cursor.y < slowest - MAX_LEAD_LAYERS;
+            if (waiting) {
+                return null;
+            }
+            return delegate.next();
+        }
+
+        @Override
+        public boolean isWaiting() {
+            return waiting;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public MiningCursor cursor() {
+            return delegate.cursor();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modèle incrémental de la capacité libre des conteneurs d'une session.
+ *
+ * <p>Le modèle est construit une seule fois à partir des inventaires résolus,
+ * puis maintenu par les dépôts du routeur lui-même. Une vérification de place
+ * ne parcourt donc plus tous les emplacements de tous les coffres : seules les
+ * piles partielles du matériau concerné et les compteurs d'emplacements vides
+ * sont consultés.</p>
+ *
+ * <p>La simulation de {@link #canFit} est faite plusieurs fois par bloc miné :
+ * elle lit les listes de l'appelant sans les copier et n'écrit que dans des
+ * brouillons conservés par le modèle.</p>
+ *
+ * <p>Toute modification extérieure (clic de joueur, entonnoir, casse) doit
+ * invalider le modèle via {@link InventoryRouter#invalidate()}.</p>
+ */
+final class StorageCapacityModel {
+
+    /**
+     * Capacité connue d'un inventaire physique (simple ou double coffre).
+     */
+    static final class ContainerSummary {
+        final Inventory inventory;
+        final Block origin;
+        final Material originType;
+        final int maxStackSize;
+        int emptySlots;
+        final Map<Material, List<PartialStack>> partials = new EnumMap<>(Material.class);
+        /**
+         * Matériaux présents, piles pleines comprises : c'est ce que consulte
+         * le routage par affinité.
+         */
+        final Set<Material> stored = EnumSet.noneOf(Material.class);
+
+        ContainerSummary(Inventory inventory, Block origin, Material originType, int maxStackSize) {
+            this.inventory = inventory;
+            this.origin = origin;
+            this.originType = originType;
+            this.maxStackSize = maxStackSize;
+        }
+
+        /**
+         * Contrôle bon marché, sans BlockState, que le bloc porteur existe encore.
+         */
+        boolean isStillPlaced() {
+            try {
+                return origin == null || origin.getType() == originType;
+            } catch (RuntimeException ignored) {
+                return false;
+            }
+        }
+
+        boolean holds(Material material) {
+            return stored.contains(material);
+        }
+
+        boolean isBarrel() {
+            return originType == Material.BARREL;
+        }
+
+        /**
+         * Nombre d'exemplaires de {@code item} que le conteneur peut encore
+         * recevoir d'après le modèle, plafonné à {@code limit}.
+         */
+        int roomFor(ItemStack item, int limit) {
+            long room = (long) emptySlots * Math.max(1, Math.min(item.getMaxStackSize(), maxStackSize));
+            List<PartialStack> sameMaterial = partials.get(item.getType());
+            if (sameMaterial != null) {
+                for (int index = 0; index < sameMaterial.size() && room < limit; index++) {
+                    PartialStack partial = sameMaterial.get(index);
+                    if (partial.prototype.isSimilar(item)) {
+                        room += partial.room;
+                    }
+                }
+            }
+            return (int) Math.min(limit, room);
+        }
+
+        /**
+         * Reproduit {@link Inventory#addItem} : piles similaires d'abord, puis
+         * emplacements vides.
+         */
+        void recordInsertion(ItemStack item, int amount) {
+            if (amount > 0) {
+                stored.add(item.getType());
+            }
+            int remaining = amount;
+            List<PartialStack> sameMaterial = partials.get(item.getType());
+            if (sameMaterial != null) {
+                for (int index = 0; index < sameMaterial.size() && remaining > 0; index++) {
+                    PartialStack partial = sameMaterial.get(index);
+                    if (!partial.prototype.isSimilar(item)) {
+                        continue;
+                    }
+                    int accepted = Math.min(remaining, partial.room);
+                    partial.room -= accepted;
+                    remaining -= accepted;
+                    if (partial.room <= 0) {
+                        sameMaterial.remove(index--);
+                    }
+                }
+            }
+
+            int perSlot = Math.max(1, Math.min(item.getMaxStackSize(), maxStackSize));
+            while (remaining > 0 && emptySlots > 0) {
+                int accepted = Math.min(remaining, perSlot);
+                emptySlots--;
+                remaining -= accepted;
+                if (accepted < perSlot) {
+                    partials.computeIfAbsent(item.getType(), ignored -> new ArrayList<>())
+                            .add(new PartialStack(item.clone(), perSlot - accepted));
+                }
+            }
+        }
+    }
+
+    static final class PartialStack {
+        final ItemStack prototype;
+        int room;
+        /*
+         * Place déjà promise par la simulation numéro {@code simulation}. Le
+         * numéro évite de remettre à zéro toutes les piles avant chaque essai.
+         */
+        private int simulation;
+        private int simulatedUse;
+
+        PartialStack(ItemStack prototype, int room) {
+            this.prototype = prototype;
+            this.room = room;
+        }
+    }
+
+    private final List<ContainerSummary> summaries;
+    private final long builtAtNanos;
+
+    private final int[] emptyUsed;
+    private int simulation;
+    private ItemStack[] simulatedPrototypes = new ItemStack[8];
+    private int[] simulatedRoom = new int[8];
+    private int simulatedCount;
+
+    private StorageCapacityModel(List<ContainerSummary> summaries, long builtAtNanos) {
+        this.summaries = summaries;
+        this.builtAtNanos = builtAtNanos;
+        this.emptyUsed = new int[summaries.size()];
+    }
+
+    /**
+     * Pile que le routeur accepte de stocker.
+     */
+    static boolean isStorable(ItemStack item) {
+        return item != null && item.getType() != Material.AIR && item.getAmount() > 0;
+    }
+
+    /**
+     * Construit le modèle en lisant une seule fois le contenu de chaque inventaire.
+     */
+    static StorageCapacityModel build(List<Inventory> inventories, List<Block> origins, long nowNanos) {
+        List<ContainerSummary> summaries = new ArrayList<>();
+        for (int index = 0; index < inventories.size(); index++) {
+            Inventory inventory = inventories.get(index);
+            Block origin = index < origins.size() ? origins.get(index) : null;
+            try {
+                ItemStack[] contents = inventory.getStorageContents();
+                if (contents == null) {
+                    continue;
+                }
+                int maxStackSize = Math.max(1, inventory.getMaxStackSize());
+                ContainerSummary summary = new ContainerSummary(
+                        inventory,
+                        origin,
+                        origin != null ? origin.getType() : null,
+                        maxStackSize
+                );
+                for (ItemStack existing : contents) {
+                    if (existing == null || existing.getType() == Material.AIR) {
+                        summary.emptySlots++;
+                        continue;
+                    }
+                    summary.stored.add(existing.getType());
+                    int maximum = Math.min(existing.getMaxStackSize(), maxStackSize);
+                    int room = maximum - existing.getAmount();
+                    if (room > 0) {
+                        summary.partials.computeIfAbsent(existing.getType(), ignored -> new ArrayList<>())
+                                .add(new PartialStack(existing.clone(), room));
+                    }
+                }
+                summaries.add(summary);
+            } catch (RuntimeException ignored) {
+                /*
+                 * Le coffre peut avoir été cassé ou remplacé après sa résolution.
+                 * Ne pas compter sa capacité évite un faux positif destructeur.
+                 */
+            }
+        }
+        return new StorageCapacityModel(summaries, nowNanos);
+    }
+
+    List<ContainerSummary> summaries() {
+        return summaries;
+    }
+
+    boolean isEmpty() {
+        return summaries.isEmpty();
+    }
+
+    /**
+     * Un bloc porteur cassé ou remplacé rend le modèle caduc.
+     */
+    boolean allStillPlaced() {
+        for (int index = 0; index < summaries.size(); index++) {
+            if (!summaries.get(index).isStillPlaced()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long ageNanos(long nowNanos) {
+        return nowNanos - builtAtNanos;
+    }
+
+    /**
+     * Simule l'insertion de {@code first} puis de {@code second} sans toucher
+     * au modèle. Les piles vides ou nulles sont ignorées.
+     */
+    boolean canFit(List<ItemStack> first, List<ItemStack> second) {
+        if (summaries.isEmpty()) {
+            return false;
+        }
+        simulation++;
+        Arrays.fill(emptyUsed, 0);
+        try {
+            return simulateAll(first) && simulateAll(second);
+        } finally {
+            // Les piles de l'appelant ne restent pas référencées par le modèle.
+            Arrays.fill(simulatedPrototypes, 0, simulatedCount, null);
+            simulatedCount = 0;
+        }
+    }
+
+    private boolean simulateAll(List<ItemStack> items) {
+        if (items == null) {
+            return true;
+        }
+        for (int index = 0; index < items.size(); index++) {
+            ItemStack item = items.get(index);
+            if (isStorable(item) && !simulate(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean simulate(ItemStack item) {
+        int remaining = item.getAmount();
+
+        // On remplit d'abord les piles compatibles déjà présentes.
+        for (int index = 0; index < summaries.size() && remaining > 0; index++) {
+            List<PartialStack> sameMaterial = summaries.get(index).partials.get(item.getType());
+            if (sameMaterial == null) {
+                continue;
+            }
+            for (int rank = 0; rank < sameMaterial.size() && remaining > 0; rank++) {
+                PartialStack partial = sameMaterial.get(rank);
+                if (!partial.prototype.isSimilar(item)) {
+                    continue;
+                }
+                int alreadyUsed = partial.simulation == simulation ? partial.simulatedUse : 0;
+                int accepted = Math.min(remaining, partial.room - alreadyUsed);
+                if (accepted <= 0) {
+                    continue;
+                }
+                partial.simulation = simulation;
+                partial.simulatedUse = alreadyUsed + accepted;
+                remaining -= accepted;
+            }
+        }
+        for (int index = 0; index < simulatedCount && remaining > 0; index++) {
+            if (simulatedRoom[index] > 0 && simulatedPrototypes[index].isSimilar(item)) {
+                int accepted = Math.min(remaining, simulatedRoom[index]);
+                simulatedRoom[index] -= accepted;
+                remaining -= accepted;
+            }
+        }
+
+        // Puis on consomme les emplacements vides.
+        for (int index = 0; index < summaries.size() && remaining > 0; index++) {
+            ContainerSummary summary = summaries.get(index);
+            int perSlot = Math.max(1, Math.min(item.getMaxStackSize(), summary.maxStackSize));
+            while (remaining > 0 && emptyUsed[index] < summary.emptySlots) {
+                int accepted = Math.min(remaining, perSlot);
+                emptyUsed[index]++;
+                remaining -= accepted;
+                if (accepted < perSlot) {
+                    recordSimulatedPartial(item, perSlot - accepted);
+                }
+            }
+        }
+        return remaining <= 0;
+    }
+
+    private void recordSimulatedPartial(ItemStack prototype, int room) {
+        if (simulatedCount == simulatedPrototypes.length) {
+            simulatedPrototypes = Arrays.copyOf(simulatedPrototypes, simulatedCount * 2);
+            simulatedRoom = Arrays.copyOf(simulatedRoom, simulatedCount * 2);
+        }
+        simulatedPrototypes[simulatedCount] = prototype;
+        simulatedRoom[simulatedCount] = room;
+        simulatedCount++;
+    }
+}
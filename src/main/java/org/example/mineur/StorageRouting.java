@@ -0,0 +1,34 @@
+package org.example.mineur;
+
+/**
+ * Ordre dans lequel {@link InventoryRouter} propose les conteneurs d'une
+ * session à chaque pile déposée.
+ */
+public enum StorageRouting {
+    /**
+     * Comportement historique : le premier conteneur essayé tourne à chaque
+     * dépôt, ce qui disperse chaque matériau dans tous les coffres.
+     */
+    ROUND_ROBIN("rotation"),
+    /**
+     * Un matériau rejoint d'abord les conteneurs qui en contiennent déjà,
+     * puis le premier conteneur libre.
+     */
+    AFFINITY("affinité"),
+    /**
+     * Les conteneurs sont remplis l'un après l'autre, dans l'ordre du
+     * stockage de la session.
+     */
+    FILL_FIRST("remplissage"),
+    /**
+     * Comme {@link #AFFINITY}, mais les tonneaux ne reçoivent que ce que les
+     * coffres ne peuvent plus accepter.
+     */
+    BARREL_OVERFLOW("débordement tonneaux");
+
+    public final String label;
+
+    StorageRouting(String label) {
+        this.label = label;
+    }
+}
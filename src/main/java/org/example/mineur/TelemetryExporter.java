@@ -0,0 +1,173 @@
+package org.example.mineur;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Export des compteurs de sessions au format texte de Prometheus.
+ *
+ * <p>Le fichier est réécrit entièrement à chaque export puis déplacé sur
+ * l'ancien : un collecteur qui le lit depuis le disque ne voit jamais un
+ * fichier à moitié écrit.</p>
+ */
+public final class TelemetryExporter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0D;
+
+    /**
+     * Mesures d'une session au moment de l'export.
+     */
+    public record SessionMetrics(UUID session,
+                                 UUID owner,
+                                 MiningPattern pattern,
+                                 int workers,
+                                 MiningTelemetry.Snapshot telemetry,
+                                 int ticketsHeld,
+                                 long asyncChunkLoads,
+                                 long blockingChunkLoads) {
+    }
+
+    private TelemetryExporter() {
+    }
+
+    public static String format(List<SessionMetrics> sessions, long lastSchedulerTickNanos, long deferredExecutions) {
+        StringBuilder out = new StringBuilder(512 + sessions.size() * 1_024);
+        family(out, "mineur_sessions", "gauge", "Sessions de minage en cours d'exécution.");
+        out.append("mineur_sessions ").append(sessions.size()).append('\n');
+        family(out, "mineur_scheduler_last_tick_seconds", "gauge",
+                "Durée du dernier tick du planificateur commun.");
+        out.append("mineur_scheduler_last_tick_seconds ")
+                .append(lastSchedulerTickNanos / NANOS_PER_SECOND).append('\n');
+        family(out, "mineur_scheduler_deferred_executions_total", "counter",
+                "Exécutions reportées au tick suivant faute de budget.");
+        out.append("mineur_scheduler_deferred_executions_total ").append(deferredExecutions).append('\n');
+
+        gauge(out, sessions, "mineur_session_workers", "gauge",
+                "PNJ qui minent la session.", SessionMetrics::workers);
+        gauge(out, sessions, "mineur_session_blocks_broken_total", "counter",
+                "Blocs cassés depuis le démarrage de la session.", metrics -> metrics.telemetry().blocksBroken());
+        gauge(out, sessions, "mineur_session_blocks_per_minute", "gauge",
+                "Blocs cassés pendant la dernière minute.", metrics -> metrics.telemetry().blocksPerMinute());
+
+        family(out, "mineur_session_tick_seconds", "summary",
+                "Temps passé par la session dans un tick où elle a tourné.");
+        for (SessionMetrics metrics : sessions) {
+            MiningTelemetry.Snapshot telemetry = metrics.telemetry();
+            line(out, "mineur_session_tick_seconds", metrics, "quantile=\"0.99\"",
+                    telemetry.p99TickNanos() / NANOS_PER_SECOND);
+            line(out, "mineur_session_tick_seconds_sum", metrics, null,
+                    telemetry.tickNanos() / NANOS_PER_SECOND);
+            line(out, "mineur_session_tick_seconds_count", metrics, null, telemetry.ticks());
+        }
+        gauge(out, sessions, "mineur_session_tick_average_seconds", "gauge",
+                "Moyenne glissante du temps passé par tick.",
+                metrics -> metrics.telemetry().averageTickNanos() / NANOS_PER_SECOND);
+
+        gauge(out, sessions, "mineur_session_storage_wait_seconds_total", "counter",
+                "Temps passé à attendre un stockage disponible.",
+                metrics -> metrics.telemetry().storageWaitNanos() / NANOS_PER_SECOND);
+        gauge(out, sessions, "mineur_session_waiting_storage", "gauge",
+                "1 si la session attend actuellement un stockage.",
+                metrics -> metrics.telemetry().waitingStorage() ? 1 : 0);
+        gauge(out, sessions, "mineur_session_protection_denied_total", "counter",
+                "Casses refusées par un plugin de protection.",
+                metrics -> metrics.telemetry().protectionDenied());
+        gauge(out, sessions, "mineur_session_scan_budget_exhausted_total", "counter",
+                "Appels à l'itérateur terminés sans candidat avant la fin du parcours.",
+                metrics -> metrics.telemetry().scanBudgetExhausted());
+        gauge(out, sessions, "mineur_session_stripe_waits_total", "counter",
+                "Appels où une bande d'une carrière partagée attendait les plus lentes.",
+                metrics -> metrics.telemetry().stripeWaits());
+        gauge(out, sessions, "mineur_session_chunk_tickets", "gauge",
+                "Chunks maintenus chargés par la session.", SessionMetrics::ticketsHeld);
+
+        family(out, "mineur_session_chunk_loads_total", "counter",
+                "Chargements de chunks demandés par la session.");
+        for (SessionMetrics metrics : sessions) {
+            line(out, "mineur_session_chunk_loads_total", metrics, "mode=\"async\"", metrics.asyncChunkLoads());
+            line(out, "mineur_session_chunk_loads_total", metrics, "mode=\"blocking\"", metrics.blockingChunkLoads());
+        }
+        return out.toString();
+    }
+
+    /**
+     * Écrit {@code content} dans {@code file} par remplacement atomique.
+     */
+    public static boolean write(File file, String content, Logger logger) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            logger.warning("[Mineur] Impossible de créer le dossier des métriques " + parent + ".");
+            return false;
+        }
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            Files.writeString(temporary.toPath(), content, StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "[Mineur] Impossible d'écrire le fichier de métriques " + file + ".", exception);
+            try {
+                Files.deleteIfExists(temporary.toPath());
+            } catch (IOException cleanupException) {
+                logger.log(Level.FINE, "[Mineur] Nettoyage du fichier temporaire impossible.", cleanupException);
+            }
+            return false;
+        }
+    }
+
+    private static void gauge(StringBuilder out,
+                              List<SessionMetrics> sessions,
+                              String name,
+                              String type,
+                              String help,
+                              ToDoubleFunction<SessionMetrics> value) {
+        family(out, name, type, help);
+        for (SessionMetrics metrics : sessions) {
+            line(out, name, metrics, null, value.applyAsDouble(metrics));
+        }
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void line(StringBuilder out, String name, SessionMetrics metrics, String extraLabel, double value) {
+        out.append(name)
+                .append("{session=\"").append(escape(String.valueOf(metrics.session())))
+                .append("\",owner=\"").append(escape(String.valueOf(metrics.owner())))
+                .append("\",pattern=\"").append(metrics.pattern() != null
+                        ? metrics.pattern().name().toLowerCase(Locale.ROOT)
+                        : "")
+                .append('"');
+        if (extraLabel != null) {
+            out.append(',').append(extraLabel);
+        }
+        out.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1.0E15D) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -5,7 +5,9 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
@@ -15,6 +17,10 @@ import java.util.Set;
  * <p>Le parcours délégué est remis à son checkpoint pendant l'extraction d'une
  * veine. Ainsi, une pause ou un redémarrage ne peut pas faire disparaître le
  * bloc normal qui devait être traité juste après la veine.</p>
+ *
+ * <p>Avec un {@link OreIndex}, la recherche du minerai le plus proche et la
+ * propagation dans la veine lisent des bitmaps au lieu d'un cube de blocs ;
+ * le balayage direct ne sert plus que pour les chunks pas encore indexés.</p>
  */
 public final class VeinFirstIterator implements MiningIterator {
 
@@ -32,6 +38,7 @@ public final class VeinFirstIterator implements MiningIterator {
     private final int maxAllowedY;
     private final int minAllowedZ;
     private final int maxAllowedZ;
+    private final OreIndex oreIndex;
 
     private final ArrayDeque<Block> veinQueue = new ArrayDeque<>();
     /**
@@ -70,7 +77,21 @@ public final class VeinFirstIterator implements MiningIterator {
                              int minAllowedY,
                              int maxAllowedY,
                              boolean restrictToCursorBounds) {
+        this(world, delegate, scanRadius, maxVeinBlocks, scanEveryBlocks,
+                minAllowedY, maxAllowedY, restrictToCursorBounds, null);
+    }
+
+    public VeinFirstIterator(World world,
+                             MiningIterator delegate,
+                             int scanRadius,
+                             int maxVeinBlocks,
+                             int scanEveryBlocks,
+                             int minAllowedY,
+                             int maxAllowedY,
+                             boolean restrictToCursorBounds,
+                             OreIndex oreIndex) {
         this.world = world;
+        this.oreIndex = oreIndex;
         this.delegate = delegate;
         this.scanRadius = Math.max(0, scanRadius);
         this.maxVeinBlocks = Math.max(1, maxVeinBlocks);
@@ -216,6 +237,11 @@ public final class VeinFirstIterator implements MiningIterator {
         if (scanRadius <= 0) {
             return null;
         }
+        if (oreIndex != null
+                && oreIndex.covers(origin.getX() - scanRadius, origin.getZ() - scanRadius,
+                origin.getX() + scanRadius, origin.getZ() + scanRadius)) {
+            return findNearestIndexedOre(origin);
+        }
 
         Block nearest = null;
         int nearestDistance = Integer.MAX_VALUE;
@@ -249,6 +275,47 @@ public final class VeinFirstIterator implements MiningIterator {
         return nearest;
     }
 
+    /**
+     * Candidats lus dans l'index, vérifiés du plus proche au plus lointain.
+     * Un candidat démenti par le vrai bloc corrige l'index au passage.
+     */
+    private Block findNearestIndexedOre(Block origin) {
+        int originX = origin.getX();
+        int originY = origin.getY();
+        int originZ = origin.getZ();
+        int radiusSquared = scanRadius * scanRadius;
+        List<long[]> candidates = new ArrayList<>();
+        oreIndex.forEachOre(
+                originX - scanRadius, originY - scanRadius, originZ - scanRadius,
+                originX + scanRadius, originY + scanRadius, originZ + scanRadius,
+                (x, y, z) -> {
+                    int distanceSquared = distanceSquared(originX, originY, originZ, x, y, z);
+                    if (distanceSquared <= radiusSquared
+                            && withinBounds(x, y, z)
+                            && !queuedKeys.contains(key(x, y, z))) {
+                        candidates.add(new long[]{distanceSquared, x, y, z});
+                    }
+                }
+        );
+        candidates.sort((first, second) -> Long.compare(first[0], second[0]));
+
+        for (long[] candidate : candidates) {
+            int x = (int) candidate[1];
+            int y = (int) candidate[2];
+            int z = (int) candidate[3];
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                continue;
+            }
+            Block block = world.getBlockAt(x, y, z);
+            Material type = block.getType();
+            if (MiningBlockPolicy.isOre(type)) {
+                return block;
+            }
+            oreIndex.markChanged(x, y, z, type);
+        }
+        return null;
+    }
+
     private void enqueueVein(Block seed) {
         if (seed == null || !MiningBlockPolicy.isOre(seed.getType())) {
             return;
@@ -287,6 +354,9 @@ public final class VeinFirstIterator implements MiningIterator {
                 if (!visited.add(neighbourKey) || queuedKeys.contains(neighbourKey)) {
                     continue;
                 }
+                if (oreIndex != null && oreIndex.oreAt(x, y, z) == OreIndex.ABSENT) {
+                    continue;
+                }
 
                 Block neighbour = world.getBlockAt(x, y, z);
                 if (MiningBlockPolicy.isOre(neighbour.getType())
@@ -29,18 +29,22 @@ import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.example.mineur.AutomatedMiningContext;
+import org.example.mineur.MiningScheduler;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,7 +54,8 @@ import java.util.logging.Logger;
  * <p>La géométrie est calculée sans toucher au monde. La construction réelle
  * est ensuite validée et appliquée comme une transaction : si un emplacement
  * est occupé, si un plugin de protection refuse un bloc ou si une exception
- * survient, tous les blocs déjà modifiés sont restaurés.</p>
+ * survient, tous les blocs déjà modifiés sont restaurés. La transaction
+ * peut être étalée sur plusieurs ticks par un {@link BuildJob}.</p>
  */
 public final class MineCabinBuilder {
 
@@ -228,8 +233,8 @@ public final class MineCabinBuilder {
         private final Settings settings;
         private final MineShaftColumnBuilder.Layout shaftLayout;
         private final Bounds bounds;
-        private final Map<BlockPos, Placement> placements;
-        private final Set<BlockPos> clearances;
+        private final PlacementTable placements;
+        private final long[] clearances;
         private final List<ChestPair> chestPairs;
         private final List<BlockPos> foundationPosts;
 
@@ -246,8 +251,8 @@ public final class MineCabinBuilder {
                      Settings settings,
                      MineShaftColumnBuilder.Layout shaftLayout,
                      Bounds bounds,
-                     Map<BlockPos, Placement> placements,
-                     Set<BlockPos> clearances,
+                     PlacementTable placements,
+                     long[] clearances,
                      List<ChestPair> chestPairs,
                      List<BlockPos> foundationPosts) {
             this.baseY = baseY;
@@ -263,8 +268,8 @@ public final class MineCabinBuilder {
             this.settings = settings;
             this.shaftLayout = Objects.requireNonNull(shaftLayout, "shaftLayout");
             this.bounds = bounds;
-            this.placements = Map.copyOf(placements);
-            this.clearances = Set.copyOf(clearances);
+            this.placements = Objects.requireNonNull(placements, "placements");
+            this.clearances = clearances.clone();
             this.chestPairs = List.copyOf(chestPairs);
             this.foundationPosts = List.copyOf(foundationPosts);
         }
@@ -334,13 +339,20 @@ public final class MineCabinBuilder {
         }
 
         public int touchedBlockCount() {
-            return placements.size() + clearances.size()
+            return placements.size() + clearances.length
                     + foundationPosts.size() * settings.maximumFoundationDepth();
         }
 
         public Material materialAt(BlockPos position) {
-            Placement placement = placements.get(position);
-            return placement != null ? placement.material : null;
+            return materialAt(position.x, position.y, position.z);
+        }
+
+        /**
+         * Variante sans allocation de {@link #materialAt(BlockPos)}.
+         */
+        public Material materialAt(int x, int y, int z) {
+            int entry = placements.indexOf(x, y, z);
+            return entry >= 0 ? placements.material(entry) : null;
         }
 
         /**
@@ -348,12 +360,56 @@ public final class MineCabinBuilder {
          * Une valeur nulle signifie que le bloc n'est pas directionnel.
          */
         public BlockFace facingAt(BlockPos position) {
-            Placement placement = placements.get(position);
-            return placement != null ? placement.facing : null;
+            return facingAt(position.x, position.y, position.z);
+        }
+
+        public BlockFace facingAt(int x, int y, int z) {
+            int entry = placements.indexOf(x, y, z);
+            return entry >= 0 ? placements.facing(entry) : null;
         }
 
+        /**
+         * Vue en lecture seule des positions posées. Les BlockPos ne sont créés
+         * qu'au parcours ; le plan lui-même n'en conserve aucun.
+         */
         public Set<BlockPos> placedPositions() {
-            return placements.keySet();
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<BlockPos> iterator() {
+                    return new Iterator<>() {
+                        private int entry;
+
+                        @Override
+                        public boolean hasNext() {
+                            return entry < placements.size();
+                        }
+
+                        @Override
+                        public BlockPos next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            long position = placements.position(entry++);
+                            return new BlockPos(
+                                    PackedPositions.x(position),
+                                    PackedPositions.y(position),
+                                    PackedPositions.z(position)
+                            );
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return placements.size();
+                }
+
+                @Override
+                public boolean contains(Object value) {
+                    return value instanceof BlockPos position
+                            && placements.indexOf(position.x, position.y, position.z) >= 0;
+                }
+            };
         }
 
         public List<BlockPos> chestPositions() {
@@ -608,12 +664,35 @@ public final class MineCabinBuilder {
     }
 
     /**
-     * Applique le plan après une seconde validation au plus près de l'écriture.
+     * Applique le plan après une seconde validation au plus près de l'écriture,
+     * en une seule fois. Voir {@link #startBuild} pour la version étalée.
      */
     public BuildResult build(World world,
                              Plan plan,
                              Player actor,
                              boolean fireProtectionEvents) {
+        BuildJob job = startBuild(world, plan, actor, fireProtectionEvents, Long.MAX_VALUE, null);
+        job.run();
+        if (job.failure() != null) {
+            throw job.failure();
+        }
+        return job.result();
+    }
+
+    /**
+     * Prépare une construction reprenable, à exécuter par
+     * {@link org.example.mineur.MiningScheduler} : chaque exécution avance au
+     * plus de {@code sliceNanos}.
+     *
+     * @param onFinished appelé une seule fois, sur le thread principal, quand
+     *                   la construction réussit, échoue ou est annulée
+     */
+    public BuildJob startBuild(World world,
+                               Plan plan,
+                               Player actor,
+                               boolean fireProtectionEvents,
+                               long sliceNanos,
+                               Consumer<BuildJob> onFinished) {
         Objects.requireNonNull(world, "world");
         Objects.requireNonNull(plan, "plan");
         if (fireProtectionEvents && actor == null) {
@@ -621,257 +700,468 @@ public final class MineCabinBuilder {
                     "Le propriétaire doit être connecté pour vérifier les protections de construction."
             );
         }
+        return new BuildJob(world, plan, actor, fireProtectionEvents, sliceNanos, onFinished);
+    }
 
-        ResolvedBuild resolved = resolve(world, plan);
-        ValidationResult occupancy = validateOccupancy(world, plan, resolved);
-        if (!occupancy.valid()) {
-            throw new IllegalStateException(occupancy.message());
+    /**
+     * Construction découpée en petites unités : fondations, contrôle de chaque
+     * bloc touché, voisinage des coffres, dégagement, pose, puis finitions.
+     *
+     * <p>Le snapshot d'un bloc est pris juste avant sa modification, dans le
+     * même tick. Un bloc que le joueur change pendant la construction est donc
+     * soit refusé à la pose, soit jamais touché : le rollback ne restaure que
+     * ce que la construction a réellement écrit. Le résultat garde la même
+     * garantie tout-ou-rien que l'ancienne construction en un seul tick.</p>
+     */
+    public final class BuildJob implements MiningScheduler.Task {
+
+        public enum Stage {
+            FOUNDATIONS,
+            VALIDATION,
+            CHEST_NEIGHBOURS,
+            CLEARING,
+            PLACEMENT,
+            FINISHING,
+            DONE,
+            FAILED,
+            CANCELLED
+        }
+
+        private final World world;
+        private final Plan plan;
+        private final Player actor;
+        private final boolean fireProtectionEvents;
+        private final long sliceNanos;
+        private final Consumer<BuildJob> onFinished;
+        private final PlacementTable placements;
+        private final List<BlockState> snapshots = new ArrayList<>();
+        private final int minimumSearchY;
+
+        private Stage stage = Stage.FOUNDATIONS;
+        private long[] touched = new long[0];
+        private List<BlockPos> chestPositions = List.of();
+        private Set<BlockPos> plannedChestBlocks = Set.of();
+        private long[] clearances = new long[0];
+        private int[] orderedPlacements = new int[0];
+        private int index;
+        private long completedUnits;
+        private long totalUnits;
+        private BuildResult result;
+        private RuntimeException failure;
+
+        private BuildJob(World world,
+                         Plan plan,
+                         Player actor,
+                         boolean fireProtectionEvents,
+                         long sliceNanos,
+                         Consumer<BuildJob> onFinished) {
+            this.world = world;
+            this.plan = plan;
+            this.actor = actor;
+            this.fireProtectionEvents = fireProtectionEvents;
+            this.sliceNanos = Math.max(1L, sliceNanos);
+            this.onFinished = onFinished;
+            this.placements = plan.placements.copy();
+            this.minimumSearchY = Math.max(
+                    world.getMinHeight(),
+                    plan.baseY - plan.settings.maximumFoundationDepth()
+            );
+            /*
+             * Estimation avant la résolution des fondations, qui ne fait
+             * qu'ajouter quelques colonnes de pierre.
+             */
+            this.totalUnits = plan.foundationPosts.size()
+                    + 3L * plan.touchedBlockCount()
+                    + plan.chestBlockCount()
+                    + 1L;
         }
 
-        List<BlockState> snapshots = snapshotTouchedBlocks(world, resolved);
-        BuildResult result = new BuildResult(logger, snapshots, List.of());
-        try {
-            clearDecorations(world, plan, resolved, actor, fireProtectionEvents);
-            applyPlacements(world, resolved.placements, actor, fireProtectionEvents);
-            refreshConnectedBlocks(world, resolved.placements.values());
-            reapplyDoubleChestData(world, plan, resolved.placements);
-            validateDoubleChests(world, plan.chestPairs);
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            try {
+                do {
+                    step();
+                } while (!isDone() && System.nanoTime() - startedAt < sliceNanos);
+            } catch (RuntimeException exception) {
+                abort(Stage.FAILED, exception);
+            }
+        }
 
-            List<Location> chestLocations = new ArrayList<>(plan.chestBlockCount());
-            for (ChestPair pair : plan.chestPairs) {
-                chestLocations.add(toLocation(world, pair.first));
-                chestLocations.add(toLocation(world, pair.second));
+        @Override
+        public boolean isCancelled() {
+            return isDone();
+        }
+
+        /**
+         * Interrompt la construction et restaure les blocs déjà écrits. Sans
+         * effet une fois la construction terminée : le résultat appartient
+         * alors à l'appelant.
+         */
+        public void cancel() {
+            if (!isDone()) {
+                abort(Stage.CANCELLED, new IllegalStateException("Construction de la cabane annulée."));
             }
+        }
 
-            /*
-             * Le BuildResult final partage les mêmes snapshots. Le résultat
-             * temporaire est fermé sans restauration pour transférer la
-             * responsabilité du rollback à l'appelant.
-             */
-            result.closed = true;
-            result.snapshots.clear();
-            return new BuildResult(logger, snapshots, chestLocations);
-        } catch (RuntimeException exception) {
-            result.rollback();
-            throw exception;
+        public boolean isDone() {
+            return stage == Stage.DONE || stage == Stage.FAILED || stage == Stage.CANCELLED;
         }
-    }
 
-    private ResolvedBuild resolve(World world, Plan plan) {
-        LinkedHashMap<BlockPos, Placement> placements = new LinkedHashMap<>(plan.placements);
-        int minimumSearchY = Math.max(
-                world.getMinHeight(),
-                plan.baseY - plan.settings.maximumFoundationDepth()
-        );
+        public Stage stage() {
+            return stage;
+        }
 
-        for (BlockPos post : plan.foundationPosts) {
-            int supportY = Integer.MIN_VALUE;
-            for (int y = plan.baseY; y >= minimumSearchY; y--) {
-                Block block = world.getBlockAt(post.x, y, post.z);
-                Material material = block.getType();
-                if (material.isAir() || isReplaceable(material)) {
-                    continue;
+        public Plan plan() {
+            return plan;
+        }
+
+        /**
+         * Avancement entre 0 et 1.
+         */
+        public double progress() {
+            if (stage == Stage.DONE) {
+                return 1.0D;
+            }
+            return Math.min(1.0D, completedUnits / (double) Math.max(1L, totalUnits));
+        }
+
+        /**
+         * Transaction de la construction réussie, dont l'appelant doit
+         * appeler {@link BuildResult#commit()} ou {@link BuildResult#rollback()}.
+         */
+        public BuildResult result() {
+            return result;
+        }
+
+        public RuntimeException failure() {
+            return failure;
+        }
+
+        private void step() {
+            switch (stage) {
+                case FOUNDATIONS -> {
+                    if (index < plan.foundationPosts.size()) {
+                        resolveFoundation(world, plan, plan.foundationPosts.get(index++), minimumSearchY, placements);
+                    } else {
+                        prepareValidation();
+                        return;
+                    }
                 }
-                if (isStableFoundation(block)) {
-                    supportY = y;
-                    break;
+                case VALIDATION -> {
+                    if (index < touched.length) {
+                        ValidationResult occupancy = validateTouchedBlock(world, touched[index++]);
+                        if (!occupancy.valid()) {
+                            throw new IllegalStateException(occupancy.message());
+                        }
+                    } else {
+                        enter(Stage.CHEST_NEIGHBOURS);
+                        return;
+                    }
+                }
+                case CHEST_NEIGHBOURS -> {
+                    if (index < chestPositions.size()) {
+                        ValidationResult neighbours = validateChestNeighbours(
+                                world, chestPositions.get(index++), plannedChestBlocks);
+                        if (!neighbours.valid()) {
+                            throw new IllegalStateException(neighbours.message());
+                        }
+                    } else {
+                        enter(Stage.CLEARING);
+                        return;
+                    }
+                }
+                case CLEARING -> {
+                    if (index < clearances.length) {
+                        clearDecoration(world, clearances[index++], actor, fireProtectionEvents, snapshots);
+                    } else {
+                        enter(Stage.PLACEMENT);
+                        return;
+                    }
+                }
+                case PLACEMENT -> {
+                    if (index < orderedPlacements.length) {
+                        applyPlacement(world, placements, orderedPlacements[index++],
+                                actor, fireProtectionEvents, snapshots);
+                    } else {
+                        enter(Stage.FINISHING);
+                        return;
+                    }
+                }
+                case FINISHING -> {
+                    finish();
+                    return;
+                }
+                default -> {
+                    return;
                 }
-                throw new IllegalStateException(
-                        "Fondation instable ou protégée en " + format(block)
-                                + " (" + material + ")."
-                );
             }
-            if (supportY == Integer.MIN_VALUE) {
-                throw new IllegalStateException(
-                        "Aucun sol stable sous le pilier en "
-                                + post.x + ", " + plan.baseY + ", " + post.z
-                                + " dans les " + plan.settings.maximumFoundationDepth()
-                                + " blocs autorisés."
-                );
+            completedUnits++;
+        }
+
+        private void prepareValidation() {
+            /*
+             * Une colonne de fondation peut reprendre une position de
+             * dégagement : elle est alors posée, jamais vidée.
+             */
+            long[] remainingClearances = new long[plan.clearances.length];
+            int remaining = 0;
+            for (long position : plan.clearances) {
+                if (placements.indexOf(position) < 0) {
+                    remainingClearances[remaining++] = position;
+                }
             }
+            clearances = PackedPositions.sortedBySection(Arrays.copyOf(remainingClearances, remaining), null);
 
-            for (int y = supportY + 1; y <= plan.baseY; y++) {
-                BlockPos position = new BlockPos(post.x, y, post.z);
-                placements.putIfAbsent(
-                        position,
-                        Placement.simple(position, Material.STONE_BRICKS, PRIORITY_FLOOR)
-                );
+            long[] placed = placements.positions();
+            long[] all = Arrays.copyOf(placed, placed.length + remaining);
+            System.arraycopy(remainingClearances, 0, all, placed.length, remaining);
+            touched = PackedPositions.sortedBySection(all, null);
+
+            chestPositions = plan.chestPositions();
+            plannedChestBlocks = new HashSet<>(chestPositions);
+            orderedPlacements = placements.applicationOrder();
+
+            totalUnits = completedUnits + touched.length + chestPositions.size()
+                    + clearances.length + orderedPlacements.length + 1L;
+            enter(Stage.VALIDATION);
+        }
+
+        private void enter(Stage next) {
+            stage = next;
+            index = 0;
+        }
+
+        private void finish() {
+            refreshConnectedBlocks(world, placements);
+            reapplyDoubleChestData(world, plan, placements);
+            validateDoubleChests(world, plan.chestPairs);
+
+            List<Location> chestLocations = new ArrayList<>(plan.chestBlockCount());
+            for (ChestPair pair : plan.chestPairs) {
+                chestLocations.add(toLocation(world, pair.first));
+                chestLocations.add(toLocation(world, pair.second));
             }
+            completedUnits++;
+            result = new BuildResult(logger, snapshots, chestLocations);
+            snapshots.clear();
+            stage = Stage.DONE;
+            notifyFinished();
         }
-        return new ResolvedBuild(placements, plan.clearances);
-    }
 
-    private ValidationResult validateOccupancy(World world,
-                                               Plan plan,
-                                               ResolvedBuild resolved) {
-        Set<BlockPos> touched = new HashSet<>();
-        touched.addAll(resolved.placements.keySet());
-        touched.addAll(resolved.clearances);
+        private void abort(Stage terminal, RuntimeException cause) {
+            stage = terminal;
+            failure = cause;
+            new BuildResult(logger, snapshots, List.of()).rollback();
+            snapshots.clear();
+            notifyFinished();
+        }
 
-        for (BlockPos position : touched) {
-            if (position.y < world.getMinHeight() || position.y >= world.getMaxHeight()) {
-                return ValidationResult.failure(
-                        "Bloc de structure hors hauteur en "
-                                + position.x + ", " + position.y + ", " + position.z + "."
-                );
+        private void notifyFinished() {
+            if (onFinished == null) {
+                return;
             }
-            if (!world.isChunkLoaded(position.x >> 4, position.z >> 4)) {
-                return ValidationResult.failure(
-                        "Le chunk de la cabane n'est pas chargé en "
-                                + position.x + ", " + position.z + "."
-                );
+            try {
+                onFinished.accept(this);
+            } catch (RuntimeException exception) {
+                logger.log(Level.SEVERE, "[Mineur] Erreur après la construction d'une cabane.", exception);
             }
+        }
+    }
 
-            Block block = world.getBlockAt(position.x, position.y, position.z);
-            Material current = block.getType();
-            if (!current.isAir() && !isReplaceable(current)) {
-                return ValidationResult.failure(
-                        "L'emplacement " + format(block) + " est occupé par " + current
-                                + ". Libère le volume de la cabane avant de relancer /mineur."
-                );
+    private void resolveFoundation(World world,
+                                   Plan plan,
+                                   BlockPos post,
+                                   int minimumSearchY,
+                                   PlacementTable placements) {
+        int supportY = Integer.MIN_VALUE;
+        for (int y = plan.baseY; y >= minimumSearchY; y--) {
+            Block block = world.getBlockAt(post.x, y, post.z);
+            Material material = block.getType();
+            if (material.isAir() || isReplaceable(material)) {
+                continue;
+            }
+            if (isStableFoundation(block)) {
+                supportY = y;
+                break;
             }
+            throw new IllegalStateException(
+                    "Fondation instable ou protégée en " + format(block)
+                            + " (" + material + ")."
+            );
+        }
+        if (supportY == Integer.MIN_VALUE) {
+            throw new IllegalStateException(
+                    "Aucun sol stable sous le pilier en "
+                            + post.x + ", " + plan.baseY + ", " + post.z
+                            + " dans les " + plan.settings.maximumFoundationDepth()
+                            + " blocs autorisés."
+            );
         }
 
-        Set<BlockPos> plannedChestBlocks = new HashSet<>(plan.chestPositions());
-        for (BlockPos chestPosition : plannedChestBlocks) {
-            for (BlockFace face : HORIZONTAL_FACES) {
-                BlockPos adjacentPosition = chestPosition.offset(
-                        face.getModX(),
-                        0,
-                        face.getModZ()
-                );
-                if (plannedChestBlocks.contains(adjacentPosition)) {
-                    continue;
-                }
-                Material adjacent = world.getBlockAt(
-                        adjacentPosition.x,
-                        adjacentPosition.y,
-                        adjacentPosition.z
-                ).getType();
-                if (adjacent == Material.CHEST || adjacent == Material.TRAPPED_CHEST) {
-                    return ValidationResult.failure(
-                            "Un coffre existant toucherait le stockage automatique en "
-                                    + adjacentPosition.x + ", " + adjacentPosition.y + ", "
-                                    + adjacentPosition.z + "."
-                    );
-                }
-            }
+        for (int y = supportY + 1; y <= plan.baseY; y++) {
+            placements.putIfAbsent(post.x, y, post.z, Material.STONE_BRICKS, PRIORITY_FLOOR, null, NO_CONFIGURER);
         }
-        return ValidationResult.success();
     }
 
-    private List<BlockState> snapshotTouchedBlocks(World world, ResolvedBuild resolved) {
-        Set<BlockPos> touched = new LinkedHashSet<>();
-        touched.addAll(resolved.clearances);
-        touched.addAll(resolved.placements.keySet());
-
-        List<BlockPos> ordered = new ArrayList<>(touched);
-        ordered.sort(BlockPositionComparator.INSTANCE);
+    private ValidationResult validateTouchedBlock(World world, long position) {
+        int x = PackedPositions.x(position);
+        int y = PackedPositions.y(position);
+        int z = PackedPositions.z(position);
+        if (y < world.getMinHeight() || y >= world.getMaxHeight()) {
+            return ValidationResult.failure(
+                    "Bloc de structure hors hauteur en " + x + ", " + y + ", " + z + "."
+            );
+        }
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return ValidationResult.failure(
+                    "Le chunk de la cabane n'est pas chargé en " + x + ", " + z + "."
+            );
+        }
 
-        List<BlockState> snapshots = new ArrayList<>(ordered.size());
-        for (BlockPos position : ordered) {
-            snapshots.add(world.getBlockAt(position.x, position.y, position.z).getState());
+        Block block = world.getBlockAt(x, y, z);
+        Material current = block.getType();
+        if (!current.isAir() && !isReplaceable(current)) {
+            return ValidationResult.failure(
+                    "L'emplacement " + format(block) + " est occupé par " + current
+                            + ". Libère le volume de la cabane avant de relancer /mineur."
+            );
         }
-        return snapshots;
+        return ValidationResult.success();
     }
 
-    private void clearDecorations(World world,
-                                  Plan plan,
-                                  ResolvedBuild resolved,
-                                  Player actor,
-                                  boolean fireProtectionEvents) {
-        List<BlockPos> ordered = new ArrayList<>(resolved.clearances);
-        ordered.removeAll(resolved.placements.keySet());
-        ordered.sort(BlockPositionComparator.INSTANCE);
-
-        for (BlockPos position : ordered) {
-            Block block = world.getBlockAt(position.x, position.y, position.z);
-            if (block.getType().isAir()) {
+    private ValidationResult validateChestNeighbours(World world,
+                                                     BlockPos chestPosition,
+                                                     Set<BlockPos> plannedChestBlocks) {
+        for (BlockFace face : HORIZONTAL_FACES) {
+            BlockPos adjacentPosition = chestPosition.offset(
+                    face.getModX(),
+                    0,
+                    face.getModZ()
+            );
+            if (plannedChestBlocks.contains(adjacentPosition)) {
                 continue;
             }
-            if (!isReplaceable(block.getType())) {
-                throw new IllegalStateException(
-                        "Le dégagement de la cabane a été occupé en " + format(block) + "."
+            Material adjacent = world.getBlockAt(
+                    adjacentPosition.x,
+                    adjacentPosition.y,
+                    adjacentPosition.z
+            ).getType();
+            if (adjacent == Material.CHEST || adjacent == Material.TRAPPED_CHEST) {
+                return ValidationResult.failure(
+                        "Un coffre existant toucherait le stockage automatique en "
+                                + adjacentPosition.x + ", " + adjacentPosition.y + ", "
+                                + adjacentPosition.z + "."
                 );
             }
-            if (fireProtectionEvents) {
-                BlockBreakEvent event = new BlockBreakEvent(block, actor);
-                event.setDropItems(false);
-                event.setExpToDrop(0);
-                AutomatedMiningContext.call(() -> {
-                    plugin.getServer().getPluginManager().callEvent(event);
-                    return null;
-                });
-                if (event.isCancelled()) {
-                    throw new IllegalStateException(
-                            "Un plugin de protection refuse le dégagement en " + format(block) + "."
-                    );
-                }
-            }
-            block.setType(Material.AIR, false);
         }
+        return ValidationResult.success();
     }
 
-    private void applyPlacements(World world,
-                                 Map<BlockPos, Placement> placements,
-                                 Player actor,
-                                 boolean fireProtectionEvents) {
-        List<Placement> ordered = new ArrayList<>(placements.values());
-        ordered.sort(Comparator
-                .comparingInt((Placement placement) -> placement.priority)
-                .thenComparing(placement -> placement.position, BlockPositionComparator.INSTANCE));
+    /**
+     * Entre deux tranches, un chunk déchargé serait rechargé de façon
+     * synchrone par getBlockAt : la construction s'arrête plutôt.
+     */
+    private static Block loadedBlock(World world, long position) {
+        int x = PackedPositions.x(position);
+        int z = PackedPositions.z(position);
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            throw new IllegalStateException(
+                    "Le chunk de la cabane a été déchargé pendant la construction en "
+                            + x + ", " + z + "."
+            );
+        }
+        return world.getBlockAt(x, PackedPositions.y(position), z);
+    }
 
-        for (Placement placement : ordered) {
-            Block block = world.getBlockAt(
-                    placement.position.x,
-                    placement.position.y,
-                    placement.position.z
+    private void clearDecoration(World world,
+                                 long position,
+                                 Player actor,
+                                 boolean fireProtectionEvents,
+                                 List<BlockState> snapshots) {
+        Block block = loadedBlock(world, position);
+        if (block.getType().isAir()) {
+            return;
+        }
+        if (!isReplaceable(block.getType())) {
+            throw new IllegalStateException(
+                    "Le dégagement de la cabane a été occupé en " + format(block) + "."
             );
-            Material current = block.getType();
-            if (!current.isAir() && !isReplaceable(current)) {
+        }
+        if (fireProtectionEvents) {
+            BlockBreakEvent event = new BlockBreakEvent(block, actor);
+            event.setDropItems(false);
+            event.setExpToDrop(0);
+            AutomatedMiningContext.call(() -> {
+                plugin.getServer().getPluginManager().callEvent(event);
+                return null;
+            });
+            if (event.isCancelled()) {
                 throw new IllegalStateException(
-                        "L'emplacement a été occupé pendant la construction en " + format(block) + "."
+                        "Un plugin de protection refuse le dégagement en " + format(block) + "."
                 );
             }
+        }
+        snapshots.add(block.getState());
+        block.setType(Material.AIR, false);
+    }
 
-            BlockState replacedState = block.getState();
-            block.setType(placement.material, false);
-            BlockData data = block.getBlockData();
-            placement.configurer.configure(data);
-            if (data instanceof Waterlogged waterlogged) {
-                waterlogged.setWaterlogged(false);
-            }
-            block.setBlockData(data, false);
-
-            if (fireProtectionEvents) {
-                Block placedAgainst = findPlacedAgainst(block);
-                BlockPlaceEvent event = new BlockPlaceEvent(
-                        block,
-                        replacedState,
-                        placedAgainst,
-                        new ItemStack(placement.material, 1),
-                        actor,
-                        true,
-                        EquipmentSlot.HAND
-                );
-                AutomatedMiningContext.call(() -> {
-                    plugin.getServer().getPluginManager().callEvent(event);
-                    return null;
-                });
-                if (event.isCancelled() || !event.canBuild()) {
-                    throw new IllegalStateException(
-                            "Un plugin de protection refuse la construction en " + format(block) + "."
-                    );
-                }
-            }
+    private void applyPlacement(World world,
+                                PlacementTable placements,
+                                int entry,
+                                Player actor,
+                                boolean fireProtectionEvents,
+                                List<BlockState> snapshots) {
+        Material material = placements.material(entry);
+        Block block = loadedBlock(world, placements.position(entry));
+        Material current = block.getType();
+        if (!current.isAir() && !isReplaceable(current)) {
+            throw new IllegalStateException(
+                    "L'emplacement a été occupé pendant la construction en " + format(block) + "."
+            );
+        }
 
-            if (block.getType() != placement.material) {
+        BlockState replacedState = block.getState();
+        snapshots.add(replacedState);
+        block.setType(material, false);
+        BlockData data = block.getBlockData();
+        placements.configurer(entry).configure(data);
+        if (data instanceof Waterlogged waterlogged) {
+            waterlogged.setWaterlogged(false);
+        }
+        block.setBlockData(data, false);
+
+        if (fireProtectionEvents) {
+            Block placedAgainst = findPlacedAgainst(block);
+            BlockPlaceEvent event = new BlockPlaceEvent(
+                    block,
+                    replacedState,
+                    placedAgainst,
+                    new ItemStack(material, 1),
+                    actor,
+                    true,
+                    EquipmentSlot.HAND
+            );
+            AutomatedMiningContext.call(() -> {
+                plugin.getServer().getPluginManager().callEvent(event);
+                return null;
+            });
+            if (event.isCancelled() || !event.canBuild()) {
                 throw new IllegalStateException(
-                        "Le bloc posé en " + format(block)
-                                + " a été modifié par un autre plugin."
+                        "Un plugin de protection refuse la construction en " + format(block) + "."
                 );
             }
         }
+
+        if (block.getType() != material) {
+            throw new IllegalStateException(
+                    "Le bloc posé en " + format(block)
+                            + " a été modifié par un autre plugin."
+            );
+        }
     }
 
     private Block findPlacedAgainst(Block block) {
@@ -901,18 +1191,20 @@ public final class MineCabinBuilder {
     }
 
     private void refreshConnectedBlocks(World world,
-                                        Collection<Placement> placements) {
-        Set<BlockPos> candidates = new LinkedHashSet<>();
-        for (Placement placement : placements) {
-            if (placement.material.name().endsWith("_FENCE")
-                    || placement.material.name().endsWith("_GLASS_PANE")
-                    || placement.material == Material.IRON_BARS) {
-                candidates.add(placement.position);
+                                        PlacementTable placements) {
+        for (int entry = 0; entry < placements.size(); entry++) {
+            Material material = placements.material(entry);
+            if (!material.name().endsWith("_FENCE")
+                    && !material.name().endsWith("_GLASS_PANE")
+                    && material != Material.IRON_BARS) {
+                continue;
             }
-        }
-
-        for (BlockPos position : candidates) {
-            Block block = world.getBlockAt(position.x, position.y, position.z);
+            long position = placements.position(entry);
+            Block block = world.getBlockAt(
+                    PackedPositions.x(position),
+                    PackedPositions.y(position),
+                    PackedPositions.z(position)
+            );
             BlockData data = block.getBlockData();
             if (!(data instanceof MultipleFacing multipleFacing)) {
                 continue;
@@ -953,7 +1245,7 @@ public final class MineCabinBuilder {
 
     private void reapplyDoubleChestData(World world,
                                         Plan plan,
-                                        Map<BlockPos, Placement> placements) {
+                                        PlacementTable placements) {
         /*
          * Certains moteurs normalisent temporairement la première moitié en
          * coffre simple tant que sa partenaire n'existe pas. Une seconde passe
@@ -961,15 +1253,15 @@ public final class MineCabinBuilder {
          */
         for (ChestPair pair : plan.chestPairs) {
             for (BlockPos position : List.of(pair.first, pair.second)) {
-                Placement placement = placements.get(position);
+                int entry = placements.indexOf(position.x, position.y, position.z);
                 Block block = world.getBlockAt(position.x, position.y, position.z);
-                if (placement == null || block.getType() != Material.CHEST) {
+                if (entry < 0 || block.getType() != Material.CHEST) {
                     throw new IllegalStateException(
                             "Moitié de coffre absente en " + format(block) + "."
                     );
                 }
                 BlockData data = block.getBlockData();
-                placement.configurer.configure(data);
+                placements.configurer(entry).configure(data);
                 if (data instanceof Waterlogged waterlogged) {
                     waterlogged.setWaterlogged(false);
                 }
@@ -1070,42 +1362,408 @@ public final class MineCabinBuilder {
         void configure(BlockData data);
     }
 
-    private record Placement(BlockPos position,
-                             Material material,
-                             int priority,
-                             BlockFace facing,
-                             BlockDataConfigurer configurer) {
+    private static final BlockDataConfigurer NO_CONFIGURER = ignored -> {
+        // Aucun BlockData spécialisé.
+    };
 
-        private Placement {
-            Objects.requireNonNull(position, "position");
-            Objects.requireNonNull(material, "material");
-            Objects.requireNonNull(configurer, "configurer");
+    /**
+     * Positions compactées sur un long, 26 bits pour X et Z et 12 pour Y comme
+     * les positions de blocs du serveur, indexées par rang d'insertion.
+     *
+     * <p>L'adressage ouvert remplace l'entrée de table et le BlockPos que coûtait
+     * chaque bloc d'un plan : une cabane de 12 000 blocs tient dans quelques
+     * tableaux de primitives.</p>
+     */
+    private static final class PackedPositions {
+
+        private static final int HORIZONTAL_LIMIT = 1 << 25;
+        private static final int VERTICAL_LIMIT = 1 << 11;
+
+        private long[] positions;
+        /*
+         * Rang + 1 de la position rangée dans l'alvéole, 0 pour une alvéole
+         * libre. Le taux de remplissage reste sous 50 %.
+         */
+        private int[] slots;
+        private int size;
+
+        private PackedPositions(int expected) {
+            this.positions = new long[Math.max(16, expected)];
+            this.slots = new int[tableCapacity(expected)];
         }
 
-        private static Placement simple(BlockPos position,
-                                        Material material,
-                                        int priority) {
-            return new Placement(position, material, priority, null, ignored -> {
-                // Aucun BlockData spécialisé.
-            });
+        private PackedPositions(PackedPositions source) {
+            this.positions = Arrays.copyOf(source.positions, source.positions.length);
+            this.slots = source.slots.clone();
+            this.size = source.size;
+        }
+
+        private static boolean isPackable(int x, int y, int z) {
+            return x >= -HORIZONTAL_LIMIT && x < HORIZONTAL_LIMIT
+                    && z >= -HORIZONTAL_LIMIT && z < HORIZONTAL_LIMIT
+                    && y >= -VERTICAL_LIMIT && y < VERTICAL_LIMIT;
+        }
+
+        private static long pack(int x, int y, int z) {
+            if (!isPackable(x, y, z)) {
+                throw new IllegalArgumentException(
+                        "Bloc de structure hors des limites du monde en " + x + ", " + y + ", " + z + "."
+                );
+            }
+            return ((long) x & 0x3FFFFFFL) << 38
+                    | ((long) z & 0x3FFFFFFL) << 12
+                    | ((long) y & 0xFFFL);
+        }
+
+        private static int x(long packed) {
+            return (int) (packed >> 38);
+        }
+
+        private static int y(long packed) {
+            return (int) (packed << 52 >> 52);
+        }
+
+        private static int z(long packed) {
+            return (int) (packed << 26 >> 38);
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long positionAt(int index) {
+            return positions[index];
+        }
+
+        private int indexOf(long packed) {
+            int mask = slots.length - 1;
+            for (int slot = mix(packed) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (positions[entry - 1] == packed) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        /**
+         * Retourne le rang de la position, ajoutée en fin si elle est absente.
+         */
+        private int add(long packed) {
+            int existing = indexOf(packed);
+            if (existing >= 0) {
+                return existing;
+            }
+            if ((size + 1) * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size] = packed;
+            insertSlot(packed, size + 1);
+            return size++;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+
+        private void rehash(int capacity) {
+            slots = new int[capacity];
+            for (int index = 0; index < size; index++) {
+                insertSlot(positions[index], index + 1);
+            }
+        }
+
+        private void insertSlot(long packed, int entry) {
+            int mask = slots.length - 1;
+            int slot = mix(packed) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry;
+        }
+
+        private static int mix(long packed) {
+            long hash = packed * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private static int tableCapacity(int expected) {
+            int capacity = 32;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+
+        /**
+         * Trie des positions par section de chunk : Y de section, chunk X, chunk
+         * Z puis position locale. La validation et la pose traitent ainsi une
+         * section après l'autre au lieu de balayer toute l'emprise à chaque
+         * couche. Avec {@code priorities}, la priorité passe avant la section.
+         */
+        private static long[] sortedBySection(long[] packed, int[] priorities) {
+            if (packed.length == 0) {
+                return packed;
+            }
+            int minSectionY = Integer.MAX_VALUE;
+            int minChunkX = Integer.MAX_VALUE;
+            int minChunkZ = Integer.MAX_VALUE;
+            int maxSectionY = Integer.MIN_VALUE;
+            int maxChunkX = Integer.MIN_VALUE;
+            int maxChunkZ = Integer.MIN_VALUE;
+            for (long position : packed) {
+                minSectionY = Math.min(minSectionY, y(position) >> 4);
+                maxSectionY = Math.max(maxSectionY, y(position) >> 4);
+                minChunkX = Math.min(minChunkX, x(position) >> 4);
+                maxChunkX = Math.max(maxChunkX, x(position) >> 4);
+                minChunkZ = Math.min(minChunkZ, z(position) >> 4);
+                maxChunkZ = Math.max(maxChunkZ, z(position) >> 4);
+            }
+            /*
+             * 8 bits de section et 12 bits par axe de chunk suffisent largement
+             * sous la limite de blocs planifiés ; la clé tient alors sur 51 bits
+             * avec une priorité inférieure à 128.
+             */
+            if (maxSectionY - minSectionY >= 256
+                    || maxChunkX - minChunkX >= 4_096
+                    || maxChunkZ - minChunkZ >= 4_096) {
+                throw new IllegalStateException("Emprise de cabane trop étendue pour être ordonnée.");
+            }
+
+            long[] keys = new long[packed.length];
+            for (int index = 0; index < packed.length; index++) {
+                long position = packed[index];
+                int x = x(position);
+                int y = y(position);
+                int z = z(position);
+                long priority = priorities != null ? priorities[index] : 0L;
+                keys[index] = priority << 44
+                        | (long) ((y >> 4) - minSectionY) << 36
+                        | (long) ((x >> 4) - minChunkX) << 24
+                        | (long) ((z >> 4) - minChunkZ) << 12
+                        | (long) (y & 15) << 8
+                        | (long) (x & 15) << 4
+                        | (long) (z & 15);
+            }
+            Arrays.sort(keys);
+
+            long[] sorted = new long[keys.length];
+            for (int index = 0; index < keys.length; index++) {
+                long key = keys[index];
+                int x = (((int) (key >> 24) & 0xFFF) + minChunkX) << 4 | (int) (key >> 4) & 15;
+                int y = (((int) (key >> 36) & 0xFF) + minSectionY) << 4 | (int) (key >> 8) & 15;
+                int z = (((int) (key >> 12) & 0xFFF) + minChunkZ) << 4 | (int) key & 15;
+                sorted[index] = pack(x, y, z);
+            }
+            return sorted;
         }
     }
 
-    private record ResolvedBuild(Map<BlockPos, Placement> placements,
-                                 Set<BlockPos> clearances) {
+    /**
+     * Blocs posés par le plan. Matériaux, orientations et configurations de
+     * BlockData sont rangés dans des palettes ; chaque bloc ne garde que leurs
+     * indices, à côté de sa position compactée.
+     */
+    private static final class PlacementTable {
+
+        private final PackedPositions index;
+        private final Palette<Material> materialPalette;
+        private final Palette<BlockFace> facingPalette;
+        private final Palette<BlockDataConfigurer> configurerPalette;
+        private short[] materials;
+        /*
+         * Indice + 1 dans la palette des orientations, 0 pour un bloc sans
+         * orientation.
+         */
+        private byte[] facings;
+        private byte[] priorities;
+        private int[] configurers;
+
+        private PlacementTable(int expected) {
+            int capacity = Math.max(16, expected);
+            this.index = new PackedPositions(expected);
+            this.materialPalette = new Palette<>(false, Short.MAX_VALUE + 1);
+            this.facingPalette = new Palette<>(false, Byte.MAX_VALUE);
+            this.configurerPalette = new Palette<>(true, Integer.MAX_VALUE);
+            this.materials = new short[capacity];
+            this.facings = new byte[capacity];
+            this.priorities = new byte[capacity];
+            this.configurers = new int[capacity];
+        }
+
+        private PlacementTable(PlacementTable source) {
+            this.index = new PackedPositions(source.index);
+            this.materialPalette = new Palette<>(source.materialPalette);
+            this.facingPalette = new Palette<>(source.facingPalette);
+            this.configurerPalette = new Palette<>(source.configurerPalette);
+            this.materials = source.materials.clone();
+            this.facings = source.facings.clone();
+            this.priorities = source.priorities.clone();
+            this.configurers = source.configurers.clone();
+        }
+
+        /**
+         * Copie modifiable, utilisée par la construction pour ajouter les
+         * colonnes de fondation sans toucher au plan.
+         */
+        private PlacementTable copy() {
+            return new PlacementTable(this);
+        }
+
+        private int size() {
+            return index.size();
+        }
+
+        private int indexOf(int x, int y, int z) {
+            return PackedPositions.isPackable(x, y, z) ? index.indexOf(PackedPositions.pack(x, y, z)) : -1;
+        }
+
+        private int indexOf(long packed) {
+            return index.indexOf(packed);
+        }
+
+        private long position(int entry) {
+            return index.positionAt(entry);
+        }
+
+        private Material material(int entry) {
+            return materialPalette.get(materials[entry]);
+        }
+
+        private BlockFace facing(int entry) {
+            int facing = facings[entry];
+            return facing == 0 ? null : facingPalette.get(facing - 1);
+        }
+
+        private BlockDataConfigurer configurer(int entry) {
+            return configurerPalette.get(configurers[entry]);
+        }
+
+        private long[] positions() {
+            return index.toArray();
+        }
+
+        /**
+         * Pose {@code material}, sauf si la position porte déjà un bloc de
+         * priorité supérieure.
+         */
+        private void put(int x,
+                         int y,
+                         int z,
+                         Material material,
+                         int priority,
+                         BlockFace facing,
+                         BlockDataConfigurer configurer) {
+            int before = index.size();
+            int entry = index.add(PackedPositions.pack(x, y, z));
+            if (entry == before || priority >= priorities[entry]) {
+                set(entry, material, priority, facing, configurer);
+            }
+        }
+
+        private void putIfAbsent(int x,
+                                 int y,
+                                 int z,
+                                 Material material,
+                                 int priority,
+                                 BlockFace facing,
+                                 BlockDataConfigurer configurer) {
+            int before = index.size();
+            int entry = index.add(PackedPositions.pack(x, y, z));
+            if (entry == before) {
+                set(entry, material, priority, facing, configurer);
+            }
+        }
+
+        /**
+         * Rangs des blocs dans leur ordre de pose : priorité croissante, puis
+         * section de chunk.
+         */
+        private int[] applicationOrder() {
+            long[] packed = index.toArray();
+            int[] ranks = new int[packed.length];
+            for (int entry = 0; entry < packed.length; entry++) {
+                ranks[entry] = priorities[entry];
+            }
+            long[] sorted = PackedPositions.sortedBySection(packed, ranks);
+            int[] order = new int[sorted.length];
+            for (int position = 0; position < sorted.length; position++) {
+                order[position] = index.indexOf(sorted[position]);
+            }
+            return order;
+        }
+
+        private void set(int entry,
+                         Material material,
+                         int priority,
+                         BlockFace facing,
+                         BlockDataConfigurer configurer) {
+            Objects.requireNonNull(material, "material");
+            Objects.requireNonNull(configurer, "configurer");
+            if (priority < 0 || priority > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Priorité de bloc invalide : " + priority + ".");
+            }
+            if (entry == materials.length) {
+                int capacity = materials.length * 2;
+                materials = Arrays.copyOf(materials, capacity);
+                facings = Arrays.copyOf(facings, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                configurers = Arrays.copyOf(configurers, capacity);
+            }
+            materials[entry] = (short) materialPalette.id(material);
+            facings[entry] = (byte) (facing == null ? 0 : facingPalette.id(facing) + 1);
+            priorities[entry] = (byte) priority;
+            configurers[entry] = configurerPalette.id(configurer);
+        }
     }
 
-    private enum BlockPositionComparator implements Comparator<BlockPos> {
-        INSTANCE;
+    /**
+     * Palette de valeurs distinctes. Les configurations de BlockData sont des
+     * lambdas sans égalité utile : elles sont comparées par identité, ce qui
+     * suffit à partager la configuration vide des blocs simples.
+     */
+    private static final class Palette<T> {
 
-        @Override
-        public int compare(BlockPos first, BlockPos second) {
-            int yOrder = Integer.compare(first.y, second.y);
-            if (yOrder != 0) {
-                return yOrder;
+        private final boolean identity;
+        private final int limit;
+        private final List<T> values;
+        private final Map<T, Integer> ids;
+
+        private Palette(boolean identity, int limit) {
+            this.identity = identity;
+            this.limit = limit;
+            this.values = new ArrayList<>();
+            this.ids = identity ? new IdentityHashMap<>() : new HashMap<>();
+        }
+
+        private Palette(Palette<T> source) {
+            this.identity = source.identity;
+            this.limit = source.limit;
+            this.values = new ArrayList<>(source.values);
+            this.ids = identity ? new IdentityHashMap<>(source.ids) : new HashMap<>(source.ids);
+        }
+
+        private int id(T value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
             }
-            int xOrder = Integer.compare(first.x, second.x);
-            return xOrder != 0 ? xOrder : Integer.compare(first.z, second.z);
+            int next = values.size();
+            if (next >= limit) {
+                throw new IllegalStateException("Palette de cabane saturée.");
+            }
+            values.add(value);
+            ids.put(value, next);
+            return next;
+        }
+
+        private T get(int id) {
+            return values.get(id);
         }
     }
 
@@ -1135,8 +1793,8 @@ public final class MineCabinBuilder {
         private final Settings settings;
         private final MineShaftColumnBuilder.Layout shaftLayout;
 
-        private final LinkedHashMap<BlockPos, Placement> placements = new LinkedHashMap<>();
-        private final LinkedHashSet<BlockPos> clearances = new LinkedHashSet<>();
+        private final PlacementTable placements = new PlacementTable(4_096);
+        private final PackedPositions clearances = new PackedPositions(4_096);
         private final List<ChestPair> chestPairs = new ArrayList<>();
         private final List<BlockPos> foundationPosts = new ArrayList<>();
 
@@ -1186,11 +1844,11 @@ public final class MineCabinBuilder {
             addStorage();
             reserveWalkableVolumes();
 
-            clearances.removeAll(placements.keySet());
-            Bounds bounds = computeBounds();
+            long[] remainingClearances = remainingClearances();
+            Bounds bounds = computeBounds(remainingClearances);
 
             int worstCaseOperations = placements.size()
-                    + clearances.size()
+                    + remainingClearances.length
                     + foundationPosts.size() * settings.maximumFoundationDepth();
             if (worstCaseOperations > settings.maximumPlannedBlocks()) {
                 throw new IllegalArgumentException(
@@ -1221,7 +1879,7 @@ public final class MineCabinBuilder {
                     shaftLayout,
                     bounds,
                     placements,
-                    clearances,
+                    remainingClearances,
                     chestPairs,
                     foundationPosts
             );
@@ -2427,21 +3085,22 @@ public final class MineCabinBuilder {
              * Les emplacements réellement occupés par une paroi, un coffre ou
              * une décoration seront retirés du set de dégagement à la fin.
              */
-            List<BlockPos> floors = new ArrayList<>();
-            for (Placement placement : placements.values()) {
-                if (placement.position.y == groundY || placement.position.y == deckY) {
-                    Material material = placement.material;
-                    if (material == Material.SPRUCE_PLANKS
-                            || material == Material.STRIPPED_SPRUCE_LOG
-                            || material == Material.STRIPPED_DARK_OAK_LOG
-                            || material == Material.POLISHED_ANDESITE) {
-                        floors.add(placement.position);
-                    }
+            for (int entry = 0; entry < placements.size(); entry++) {
+                long position = placements.position(entry);
+                int y = PackedPositions.y(position);
+                if (y != groundY && y != deckY) {
+                    continue;
+                }
+                Material material = placements.material(entry);
+                if (material == Material.SPRUCE_PLANKS
+                        || material == Material.STRIPPED_SPRUCE_LOG
+                        || material == Material.STRIPPED_DARK_OAK_LOG
+                        || material == Material.POLISHED_ANDESITE) {
+                    int x = PackedPositions.x(position);
+                    int z = PackedPositions.z(position);
+                    reserve(x, y + 1, z);
+                    reserve(x, y + 2, z);
                 }
-            }
-            for (BlockPos floor : floors) {
-                reserve(floor.x, floor.y + 1, floor.z);
-                reserve(floor.x, floor.y + 2, floor.z);
             }
 
             for (int x = cabinMinX + 1; x <= cabinMaxX - 1; x++) {
@@ -2453,7 +3112,25 @@ public final class MineCabinBuilder {
             }
         }
 
-        private Bounds computeBounds() {
+        /**
+         * Dégagements qui ne recouvrent aucun bloc posé.
+         */
+        private long[] remainingClearances() {
+            long[] remaining = new long[clearances.size()];
+            int count = 0;
+            for (int index = 0; index < clearances.size(); index++) {
+                long position = clearances.positionAt(index);
+                if (placements.indexOf(position) < 0) {
+                    remaining[count++] = position;
+                }
+            }
+            return Arrays.copyOf(remaining, count);
+        }
+
+        private Bounds computeBounds(long[] remainingClearances) {
+            if (placements.size() == 0 && remainingClearances.length == 0) {
+                throw new IllegalStateException("Plan de cabane vide.");
+            }
             int minX = Integer.MAX_VALUE;
             int maxX = Integer.MIN_VALUE;
             int minY = Integer.MAX_VALUE;
@@ -2461,18 +3138,19 @@ public final class MineCabinBuilder {
             int minZ = Integer.MAX_VALUE;
             int maxZ = Integer.MIN_VALUE;
 
-            Set<BlockPos> all = new HashSet<>(placements.keySet());
-            all.addAll(clearances);
-            for (BlockPos position : all) {
-                minX = Math.min(minX, position.x);
-                maxX = Math.max(maxX, position.x);
-                minY = Math.min(minY, position.y);
-                maxY = Math.max(maxY, position.y);
-                minZ = Math.min(minZ, position.z);
-                maxZ = Math.max(maxZ, position.z);
-            }
-            if (all.isEmpty()) {
-                throw new IllegalStateException("Plan de cabane vide.");
+            long[] placed = placements.positions();
+            long[] all = Arrays.copyOf(placed, placed.length + remainingClearances.length);
+            System.arraycopy(remainingClearances, 0, all, placed.length, remainingClearances.length);
+            for (long position : all) {
+                int x = PackedPositions.x(position);
+                int y = PackedPositions.y(position);
+                int z = PackedPositions.z(position);
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+                minZ = Math.min(minZ, z);
+                maxZ = Math.max(maxZ, z);
             }
             return new Bounds(minX, maxX, minY, maxY, minZ, maxZ);
         }
@@ -2550,9 +3228,10 @@ public final class MineCabinBuilder {
                                   int y,
                                   int z,
                                   BlockFace facing) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     Material.SPRUCE_FENCE_GATE,
                     PRIORITY_ATTACHMENT,
                     facing,
@@ -2563,7 +3242,7 @@ public final class MineCabinBuilder {
                             gate.setInWall(false);
                         }
                     }
-            ));
+            );
         }
 
         private void putDoorHalf(int x,
@@ -2572,9 +3251,10 @@ public final class MineCabinBuilder {
                                  BlockFace facing,
                                  Bisected.Half half,
                                  Door.Hinge hinge) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     Material.SPRUCE_DOOR,
                     PRIORITY_ATTACHMENT,
                     facing,
@@ -2587,7 +3267,7 @@ public final class MineCabinBuilder {
                             door.setPowered(false);
                         }
                     }
-            ));
+            );
         }
 
         private void putTrapDoor(int x,
@@ -2595,9 +3275,10 @@ public final class MineCabinBuilder {
                                  int z,
                                  BlockFace facing,
                                  Bisected.Half half) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     Material.SPRUCE_TRAPDOOR,
                     PRIORITY_SHAFT,
                     facing,
@@ -2609,14 +3290,16 @@ public final class MineCabinBuilder {
                             trapDoor.setPowered(false);
                         }
                     }
-            ));
+            );
         }
 
         private void putChest(BlockPos position,
                               BlockFace facing,
                               Chest.Type type) {
-            put(new Placement(
-                    position,
+            put(
+                    position.x,
+                    position.y,
+                    position.z,
                     Material.CHEST,
                     PRIORITY_CONTAINER,
                     facing,
@@ -2626,16 +3309,17 @@ public final class MineCabinBuilder {
                             chest.setType(type);
                         }
                     }
-            ));
+            );
         }
 
         private void putLantern(int x,
                                 int y,
                                 int z,
                                 boolean hanging) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     Material.LANTERN,
                     PRIORITY_ATTACHMENT,
                     null,
@@ -2644,7 +3328,7 @@ public final class MineCabinBuilder {
                             lantern.setHanging(hanging);
                         }
                     }
-            ));
+            );
         }
 
         private void putStairs(int x,
@@ -2654,9 +3338,10 @@ public final class MineCabinBuilder {
                                BlockFace facing,
                                Stairs.Half half,
                                int priority) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     material,
                     priority,
                     facing,
@@ -2667,7 +3352,7 @@ public final class MineCabinBuilder {
                             stairs.setShape(Stairs.Shape.STRAIGHT);
                         }
                     }
-            ));
+            );
         }
 
         private void putDirectional(int x,
@@ -2676,9 +3361,10 @@ public final class MineCabinBuilder {
                                     Material material,
                                     BlockFace facing,
                                     int priority) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     material,
                     priority,
                     facing,
@@ -2687,7 +3373,7 @@ public final class MineCabinBuilder {
                             directional.setFacing(facing);
                         }
                     }
-            ));
+            );
         }
 
         private void putOrientable(int x,
@@ -2696,9 +3382,10 @@ public final class MineCabinBuilder {
                                    Material material,
                                    Axis axis,
                                    int priority) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(new Placement(
-                    position,
+            put(
+                    x,
+                    y,
+                    z,
                     material,
                     priority,
                     null,
@@ -2708,7 +3395,7 @@ public final class MineCabinBuilder {
                             orientable.setAxis(axis);
                         }
                     }
-            ));
+            );
         }
 
         private void putSimple(int x,
@@ -2716,15 +3403,17 @@ public final class MineCabinBuilder {
                                int z,
                                Material material,
                                int priority) {
-            BlockPos position = new BlockPos(x, y, z);
-            put(Placement.simple(position, material, priority));
+            put(x, y, z, material, priority, null, NO_CONFIGURER);
         }
 
-        private void put(Placement placement) {
-            Placement existing = placements.get(placement.position);
-            if (existing == null || placement.priority >= existing.priority) {
-                placements.put(placement.position, placement);
-            }
+        private void put(int x,
+                         int y,
+                         int z,
+                         Material material,
+                         int priority,
+                         BlockFace facing,
+                         BlockDataConfigurer configurer) {
+            placements.put(x, y, z, material, priority, facing, configurer);
         }
 
         private void reserveColumn(int x,
@@ -2737,7 +3426,7 @@ public final class MineCabinBuilder {
         }
 
         private void reserve(int x, int y, int z) {
-            clearances.add(new BlockPos(x, y, z));
+            clearances.add(PackedPositions.pack(x, y, z));
         }
 
         private BlockFace directionBetween(BlockPos first, BlockPos second) {
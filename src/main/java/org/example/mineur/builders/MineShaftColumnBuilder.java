@@ -1,6 +1,7 @@
 package org.example.mineur.builders;
 
 import org.bukkit.Axis;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -117,6 +118,140 @@ public final class MineShaftColumnBuilder {
         }
     }
 
+    /**
+     * Géométrie d'un puits figée pour une session : base, intervalle des
+     * lumières et rôle de chaque colonne.
+     *
+     * <p>L'échelle et la console lumineuse touchent toutes deux le poteau : les
+     * colonnes utiles tiennent dans la fenêtre 3x3 centrée sur lui. Un masque
+     * de 9 bits répond à {@link #isRelevantHorizontal} et permet à
+     * {@link #isManagedBlock} d'écarter un bloc sans lire son type ; la lecture
+     * n'a lieu que pour les trois colonnes du puits.</p>
+     */
+    public static final class CompiledLayout {
+
+        private static final byte NONE = 0;
+        private static final byte LADDER = 1;
+        private static final byte SUPPORT = 2;
+        private static final byte LIGHT = 3;
+
+        private final Layout layout;
+        private final int baseY;
+        private final int lightInterval;
+        private final byte[] roles = new byte[9];
+        private final int columnMask;
+
+        private CompiledLayout(Layout layout, int baseY, int lightInterval) {
+            this.layout = Objects.requireNonNull(layout, "layout");
+            this.baseY = baseY;
+            this.lightInterval = normalizeLightInterval(lightInterval);
+            int mask = 0;
+            mask |= assign(layout.ladderX(), layout.ladderZ(), LADDER);
+            mask |= assign(layout.supportX(), layout.supportZ(), SUPPORT);
+            if (layout.sideLantern()) {
+                mask |= assign(layout.lightX(), layout.lightZ(), LIGHT);
+            }
+            this.columnMask = mask;
+        }
+
+        public Layout layout() {
+            return layout;
+        }
+
+        public int baseY() {
+            return baseY;
+        }
+
+        public int lightInterval() {
+            return lightInterval;
+        }
+
+        public boolean isRelevantHorizontal(int x, int z) {
+            int cell = cell(x, z);
+            return cell >= 0 && (columnMask & (1 << cell)) != 0;
+        }
+
+        public boolean isLightLevel(int y) {
+            long depth = (long) baseY - y;
+            return depth > 0L && depth % lightInterval == 0L;
+        }
+
+        /**
+         * Empêche l'itérateur de carrière de sélectionner de nouveau un bloc
+         * posé par le puits après une reprise sur un ancien checkpoint.
+         */
+        public boolean isManagedBlock(Block block) {
+            if (block == null || block.getY() > baseY) {
+                return false;
+            }
+            int cell = cell(block.getX(), block.getZ());
+            if (cell < 0 || (columnMask & (1 << cell)) == 0) {
+                return false;
+            }
+            Material material = block.getType();
+            return switch (roles[cell]) {
+                case LADDER -> material == Material.LADDER;
+                case SUPPORT -> material == Material.STRIPPED_DARK_OAK_LOG
+                        || material == Material.SHROOMLIGHT;
+                case LIGHT -> material == Material.STRIPPED_SPRUCE_LOG
+                        || material == Material.LANTERN;
+                default -> false;
+            };
+        }
+
+        /**
+         * Indique si la couche porte déjà tout ce que {@link #maintainLayer}
+         * y poserait. Une couche incomplète, ou dont le poteau repose sur la
+         * paroi naturelle d'une sélection 1x1, repasse par maintainLayer.
+         */
+        boolean isLayerComplete(int y, int maxHeight, TypeLookup lookup) {
+            boolean lightLevel = isLightLevel(y);
+            Material support = lightLevel && !layout.sideLantern()
+                    ? Material.SHROOMLIGHT
+                    : Material.STRIPPED_DARK_OAK_LOG;
+            if (lookup.typeAt(layout.supportX(), y, layout.supportZ()) != support
+                    || lookup.typeAt(layout.ladderX(), y, layout.ladderZ()) != Material.LADDER) {
+                return false;
+            }
+            if (!lightLevel || !layout.sideLantern() || y + 1 >= maxHeight) {
+                return true;
+            }
+            return lookup.typeAt(layout.lightX(), y + 1, layout.lightZ()) == Material.STRIPPED_SPRUCE_LOG
+                    && lookup.typeAt(layout.lightX(), y, layout.lightZ()) == Material.LANTERN;
+        }
+
+        private int assign(int x, int z, byte role) {
+            int cell = cell(x, z);
+            if (cell < 0) {
+                throw new IllegalStateException("Colonne de puits hors de la fenêtre du poteau.");
+            }
+            roles[cell] = role;
+            return 1 << cell;
+        }
+
+        /*
+         * Différences en long : près des limites entières, une soustraction
+         * en int pourrait reboucler dans la fenêtre.
+         */
+        private int cell(int x, int z) {
+            long dx = (long) x - layout.supportX() + 1L;
+            long dz = (long) z - layout.supportZ() + 1L;
+            if (dx < 0L || dx > 2L || dz < 0L || dz > 2L) {
+                return -1;
+            }
+            return (int) (dx * 3L + dz);
+        }
+    }
+
+    /**
+     * Lecture du type d'un bloc, depuis le monde ou une copie de chunk.
+     */
+    @FunctionalInterface
+    interface TypeLookup {
+
+        Material typeAt(int x, int y, int z);
+    }
+
     /**
      * Écrit un bloc après les contrôles propres au serveur (claims, bordure,
      * propriétaire connecté, etc.).
@@ -230,6 +365,10 @@ public final class MineShaftColumnBuilder {
         );
     }
 
+    public static CompiledLayout compile(Layout layout, int baseY, int lightInterval) {
+        return new CompiledLayout(layout, baseY, lightInterval);
+    }
+
     public static int normalizeLightInterval(int configured) {
         return Math.max(
                 MINIMUM_LIGHT_INTERVAL,
@@ -263,6 +402,63 @@ public final class MineShaftColumnBuilder {
         }
     }
 
+    /**
+     * Variante de {@link #maintainRange} pour la reprise d'un puits déjà
+     * profond : les chunks des trois colonnes sont copiés une fois, et seules
+     * les couches incomplètes d'après cette copie repassent par
+     * {@link #maintainLayer}. Sans chunk chargé, la réparation retombe sur le
+     * parcours complet.
+     *
+     * @return nombre de couches confiées à maintainLayer
+     */
+    public static int repairRange(World world,
+                                  CompiledLayout compiled,
+                                  int minimumY,
+                                  PlacementHandler placer) {
+        if (world == null || compiled == null || placer == null) {
+            return 0;
+        }
+        Layout layout = compiled.layout();
+        int minChunkX = (int) (((long) layout.supportX() - 1L) >> 4);
+        int maxChunkX = (int) (((long) layout.supportX() + 1L) >> 4);
+        int minChunkZ = (int) (((long) layout.supportZ() - 1L) >> 4);
+        int maxChunkZ = (int) (((long) layout.supportZ() + 1L) >> 4);
+        int chunkCountZ = maxChunkZ - minChunkZ + 1;
+        ChunkSnapshot[] snapshots = new ChunkSnapshot[(maxChunkX - minChunkX + 1) * chunkCountZ];
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    maintainRange(world, layout, compiled.baseY(), minimumY, compiled.lightInterval(), placer);
+                    return Math.max(0, Math.min(compiled.baseY(), world.getMaxHeight() - 1)
+                            - Math.max(minimumY, world.getMinHeight()) + 1);
+                }
+                snapshots[(chunkX - minChunkX) * chunkCountZ + (chunkZ - minChunkZ)] =
+                        world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+            }
+        }
+        TypeLookup lookup = (x, y, z) -> snapshots[((x >> 4) - minChunkX) * chunkCountZ
+                + ((z >> 4) - minChunkZ)].getBlockType(x & 15, y, z & 15);
+        return repairRange(world, compiled, minimumY, lookup, placer);
+    }
+
+    static int repairRange(World world,
+                           CompiledLayout compiled,
+                           int minimumY,
+                           TypeLookup lookup,
+                           PlacementHandler placer) {
+        int safeBaseY = Math.min(compiled.baseY(), world.getMaxHeight() - 1);
+        int safeMinimumY = Math.max(minimumY, world.getMinHeight());
+        int repaired = 0;
+        for (int y = safeBaseY; y >= safeMinimumY; y--) {
+            if (compiled.isLayerComplete(y, world.getMaxHeight(), lookup)) {
+                continue;
+            }
+            maintainLayer(world, compiled.layout(), compiled.baseY(), y, compiled.lightInterval(), placer);
+            repaired++;
+        }
+        return repaired;
+    }
+
     /**
      * Complète une couche sans remplacer de roche non minée.
      *
@@ -351,34 +547,6 @@ public final class MineShaftColumnBuilder {
         );
     }
 
-    /**
-     * Empêche l'itérateur de carrière de sélectionner de nouveau un bloc posé
-     * par le puits après une reprise sur un ancien checkpoint.
-     */
-    public static boolean isManagedBlock(Layout layout,
-                                         int baseY,
-                                         Block block) {
-        if (layout == null || block == null || block.getY() > baseY) {
-            return false;
-        }
-
-        Material material = block.getType();
-        if (block.getX() == layout.ladderX()
-                && block.getZ() == layout.ladderZ()) {
-            return material == Material.LADDER;
-        }
-        if (block.getX() == layout.supportX()
-                && block.getZ() == layout.supportZ()) {
-            return material == Material.STRIPPED_DARK_OAK_LOG
-                    || material == Material.SHROOMLIGHT;
-        }
-        return layout.sideLantern()
-                && block.getX() == layout.lightX()
-                && block.getZ() == layout.lightZ()
-                && (material == Material.STRIPPED_SPRUCE_LOG
-                || material == Material.LANTERN);
-    }
-
     public static boolean isManagedMaterial(Material material) {
         return material != null && MANAGED_MATERIALS.contains(material);
     }
@@ -0,0 +1,230 @@
+package org.example.mineur.store;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.example.mineur.ChunkTicketWindow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chunks susceptibles de contenir des acteurs persistants du mineur, stockés
+ * dans {@code entity-chunks.yml}.
+ *
+ * <p>L'index est volontairement un sur-ensemble : un chunk y entre dès qu'un
+ * acteur signé peut y être sauvegardé, et n'en sort que lorsque ses entités
+ * ont été relues sans y trouver d'acteur. Seuls ces chunks sont inspectés au
+ * chargement de leurs entités et au démarrage ; les fermes à mobs et les
+ * chunks chargés d'items n'entrent donc plus jamais dans la réconciliation.</p>
+ *
+ * <p>Utilisé uniquement depuis le thread principal du serveur.</p>
+ */
+public final class EntityChunkIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Chunk indexé, avec ses coordonnées de chunk et non de bloc.
+     */
+    public record Entry(UUID worldUid, int chunkX, int chunkZ) {
+    }
+
+    private final File file;
+    private final Logger logger;
+    private final Map<UUID, Set<Long>> chunksByWorld = new LinkedHashMap<>();
+    private boolean dirty;
+
+    public EntityChunkIndex(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "entity-chunks.yml");
+        this.logger = logger != null ? logger : Logger.getLogger(EntityChunkIndex.class.getName());
+    }
+
+    /**
+     * Relit l'index depuis le disque.
+     *
+     * @return {@code false} si aucun index exploitable n'existe : l'appelant
+     * doit alors se rabattre sur une inspection complète pendant ce démarrage.
+     */
+    public boolean load() {
+        chunksByWorld.clear();
+        dirty = false;
+        if (!file.isFile()) {
+            return false;
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (IOException | InvalidConfigurationException exception) {
+            logger.log(Level.WARNING, "[Mineur] entity-chunks.yml est illisible ; "
+                    + "inspection complète des entités pour ce démarrage.", exception);
+            return false;
+        }
+
+        ConfigurationSection worlds = yaml.getConfigurationSection("worlds");
+        if (worlds == null) {
+            return true;
+        }
+        for (String rawWorld : worlds.getKeys(false)) {
+            UUID worldUid;
+            try {
+                worldUid = UUID.fromString(rawWorld);
+            } catch (IllegalArgumentException exception) {
+                logger.warning("[Mineur] Monde invalide ignoré dans entity-chunks.yml : " + rawWorld);
+                continue;
+            }
+            for (String rawChunk : worlds.getStringList(rawWorld)) {
+                int separator = rawChunk.indexOf(',');
+                try {
+                    int chunkX = Integer.parseInt(rawChunk.substring(0, separator).trim());
+                    int chunkZ = Integer.parseInt(rawChunk.substring(separator + 1).trim());
+                    chunksByWorld.computeIfAbsent(worldUid, ignored -> new HashSet<>())
+                            .add(ChunkTicketWindow.key(chunkX, chunkZ));
+                } catch (RuntimeException exception) {
+                    logger.warning("[Mineur] Chunk invalide ignoré dans entity-chunks.yml : " + rawChunk);
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(UUID worldUid, int chunkX, int chunkZ) {
+        Set<Long> chunks = chunksByWorld.get(worldUid);
+        return chunks != null && chunks.contains(ChunkTicketWindow.key(chunkX, chunkZ));
+    }
+
+    /**
+     * @return {@code true} si le chunk n'était pas encore indexé.
+     */
+    public boolean mark(UUID worldUid, int chunkX, int chunkZ) {
+        if (worldUid == null) {
+            return false;
+        }
+        boolean added = chunksByWorld.computeIfAbsent(worldUid, ignored -> new HashSet<>())
+                .add(ChunkTicketWindow.key(chunkX, chunkZ));
+        dirty |= added;
+        return added;
+    }
+
+    /**
+     * Indexe des chunks encodés par {@link ChunkTicketWindow#key(int, int)}.
+     *
+     * @return nombre de chunks nouvellement indexés.
+     */
+    public int markAll(UUID worldUid, Set<Long> chunkKeys) {
+        if (worldUid == null || chunkKeys.isEmpty()) {
+            return 0;
+        }
+        Set<Long> chunks = chunksByWorld.computeIfAbsent(worldUid, ignored -> new HashSet<>());
+        int before = chunks.size();
+        chunks.addAll(chunkKeys);
+        int added = chunks.size() - before;
+        dirty |= added > 0;
+        return added;
+    }
+
+    /**
+     * @return {@code true} si le chunk était indexé.
+     */
+    public boolean forget(UUID worldUid, int chunkX, int chunkZ) {
+        Set<Long> chunks = chunksByWorld.get(worldUid);
+        if (chunks == null || !chunks.remove(ChunkTicketWindow.key(chunkX, chunkZ))) {
+            return false;
+        }
+        if (chunks.isEmpty()) {
+            chunksByWorld.remove(worldUid);
+        }
+        dirty = true;
+        return true;
+    }
+
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<UUID, Set<Long>> world : chunksByWorld.entrySet()) {
+            for (long key : world.getValue()) {
+                entries.add(new Entry(world.getKey(), chunkX(key), chunkZ(key)));
+            }
+        }
+        return entries;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Set<Long> chunks : chunksByWorld.values()) {
+            size += chunks.size();
+        }
+        return size;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Écrit l'index s'il a changé, via un fichier temporaire puis un
+     * déplacement atomique comme {@code sessions.yml}.
+     */
+    public boolean saveIfDirty() {
+        if (!dirty) {
+            return true;
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("version", FORMAT_VERSION);
+        for (Map.Entry<UUID, Set<Long>> world : chunksByWorld.entrySet()) {
+            List<String> chunks = new ArrayList<>(world.getValue().size());
+            for (long key : world.getValue()) {
+                chunks.add(chunkX(key) + "," + chunkZ(key));
+            }
+            chunks.sort(null);
+            yaml.set("worlds." + world.getKey(), chunks);
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            logger.severe("[Mineur] Impossible de créer le dossier de sauvegarde " + parent + ".");
+            return false;
+        }
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            yaml.save(temporary);
+            try {
+                Files.move(temporary.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ignored) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+            return true;
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "[Mineur] Impossible de sauvegarder entity-chunks.yml.", exception);
+            try {
+                Files.deleteIfExists(temporary.toPath());
+            } catch (IOException cleanupException) {
+                logger.log(Level.FINE, "[Mineur] Nettoyage du fichier temporaire impossible.", cleanupException);
+            }
+            return false;
+        }
+    }
+
+    private static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int chunkZ(long key) {
+        return (int) key;
+    }
+}
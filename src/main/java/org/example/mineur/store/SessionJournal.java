@@ -0,0 +1,671 @@
+package org.example.mineur.store;
+
+import org.bukkit.util.Vector;
+import org.example.mineur.MiningCursor;
+import org.example.mineur.MiningSessionState;
+import org.example.mineur.MiningStripe;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Journal binaire en ajout seul des petites évolutions de session.
+ *
+ * <p>Réécrire tout {@code sessions.yml} pour un curseur qui a avancé de
+ * quelques blocs coûtait une sérialisation YAML complète, une copie .bak et
+ * un déplacement atomique. Le journal n'écrit que les différences depuis le
+ * dernier état connu : curseur et checkpoint, bandes d'une carrière
+ * partagée, pause, conteneurs ajoutés ou retirés, tronçons de tunnel
+ * terminés, drops en attente de dépôt.</p>
+ *
+ * <p>Chaque enregistrement porte un numéro de séquence et un CRC32. Le
+ * snapshot YAML mémorise la dernière séquence qu'il contient ; au chargement,
+ * seuls les enregistrements plus récents sont rejoués et la lecture s'arrête
+ * au premier enregistrement tronqué par un arrêt brutal.</p>
+ *
+ * <p>Les appels publics se font sur le thread principal. Les écritures et
+ * les {@code fsync} sont sérialisés sur un unique thread dédié.</p>
+ */
+public final class SessionJournal {
+
+    static final int MAGIC = 0x4D474A31;
+    /**
+     * Un tampon de drops plein (piles enchantées ou nommées comprises) reste
+     * très en dessous ; au-delà, la longueur lue est forcément corrompue.
+     */
+    private static final int MAX_RECORD_LENGTH = 262_144;
+
+    private static final byte CURSOR = 1;
+    private static final byte PAUSED = 2;
+    private static final byte CONTAINER_ADDED = 3;
+    private static final byte CONTAINER_REMOVED = 4;
+    private static final byte TUNNEL_SECTIONS = 5;
+    private static final byte DROP_BUFFER = 6;
+    private static final byte STRIPES = 7;
+    private static final int MAX_STRIPES = 64;
+
+    private final File file;
+    private final Logger logger;
+    private final Map<UUID, Baseline> baselines = new HashMap<>();
+    private final AtomicLong bytesOnDisk = new AtomicLong();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long lastSequence;
+    private ExecutorService writer;
+
+    /**
+     * Longueur du préfixe intact lu par {@link #replay}, ou -1 si inconnue.
+     * Une fin déchirée par un crash est coupée avant d'ajouter à la suite.
+     */
+    private volatile long validLength = -1L;
+
+    /**
+     * Canal uniquement manipulé depuis le thread d'écriture.
+     */
+    private FileChannel channel;
+
+    public SessionJournal(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger != null ? logger : Logger.getLogger(SessionJournal.class.getName());
+        this.bytesOnDisk.set(file.isFile() ? file.length() : 0L);
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public long sizeOnDisk() {
+        return bytesOnDisk.get();
+    }
+
+    /**
+     * Mémorise l'état courant comme référence : seules les évolutions
+     * ultérieures seront journalisées.
+     */
+    public void rebase(Collection<MiningSessionState> sessions) {
+        baselines.clear();
+        if (sessions == null) {
+            return;
+        }
+        for (MiningSessionState state : sessions) {
+            if (state != null && state.id != null) {
+                baselines.put(state.id, Baseline.of(state));
+            }
+        }
+    }
+
+    /**
+     * Ajoute au tampon les différences de chaque session avec sa référence.
+     *
+     * @return le nombre d'enregistrements produits.
+     */
+    public int recordChanges(Collection<MiningSessionState> sessions) {
+        if (sessions == null) {
+            return 0;
+        }
+        int written = 0;
+        Set<UUID> present = new HashSet<>();
+        for (MiningSessionState state : sessions) {
+            if (state == null || state.id == null) {
+                continue;
+            }
+            present.add(state.id);
+            written += recordChanges(state);
+        }
+        baselines.keySet().retainAll(present);
+        return written;
+    }
+
+    private int recordChanges(MiningSessionState state) {
+        Baseline baseline = baselines.get(state.id);
+        int written = 0;
+        try {
+            if (baseline == null
+                    || !sameCursor(baseline.cursor, state.cursor)
+                    || !sameCursor(baseline.pendingCursor, state.pendingCursor)) {
+                RecordOutput out = begin(CURSOR, state.id);
+                writeCursor(out, state.cursor);
+                writeCursor(out, state.pendingCursor);
+                end(out);
+                written++;
+            }
+            if (baseline == null
+                    ? !state.stripes.isEmpty()
+                    : !sameStripes(baseline.stripes, state.stripes)) {
+                RecordOutput out = begin(STRIPES, state.id);
+                out.writeInt(state.stripes.size());
+                for (MiningStripe stripe : state.stripes) {
+                    writeCursor(out, stripe.cursor);
+                    writeCursor(out, stripe.pendingCursor);
+                }
+                end(out);
+                written++;
+            }
+            if (baseline == null || baseline.paused != state.paused) {
+                RecordOutput out = begin(PAUSED, state.id);
+                out.writeBoolean(state.paused);
+                end(out);
+                written++;
+            }
+            if (baseline == null || baseline.tunnelSectionsMined != state.tunnelSectionsMined) {
+                RecordOutput out = begin(TUNNEL_SECTIONS, state.id);
+                out.writeInt(state.tunnelSectionsMined);
+                end(out);
+                written++;
+            }
+
+            if (baseline == null || baseline.dropRevision != state.dropBuffer.revision()) {
+                List<byte[]> stacks = state.dropBuffer.serialize();
+                RecordOutput out = begin(DROP_BUFFER, state.id);
+                out.writeInt(stacks.size());
+                for (byte[] stack : stacks) {
+                    out.writeInt(stack.length);
+                    out.write(stack);
+                }
+                end(out);
+                written++;
+            }
+
+            Set<BlockPos> current = BlockPos.of(state.containers);
+            Set<BlockPos> previous = baseline != null ? baseline.containers : Set.of();
+            for (BlockPos removed : previous) {
+                if (!current.contains(removed)) {
+                    written += writeContainer(CONTAINER_REMOVED, state.id, removed);
+                }
+            }
+            for (BlockPos added : current) {
+                if (!previous.contains(added)) {
+                    written += writeContainer(CONTAINER_ADDED, state.id, added);
+                }
+            }
+        } catch (IOException exception) {
+            // Impossible avec un tampon mémoire ; conservé pour l'API de DataOutputStream.
+            throw new IllegalStateException("Encodage du journal impossible.", exception);
+        }
+        baselines.put(state.id, Baseline.of(state));
+        return written;
+    }
+
+    private int writeContainer(byte type, UUID sessionId, BlockPos position) throws IOException {
+        RecordOutput out = begin(type, sessionId);
+        out.writeInt(position.x());
+        out.writeInt(position.y());
+        out.writeInt(position.z());
+        end(out);
+        return 1;
+    }
+
+    /**
+     * Confie le tampon au thread d'écriture, suivi d'un unique {@code fsync}.
+     */
+    public void flushAsync() {
+        if (pending.size() == 0) {
+            return;
+        }
+        byte[] batch = pending.toByteArray();
+        pending = new ByteArrayOutputStream();
+        execute(() -> {
+            try {
+                FileChannel target = openChannel();
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                target.force(false);
+                bytesOnDisk.set(target.size());
+            } catch (IOException exception) {
+                logger.log(Level.SEVERE, "[Mineur] Écriture du journal des sessions impossible.", exception);
+            }
+        });
+    }
+
+    /**
+     * Oublie le contenu du journal une fois ses effets écrits dans le snapshot.
+     */
+    public void truncateAsync() {
+        pending = new ByteArrayOutputStream();
+        if (writer == null && !file.isFile()) {
+            return;
+        }
+        execute(this::truncateNow);
+    }
+
+    /**
+     * Variante à appeler depuis une tâche déjà exécutée par le thread d'écriture.
+     */
+    void truncateNow() {
+        try {
+            FileChannel target = openChannel();
+            target.truncate(Integer.BYTES);
+            target.position(Integer.BYTES);
+            target.force(false);
+            bytesOnDisk.set(Integer.BYTES);
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "[Mineur] Compaction du journal des sessions impossible.", exception);
+        }
+    }
+
+    /**
+     * Rejoue sur les sessions chargées les enregistrements postérieurs au
+     * snapshot. Appelé une seule fois, avant toute écriture.
+     *
+     * @return le nombre d'enregistrements appliqués.
+     */
+    public int replay(List<MiningSessionState> sessions, long snapshotSequence) {
+        lastSequence = Math.max(lastSequence, snapshotSequence);
+        if (!file.isFile()) {
+            return 0;
+        }
+
+        Map<UUID, MiningSessionState> byId = new HashMap<>();
+        for (MiningSessionState state : sessions) {
+            if (state != null && state.id != null) {
+                byId.put(state.id, state);
+            }
+        }
+
+        int applied = 0;
+        validLength = 0L;
+        try (InputStream input = Files.newInputStream(file.toPath());
+             DataInputStream data = new DataInputStream(new BufferedInputStream(input))) {
+            if (data.readInt() != MAGIC) {
+                logger.warning("[Mineur] Journal des sessions ignoré : en-tête inconnu.");
+                return 0;
+            }
+            validLength = Integer.BYTES;
+            while (true) {
+                byte[] payload = readRecord(data);
+                if (payload == null) {
+                    break;
+                }
+                validLength += Integer.BYTES * 2L + payload.length;
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = record.readByte();
+                long sequence = record.readLong();
+                UUID sessionId = new UUID(record.readLong(), record.readLong());
+                lastSequence = Math.max(lastSequence, sequence);
+                MiningSessionState state = byId.get(sessionId);
+                if (sequence <= snapshotSequence || state == null) {
+                    continue;
+                }
+                apply(state, type, record);
+                applied++;
+            }
+        } catch (EOFException ignored) {
+            // Fin de fichier au milieu d'un en-tête : dernier lot interrompu.
+        } catch (IOException | RuntimeException exception) {
+            logger.log(Level.WARNING,
+                    "[Mineur] Lecture du journal des sessions interrompue ; "
+                            + "les enregistrements suivants sont ignorés.",
+                    exception);
+        }
+        return applied;
+    }
+
+    /**
+     * @return la charge utile, ou {@code null} pour un enregistrement tronqué.
+     */
+    private byte[] readRecord(DataInputStream data) throws IOException {
+        int length;
+        try {
+            length = data.readInt();
+        } catch (EOFException ignored) {
+            return null;
+        }
+        if (length <= 0 || length > MAX_RECORD_LENGTH) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        try {
+            data.readFully(payload);
+            int expected = data.readInt();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue() == expected ? payload : null;
+        } catch (EOFException ignored) {
+            return null;
+        }
+    }
+
+    private void apply(MiningSessionState state, byte type, DataInputStream record) throws IOException {
+        switch (type) {
+            case CURSOR -> {
+                MiningCursor cursor = readCursor(record);
+                MiningCursor pendingCursor = readCursor(record);
+                if (cursor != null) {
+                    state.cursor = cursor;
+                }
+                state.pendingCursor = pendingCursor;
+            }
+            case STRIPES -> {
+                int count = record.readInt();
+                if (count < 0 || count > MAX_STRIPES) {
+                    throw new IOException("Découpage en bandes invalide : " + count + " bande(s).");
+                }
+                List<MiningStripe> stripes = new ArrayList<>(count);
+                for (int index = 0; index < count; index++) {
+                    MiningCursor cursor = readCursor(record);
+                    MiningCursor pendingCursor = readCursor(record);
+                    if (cursor == null) {
+                        throw new IOException("Bande sans curseur.");
+                    }
+                    MiningStripe stripe = new MiningStripe(cursor);
+                    stripe.pendingCursor = pendingCursor;
+                    stripes.add(stripe);
+                }
+                state.stripes.clear();
+                state.stripes.addAll(stripes);
+            }
+            case PAUSED -> state.paused = record.readBoolean();
+            case TUNNEL_SECTIONS -> state.tunnelSectionsMined = Math.max(0, record.readInt());
+            case DROP_BUFFER -> {
+                int count = record.readInt();
+                if (count < 0 || count > MAX_RECORD_LENGTH / Integer.BYTES) {
+                    throw new IOException("Tampon de drops invalide : " + count + " pile(s).");
+                }
+                List<byte[]> stacks = new ArrayList<>(count);
+                for (int index = 0; index < count; index++) {
+                    int length = record.readInt();
+                    if (length < 0 || length > record.available()) {
+                        throw new IOException("Pile de drops tronquée.");
+                    }
+                    byte[] stack = new byte[length];
+                    record.readFully(stack);
+                    stacks.add(stack);
+                }
+                state.dropBuffer.restore(stacks);
+            }
+            case CONTAINER_ADDED, CONTAINER_REMOVED -> {
+                int x = record.readInt();
+                int y = record.readInt();
+                int z = record.readInt();
+                state.containers.removeIf(vector -> vector != null
+                        && vector.getBlockX() == x
+                        && vector.getBlockY() == y
+                        && vector.getBlockZ() == z);
+                if (type == CONTAINER_ADDED) {
+                    state.containers.add(new Vector(x, y, z));
+                }
+            }
+            default -> throw new IOException("Type d'enregistrement inconnu : " + type + ".");
+        }
+    }
+
+    /**
+     * Termine les écritures en attente puis libère le fichier.
+     */
+    public void close() {
+        flushAsync();
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("[Mineur] Le journal des sessions n'a pas fini d'écrire à temps.");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException exception) {
+            logger.log(Level.FINE, "[Mineur] Fermeture du journal impossible.", exception);
+        }
+        channel = null;
+        validLength = -1L;
+    }
+
+    /**
+     * Attend que toutes les écritures déjà confiées au thread soient sur disque.
+     */
+    void awaitWrites() {
+        flushAsync();
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException exception) {
+            logger.log(Level.WARNING, "[Mineur] Attente du journal des sessions interrompue.", exception);
+        }
+    }
+
+    /**
+     * Exécute une tâche dans l'ordre des écritures du journal.
+     */
+    void execute(Runnable task) {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MineGus-SessionJournal");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        writer.execute(task);
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            return channel;
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Impossible de créer " + parent + ".");
+        }
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() < Integer.BYTES || !hasValidHeader(channel)) {
+            /*
+             * Un journal illisible a déjà été ignoré au chargement : le
+             * recommencer proprement vaut mieux qu'ajouter derrière des octets
+             * que le prochain démarrage refuserait de toute façon.
+             */
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC);
+            header.flip();
+            channel.write(header, 0);
+        } else if (validLength >= Integer.BYTES && channel.size() > validLength) {
+            channel.truncate(validLength);
+        }
+        validLength = -1L;
+        channel.position(channel.size());
+        return channel;
+    }
+
+    private boolean hasValidHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        target.read(header, 0);
+        header.flip();
+        return header.remaining() == Integer.BYTES && header.getInt() == MAGIC;
+    }
+
+    private RecordOutput begin(byte type, UUID sessionId) throws IOException {
+        RecordOutput out = new RecordOutput();
+        out.writeByte(type);
+        out.writeLong(++lastSequence);
+        out.writeLong(sessionId.getMostSignificantBits());
+        out.writeLong(sessionId.getLeastSignificantBits());
+        return out;
+    }
+
+    private void end(RecordOutput out) throws IOException {
+        out.flush();
+        byte[] payload = out.payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        DataOutputStream target = new DataOutputStream(pending);
+        target.writeInt(payload.length);
+        target.write(payload);
+        target.writeInt((int) crc.getValue());
+        target.flush();
+    }
+
+    private static void writeCursor(DataOutputStream out, MiningCursor cursor) throws IOException {
+        out.writeBoolean(cursor != null);
+        if (cursor == null) {
+            return;
+        }
+        out.writeInt(cursor.x);
+        out.writeInt(cursor.y);
+        out.writeInt(cursor.z);
+        out.writeInt(cursor.minX);
+        out.writeInt(cursor.minY);
+        out.writeInt(cursor.minZ);
+        out.writeInt(cursor.width);
+        out.writeInt(cursor.height);
+        out.writeInt(cursor.length);
+        out.writeBoolean(cursor.scanXFirst);
+        out.writeBoolean(cursor.exhausted);
+    }
+
+    private static MiningCursor readCursor(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("x", in.readInt());
+        data.put("y", in.readInt());
+        data.put("z", in.readInt());
+        data.put("minX", in.readInt());
+        data.put("minY", in.readInt());
+        data.put("minZ", in.readInt());
+        data.put("width", in.readInt());
+        data.put("height", in.readInt());
+        data.put("length", in.readInt());
+        data.put("scanXFirst", in.readBoolean());
+        data.put("exhausted", in.readBoolean());
+        return MiningCursor.fromMap(data);
+    }
+
+    private static boolean sameCursor(MiningCursor first, MiningCursor second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.x == second.x
+                && first.y == second.y
+                && first.z == second.z
+                && first.minX == second.minX
+                && first.minY == second.minY
+                && first.minZ == second.minZ
+                && first.width == second.width
+                && first.height == second.height
+                && first.length == second.length
+                && first.scanXFirst == second.scanXFirst
+                && first.exhausted == second.exhausted;
+    }
+
+    /**
+     * @param reference paires curseur/checkpoint à plat, dans l'ordre des bandes.
+     */
+    private static boolean sameStripes(List<MiningCursor> reference, List<MiningStripe> stripes) {
+        if (reference.size() != stripes.size() * 2) {
+            return false;
+        }
+        for (int index = 0; index < stripes.size(); index++) {
+            MiningStripe stripe = stripes.get(index);
+            if (!sameCursor(reference.get(index * 2), stripe.cursor)
+                    || !sameCursor(reference.get(index * 2 + 1), stripe.pendingCursor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Charge utile d'un enregistrement, encodée avant le calcul de son CRC.
+     */
+    private static final class RecordOutput extends DataOutputStream {
+        private final ByteArrayOutputStream payload;
+
+        private RecordOutput() {
+            this(new ByteArrayOutputStream(64));
+        }
+
+        private RecordOutput(ByteArrayOutputStream payload) {
+            super(payload);
+            this.payload = payload;
+        }
+    }
+
+    private record BlockPos(int x, int y, int z) {
+
+        static Set<BlockPos> of(List<Vector> vectors) {
+            Set<BlockPos> positions = new HashSet<>();
+            for (Vector vector : vectors) {
+                if (vector != null) {
+                    positions.add(new BlockPos(vector.getBlockX(), vector.getBlockY(), vector.getBlockZ()));
+                }
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * Dernier état journalisé d'une session, copié pour ne pas suivre les
+     * mutations ultérieures des objets vivants.
+     */
+    private record Baseline(MiningCursor cursor,
+                            MiningCursor pendingCursor,
+                            List<MiningCursor> stripes,
+                            boolean paused,
+                            int tunnelSectionsMined,
+                            long dropRevision,
+                            Set<BlockPos> containers) {
+
+        static Baseline of(MiningSessionState state) {
+            return new Baseline(
+                    state.cursor != null ? state.cursor.copy() : null,
+                    state.pendingCursor != null ? state.pendingCursor.copy() : null,
+                    copyStripes(state.stripes),
+                    state.paused,
+                    state.tunnelSectionsMined,
+                    state.dropBuffer.revision(),
+                    BlockPos.of(state.containers)
+            );
+        }
+
+        private static List<MiningCursor> copyStripes(List<MiningStripe> stripes) {
+            List<MiningCursor> copies = new ArrayList<>(stripes.size() * 2);
+            for (MiningStripe stripe : stripes) {
+                copies.add(stripe.cursor.copy());
+                copies.add(stripe.pendingCursor != null ? stripe.pendingCursor.copy() : null);
+            }
+            return copies;
+        }
+    }
+}
@@ -32,12 +32,36 @@ import java.util.logging.Logger;
  * momentanément illisible, sont conservées telles quelles lors des sauvegardes.
  * Un démarrage ne peut donc plus effacer silencieusement une session d'un monde
  * chargé plus tard par un gestionnaire de mondes.</p>
+ *
+ * <p>Entre deux snapshots complets, les avancées de curseur et autres petits
+ * changements sont écrits dans {@link SessionJournal}. Le snapshot mémorise la
+ * dernière séquence qu'il contient afin que le chargement ne rejoue que la
+ * suite du journal.</p>
  */
 public final class SessionStore {
 
+    private static final String JOURNAL_SEQUENCE_KEY = "journalSequence";
+
     private final File file;
     private final File backupFile;
     private final Logger logger;
+    private final SessionJournal journal;
+
+    /**
+     * Génération du dernier document construit, puis du dernier écrit. Une
+     * compaction en arrière-plan dépassée par une sauvegarde synchrone plus
+     * récente ne doit jamais la remplacer.
+     */
+    private long builtGeneration;
+    private long writtenGeneration;
+
+    /**
+     * Sérialise les écritures de sessions.yml, hors du moniteur de l'instance.
+     * Une compaction qui écrit sur le thread du journal ne bloque ainsi ni
+     * {@link #checkpoint} ni la construction d'un document sur le thread
+     * principal. Ordre d'acquisition : ce verrou, puis l'instance.
+     */
+    private final Object fileLock = new Object();
 
     /**
      * Entrées non matérialisables à ce démarrage, réinjectées à la sauvegarde.
@@ -59,16 +83,26 @@ public final class SessionStore {
         this.file = new File(dataFolder, "sessions.yml");
         this.backupFile = new File(dataFolder, "sessions.yml.bak");
         this.logger = logger != null ? logger : Logger.getLogger(SessionStore.class.getName());
+        this.journal = new SessionJournal(new File(dataFolder, "sessions.journal"), this.logger);
+    }
+
+    public List<MiningSessionState> load() {
+        /*
+         * Hors verrou : une compaction en cours sur le thread du journal doit
+         * pouvoir terminer son écriture du snapshot.
+         */
+        journal.awaitWrites();
+        return loadSnapshotAndJournal();
     }
 
-    public synchronized List<MiningSessionState> load() {
+    private synchronized List<MiningSessionState> loadSnapshotAndJournal() {
         preservedEntries.clear();
         preserveBackupOnNextSave = false;
 
         LoadResult primary = loadFrom(file);
         if (primary.readable()) {
             preservedEntries.putAll(primary.preserved());
-            return primary.sessions();
+            return replayJournal(primary);
         }
 
         /*
@@ -96,7 +130,16 @@ public final class SessionStore {
         preserveBackupOnNextSave = true;
         logger.warning("[Mineur] Sessions restaurées depuis sessions.yml.bak. "
                 + "Le prochain enregistrement réparera sessions.yml.");
-        return backup.sessions();
+        return replayJournal(backup);
+    }
+
+    private List<MiningSessionState> replayJournal(LoadResult result) {
+        int applied = journal.replay(result.sessions(), result.journalSequence());
+        if (applied > 0) {
+            logger.info("[Mineur] " + applied + " évolution(s) de session rejouée(s) depuis le journal.");
+        }
+        journal.rebase(result.sessions());
+        return result.sessions();
     }
 
     private void quarantineUnreadablePrimary() {
@@ -137,7 +180,7 @@ public final class SessionStore {
          * valide ; elle ne doit pas déclencher une restauration obsolète.
          */
         if (!source.isFile()) {
-            return new LoadResult(true, sessions, preserved);
+            return new LoadResult(true, sessions, preserved, 0L);
         }
 
         YamlConfiguration yaml = new YamlConfiguration();
@@ -145,8 +188,9 @@ public final class SessionStore {
             yaml.load(source);
         } catch (IOException | InvalidConfigurationException | RuntimeException exception) {
             logger.log(Level.SEVERE, "[Mineur] Impossible de lire " + source.getName() + ".", exception);
-            return new LoadResult(false, sessions, preserved);
+            return new LoadResult(false, sessions, preserved, 0L);
         }
+        long journalSequence = Math.max(0L, yaml.getLong(JOURNAL_SEQUENCE_KEY, 0L));
 
         /*
          * Un document valide contenant « sessions: {} » doit rester vide.
@@ -164,9 +208,9 @@ public final class SessionStore {
             if (yaml.get("sessions") != null) {
                 logger.severe("[Mineur] Structure invalide dans " + source.getName()
                         + " : « sessions » doit être une section YAML.");
-                return new LoadResult(false, sessions, preserved);
+                return new LoadResult(false, sessions, preserved, 0L);
             }
-            return new LoadResult(true, sessions, preserved);
+            return new LoadResult(true, sessions, preserved, journalSequence);
         }
 
         Set<UUID> loadedIds = new HashSet<>();
@@ -235,11 +279,68 @@ public final class SessionStore {
                         exception);
             }
         }
-        return new LoadResult(true, sessions, preserved);
+        return new LoadResult(true, sessions, preserved, journalSequence);
     }
 
-    public synchronized void saveAll(List<MiningSessionState> sessions) {
+    public void saveAll(List<MiningSessionState> sessions) {
+        long generation;
+        YamlConfiguration yaml;
+        synchronized (this) {
+            generation = ++builtGeneration;
+            yaml = buildDocument(sessions);
+        }
+        if (writeDocument(yaml, generation)) {
+            synchronized (this) {
+                /*
+                 * Tout ce que contenait le journal figure désormais dans le
+                 * snapshot. Les écritures déjà confiées au thread passent
+                 * avant la troncature, qui est ordonnée derrière elles.
+                 */
+                journal.rebase(sessions);
+                journal.truncateAsync();
+            }
+        }
+    }
+
+    /**
+     * Journalise les différences depuis le dernier checkpoint. Le coût disque
+     * est proportionnel à ce qui a changé, et non au nombre de sessions.
+     *
+     * <p>Au-delà de {@code compactThresholdBytes}, le journal est replié dans
+     * un nouveau snapshot YAML écrit hors du thread principal.</p>
+     */
+    public synchronized void checkpoint(List<MiningSessionState> sessions, long compactThresholdBytes) {
+        journal.recordChanges(sessions);
+        journal.flushAsync();
+        if (journal.sizeOnDisk() >= Math.max(1_024L, compactThresholdBytes)) {
+            compactAsync(sessions);
+        }
+    }
+
+    private void compactAsync(List<MiningSessionState> sessions) {
+        /*
+         * Les sessions sont lues ici, sur le thread principal. Seul le document
+         * déjà détaché est confié au thread du journal.
+         */
+        long generation = ++builtGeneration;
+        YamlConfiguration yaml = buildDocument(sessions);
+        journal.execute(() -> {
+            if (writeDocument(yaml, generation)) {
+                journal.truncateNow();
+            }
+        });
+    }
+
+    /**
+     * Attend la fin des écritures du journal et libère ses ressources.
+     */
+    public void close() {
+        journal.close();
+    }
+
+    private YamlConfiguration buildDocument(List<MiningSessionState> sessions) {
         YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set(JOURNAL_SEQUENCE_KEY, journal.lastSequence());
         ConfigurationSection root = yaml.createSection("sessions");
 
         int index = 0;
@@ -287,10 +388,40 @@ public final class SessionStore {
             }
         }
 
+        return yaml;
+    }
+
+    /**
+     * Écrit un document déjà détaché des sessions. Le moniteur de l'instance
+     * n'est pris que pour lire et publier les générations, jamais pendant les
+     * accès disque.
+     */
+    private boolean writeDocument(YamlConfiguration yaml, long generation) {
+        synchronized (fileLock) {
+            boolean preserveBackup;
+            synchronized (this) {
+                if (generation < writtenGeneration) {
+                    return false;
+                }
+                preserveBackup = preserveBackupOnNextSave;
+            }
+            boolean saved = writeFile(yaml, preserveBackup);
+            if (saved) {
+                synchronized (this) {
+                    preserveBackupOnNextSave = false;
+                    writtenGeneration = generation;
+                }
+            }
+            return saved;
+        }
+    }
+
+    private boolean writeFile(YamlConfiguration yaml, boolean preserveBackup) {
+
         File parent = file.getParentFile();
         if (parent != null && !parent.exists() && !parent.mkdirs()) {
             logger.severe("[Mineur] Impossible de créer le dossier de sauvegarde " + parent + ".");
-            return;
+            return false;
         }
 
         File temporary = parent != null
@@ -300,7 +431,7 @@ public final class SessionStore {
         try {
             yaml.save(temporary);
 
-            if (file.isFile() && !preserveBackupOnNextSave) {
+            if (file.isFile() && !preserveBackup) {
                 Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
 
@@ -332,10 +463,7 @@ public final class SessionStore {
                 }
             }
         }
-
-        if (saved) {
-            preserveBackupOnNextSave = false;
-        }
+        return saved;
     }
 
     private Map<String, Object> sectionToMap(ConfigurationSection section) {
@@ -450,6 +578,7 @@ public final class SessionStore {
 
     private record LoadResult(boolean readable,
                               List<MiningSessionState> sessions,
-                              Map<String, Map<String, Object>> preserved) {
+                              Map<String, Map<String, Object>> preserved,
+                              long journalSequence) {
     }
 }
@@ -1,43 +1,184 @@
 package org.example.mineur.ui;
 
 import org.bukkit.Location;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.EntityType;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+
+import java.util.function.LongSupplier;
 
 /**
- * Encapsule l'hologramme transitoire affiché au-dessus du mineur.
+ * Hologramme d'état d'une session, porté par une seule entité
+ * {@link TextDisplay}.
+ *
+ * <p>L'entité est créée au premier affichage puis réutilisée : un nouveau
+ * texte ne produit qu'une mise à jour de métadonnées, et un texte identique
+ * ne produit rien. Tant qu'aucun joueur n'est à portée, rien n'est créé ni
+ * modifié ; le dernier texte est appliqué au retour d'un joueur.</p>
+ *
+ * <p>Deux lignes au plus : l'état (stockage indisponible, par exemple), posé
+ * immédiatement, et la progression, acceptée au plus une fois par
+ * seconde, sauf quand elle vient du minuteur qui la rafraîchit.</p>
  */
 public final class Hologram {
 
-    private ArmorStand armorStand;
+    static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+    private static final double HEIGHT = 2.3D;
+    private static final double MOVE_THRESHOLD_SQUARED = 0.25D;
+    /*
+     * Les entités d'affichage sont envoyées jusqu'à 64 blocs multipliés par
+     * leur portée de vue.
+     */
+    private static final double DISPLAY_RANGE_UNIT = 64.0D;
+
+    private final double viewDistance;
+    private final LongSupplier clock;
+    private TextDisplay display;
+    private String shownText;
+    private String status;
+    private String progress;
+    private long progressAcceptedNanos;
+    private boolean progressAccepted;
+
+    /**
+     * @param viewDistance distance en blocs au-delà de laquelle un joueur ne
+     *                     voit plus l'hologramme
+     */
+    public Hologram(double viewDistance) {
+        this(viewDistance, System::nanoTime);
+    }
+
+    Hologram(double viewDistance, LongSupplier clock) {
+        if (!(viewDistance > 0.0D) || clock == null) {
+            throw new IllegalArgumentException("Portée d'hologramme invalide.");
+        }
+        this.viewDistance = viewDistance;
+        this.clock = clock;
+    }
+
+    /**
+     * Ligne d'état, ou {@code null} pour la retirer.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Ligne de progression, ou {@code null} pour la retirer. Une nouvelle
+     * valeur moins d'une seconde après la précédente est ignorée.
+     *
+     * @return {@code true} si la valeur a été retenue
+     */
+    public boolean setProgress(String progress) {
+        if (progress == null) {
+            this.progress = null;
+            return true;
+        }
+        long now = clock.getAsLong();
+        if (progressAccepted && now - progressAcceptedNanos < PROGRESS_INTERVAL_NANOS) {
+            return false;
+        }
+        acceptProgress(progress, now);
+        return true;
+    }
+
+    /**
+     * Ligne de progression posée par le minuteur de rafraîchissement, qui
+     * fixe déjà le rythme. Après un pic de lag, Paper enchaîne des ticks de
+     * rattrapage plus courts que 50 ms : deux appels peuvent alors tomber à
+     * moins d'une seconde d'écart sans qu'aucun ne doive être perdu.
+     */
+    public void showProgress(String progress) {
+        if (progress == null) {
+            this.progress = null;
+            return;
+        }
+        acceptProgress(progress, clock.getAsLong());
+    }
+
+    String progress() {
+        return progress;
+    }
+
+    private void acceptProgress(String progress, long now) {
+        this.progress = progress;
+        progressAcceptedNanos = now;
+        progressAccepted = true;
+    }
+
+    /**
+     * Aligne l'entité sur {@code anchor} et sur le texte courant. Sans
+     * aucune ligne, l'entité est retirée.
+     */
+    public void update(Location anchor) {
+        String text = compose();
+        if (text == null) {
+            hide();
+            return;
+        }
+        if (anchor == null || anchor.getWorld() == null || !hasViewer(anchor)) {
+            return;
+        }
 
-    public void show(Location location, String text) {
-        if (location == null || location.getWorld() == null) {
+        Location target = anchor.clone().add(0.0D, HEIGHT, 0.0D);
+        if (display == null || !display.isValid()) {
+            spawn(target, text);
             return;
         }
-        hide();
-        armorStand = (ArmorStand) location.getWorld().spawnEntity(
-                location.clone().add(0, 0.8, 0),
-                EntityType.ARMOR_STAND
-        );
-        armorStand.setInvisible(true);
-        armorStand.setMarker(true);
-        armorStand.setCustomNameVisible(true);
-        armorStand.setCustomName(text);
-        armorStand.setGravity(false);
-        armorStand.setSmall(true);
-        /*
-         * Un crash ne doit pas laisser d'ArmorStand orphelin enregistré dans
-         * le chunk ; l'hologramme est purement transitoire.
-         */
-        armorStand.setPersistent(false);
+        if (!text.equals(shownText)) {
+            display.setText(text);
+            shownText = text;
+        }
+        if (display.getWorld() != target.getWorld()
+                || display.getLocation().distanceSquared(target) > MOVE_THRESHOLD_SQUARED) {
+            display.teleport(target);
+        }
     }
 
     public void hide() {
-        ArmorStand current = armorStand;
-        armorStand = null;
-        if (current != null && !current.isDead()) {
+        TextDisplay current = display;
+        display = null;
+        shownText = null;
+        if (current != null && current.isValid()) {
             current.remove();
         }
     }
+
+    public boolean isShown() {
+        return display != null && display.isValid();
+    }
+
+    private void spawn(Location target, String text) {
+        display = target.getWorld().spawn(target, TextDisplay.class, entity -> {
+            entity.setText(text);
+            entity.setBillboard(Display.Billboard.CENTER);
+            entity.setShadowed(true);
+            entity.setViewRange((float) (viewDistance / DISPLAY_RANGE_UNIT));
+            /*
+             * Un crash ne doit pas laisser d'entité orpheline enregistrée dans
+             * le chunk ; l'hologramme est purement transitoire.
+             */
+            entity.setPersistent(false);
+        });
+        shownText = text;
+    }
+
+    private boolean hasViewer(Location anchor) {
+        World world = anchor.getWorld();
+        double range = viewDistance * viewDistance;
+        for (Player player : world.getPlayers()) {
+            if (player.getLocation().distanceSquared(anchor) <= range) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String compose() {
+        if (status == null) {
+            return progress;
+        }
+        return progress == null ? status : status + "\n" + progress;
+    }
 }
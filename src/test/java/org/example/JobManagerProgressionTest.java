@@ -42,6 +42,11 @@ class JobManagerProgressionTest {
         assertEquals(3, jobManager.getMaxMinesForLevel(30));
         assertEquals(10, jobManager.getMaxMinesForLevel(100));
 
+        assertEquals(1, jobManager.getWorkersPerMineForLevel(29));
+        assertEquals(2, jobManager.getWorkersPerMineForLevel(30));
+        assertEquals(3, jobManager.getWorkersPerMineForLevel(50));
+        assertEquals(4, jobManager.getWorkersPerMineForLevel(100));
+
         assertEquals(0.0D, jobManager.getMiningSpeedBonusPercentForLevel(1));
         assertEquals(1.0D, jobManager.getMiningSpeedBonusPercentForLevel(2));
         assertEquals(49.0D, jobManager.getMiningSpeedBonusPercentForLevel(50));
@@ -30,6 +30,9 @@ class MineurHelpTextTest {
         assertTrue(help.contains("/mineur mode <...>"));
         assertTrue(help.contains("/mineur patron <...>"));
 
+        assertTrue(help.contains("/mineur rangement <affinite|remplissage|tonneau|rotation>"));
+        assertTrue(help.contains("/mineur routing <...>"));
+
         assertTrue(help.contains("/mineur pause"));
         assertTrue(help.contains("/mineur reprendre"));
         assertTrue(help.contains("/mineur resume"));
@@ -0,0 +1,141 @@
+package org.example.mineur;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChunkTicketWindowTest {
+
+    @Test
+    void requiredChunksAreHeldAndChunksBehindAreReleased() {
+        Plugin plugin = mock(Plugin.class);
+        World world = world();
+        Chunk first = chunk(world, 0, 0);
+        Chunk second = chunk(world, 0, 1);
+        ChunkTicketWindow window = new ChunkTicketWindow(plugin);
+
+        window.apply(world, Set.of(ChunkTicketWindow.key(0, 0), ChunkTicketWindow.key(0, 1)), Set.of());
+        window.apply(world, Set.of(ChunkTicketWindow.key(0, 1)), Set.of());
+
+        verify(first).addPluginChunkTicket(plugin);
+        verify(first).removePluginChunkTicket(plugin);
+        verify(second, times(1)).addPluginChunkTicket(plugin);
+        verify(second, never()).removePluginChunkTicket(plugin);
+        assertEquals(1, window.heldCount());
+        assertTrue(window.holds(0, 1));
+    }
+
+    @Test
+    void chunksAheadAreLoadedAsynchronouslyAndHeldOnArrival() {
+        Plugin plugin = mock(Plugin.class);
+        World world = world();
+        Chunk ahead = mock(Chunk.class);
+        CompletableFuture<Chunk> loading = new CompletableFuture<>();
+        when(world.isChunkLoaded(0, 2)).thenReturn(false);
+        when(world.getChunkAtAsync(0, 2)).thenReturn(loading);
+        ChunkTicketWindow window = new ChunkTicketWindow(plugin);
+
+        window.apply(world, Set.of(), Set.of(ChunkTicketWindow.key(0, 2)));
+
+        verify(world, never()).getChunkAt(0, 2);
+        assertEquals(1, window.loadingCount());
+        assertFalse(window.holds(0, 2));
+
+        loading.complete(ahead);
+
+        verify(ahead).addPluginChunkTicket(plugin);
+        assertTrue(window.holds(0, 2));
+        assertEquals(0, window.loadingCount());
+    }
+
+    @Test
+    void lateLoadOutsideTheWindowIsIgnored() {
+        Plugin plugin = mock(Plugin.class);
+        World world = world();
+        Chunk ahead = mock(Chunk.class);
+        CompletableFuture<Chunk> loading = new CompletableFuture<>();
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(false);
+        when(world.getChunkAtAsync(0, 2)).thenReturn(loading);
+        ChunkTicketWindow window = new ChunkTicketWindow(plugin);
+
+        window.apply(world, Set.of(), Set.of(ChunkTicketWindow.key(0, 2)));
+        window.release();
+        loading.complete(ahead);
+
+        verify(ahead, never()).addPluginChunkTicket(plugin);
+        assertEquals(0, window.heldCount());
+    }
+
+    @Test
+    void nextSectionWaitReusesThePrefetchAndCountsAvoidedStalls() {
+        Plugin plugin = mock(Plugin.class);
+        World world = world();
+        Chunk ahead = mock(Chunk.class);
+        CompletableFuture<Chunk> loading = new CompletableFuture<>();
+        when(world.isChunkLoaded(0, 2)).thenReturn(false);
+        when(world.isChunkLoaded(0, 0)).thenReturn(true);
+        when(world.getChunkAtAsync(0, 2)).thenReturn(loading);
+        ChunkTicketWindow window = new ChunkTicketWindow(plugin);
+
+        window.apply(world, Set.of(), Set.of(ChunkTicketWindow.key(0, 2)));
+        CompletableFuture<Void> ready = window.whenLoaded(world,
+                Set.of(ChunkTicketWindow.key(0, 0), ChunkTicketWindow.key(0, 2)));
+
+        verify(world, times(1)).getChunkAtAsync(0, 2);
+        assertFalse(ready.isDone());
+
+        loading.complete(ahead);
+
+        assertTrue(ready.isDone());
+        assertTrue(window.holds(0, 2));
+        assertEquals(1L, window.asyncLoads());
+        assertEquals(0L, window.blockingLoads());
+        assertTrue(window.whenLoaded(world, Set.of(ChunkTicketWindow.key(0, 0))).isDone());
+    }
+
+    @Test
+    void absentRequiredChunkIsCountedAsABlockingLoad() {
+        Plugin plugin = mock(Plugin.class);
+        World world = world();
+        chunk(world, 4, 4);
+        chunk(world, 5, 4);
+        when(world.isChunkLoaded(4, 4)).thenReturn(true);
+        when(world.isChunkLoaded(5, 4)).thenReturn(false);
+        ChunkTicketWindow window = new ChunkTicketWindow(plugin);
+
+        window.apply(world, Set.of(ChunkTicketWindow.key(4, 4), ChunkTicketWindow.key(5, 4)), Set.of());
+
+        assertEquals(2, window.heldCount());
+        assertEquals(1L, window.blockingLoads());
+        assertEquals(0L, window.asyncLoads());
+    }
+
+    private static World world() {
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        return world;
+    }
+
+    private static Chunk chunk(World world, int chunkX, int chunkZ) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getX()).thenReturn(chunkX);
+        when(chunk.getZ()).thenReturn(chunkZ);
+        when(world.getChunkAt(chunkX, chunkZ)).thenReturn(chunk);
+        return chunk;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.mineur;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeferredPhysicsTest {
+
+    @Test
+    void onlyTheInnerColumnsAreDeferred() {
+        DeferredPhysics physics = new DeferredPhysics(new MiningCursor(new Location(null, 0, 10, 0), 4, 3));
+
+        assertTrue(physics.isInterior(1, 1));
+        assertTrue(physics.isInterior(2, 1));
+        assertFalse(physics.isInterior(0, 1));
+        assertFalse(physics.isInterior(3, 1));
+        assertFalse(physics.isInterior(1, 0));
+        assertFalse(physics.isInterior(1, 2));
+        assertFalse(physics.isInterior(8, 8));
+        assertFalse(new DeferredPhysics(new MiningCursor(new Location(null, 0, 10, 0), 2, 9)).isInterior(1, 4));
+    }
+
+    @Test
+    void layerIsSettledOnceTheScanMovesBelowIt() {
+        World world = mock(World.class);
+        when(world.getMaxHeight()).thenReturn(320);
+        Block air = block(world, Material.AIR, 0);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        Block sand = block(world, Material.SAND, 11);
+        Block water = block(world, Material.WATER, 10);
+        when(water.isLiquid()).thenReturn(true);
+        when(world.getBlockAt(1, 11, 1)).thenReturn(sand);
+        when(world.getBlockAt(2, 10, 1)).thenReturn(water);
+
+        DeferredPhysics physics = new DeferredPhysics(new MiningCursor(new Location(world, 0, 10, 0), 4, 3));
+        physics.onBlockBroken(block(world, Material.AIR, 10), true);
+        physics.onBlockBroken(block(world, Material.AIR, 10), false);
+        verify(sand, never()).tick();
+        assertTrue(physics.hasPendingLayers());
+
+        physics.onBlockBroken(block(world, Material.AIR, 9), false);
+
+        verify(sand, times(1)).tick();
+        verify(water, times(1)).fluidTick();
+        assertFalse(physics.hasPendingLayers());
+        assertEquals(1L, physics.settledLayers());
+        assertEquals(2L, physics.wokenBlocks());
+
+        physics.onBlockBroken(block(world, Material.AIR, 9), true);
+        physics.settleAll();
+        assertEquals(2L, physics.settledLayers());
+        assertFalse(physics.hasPendingLayers());
+    }
+
+    private static Block block(World world, Material type, int y) {
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getType()).thenReturn(type);
+        when(block.getY()).thenReturn(y);
+        return block;
+    }
+}
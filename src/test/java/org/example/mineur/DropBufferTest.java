@@ -0,0 +1,126 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DropBufferTest {
+
+    @Test
+    void similarDropsAreMergedUpToTheStackSize() {
+        DropBuffer buffer = new DropBuffer();
+
+        for (int block = 0; block < 70; block++) {
+            buffer.add(List.of(stack(Material.COBBLESTONE, 1)));
+        }
+        buffer.add(List.of(stack(Material.DIAMOND, 2)));
+
+        assertEquals(3, buffer.stackCount());
+        assertEquals(64, buffer.contents().get(0).getAmount());
+        assertEquals(6, buffer.contents().get(1).getAmount());
+        assertEquals(Material.DIAMOND, buffer.contents().get(2).getType());
+    }
+
+    @Test
+    void flushIsDueOnTheFirstThresholdReached() {
+        DropBuffer.FlushPolicy policy = new DropBuffer.FlushPolicy(4, 10, 2);
+        DropBuffer buffer = new DropBuffer();
+        assertFalse(buffer.isDue(policy));
+
+        buffer.add(List.of(stack(Material.COBBLESTONE, 1)));
+        buffer.countBlocks(3);
+        assertFalse(buffer.isDue(policy));
+        buffer.countBlocks(1);
+        assertTrue(buffer.isDue(policy));
+
+        buffer.drain();
+        buffer.add(List.of(stack(Material.COBBLESTONE, 1)));
+        for (int tick = 0; tick < 9; tick++) {
+            buffer.tick();
+        }
+        assertFalse(buffer.isDue(policy));
+        buffer.tick();
+        assertTrue(buffer.isDue(policy));
+
+        buffer.drain();
+        buffer.add(List.of(stack(Material.COBBLESTONE, 1), stack(Material.COAL, 1)));
+        assertTrue(buffer.isDue(policy));
+    }
+
+    @Test
+    void drainEmptiesTheBufferAndChangesItsRevision() {
+        DropBuffer buffer = new DropBuffer();
+        buffer.add(List.of(stack(Material.RAW_IRON, 3)));
+        long revision = buffer.revision();
+
+        List<ItemStack> drained = buffer.drain();
+
+        assertEquals(1, drained.size());
+        assertTrue(buffer.isEmpty());
+        assertNotEquals(revision, buffer.revision());
+        assertFalse(buffer.isDue(DropBuffer.FlushPolicy.IMMEDIATE));
+    }
+
+    @Test
+    void restoreMergesStacksInsteadOfDroppingAnyOfThem() {
+        List<byte[]> serialized = new ArrayList<>();
+        for (int entry = 0; entry < 1_500; entry++) {
+            serialized.add(new byte[]{1});
+        }
+        serialized.add(null);
+        DropBuffer buffer = new DropBuffer();
+
+        int skipped;
+        try (MockedStatic<ItemStack> mocked = org.mockito.Mockito.mockStatic(ItemStack.class)) {
+            mocked.when(() -> ItemStack.deserializeBytes(any()))
+                    .thenAnswer(invocation -> stack(Material.COBBLESTONE, 1));
+            skipped = buffer.restore(serialized);
+        }
+
+        // Seule l'entrée illisible est écartée ; les 1 500 objets tiennent en 24 piles.
+        assertEquals(1, skipped);
+        assertEquals(24, buffer.stackCount());
+        int total = 0;
+        for (ItemStack stack : buffer.contents()) {
+            total += stack.getAmount();
+        }
+        assertEquals(1_500, total);
+    }
+
+    /**
+     * Pile simulée qui conserve sa quantité et ne se fusionne qu'avec le
+     * même matériau, comme une vraie pile sans métadonnées.
+     */
+    private static ItemStack stack(Material type, int amount) {
+        ItemStack stack = mock(ItemStack.class);
+        AtomicInteger current = new AtomicInteger(amount);
+        when(stack.getType()).thenReturn(type);
+        when(stack.getMaxStackSize()).thenReturn(64);
+        when(stack.getAmount()).thenAnswer(invocation -> current.get());
+        doAnswer(invocation -> {
+            current.set(invocation.getArgument(0));
+            return null;
+        }).when(stack).setAmount(anyInt());
+        when(stack.isSimilar(any())).thenAnswer(invocation -> {
+            ItemStack other = invocation.getArgument(0);
+            return other != null && other.getType() == type;
+        });
+        when(stack.clone()).thenAnswer(invocation -> stack(type, current.get()));
+        return stack;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.mineur;
+
+import org.example.mineur.store.EntityChunkIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityChunkIndexTest {
+
+    @Test
+    void missingFileRequestsAFullInspection() throws IOException {
+        File folder = Files.createTempDirectory("mineur-entity-index").toFile();
+        folder.deleteOnExit();
+
+        EntityChunkIndex index = new EntityChunkIndex(folder, Logger.getLogger("test"));
+
+        assertFalse(index.load());
+        assertEquals(0, index.size());
+        assertFalse(index.isDirty());
+    }
+
+    @Test
+    void markedChunksSurviveARestartUntilForgotten() throws IOException {
+        File folder = Files.createTempDirectory("mineur-entity-index").toFile();
+        folder.deleteOnExit();
+        UUID world = UUID.randomUUID();
+
+        EntityChunkIndex index = new EntityChunkIndex(folder, Logger.getLogger("test"));
+        assertTrue(index.mark(world, -3, 7));
+        assertFalse(index.mark(world, -3, 7));
+        assertEquals(2, index.markAll(world, Set.of(
+                ChunkTicketWindow.key(-3, 7),
+                ChunkTicketWindow.key(0, -1),
+                ChunkTicketWindow.key(1_875_000, -1_875_000)
+        )));
+        assertTrue(index.saveIfDirty());
+        assertFalse(index.isDirty());
+
+        EntityChunkIndex reloaded = new EntityChunkIndex(folder, Logger.getLogger("test"));
+        assertTrue(reloaded.load());
+        assertEquals(3, reloaded.size());
+        assertTrue(reloaded.contains(world, -3, 7));
+        assertTrue(reloaded.contains(world, 1_875_000, -1_875_000));
+        assertFalse(reloaded.contains(world, 7, -3));
+        assertFalse(reloaded.contains(UUID.randomUUID(), -3, 7));
+
+        assertTrue(reloaded.forget(world, 0, -1));
+        assertFalse(reloaded.forget(world, 0, -1));
+        assertTrue(reloaded.isDirty());
+        assertTrue(reloaded.saveIfDirty());
+
+        EntityChunkIndex third = new EntityChunkIndex(folder, Logger.getLogger("test"));
+        assertTrue(third.load());
+        assertEquals(2, third.entries().size());
+        assertFalse(third.contains(world, 0, -1));
+    }
+}
@@ -7,13 +7,26 @@ import org.bukkit.block.Container;
 import org.bukkit.block.DoubleChest;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class InventoryRouterCapacityTest {
@@ -81,6 +94,221 @@ class InventoryRouterCapacityTest {
         assertFalse(router.hasTargets());
     }
 
+    @Test
+    void depositsUpdateTheModelWithoutRereadingTheChest() {
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+
+        Container chest = containerHalf(world, 30, 64, 30);
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getHolder()).thenReturn(chest);
+        when(inventory.getStorageContents()).thenReturn(new ItemStack[]{null, null});
+        when(inventory.getMaxStackSize()).thenReturn(64);
+
+        Block target = chest.getBlock();
+        when(target.getState()).thenReturn(chest);
+        when(target.getType()).thenReturn(Material.CHEST);
+        when(chest.getInventory()).thenReturn(inventory);
+
+        ItemStack stack = mock(ItemStack.class);
+        when(stack.getType()).thenReturn(Material.STONE);
+        when(stack.getAmount()).thenReturn(64);
+        when(stack.getMaxStackSize()).thenReturn(64);
+        when(stack.clone()).thenReturn(stack);
+
+        InventoryRouter router = new InventoryRouter(List.of(target));
+
+        assertTrue(router.canFitAll(List.of(stack, stack)));
+        assertTrue(router.deposit(List.of(stack)).isEmpty());
+
+        /*
+         * Le dépôt a consommé un des deux emplacements : le modèle le sait
+         * sans relire le coffre, dont le mock renvoie toujours deux cases vides.
+         */
+        assertTrue(router.canFitAll(List.of(stack)));
+        assertFalse(router.canFitAll(List.of(stack, stack)));
+        verify(inventory, times(1)).getStorageContents();
+
+        router.invalidate();
+        assertTrue(router.canFitAll(List.of(stack, stack)));
+        verify(inventory, times(2)).getStorageContents();
+    }
+
+    @Test
+    void affinityKeepsAMaterialWithTheChestThatAlreadyHoldsIt() {
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        ItemStack fullStone = stack(Material.STONE, 64);
+        Block empty = storageBlock(world, 40, Material.CHEST, null, null);
+        Block holder = storageBlock(world, 41, Material.CHEST, fullStone, null);
+        Inventory emptyInventory = ((Container) empty.getState()).getInventory();
+        Inventory holderInventory = ((Container) holder.getState()).getInventory();
+
+        InventoryRouter router = new InventoryRouter(List.of(empty, holder));
+        assertTrue(router.deposit(List.of(stack(Material.STONE, 10))).isEmpty());
+
+        // Le premier coffre est libre, mais la pierre rejoint la pierre.
+        verify(holderInventory).addItem(any(ItemStack.class));
+        verify(emptyInventory, never()).addItem(any(ItemStack.class));
+
+        router.setRouting(StorageRouting.FILL_FIRST);
+        assertTrue(router.deposit(List.of(stack(Material.STONE, 10))).isEmpty());
+        verify(emptyInventory).addItem(any(ItemStack.class));
+    }
+
+    @Test
+    void barrelsOnlyReceiveWhatTheChestsCannotTake() {
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        Block barrel = storageBlock(world, 50, Material.BARREL, null);
+        Block chest = storageBlock(world, 51, Material.CHEST, null);
+        Inventory barrelInventory = ((Container) barrel.getState()).getInventory();
+        Inventory chestInventory = ((Container) chest.getState()).getInventory();
+
+        InventoryRouter router = new InventoryRouter(List.of(barrel, chest));
+        router.setRouting(StorageRouting.BARREL_OVERFLOW);
+
+        assertTrue(router.deposit(List.of(stack(Material.COBBLESTONE, 64))).isEmpty());
+        verify(barrelInventory, never()).addItem(any(ItemStack.class));
+
+        // Le coffre est plein d'après le modèle : le tonneau prend la suite.
+        assertTrue(router.deposit(List.of(stack(Material.COBBLESTONE, 64))).isEmpty());
+        InOrder order = inOrder(chestInventory, barrelInventory);
+        order.verify(chestInventory).addItem(any(ItemStack.class));
+        order.verify(barrelInventory).addItem(any(ItemStack.class));
+        verify(chestInventory, times(1)).addItem(any(ItemStack.class));
+    }
+
+    @Test
+    void perBlockFitChecksDoNotAllocate() {
+        Inventory inventory = fake(Inventory.class, Map.of(
+                "getStorageContents", new ItemStack[]{new PlainStack(Material.STONE, 32), null, null},
+                "getMaxStackSize", 64
+        ));
+        Container chest = fake(Container.class, Map.of("getInventory", inventory));
+        Block target = fake(Block.class, Map.of("getState", chest, "getType", Material.CHEST));
+        InventoryRouter router = new InventoryRouter(List.of(target));
+
+        DropBuffer buffer = new DropBuffer();
+        buffer.add(List.of(new PlainStack(Material.STONE, 10), new PlainStack(Material.DIRT, 5)));
+        List<ItemStack> drops = List.of(new PlainStack(Material.STONE, 40));
+        List<ItemStack> oversized = List.of(new PlainStack(Material.STONE, 200));
+
+        // Pile partielle, pile simulée puis emplacement vide : tout le contrôle est parcouru.
+        assertTrue(router.canFitAll(buffer.contents(), drops));
+        assertFalse(router.canFitAll(buffer.contents(), oversized));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean ? bean : null;
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        for (int warmup = 0; warmup < 20_000; warmup++) {
+            router.canFitAll(buffer.contents(), warmup % 2 == 0 ? drops : oversized);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        boolean fits = true;
+        for (int block = 0; block < 100_000; block++) {
+            fits &= router.canFitAll(buffer.contents(), drops);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(fits);
+        /*
+         * La copie des piles ou un tableau de brouillon par appel coûterait
+         * plusieurs mégaoctets ; la marge ne couvre que la JVM elle-même.
+         */
+        assertTrue(allocated < 4_096L, "octets alloués : " + allocated);
+    }
+
+    /**
+     * Les mocks Mockito allouent à chaque appel : la mesure passe par des
+     * proxys qui renvoient des réponses fixes.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    return answers.get(method.getName());
+            }
+        });
+    }
+
+    /**
+     * Pile lisible sans serveur, comme celles des benchmarks.
+     */
+    private static final class PlainStack extends ItemStack {
+
+        private final Material type;
+        private int amount;
+
+        PlainStack(Material type, int amount) {
+            this.type = type;
+            this.amount = amount;
+        }
+
+        @Override
+        public Material getType() {
+            return type;
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void setAmount(int amount) {
+            this.amount = amount;
+        }
+
+        @Override
+        public int getMaxStackSize() {
+            return 64;
+        }
+
+        @Override
+        public boolean isSimilar(ItemStack stack) {
+            return stack != null && stack.getType() == type;
+        }
+
+        @Override
+        public PlainStack clone() {
+            return new PlainStack(type, amount);
+        }
+    }
+
+    private Block storageBlock(World world, int x, Material type, ItemStack... contents) {
+        Container container = containerHalf(world, x, 64, 0);
+        Block block = container.getBlock();
+        when(block.getState()).thenReturn(container);
+        when(block.getType()).thenReturn(type);
+
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getHolder()).thenReturn(container);
+        when(inventory.getStorageContents()).thenReturn(contents);
+        when(inventory.getMaxStackSize()).thenReturn(64);
+        when(inventory.addItem(any(ItemStack.class))).thenAnswer(invocation -> new HashMap<Integer, ItemStack>());
+        when(container.getInventory()).thenReturn(inventory);
+        return block;
+    }
+
+    private ItemStack stack(Material type, int amount) {
+        ItemStack stack = mock(ItemStack.class);
+        when(stack.getType()).thenReturn(type);
+        when(stack.getAmount()).thenReturn(amount);
+        when(stack.getMaxStackSize()).thenReturn(64);
+        when(stack.clone()).thenReturn(stack);
+        return stack;
+    }
+
     private Inventory oneSlotInventory(DoubleChest holder) {
         Inventory inventory = mock(Inventory.class);
         when(inventory.getHolder()).thenReturn(holder);
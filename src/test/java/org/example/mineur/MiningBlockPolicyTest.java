@@ -4,11 +4,19 @@ import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.TileState;
+import org.bukkit.inventory.ItemStack;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MiningBlockPolicyTest {
@@ -47,4 +55,61 @@ class MiningBlockPolicyTest {
         assertTrue(MiningBlockPolicy.isOre(Material.ANCIENT_DEBRIS));
         assertFalse(MiningBlockPolicy.isOre(Material.DEEPSLATE));
     }
+
+    @Test
+    void deterministicDropsAreComputedOncePerTool() {
+        MiningBlockPolicy.clearDropCache();
+        ItemStack tool = tool(false);
+        Block first = blockDropping(Material.DEEPSLATE, tool, Material.COBBLED_DEEPSLATE);
+        Block second = blockDropping(Material.DEEPSLATE, tool, Material.COBBLED_DEEPSLATE);
+
+        List<ItemStack> computed = MiningBlockPolicy.computeDrops(first, tool);
+        List<ItemStack> cached = MiningBlockPolicy.computeDrops(second, tool);
+
+        assertSame(computed, cached);
+        verify(first, times(1)).getDrops(tool);
+        verify(second, never()).getDrops(tool);
+        verify(second, never()).getState();
+        assertEquals(1L, MiningBlockPolicy.dropCacheHits());
+        assertEquals(1L, MiningBlockPolicy.dropCacheMisses());
+    }
+
+    @Test
+    void oresAndCustomizedToolsStayLive() {
+        MiningBlockPolicy.clearDropCache();
+        ItemStack plainTool = tool(false);
+        ItemStack enchantedTool = tool(true);
+        Block ore = blockDropping(Material.IRON_ORE, plainTool, Material.RAW_IRON);
+        Block stone = blockDropping(Material.STONE, enchantedTool, Material.STONE);
+
+        MiningBlockPolicy.computeDrops(ore, plainTool);
+        MiningBlockPolicy.computeDrops(ore, plainTool);
+        MiningBlockPolicy.computeDrops(stone, enchantedTool);
+        MiningBlockPolicy.computeDrops(stone, enchantedTool);
+
+        verify(ore, times(2)).getDrops(plainTool);
+        verify(stone, times(2)).getDrops(enchantedTool);
+        assertEquals(0L, MiningBlockPolicy.dropCacheHits());
+    }
+
+    private static ItemStack tool(boolean customized) {
+        ItemStack tool = mock(ItemStack.class);
+        when(tool.getType()).thenReturn(Material.NETHERITE_PICKAXE);
+        when(tool.hasItemMeta()).thenReturn(customized);
+        return tool;
+    }
+
+    private static Block blockDropping(Material type, ItemStack tool, Material dropType) {
+        ItemStack drop = mock(ItemStack.class);
+        when(drop.getType()).thenReturn(dropType);
+        when(drop.getAmount()).thenReturn(1);
+        when(drop.clone()).thenReturn(drop);
+
+        Block block = mock(Block.class);
+        when(block.getType()).thenReturn(type);
+        when(block.isLiquid()).thenReturn(false);
+        when(block.getState()).thenReturn(mock(BlockState.class));
+        when(block.getDrops(tool)).thenReturn(List.of(drop));
+        return block;
+    }
 }
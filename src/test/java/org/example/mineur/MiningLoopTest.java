@@ -1,13 +1,18 @@
 package org.example.mineur;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockState;
 import org.bukkit.entity.Villager;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
@@ -16,8 +21,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MiningLoopTest {
@@ -250,4 +261,164 @@ class MiningLoopTest {
         assertFalse(failed.get());
     }
 
+    @Test
+    void bulkModeBreaksABatchAndDepositsTheBufferOnCompletion() {
+        World world = openWorld();
+        MiningSessionState state = bulkState(world);
+        Block first = stone(world, 0);
+        Block second = stone(world, 1);
+        Block third = stone(world, 2);
+
+        MiningIterator iterator = mock(MiningIterator.class);
+        when(iterator.hasNext()).thenReturn(true, true, true, false);
+        when(iterator.cursor()).thenReturn(state.cursor);
+        when(iterator.next()).thenReturn(first, second, third);
+
+        InventoryRouter router = mock(InventoryRouter.class);
+        when(router.hasTargets()).thenReturn(true);
+        when(router.canFitAll(anyList())).thenReturn(true);
+        when(router.deposit(anyList())).thenReturn(new ArrayList<>());
+
+        AtomicBoolean completed = new AtomicBoolean(false);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        MiningLoop loop = bulkLoop(state, iterator, router, world,
+                () -> completed.set(true), exception -> failed.set(true));
+
+        try (MockedStatic<Bukkit> mocked = org.mockito.Mockito.mockStatic(Bukkit.class)) {
+            mocked.when(Bukkit::isPrimaryThread).thenReturn(true);
+            loop.run();
+        }
+
+        verify(first).setType(Material.AIR, true);
+        verify(second).setType(Material.AIR, true);
+        verify(third).setType(Material.AIR, true);
+        verify(router, times(1)).deposit(anyList());
+        assertTrue(completed.get());
+        assertFalse(failed.get());
+        assertNull(state.pendingCursor);
+    }
+
+    @Test
+    void bulkModeKeepsTheCandidateThatNoLongerFits() {
+        World world = openWorld();
+        MiningSessionState state = bulkState(world);
+        Block first = stone(world, 0);
+        Block second = stone(world, 1);
+
+        MiningIterator iterator = mock(MiningIterator.class);
+        when(iterator.hasNext()).thenReturn(true);
+        when(iterator.cursor()).thenReturn(state.cursor);
+        when(iterator.next()).thenReturn(first, second);
+
+        /*
+         * Le stockage accepte les drops d'un seul bloc : le second candidat
+         * doit rester intact, retenu pour le lot suivant.
+         */
+        InventoryRouter router = mock(InventoryRouter.class);
+        when(router.hasTargets()).thenReturn(true);
+        when(router.canFitAll(anyList())).thenAnswer(invocation ->
+                ((List<?>) invocation.getArgument(0)).size() <= 1);
+        when(router.deposit(anyList())).thenReturn(new ArrayList<>());
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+        MiningLoop loop = bulkLoop(state, iterator, router, world,
+                null, exception -> failed.set(true));
+
+        try (MockedStatic<Bukkit> mocked = org.mockito.Mockito.mockStatic(Bukkit.class)) {
+            mocked.when(Bukkit::isPrimaryThread).thenReturn(true);
+            loop.run();
+        }
+
+        verify(first).setType(Material.AIR, true);
+        verify(second, never()).setType(any(Material.class), anyBoolean());
+        verify(iterator, times(2)).next();
+        verify(router, never()).deposit(anyList());
+        assertEquals(1, state.dropBuffer.stackCount());
+        assertFalse(failed.get());
+        assertTrue(state.pendingCursor != null);
+    }
+
+    private static World openWorld() {
+        World world = mock(World.class);
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+        Block air = mock(Block.class);
+        when(air.isPassable()).thenReturn(true);
+        when(air.getType()).thenReturn(Material.AIR);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        return world;
+    }
+
+    private static MiningSessionState bulkState(World world) {
+        MiningSessionState state = new MiningSessionState();
+        state.base = new Location(world, 0, 64, 0);
+        state.width = 4;
+        state.length = 1;
+        state.cursor = new MiningCursor(state.base, state.width, state.length);
+        return state;
+    }
+
+    private static Block stone(World world, int x) {
+        ItemStack drop = mock(ItemStack.class);
+        when(drop.getType()).thenReturn(Material.COBBLESTONE);
+        when(drop.getAmount()).thenReturn(1);
+        when(drop.getMaxStackSize()).thenReturn(64);
+        when(drop.clone()).thenReturn(drop);
+
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(64);
+        when(block.getZ()).thenReturn(0);
+        when(block.getType()).thenReturn(Material.STONE);
+        when(block.getState()).thenReturn(mock(BlockState.class));
+        when(block.getLocation()).thenReturn(new Location(world, x, 64, 0));
+        when(block.getLocation(any(Location.class))).thenReturn(new Location(world, x, 64, 0));
+        when(block.getDrops()).thenReturn(List.of(drop));
+        return block;
+    }
+
+    private static MiningLoop bulkLoop(MiningSessionState state,
+                                       MiningIterator iterator,
+                                       InventoryRouter router,
+                                       World world,
+                                       Runnable completion,
+                                       java.util.function.Consumer<Exception> failure) {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getAnonymousLogger());
+        Villager miner = mock(Villager.class);
+        when(miner.isDead()).thenReturn(false);
+        when(miner.isValid()).thenReturn(true);
+        when(miner.teleport(any(Location.class))).thenReturn(true);
+        when(miner.getLocation()).thenReturn(new Location(world, 0.5, 65, 0.5));
+        when(miner.getLocation(any(Location.class))).thenReturn(new Location(world, 0.5, 65, 0.5));
+        return new MiningLoop(
+                plugin,
+                state,
+                iterator,
+                router,
+                miner,
+                null,
+                null,
+                null,
+                null,
+                completion,
+                null,
+                null,
+                null,
+                failure,
+                true,
+                false,
+                1.0D,
+                new MiningLoop.Options(
+                        new MiningLoop.BulkSettings(16, 50_000_000L, 4),
+                        new DropBuffer.FlushPolicy(64, 100, 27),
+                        null,
+                        null,
+                        null
+                )
+        );
+    }
+
 }
@@ -0,0 +1,113 @@
+package org.example.mineur;
+
+import org.bukkit.Server;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MiningSchedulerTest {
+
+    @Test
+    void budgetDefersRemainingSessionsToTheFrontOfTheNextTick() {
+        AtomicLong clock = new AtomicLong();
+        MiningScheduler scheduler = new MiningScheduler(mockPlugin(), 1_000_000L, clock::get);
+        List<String> executions = new ArrayList<>();
+        for (String name : List.of("a", "b", "c", "d")) {
+            scheduler.register(new FakeTask(name, executions, clock, 600_000L));
+        }
+
+        scheduler.tick();
+        assertEquals(List.of("a", "b"), executions);
+        assertEquals(2, scheduler.getDeferredExecutions());
+
+        executions.clear();
+        scheduler.tick();
+        assertEquals(List.of("c", "d"), executions);
+        assertEquals(4, scheduler.getDeferredExecutions());
+    }
+
+    @Test
+    void everySessionRunsOncePerTickWhenTheBudgetAllowsIt() {
+        AtomicLong clock = new AtomicLong();
+        MiningScheduler scheduler = new MiningScheduler(mockPlugin(), 10_000_000L, clock::get);
+        List<String> executions = new ArrayList<>();
+        scheduler.register(new FakeTask("a", executions, clock, 1_000L));
+        scheduler.register(new FakeTask("b", executions, clock, 1_000L));
+
+        scheduler.tick();
+        scheduler.tick();
+
+        assertEquals(List.of("a", "b", "a", "b"), executions);
+        assertEquals(0, scheduler.getDeferredExecutions());
+    }
+
+    @Test
+    void cancelledTasksAreDroppedWithoutBreakingTheRotation() {
+        AtomicLong clock = new AtomicLong();
+        MiningScheduler scheduler = new MiningScheduler(mockPlugin(), 10_000_000L, clock::get);
+        List<String> executions = new ArrayList<>();
+        FakeTask first = new FakeTask("a", executions, clock, 1_000L);
+        scheduler.register(first);
+        scheduler.register(new FakeTask("b", executions, clock, 1_000L));
+
+        first.cancelled = true;
+        scheduler.tick();
+
+        assertEquals(List.of("b"), executions);
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void budgetIsClampedOnlyByTheScheduler() {
+        MiningScheduler scheduler = new MiningScheduler(mockPlugin(), 1L);
+        assertEquals(MiningScheduler.MINIMUM_TICK_BUDGET_NANOS, scheduler.getTickBudgetNanos());
+
+        scheduler.setTickBudgetNanos(Long.MAX_VALUE);
+        assertEquals(MiningScheduler.MAXIMUM_TICK_BUDGET_NANOS, scheduler.getTickBudgetNanos());
+
+        scheduler.setTickBudgetNanos(MiningScheduler.DEFAULT_TICK_BUDGET_NANOS);
+        assertEquals(MiningScheduler.DEFAULT_TICK_BUDGET_NANOS, scheduler.getTickBudgetNanos());
+    }
+
+    private static JavaPlugin mockPlugin() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        Server server = mock(Server.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(mock(BukkitScheduler.class));
+        return plugin;
+    }
+
+    private static final class FakeTask implements MiningScheduler.Task {
+        private final String name;
+        private final List<String> executions;
+        private final AtomicLong clock;
+        private final long cost;
+        private boolean cancelled;
+
+        private FakeTask(String name, List<String> executions, AtomicLong clock, long cost) {
+            this.name = name;
+            this.executions = executions;
+            this.clock = clock;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            executions.add(name);
+            clock.addAndGet(cost);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package org.example.mineur;
 
+import com.sun.management.ThreadMXBean;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -13,12 +15,58 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 class MiningSessionStateTest {
 
+    @Test
+    void checkpointsReuseOneCursorWithoutAllocating() {
+        MiningSessionState state = new MiningSessionState();
+        MiningCursor cursor = new MiningCursor(new Location(null, 0, 64, 0), 16, 16);
+        state.checkpoint(cursor);
+        MiningCursor reused = state.pendingCursor;
+
+        cursor.x = 5;
+        state.pendingCursor = null;
+        state.checkpoint(cursor);
+        assertSame(reused, state.pendingCursor);
+        assertEquals(5, state.pendingCursor.x);
+
+        cursor.x = 9;
+        state.rollbackPendingCursor();
+        assertEquals(5, state.cursor.x);
+        assertNull(state.pendingCursor);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean ? bean : null;
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        for (int warmup = 0; warmup < 20_000; warmup++) {
+            cursor.x = warmup;
+            state.checkpoint(cursor);
+            state.pendingCursor = null;
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int block = 0; block < 100_000; block++) {
+            cursor.x = block;
+            state.checkpoint(cursor);
+            state.pendingCursor = null;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        /*
+         * Une copie par bloc coûterait plusieurs mégaoctets ; la marge ne
+         * couvre que les allocations ponctuelles de la JVM elle-même.
+         */
+        assertTrue(allocated < 4_096L, "octets alloués : " + allocated);
+    }
+
     @Test
     void rejectsModernSessionWithoutValidBase() {
         World world = world();
@@ -0,0 +1,105 @@
+package org.example.mineur;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MiningTelemetryTest {
+
+    @Test
+    void runsOfTheSameTickAreMergedBeforeTheQuantile() {
+        AtomicLong tick = new AtomicLong(1L);
+        AtomicLong clock = new AtomicLong();
+        MiningTelemetry telemetry = new MiningTelemetry(tick::get, clock::get);
+
+        for (int index = 0; index < 99; index++) {
+            // Deux PNJ de la même session dans le même tick.
+            telemetry.recordRun(40_000L);
+            telemetry.recordRun(60_000L);
+            tick.incrementAndGet();
+        }
+        telemetry.recordRun(5_000_000L);
+        tick.incrementAndGet();
+
+        MiningTelemetry.Snapshot snapshot = telemetry.snapshot();
+
+        assertEquals(100L, snapshot.ticks());
+        assertEquals(99L * 100_000L + 5_000_000L, snapshot.tickNanos());
+        assertEquals(149_000L, snapshot.averageTickNanos());
+        assertEquals(100_000L, snapshot.p99TickNanos());
+
+        telemetry.recordRun(6_000_000L);
+        tick.incrementAndGet();
+        assertEquals(5_000_000L, telemetry.snapshot().p99TickNanos());
+    }
+
+    @Test
+    void rateCoversTheLastMinuteOnly() {
+        AtomicLong clock = new AtomicLong();
+        MiningTelemetry telemetry = new MiningTelemetry(() -> 0L, clock::get);
+
+        clock.set(30_000_000_000L);
+        telemetry.recordBlocks(45);
+        assertEquals(90.0D, telemetry.snapshot().blocksPerMinute(), 1.0E-9D);
+
+        clock.set(61_000_000_000L);
+        telemetry.recordBlocks(30);
+        assertEquals(75.0D, telemetry.snapshot().blocksPerMinute(), 1.0E-9D);
+
+        clock.set(120_000_000_000L);
+        MiningTelemetry.Snapshot snapshot = telemetry.snapshot();
+        assertEquals(30.0D, snapshot.blocksPerMinute(), 1.0E-9D);
+        assertEquals(75L, snapshot.blocksBroken());
+    }
+
+    @Test
+    void storageWaitIncludesTheWaitInProgress() {
+        AtomicLong clock = new AtomicLong();
+        MiningTelemetry telemetry = new MiningTelemetry(() -> 0L, clock::get);
+
+        telemetry.setWaitingStorage(true);
+        clock.set(2_000L);
+        telemetry.setWaitingStorage(true);
+        clock.set(3_000L);
+        telemetry.setWaitingStorage(false);
+        clock.set(10_000L);
+        telemetry.setWaitingStorage(true);
+        clock.set(10_500L);
+
+        MiningTelemetry.Snapshot snapshot = telemetry.snapshot();
+        assertEquals(3_500L, snapshot.storageWaitNanos());
+        assertTrue(snapshot.waitingStorage());
+    }
+
+    @Test
+    void exportUsesThePrometheusTextFormat() {
+        AtomicLong clock = new AtomicLong();
+        MiningTelemetry telemetry = new MiningTelemetry(() -> 0L, clock::get);
+        telemetry.recordProtectionDenied();
+        telemetry.recordScanBudgetExhausted();
+        telemetry.recordStripeWait();
+        telemetry.recordStripeWait();
+        UUID session = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID owner = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+        String text = TelemetryExporter.format(List.of(new TelemetryExporter.SessionMetrics(
+                session, owner, MiningPattern.QUARRY, 2, telemetry.snapshot(), 9, 4L, 1L)), 1_500_000L, 3L);
+
+        String labels = "{session=\"" + session + "\",owner=\"" + owner + "\",pattern=\"quarry\"";
+        assertTrue(text.contains("# TYPE mineur_session_tick_seconds summary\n"));
+        assertTrue(text.contains("mineur_scheduler_last_tick_seconds 0.0015\n"));
+        assertTrue(text.contains("mineur_session_protection_denied_total" + labels + "} 1\n"));
+        assertTrue(text.contains("mineur_session_scan_budget_exhausted_total" + labels + "} 1\n"));
+        assertTrue(text.contains("mineur_session_stripe_waits_total" + labels + "} 2\n"));
+        assertTrue(text.contains("mineur_session_chunk_tickets" + labels + "} 9\n"));
+        assertTrue(text.contains("mineur_session_chunk_loads_total" + labels + ",mode=\"blocking\"} 1\n"));
+        assertTrue(text.contains("mineur_session_tick_seconds" + labels + ",quantile=\"0.99\"} 0\n"));
+        assertFalse(text.contains("NaN"));
+    }
+}
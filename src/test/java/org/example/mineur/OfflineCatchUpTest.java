@@ -0,0 +1,57 @@
+package org.example.mineur;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineCatchUpTest {
+
+    @Test
+    void idleTimeIsConvertedAtTheNominalRateAndCapped() {
+        assertEquals(0.2D, MiningLoop.nominalBlocksPerTick(1.0D, null), 1.0E-9D);
+        assertEquals(8.0D, MiningLoop.nominalBlocksPerTick(1.0D,
+                new MiningLoop.BulkSettings(8, 1_000_000L, 4)), 1.0E-9D);
+
+        assertEquals(300L, OfflineCatchUp.budgetFor(60_000L, 0.25D, 1_000L));
+        assertEquals(100L, OfflineCatchUp.budgetFor(60_000L, 0.25D, 100L));
+        assertEquals(0L, OfflineCatchUp.budgetFor(0L, 0.25D, 1_000L));
+        assertEquals(0L, OfflineCatchUp.budgetFor(60_000L, Double.NaN, 1_000L));
+    }
+
+    @Test
+    void planFollowsTheQuarryOrderAndStopsAtTheBudget() {
+        MiningCursor origin = new MiningCursor(new Location(null, 0, 10, 0), 3, 2);
+        QuarryPrescan.BlockTypeLookup lookup = (x, y, z) ->
+                x == 1 && z == 0 ? Material.AIR : Material.STONE;
+
+        OfflineCatchUp.Plan plan = OfflineCatchUp.plan(origin, lookup, 4L, 9, -64, 320);
+
+        assertEquals(4, plan.size());
+        assertArrayEquals(new int[]{0, 10, 0, 2, 10, 0, 0, 10, 1, 1, 10, 1},
+                Arrays.copyOf(plan.positions(), 12));
+        assertEquals(2, plan.end().x);
+        assertEquals(10, plan.end().y);
+        assertEquals(1, plan.end().z);
+        assertFalse(plan.end().exhausted);
+        assertEquals(0, origin.x, "le curseur de la session ne doit pas bouger");
+    }
+
+    @Test
+    void planEndsExhaustedAtTheStopLayer() {
+        MiningCursor origin = new MiningCursor(new Location(null, 0, 10, 0), 3, 2);
+        QuarryPrescan.BlockTypeLookup lookup = (x, y, z) ->
+                x == 1 && z == 0 ? Material.AIR : Material.STONE;
+
+        OfflineCatchUp.Plan plan = OfflineCatchUp.plan(origin, lookup, 100L, 9, -64, 320);
+
+        assertEquals(10, plan.size());
+        assertTrue(plan.end().exhausted);
+    }
+}
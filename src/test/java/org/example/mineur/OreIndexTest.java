@@ -0,0 +1,89 @@
+package org.example.mineur;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OreIndexTest {
+
+    @Test
+    void publishedChunkAnswersWithoutReadingTheWorld() {
+        World world = world();
+        OreIndex index = new OreIndex(null, world, -16, 0, 0, 15, 127, 15);
+
+        assertEquals(OreIndex.UNKNOWN, index.oreAt(-3, 40, 5));
+        assertFalse(index.covers(-16, 0, -1, 15));
+
+        Map<Long, OreIndex.Section> scanned = index.scanChunk(-1, 0, (x, y, z) ->
+                x == 13 && y == 40 && z == 5 ? Material.DIAMOND_ORE : Material.STONE);
+        index.publish(-1, 0, scanned);
+
+        assertEquals(1, scanned.size());
+        assertTrue(index.covers(-16, 0, -1, 15));
+        assertFalse(index.covers(-16, 0, 15, 15));
+        assertEquals(OreIndex.PRESENT, index.oreAt(-3, 40, 5));
+        assertEquals(OreIndex.ABSENT, index.oreAt(-3, 41, 5));
+        assertEquals(OreIndex.UNKNOWN, index.oreAt(3, 40, 5));
+    }
+
+    @Test
+    void forEachOreStaysInsideTheRequestedBox() {
+        World world = world();
+        OreIndex index = new OreIndex(null, world, 0, 0, 0, 15, 127, 15);
+        index.publish(0, 0, index.scanChunk(0, 0, (x, y, z) ->
+                (x == 2 && y == 10 && z == 2) || (x == 9 && y == 70 && z == 9)
+                        ? Material.IRON_ORE
+                        : Material.STONE));
+
+        List<int[]> visited = new ArrayList<>();
+        index.forEachOre(0, 0, 0, 5, 20, 5, (x, y, z) -> visited.add(new int[]{x, y, z}));
+
+        assertEquals(1, visited.size());
+        assertEquals(2, visited.get(0)[0]);
+        assertEquals(10, visited.get(0)[1]);
+        assertEquals(2, visited.get(0)[2]);
+    }
+
+    @Test
+    void markChangedKeepsTheIndexInSyncWithBreaksAndPlacements() {
+        World world = world();
+        OreIndex index = new OreIndex(null, world, 0, 0, 0, 15, 127, 15);
+        index.publish(0, 0, index.scanChunk(0, 0, (x, y, z) ->
+                x == 4 && y == 30 && z == 4 ? Material.GOLD_ORE : Material.STONE));
+
+        index.markChanged(4, 30, 4, Material.AIR);
+        index.markChanged(6, 31, 6, Material.COAL_ORE);
+
+        assertEquals(OreIndex.ABSENT, index.oreAt(4, 30, 4));
+        assertEquals(OreIndex.PRESENT, index.oreAt(6, 31, 6));
+    }
+
+    @Test
+    void closedIndexNoLongerClaimsCoverage() {
+        World world = world();
+        OreIndex index = new OreIndex(null, world, 0, 0, 0, 15, 127, 15);
+        index.publish(0, 0, index.scanChunk(0, 0, (x, y, z) -> Material.STONE));
+
+        index.close();
+
+        assertFalse(index.covers(0, 0, 15, 15));
+        assertEquals(OreIndex.UNKNOWN, index.oreAt(1, 1, 1));
+    }
+
+    private static World world() {
+        World world = mock(World.class);
+        when(world.getMinHeight()).thenReturn(0);
+        when(world.getMaxHeight()).thenReturn(256);
+        return world;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.mineur;
+
+import org.bukkit.util.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtectedContainerIndexTest {
+
+    @Test
+    void rebuildsLazilyFromTheSessionList() {
+        UUID worldId = UUID.randomUUID();
+        MiningSessionState state = session(worldId, new Vector(-17, -60, 33));
+        List<MiningSessionState> sessions = new ArrayList<>();
+        ProtectedContainerIndex index = new ProtectedContainerIndex(() -> sessions);
+
+        assertNull(index.sessionAt(worldId, -17, -60, 33));
+
+        sessions.add(state);
+        index.invalidate();
+
+        assertSame(state, index.sessionAt(worldId, -17, -60, 33));
+        assertTrue(index.mayContain(worldId, -2, 2));
+        assertFalse(index.mayContain(worldId, -1, 2));
+        assertFalse(index.mayContain(UUID.randomUUID(), -2, 2));
+    }
+
+    @Test
+    void incrementalUpdatesKeepTheChunkSetExact() {
+        UUID worldId = UUID.randomUUID();
+        MiningSessionState state = session(worldId, new Vector(0, 64, 0));
+        ProtectedContainerIndex index = new ProtectedContainerIndex(() -> List.of(state));
+        assertEquals(1, index.size());
+
+        index.add(state, worldId, 1, 64, 0);
+        index.remove(state, worldId, 0, 64, 0);
+
+        assertTrue(index.mayContain(worldId, 0, 0));
+        assertSame(state, index.sessionAt(worldId, 1, 64, 0));
+
+        index.remove(state, worldId, 1, 64, 0);
+
+        assertFalse(index.mayContain(worldId, 0, 0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void removalFromAnotherSessionDoesNotDropTheOwner() {
+        UUID worldId = UUID.randomUUID();
+        MiningSessionState owner = session(worldId, new Vector(5, 70, 5));
+        MiningSessionState other = session(worldId);
+        ProtectedContainerIndex index = new ProtectedContainerIndex(() -> List.of(owner, other));
+
+        index.remove(other, worldId, 5, 70, 5);
+
+        assertSame(owner, index.sessionAt(worldId, 5, 70, 5));
+    }
+
+    @Test
+    void packedCoordinatesDoNotCollideAcrossSigns() {
+        assertNotEquals(ProtectedContainerIndex.pack(-1, 64, 0), ProtectedContainerIndex.pack(1, 64, 0));
+        assertNotEquals(ProtectedContainerIndex.pack(0, -64, 0), ProtectedContainerIndex.pack(0, 64, 0));
+        assertNotEquals(ProtectedContainerIndex.chunkKey(-1, 0), ProtectedContainerIndex.chunkKey(0, -1));
+    }
+
+    private static MiningSessionState session(UUID worldId, Vector... containers) {
+        MiningSessionState state = new MiningSessionState();
+        state.worldUid = worldId;
+        state.containers.addAll(List.of(containers));
+        return state;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.mineur;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtectionVerdictCacheTest {
+
+    @Test
+    void verdictIsSharedInsideASectionUntilItExpires() {
+        AtomicLong now = new AtomicLong(1_000L);
+        ProtectionVerdictCache cache = new ProtectionVerdictCache(500L, now::get);
+        UUID session = UUID.randomUUID();
+
+        assertNull(cache.lookup(session, 0, 10, 0, Material.STONE));
+        cache.store(session, 0, 10, 0, Material.STONE, true);
+
+        assertEquals(Boolean.TRUE, cache.lookup(session, 15, 15, 15, Material.STONE));
+        assertNull(cache.lookup(session, 16, 10, 0, Material.STONE));
+        assertNull(cache.lookup(session, 1, 10, 1, Material.DIAMOND_ORE));
+        assertNull(cache.lookup(UUID.randomUUID(), 1, 10, 1, Material.STONE));
+
+        now.addAndGet(500L);
+        assertNull(cache.lookup(session, 1, 10, 1, Material.STONE));
+    }
+
+    @Test
+    void invalidationOnlyForgetsTheGivenSession() {
+        ProtectionVerdictCache cache = new ProtectionVerdictCache(10_000L, () -> 0L);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.store(first, -1, 0, -1, Material.STONE, false);
+        cache.store(second, -1, 0, -1, Material.STONE, true);
+
+        assertEquals(Boolean.FALSE, cache.lookup(first, -5, 3, -5, Material.STONE));
+        assertEquals(1, cache.invalidateSession(first));
+
+        assertNull(cache.lookup(first, -5, 3, -5, Material.STONE));
+        assertEquals(Boolean.TRUE, cache.lookup(second, -5, 3, -5, Material.STONE));
+        assertEquals(1, cache.clear());
+        assertFalse(cache.contains(second, -5, 3, -5, Material.STONE));
+    }
+
+    @Test
+    void upcomingPositionsFollowTheQuarryScanOrder() {
+        MiningCursor cursor = new MiningCursor(new Location(null, 0, 40, 0), 3, 2);
+        List<String> visited = new ArrayList<>();
+
+        ProtectionVerdictCache.forEachUpcoming(cursor, 1, 40, 0, 10,
+                (x, y, z) -> visited.add(x + "," + y + "," + z));
+
+        assertEquals(List.of("2,40,0", "0,40,1", "1,40,1", "2,40,1"), visited);
+        assertTrue(new ProtectionVerdictCache(1L).isEnabled());
+        assertFalse(new ProtectionVerdictCache(0L).isEnabled());
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.mineur;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuarryPrescanTest {
+
+    @Test
+    void scanLayerFollowsTheCursorOrder() {
+        World world = world();
+        MiningCursor cursor = new MiningCursor(new Location(world, 10, 64, 20), 3, 2);
+        QuarryPrescan prescan = new QuarryPrescan(mock(JavaPlugin.class), world, cursor, 2);
+
+        long[] bits = prescan.scanLayer(64, (x, y, z) -> x == 12 && z == 21 ? Material.STONE : Material.AIR);
+
+        int expected = prescan.indexOf(12, 21);
+        assertEquals(expected, QuarryPrescan.nextSetBit(bits, 0));
+        assertEquals(-1, QuarryPrescan.nextSetBit(bits, expected + 1));
+        assertEquals(12, prescan.xAt(expected));
+        assertEquals(21, prescan.zAt(expected));
+    }
+
+    @Test
+    void iteratorSkipsPrescannedAirWithoutReadingBlocks() {
+        World world = world();
+        MiningCursor cursor = new MiningCursor(new Location(world, 0, 64, 0), 4, 4);
+        QuarryPrescan prescan = new QuarryPrescan(mock(JavaPlugin.class), world, cursor, 1);
+        prescan.publishLayer(64, prescan.scanLayer(64,
+                (x, y, z) -> x == 3 && z == 2 ? Material.STONE : Material.AIR));
+
+        Block stone = mock(Block.class);
+        when(stone.getType()).thenReturn(Material.STONE);
+        when(world.getBlockAt(3, 64, 2)).thenReturn(stone);
+
+        QuarryIterator iterator = new QuarryIterator(world, cursor, 64, prescan);
+
+        assertSame(stone, iterator.next());
+        verify(world, never()).getBlockAt(0, 64, 0);
+        verify(world, never()).getBlockAt(2, 64, 2);
+
+        assertNull(iterator.next());
+        assertFalse(iterator.hasNext());
+        assertTrue(cursor.exhausted);
+    }
+
+    @Test
+    void changedBlocksAreVisitedAgain() {
+        World world = world();
+        MiningCursor cursor = new MiningCursor(new Location(world, 0, 64, 0), 2, 2);
+        QuarryPrescan prescan = new QuarryPrescan(mock(JavaPlugin.class), world, cursor, 1);
+        prescan.publishLayer(64, prescan.scanLayer(64, (x, y, z) -> Material.AIR));
+
+        Block placed = mock(Block.class);
+        when(placed.getType()).thenReturn(Material.COBBLESTONE);
+        when(world.getBlockAt(1, 64, 1)).thenReturn(placed);
+        prescan.markChanged(1, 64, 1);
+        prescan.markChanged(50, 64, 50);
+
+        QuarryIterator iterator = new QuarryIterator(world, cursor, 64, prescan);
+
+        assertSame(placed, iterator.next());
+        verify(world, never()).getBlockAt(anyInt(), anyInt(), org.mockito.ArgumentMatchers.eq(0));
+    }
+
+    @Test
+    void onlyChangedChunksAreCopiedAgain() {
+        World world = world();
+        Chunk first = loadedChunk(world, 0, 0);
+        Chunk second = loadedChunk(world, 1, 0);
+        MiningCursor cursor = new MiningCursor(new Location(world, 0, 64, 0), 32, 16);
+        QuarryPrescan prescan = new QuarryPrescan(mock(JavaPlugin.class), world, cursor, 1);
+
+        ChunkSnapshot[] initial = prescan.currentSnapshots();
+        assertSame(initial, prescan.currentSnapshots(), "rien n'a changé : aucune copie");
+
+        prescan.markChanged(20, 64, 3);
+        ChunkSnapshot[] refreshed = prescan.currentSnapshots();
+
+        assertNotSame(initial, refreshed, "la copie confiée à une analyse reste intacte");
+        assertSame(initial[0], refreshed[0]);
+        verify(first, times(1)).getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean());
+        verify(second, times(2)).getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean());
+    }
+
+    private static Chunk loadedChunk(World world, int chunkX, int chunkZ) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean()))
+                .thenAnswer(invocation -> mock(ChunkSnapshot.class));
+        when(world.isChunkLoaded(chunkX, chunkZ)).thenReturn(true);
+        when(world.getChunkAt(chunkX, chunkZ)).thenReturn(chunk);
+        return chunk;
+    }
+
+    private static World world() {
+        World world = mock(World.class);
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+        return world;
+    }
+}
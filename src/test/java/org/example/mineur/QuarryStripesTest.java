@@ -0,0 +1,157 @@
+package org.example.mineur;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class QuarryStripesTest {
+
+    @Test
+    void rectangleIsCutAlongItsLongestSide() {
+        MiningCursor whole = new MiningCursor(new Location(null, 10, 60, -5), 11, 4);
+        whole.y = 52;
+
+        List<MiningStripe> stripes = QuarryStripes.split(whole, 3);
+
+        assertEquals(3, stripes.size());
+        assertEquals(10, stripes.get(0).cursor.minX);
+        assertEquals(4, stripes.get(0).cursor.width);
+        assertEquals(14, stripes.get(1).cursor.minX);
+        assertEquals(4, stripes.get(1).cursor.width);
+        assertEquals(18, stripes.get(2).cursor.minX);
+        assertEquals(3, stripes.get(2).cursor.width);
+        for (MiningStripe stripe : stripes) {
+            assertEquals(-5, stripe.cursor.minZ);
+            assertEquals(4, stripe.cursor.length);
+            assertEquals(52, stripe.cursor.y);
+            assertEquals(stripe.cursor.minX, stripe.cursor.x);
+        }
+
+        MiningCursor tall = new MiningCursor(new Location(null, 0, 60, 0), 3, 9);
+        List<MiningStripe> rows = QuarryStripes.split(tall, 2);
+        assertEquals(5, rows.get(0).cursor.length);
+        assertEquals(5, rows.get(1).cursor.minZ);
+        assertEquals(3, rows.get(1).cursor.width);
+
+        assertEquals(2, QuarryStripes.maxStripes(whole, 4));
+        assertEquals(1, QuarryStripes.maxStripes(new MiningCursor(new Location(null, 0, 0, 0), 3, 3), 4));
+    }
+
+    @Test
+    void persistedStripesAreKeptOnlyWhileTheyMatchTheEnvelope() {
+        MiningCursor whole = new MiningCursor(new Location(null, 0, 60, 0), 8, 8);
+        List<MiningStripe> stripes = QuarryStripes.split(whole, 2);
+        stripes.get(0).cursor.y = 59;
+
+        assertTrue(QuarryStripes.matches(stripes, whole, 2));
+        assertFalse(QuarryStripes.matches(stripes, whole, 3));
+
+        // Le rattrapage hors ligne a fait descendre l'enveloppe sous la bande.
+        whole.y = 55;
+        assertFalse(QuarryStripes.matches(stripes, whole, 2));
+    }
+
+    @Test
+    void fastStripeWaitsForTheSlowestLayer() {
+        MiningCursor whole = new MiningCursor(new Location(null, 0, 60, 0), 8, 4);
+        List<MiningStripe> stripes = QuarryStripes.split(whole, 2);
+        QuarryStripes coordinator = new QuarryStripes(stripes, 50);
+        Block block = mock(Block.class);
+        MiningStripe fast = stripes.get(1);
+        MiningIterator gated = coordinator.gate(new FixedIterator(fast.cursor, block), fast);
+
+        fast.cursor.y = 59;
+        assertSame(block, gated.next());
+        assertFalse(gated.isWaiting());
+        fast.cursor.y = 58;
+        assertNull(gated.next(), "deux couches d'avance : la bande attend");
+        assertTrue(gated.isWaiting(), "l'attente n'est pas un budget de scan épuisé");
+        assertSame(fast.cursor, gated.cursor());
+
+        stripes.get(0).cursor.y = 59;
+        assertSame(block, gated.next());
+        assertFalse(gated.isWaiting());
+        assertEquals(59, coordinator.slowestLayer());
+
+        coordinator.publishEnvelope(whole);
+        assertEquals(59, whole.y);
+        assertFalse(whole.exhausted);
+    }
+
+    @Test
+    void stripeWithASelectedBlockIsNotFinished() {
+        MiningCursor whole = new MiningCursor(new Location(null, 0, 60, 0), 8, 4);
+        List<MiningStripe> stripes = QuarryStripes.split(whole, 2);
+        QuarryStripes coordinator = new QuarryStripes(stripes, 50);
+        for (MiningStripe stripe : stripes) {
+            stripe.cursor.y = 50;
+            stripe.cursor.exhausted = true;
+        }
+        MiningCursor selected = stripes.get(0).cursor.copy();
+        selected.exhausted = false;
+        stripes.get(0).checkpoint(selected);
+
+        assertFalse(coordinator.isFinished());
+        assertEquals(50, coordinator.slowestLayer());
+
+        stripes.get(0).pendingCursor = null;
+        assertTrue(coordinator.isFinished());
+        coordinator.publishEnvelope(whole);
+        assertTrue(whole.exhausted);
+        assertEquals(50, whole.y);
+    }
+
+    @Test
+    void stripeRoundTripsThroughItsMap() {
+        MiningStripe stripe = QuarryStripes.split(
+                new MiningCursor(new Location(null, 0, 60, 0), 8, 4), 2).get(1);
+        stripe.cursor.x = 6;
+        stripe.checkpoint(stripe.cursor);
+        stripe.cursor.x = 7;
+
+        MiningStripe restored = MiningStripe.fromMap(stripe.toMap());
+
+        assertNotNull(restored);
+        assertEquals(7, restored.cursor.x);
+        restored.rollbackPendingCursor();
+        assertEquals(6, restored.cursor.x);
+        assertNull(restored.pendingCursor);
+        assertNull(MiningStripe.fromMap(Map.of()));
+    }
+
+    private static final class FixedIterator implements MiningIterator {
+        private final MiningCursor cursor;
+        private final Block block;
+
+        private FixedIterator(MiningCursor cursor, Block block) {
+            this.cursor = cursor;
+            this.block = block;
+        }
+
+        @Override
+        public Block next() {
+            return block;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public MiningCursor cursor() {
+            return cursor;
+        }
+    }
+}
@@ -193,4 +193,59 @@ class SessionStoreTest {
         }
     }
 
+    @Test
+    void replaysJournaledCheckpointsAfterAnUnsavedStop() throws IOException {
+        File folder = Files.createTempDirectory("mineur-store-journal-test").toFile();
+        folder.deleteOnExit();
+
+        UUID worldUid = UUID.randomUUID();
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(worldUid);
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+
+        MiningSessionState state = new MiningSessionState();
+        state.worldUid = worldUid;
+        state.base = new Location(world, 10, 64, 12);
+        state.width = 5;
+        state.length = 4;
+        state.cursor = new MiningCursor(state.base, state.width, state.length);
+        state.owner = UUID.randomUUID();
+        state.containers.add(new Vector(8, 64, 9));
+
+        SessionStore store = new SessionStore(folder, Logger.getAnonymousLogger());
+        store.saveAll(List.of(state));
+
+        state.cursor.x = 13;
+        state.cursor.y = 61;
+        state.paused = true;
+        state.containers.clear();
+        state.containers.add(new Vector(8, 65, 9));
+        store.checkpoint(List.of(state), Long.MAX_VALUE);
+        store.close();
+
+        /*
+         * Une fin d'enregistrement déchirée par un crash ne doit ni bloquer le
+         * chargement ni masquer les enregistrements complets qui la précèdent.
+         */
+        Files.write(new File(folder, "sessions.journal").toPath(),
+                new byte[]{0, 0, 0, 40, 1, 2},
+                java.nio.file.StandardOpenOption.APPEND);
+
+        try (MockedStatic<Bukkit> mocked = org.mockito.Mockito.mockStatic(Bukkit.class)) {
+            mocked.when(() -> Bukkit.getWorld(worldUid)).thenReturn(world);
+
+            SessionStore reloaded = new SessionStore(folder, Logger.getAnonymousLogger());
+            List<MiningSessionState> loaded = reloaded.load();
+            reloaded.close();
+
+            assertEquals(1, loaded.size());
+            MiningSessionState restored = loaded.get(0);
+            assertEquals(13, restored.cursor.x);
+            assertEquals(61, restored.cursor.y);
+            assertTrue(restored.paused);
+            assertEquals(1, restored.containers.size());
+            assertEquals(65, restored.containers.get(0).getBlockY());
+        }
+    }
 }
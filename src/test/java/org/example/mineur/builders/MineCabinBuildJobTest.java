@@ -0,0 +1,257 @@
+package org.example.mineur.builders;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.example.mineur.builders.MineCabinBuilder.BlockPos;
+import org.example.mineur.builders.MineCabinBuilder.BuildJob;
+import org.example.mineur.builders.MineCabinBuilder.Plan;
+import org.example.mineur.builders.MineCabinBuilder.Settings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MineCabinBuildJobTest {
+
+    private static final Settings DEFAULTS = new Settings(5, 15, 17, 5, 16, 6, 12_000);
+
+    @Test
+    void missingFoundationEndsTheJobOnceWithoutWriting() {
+        Block air = mock(Block.class);
+        when(air.getType()).thenReturn(Material.AIR);
+        World world = airWorld(air);
+        Plan plan = MineCabinBuilder.createPlan(0, 64, 0, 9, 9, DEFAULTS);
+        List<BuildJob> finished = new ArrayList<>();
+
+        BuildJob job = new MineCabinBuilder(mockPlugin())
+                .startBuild(world, plan, null, false, 1L, finished::add);
+        assertEquals(BuildJob.Stage.FOUNDATIONS, job.stage());
+        assertEquals(0.0D, job.progress(), 1.0E-9D);
+
+        // Aucun sol sous le premier pilier : l'échec survient sans rien écrire.
+        for (int tick = 0; tick < 10 && !job.isDone(); tick++) {
+            job.run();
+        }
+
+        assertTrue(job.isDone());
+        assertTrue(job.isCancelled(), "le planificateur doit oublier la tâche");
+        assertEquals(BuildJob.Stage.FAILED, job.stage());
+        assertNull(job.result());
+        assertTrue(job.failure().getMessage().startsWith("Aucun sol stable"));
+        assertEquals(List.of(job), finished);
+        verify(air, never()).setType(any(Material.class), anyBoolean());
+
+        job.cancel();
+        job.run();
+        assertEquals(BuildJob.Stage.FAILED, job.stage());
+        assertEquals(1, finished.size());
+    }
+
+    @Test
+    void cancellationBeforeTheFirstSliceLeavesTheWorldUntouched() {
+        Block air = mock(Block.class);
+        when(air.getType()).thenReturn(Material.AIR);
+        Plan plan = MineCabinBuilder.createPlan(0, 64, 0, 9, 9, DEFAULTS);
+        List<BuildJob> finished = new ArrayList<>();
+        BuildJob job = new MineCabinBuilder(mockPlugin())
+                .startBuild(airWorld(air), plan, null, false, 1L, finished::add);
+
+        job.cancel();
+
+        assertEquals(BuildJob.Stage.CANCELLED, job.stage());
+        assertFalse(job.failure().getMessage().isEmpty());
+        assertSame(job, finished.get(0));
+        verify(air, never()).setType(any(Material.class), anyBoolean());
+    }
+
+    @Test
+    void synchronousBuildStillThrowsTheFailure() {
+        Block air = mock(Block.class);
+        when(air.getType()).thenReturn(Material.AIR);
+        Plan plan = MineCabinBuilder.createPlan(0, 64, 0, 9, 9, DEFAULTS);
+        MineCabinBuilder builder = new MineCabinBuilder(mockPlugin());
+
+        assertThrows(IllegalStateException.class, () -> builder.build(airWorld(air), plan, null, false));
+        assertThrows(IllegalStateException.class,
+                () -> builder.startBuild(airWorld(air), plan, null, true, 1L, null),
+                "les événements de protection exigent un propriétaire connecté");
+    }
+
+    @Test
+    void cancellationMidBuildRestoresExactlyWhatWasWrittenInReverse() {
+        RecordingWorld recording = new RecordingWorld();
+        Plan plan = MineCabinBuilder.createPlan(0, 64, 0, 9, 9, DEFAULTS);
+        BuildJob job = new MineCabinBuilder(mockPlugin())
+                .startBuild(recording.world, plan, null, false, 1L, null);
+
+        // Une tranche d'une nanoseconde n'avance que d'une unité par exécution.
+        for (int run = 0; run < 50_000 && recording.placedCount() < 10; run++) {
+            job.run();
+        }
+        assertEquals(BuildJob.Stage.PLACEMENT, job.stage());
+        assertTrue(recording.writtenTypes.contains(Material.AIR), "l'herbe du dégagement a été retirée");
+
+        job.cancel();
+
+        assertEquals(BuildJob.Stage.CANCELLED, job.stage());
+        assertNull(job.result());
+        recording.assertRestoredInReverse();
+    }
+
+    @Test
+    void placementOccupiedMidBuildFailsAndRollsBack() {
+        RecordingWorld recording = new RecordingWorld();
+        Plan plan = MineCabinBuilder.createPlan(0, 64, 0, 9, 9, DEFAULTS);
+        List<BuildJob> finished = new ArrayList<>();
+        BuildJob job = new MineCabinBuilder(mockPlugin())
+                .startBuild(recording.world, plan, null, false, 1L, finished::add);
+
+        for (int run = 0; run < 50_000 && recording.placedCount() < 1; run++) {
+            job.run();
+        }
+        assertEquals(BuildJob.Stage.PLACEMENT, job.stage());
+
+        // Un joueur pose un bloc sur un coffre que la construction n'a pas encore atteint.
+        BlockPos occupied = plan.chestPositions().stream()
+                .filter(position -> !recording.writes.contains(position))
+                .findFirst()
+                .orElseThrow();
+        recording.playerPlaces(occupied, Material.COBBLESTONE);
+
+        for (int run = 0; run < 50_000 && !job.isDone(); run++) {
+            job.run();
+        }
+
+        assertEquals(BuildJob.Stage.FAILED, job.stage());
+        assertTrue(job.failure().getMessage().startsWith("L'emplacement a été occupé"));
+        assertEquals(List.of(job), finished);
+        assertFalse(recording.writes.contains(occupied));
+        recording.assertRestoredInReverse();
+        assertEquals(Material.COBBLESTONE, recording.typeAt(occupied));
+    }
+
+    /**
+     * Monde en mémoire : pierre jusqu'en Y 62, herbe en Y 66, air ailleurs.
+     * Chaque écriture de la construction et chaque restauration sont notées.
+     */
+    private static final class RecordingWorld {
+        private static final int GROUND_TOP_Y = 62;
+        private static final int GRASS_Y = 66;
+
+        final World world = mock(World.class);
+        final Map<BlockPos, Material> changed = new HashMap<>();
+        final Map<BlockPos, Material> playerChanges = new HashMap<>();
+        final List<BlockPos> writes = new ArrayList<>();
+        final List<Material> writtenTypes = new ArrayList<>();
+        final List<BlockPos> restores = new ArrayList<>();
+
+        RecordingWorld() {
+            when(world.getMinHeight()).thenReturn(-64);
+            when(world.getMaxHeight()).thenReturn(320);
+            when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+            when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> block(new BlockPos(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2))));
+        }
+
+        Material typeAt(BlockPos position) {
+            return changed.getOrDefault(position, initialType(position));
+        }
+
+        void playerPlaces(BlockPos position, Material material) {
+            changed.put(position, material);
+            playerChanges.put(position, material);
+        }
+
+        long placedCount() {
+            return writtenTypes.stream().filter(material -> !material.isAir()).count();
+        }
+
+        void assertRestoredInReverse() {
+            assertFalse(writes.isEmpty());
+            List<BlockPos> expected = new ArrayList<>(writes);
+            Collections.reverse(expected);
+            assertEquals(expected, restores);
+            for (BlockPos position : changed.keySet()) {
+                Material expectedType = playerChanges.getOrDefault(position, initialType(position));
+                assertEquals(expectedType, typeAt(position), "bloc non restauré en " + position);
+            }
+        }
+
+        private Material initialType(BlockPos position) {
+            if (position.y() <= GROUND_TOP_Y) {
+                return Material.STONE;
+            }
+            return position.y() == GRASS_Y ? Material.SHORT_GRASS : Material.AIR;
+        }
+
+        private Block block(BlockPos position) {
+            Block block = mock(Block.class);
+            when(block.getWorld()).thenReturn(world);
+            when(block.getX()).thenReturn(position.x());
+            when(block.getY()).thenReturn(position.y());
+            when(block.getZ()).thenReturn(position.z());
+            when(block.getType()).thenAnswer(invocation -> typeAt(position));
+            when(block.getBlockData()).thenAnswer(invocation -> mock(BlockData.class));
+            when(block.getState()).thenAnswer(invocation -> snapshot(position, block));
+            doAnswer(invocation -> {
+                Material material = invocation.getArgument(0);
+                changed.put(position, material);
+                writes.add(position);
+                writtenTypes.add(material);
+                return null;
+            }).when(block).setType(any(Material.class), anyBoolean());
+            return block;
+        }
+
+        private BlockState snapshot(BlockPos position, Block block) {
+            Material captured = typeAt(position);
+            BlockState state = mock(BlockState.class);
+            when(state.getType()).thenReturn(captured);
+            when(state.getBlock()).thenReturn(block);
+            when(state.update(true, false)).thenAnswer(invocation -> {
+                changed.put(position, captured);
+                restores.add(position);
+                return true;
+            });
+            return state;
+        }
+    }
+
+    private static World airWorld(Block air) {
+        World world = mock(World.class);
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        return world;
+    }
+
+    private static JavaPlugin mockPlugin() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("MineCabinBuildJobTest"));
+        return plugin;
+    }
+}
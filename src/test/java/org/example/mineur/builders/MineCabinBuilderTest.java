@@ -12,7 +12,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -341,6 +343,35 @@ class MineCabinBuilderTest {
         );
     }
 
+    @Test
+    void packedPlanKeepsEveryPositionNearTheWorldBorder() {
+        Plan plan = MineCabinBuilder.createPlan(-29_999_950, -60, 29_999_900, 12, 9, DEFAULTS);
+
+        Set<BlockPos> distinct = new HashSet<>();
+        for (BlockPos position : plan.placedPositions()) {
+            assertTrue(distinct.add(position));
+            assertTrue(plan.bounds().contains(position));
+            assertTrue(plan.placedPositions().contains(position));
+            assertNotNull(plan.materialAt(position));
+            assertEquals(plan.materialAt(position),
+                    plan.materialAt(position.x(), position.y(), position.z()));
+            assertEquals(plan.facingAt(position),
+                    plan.facingAt(position.x(), position.y(), position.z()));
+        }
+        assertEquals(plan.placedBlockCount(), distinct.size());
+        assertEquals(plan.placedBlockCount(), plan.placedPositions().size());
+
+        BlockPos below = new BlockPos(plan.cabinMinX(), plan.bounds().minY() - 1, plan.cabinMinZ());
+        assertFalse(plan.placedPositions().contains(below));
+        assertNull(plan.materialAt(Integer.MAX_VALUE, 0, 0));
+        assertNull(plan.facingAt(0, Integer.MIN_VALUE, 0));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> MineCabinBuilder.createPlan(40_000_000, 64, 0, 9, 9, DEFAULTS)
+        );
+    }
+
 
     private int countMaterial(Plan plan, Material material) {
         return (int) plan.placedPositions().stream()
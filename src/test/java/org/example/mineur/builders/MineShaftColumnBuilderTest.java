@@ -19,6 +19,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MineShaftColumnBuilderTest {
@@ -202,6 +204,63 @@ class MineShaftColumnBuilderTest {
         assertEquals(2, placements.size());
     }
 
+    @Test
+    void compiledLayoutAnswersWithoutReadingUnrelatedBlocks() {
+        for (MineShaftColumnBuilder.Layout layout : List.of(
+                MineShaftColumnBuilder.createLayout(0, 0, 5, 5),
+                MineShaftColumnBuilder.createLayout(8, 12, 1, 4))) {
+            MineShaftColumnBuilder.CompiledLayout compiled = MineShaftColumnBuilder.compile(layout, 64, 5);
+            for (int x = layout.mineMinX() - 3; x <= layout.mineMaxX() + 3; x++) {
+                for (int z = layout.mineMinZ() - 3; z <= layout.mineMaxZ() + 3; z++) {
+                    assertEquals(layout.isRelevantHorizontal(x, z), compiled.isRelevantHorizontal(x, z));
+                }
+            }
+            for (int y = 40; y <= 70; y++) {
+                assertEquals(MineShaftColumnBuilder.isLightLevel(64, y, 5), compiled.isLightLevel(y));
+            }
+        }
+
+        MineShaftColumnBuilder.Layout layout = MineShaftColumnBuilder.createLayout(0, 0, 5, 5);
+        MineShaftColumnBuilder.CompiledLayout compiled = MineShaftColumnBuilder.compile(layout, 64, 5);
+        assertTrue(compiled.isManagedBlock(block(layout.ladderX(), 60, layout.ladderZ(), Material.LADDER)));
+        assertTrue(compiled.isManagedBlock(block(layout.supportX(), 59, layout.supportZ(), Material.SHROOMLIGHT)));
+        assertTrue(compiled.isManagedBlock(block(layout.lightX(), 60, layout.lightZ(), Material.STRIPPED_SPRUCE_LOG)));
+        assertFalse(compiled.isManagedBlock(block(layout.ladderX(), 60, layout.ladderZ(), Material.STONE)));
+        assertFalse(compiled.isManagedBlock(block(layout.ladderX(), 65, layout.ladderZ(), Material.LADDER)));
+
+        Block rock = block(layout.mineMinX(), 60, layout.mineMinZ(), Material.LADDER);
+        assertFalse(compiled.isManagedBlock(rock));
+        verify(rock, never()).getType();
+        assertFalse(MineShaftColumnBuilder.compile(layout, 64, 5)
+                .isRelevantHorizontal(Integer.MIN_VALUE, layout.supportZ()));
+    }
+
+    @Test
+    void repairOnlyRevisitsLayersMissingAPiece() {
+        MineShaftColumnBuilder.Layout layout =
+                MineShaftColumnBuilder.createLayout(0, 0, 5, 5);
+        MineShaftColumnBuilder.CompiledLayout compiled = MineShaftColumnBuilder.compile(layout, 64, 5);
+        FakeBlocks fake = new FakeBlocks();
+        List<PlacedBlock> placements = new ArrayList<>();
+        MineShaftColumnBuilder.maintainRange(fake.world(), layout, 64, 50, 5, fake.handler(placements));
+        placements.clear();
+
+        fake.set(layout.ladderX(), 57, layout.ladderZ(), Material.AIR);
+        fake.set(layout.lightX(), 54, layout.lightZ(), Material.AIR);
+
+        int repaired = MineShaftColumnBuilder.repairRange(
+                fake.world(), compiled, 50, fake::typeAt, fake.handler(placements));
+
+        assertEquals(2, repaired);
+        assertEquals(
+                List.of(
+                        new PlacedBlock(new Coordinate(layout.ladderX(), 57, layout.ladderZ()), Material.LADDER),
+                        new PlacedBlock(new Coordinate(layout.lightX(), 54, layout.lightZ()), Material.LANTERN)
+                ),
+                placements
+        );
+    }
+
     @Test
     void rejectsInvalidOrOverflowingDimensions() {
         assertThrows(
@@ -219,6 +278,15 @@ class MineShaftColumnBuilderTest {
         );
     }
 
+    private static Block block(int x, int y, int z, Material material) {
+        Block block = mock(Block.class);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        when(block.getType()).thenReturn(material);
+        return block;
+    }
+
     private record Coordinate(int x, int y, int z) {
     }
 
@@ -0,0 +1,104 @@
+package org.example.mineur.ui;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HologramTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void oneDisplayIsReusedAndOnlyNewTextIsSent() {
+        World world = mock(World.class);
+        Location anchor = new Location(world, 0.5D, 64.0D, 0.5D);
+        Player viewer = mock(Player.class);
+        when(viewer.getLocation()).thenReturn(new Location(world, 10.0D, 64.0D, 0.0D));
+        when(world.getPlayers()).thenReturn(List.of(viewer));
+        TextDisplay display = mock(TextDisplay.class);
+        when(display.isValid()).thenReturn(true);
+        when(display.getWorld()).thenReturn(world);
+        when(display.getLocation()).thenReturn(anchor.clone().add(0.0D, 2.3D, 0.0D));
+        when(world.spawn(any(Location.class), eq(TextDisplay.class), any(Consumer.class))).thenAnswer(invocation -> {
+            ((Consumer<TextDisplay>) invocation.getArgument(2)).accept(display);
+            return display;
+        });
+
+        Hologram hologram = new Hologram(32.0D);
+        hologram.setStatus("Stockage indisponible");
+        hologram.update(anchor);
+        hologram.update(anchor);
+        hologram.setStatus("Stockage plein");
+        hologram.update(anchor);
+
+        verify(world, times(1)).spawn(any(Location.class), eq(TextDisplay.class), any(Consumer.class));
+        verify(display, times(1)).setText("Stockage indisponible");
+        verify(display, times(1)).setText("Stockage plein");
+        verify(display, never()).teleport(any(Location.class));
+        assertTrue(hologram.isShown());
+
+        hologram.setStatus(null);
+        hologram.update(anchor);
+        verify(display).remove();
+        assertFalse(hologram.isShown());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nothingIsSpawnedWithoutAViewerInRange() {
+        World world = mock(World.class);
+        Player far = mock(Player.class);
+        when(far.getLocation()).thenReturn(new Location(world, 500.0D, 64.0D, 0.0D));
+        when(world.getPlayers()).thenReturn(List.of(far));
+
+        Hologram hologram = new Hologram(32.0D);
+        hologram.setStatus("Stockage indisponible");
+        hologram.update(new Location(world, 0.0D, 64.0D, 0.0D));
+
+        verify(world, never()).spawn(any(Location.class), eq(TextDisplay.class), any(Consumer.class));
+        assertFalse(hologram.isShown());
+    }
+
+    @Test
+    void progressIsAcceptedAtMostOncePerSecond() {
+        AtomicLong clock = new AtomicLong();
+        Hologram hologram = new Hologram(32.0D, clock::get);
+
+        assertTrue(hologram.setProgress("Y 60"));
+        clock.set(Hologram.PROGRESS_INTERVAL_NANOS - 1L);
+        assertFalse(hologram.setProgress("Y 59"));
+        clock.set(Hologram.PROGRESS_INTERVAL_NANOS);
+        assertTrue(hologram.setProgress("Y 58"));
+        assertTrue(hologram.setProgress(null), "l'effacement n'attend pas");
+    }
+
+    @Test
+    void timerRefreshesAreNeverDroppedAfterALagSpike() {
+        AtomicLong clock = new AtomicLong();
+        Hologram hologram = new Hologram(32.0D, clock::get);
+
+        hologram.showProgress("Y 60");
+        // Ticks de rattrapage : le minuteur repasse bien avant la seconde.
+        clock.set(Hologram.PROGRESS_INTERVAL_NANOS / 4L);
+        hologram.showProgress("Y 59");
+
+        assertEquals("Y 59", hologram.progress());
+        assertFalse(hologram.setProgress("Y 58"), "les autres appels restent limités");
+    }
+}